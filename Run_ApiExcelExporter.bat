@@ -1,5 +1,5 @@
 @echo off
-:: [v11.5] ApiExcelExporter 통합 실행 배치 (Portable Tools & Memory 최적화)
+:: [v13.35] ApiExcelExporter 통합 실행 배치 (Portable Tools & Memory 최적화)
 chcp 65001
 cls
 
@@ -19,13 +19,38 @@ set CLASSPATH=%PROJECT_ROOT%\target\classes;%PROJECT_ROOT%\lib\*
 set JAVA_OPTS=-Xms4g -Xmx8g -XX:+UseG1GC -XX:+HeapDumpOnOutOfMemoryError
 
 echo ===============================================================
-echo  [RUN] ApiExcelExporter v11.5 실행 (Office: i9-13900)
+echo  [RUN] ApiExcelExporter v13.35 실행 (Office: i9-13900)
 echo  [TOOL] Java Path: %JAVA_BIN%
 echo  [TOOL] Git Path: %GIT_BIN%
 echo  [MEM] JVM Heap: Initial 4GB / Max 8GB
 echo ===============================================================
 
-%JAVA_BIN% %JAVA_OPTS% -Dfile.encoding=UTF-8 -cp "%CLASSPATH%" com.baek.ApiExcelExporter
+:: [실행] 통합 실행 jar(mvn -P launcher package)가 있으면 jar + AppCDS 아카이브로 실행하여 POI/Jackson/JavaParser 로딩 시간 단축
+::        아카이브는 tools\jdk로 최초 1회 학습 실행(cds-train)하여 생성 (JDK 교체 시 tools\cds 폴더 삭제, jar 재빌드 시 자동 삭제)
+:: [CDS] -XX:ArchiveClassesAtExit는 JDK 13 이상에서만 지원 : tools\jdk 버전이 그 미만(JDK 11 등)이면 아카이브 없이 jar로 실행
+set LAUNCHER_JAR=target\ApiExcelExporter-launcher.jar
+set CDS_FILE=%TOOL_DIR%\cds\ApiExcelExporter.jsa
+set JAVA_VER=
+set JAVA_MAJOR=0
+for /f "tokens=3" %%v in ('%JAVA_BIN% -version 2^>^&1 ^| findstr /i version') do set JAVA_VER=%%~v
+if defined JAVA_VER for /f "delims=.-+" %%m in ("%JAVA_VER%") do set JAVA_MAJOR=%%m
+set CDS_SUPPORTED=N
+if %JAVA_MAJOR% GEQ 13 set CDS_SUPPORTED=Y
+if exist "%LAUNCHER_JAR%" (
+    if "%CDS_SUPPORTED%"=="Y" (
+        if not exist "%CDS_FILE%" (
+            echo  [CDS] 클래스 아카이브 최초 생성 중...
+            if not exist "%TOOL_DIR%\cds" mkdir "%TOOL_DIR%\cds"
+            %JAVA_BIN% -XX:ArchiveClassesAtExit="%CDS_FILE%" -Xlog:cds=error -Dfile.encoding=UTF-8 -jar "%LAUNCHER_JAR%" cds-train
+        )
+        %JAVA_BIN% %JAVA_OPTS% -XX:SharedArchiveFile="%CDS_FILE%" -Dfile.encoding=UTF-8 -jar "%LAUNCHER_JAR%" api %*
+    ) else (
+        echo  [CDS] Java %JAVA_VER% : 클래스 아카이브는 JDK 13 이상에서만 지원되어 아카이브 없이 실행
+        %JAVA_BIN% %JAVA_OPTS% -Dfile.encoding=UTF-8 -jar "%LAUNCHER_JAR%" api %*
+    )
+) else (
+    %JAVA_BIN% %JAVA_OPTS% -Dfile.encoding=UTF-8 -cp "%CLASSPATH%" ApiExcelExporter %*
+)
 
 echo.
 echo 작업이 완료되었습니다. 로그를 확인하세요.
@@ -1,35 +1,30 @@
-import com.github.javaparser.StaticJavaParser;
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
-import com.github.javaparser.ast.expr.*;
-import com.github.javaparser.ast.comments.Comment;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellRangeAddressList;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.*;
-import java.util.stream.Collectors;
 
 /**
  * 프로젝트명: ApiExcelExporter (Bitbucket 관리형)
- * Version: 13.17 (@Operation 어노테이션 통합 지원)
+ * Version: 13.37 (인코딩 자동 판별)
  * 반영사항:
- * 1. [기능 고도화] Swagger 3.x 규격인 @Operation(summary="...") 추출 로직 추가 [cite: 2026-03-20]
- * 2. [우선순위 적용] @ApiOperation(value)를 최우선으로 찾고, 없을 경우 @Operation(summary)를 찾아 ApiOperation 컬럼에 매핑 [cite: 2026-03-20]
- * 3. [기능 유지] Text Block(""") Regex 폴백 시 컨트롤러/메소드 상수 치환 로직 완벽 보존 [cite: 2026-03-20]
- * 4. [기능 유지] PATH_CONSTANTS 상수 치환, API_PATH_PREFIX 일괄 추가 로직 완벽 보존 [cite: 2026-03-12]
- * 5. [성능/유지] i9-13900 병렬 분석, 상세 추적 로깅([Analyze], [Skip]), 엑셀 레이아웃 및 상세 주석 전수 보존 [cite: 2026-02-05, 2026-02-23]
+ * 1. [인코딩] 컨트롤러 / 상수 / 타입 인덱스 소스를 1회 읽어 문자셋 자동 판별(BOM → UTF-8 유효성 → SOURCE_FALLBACK_CHARSET, 기본 MS949) : MS949/EUC-KR 레거시 컨트롤러도 JavaParser로 바로 분석하고 Regex 폴백은 같은 디코딩 결과를 재사용, 큰 파일(SOURCE_MMAP_KB 이상)은 메모리 매핑으로 읽음 [cite: 2026-10-18]
+ * 2. [재진입] 컨트롤러 분석을 인스턴스 엔진(ApiExtractor, 불변 Config)으로, APM 수집을 수집기 인스턴스(WhatapApiCounter / JenniferApiCounter → ApmStats 결과 객체)로 분리 : 정적 설정·진행 건수·인덱스·통계 Map 없이 한 JVM에서 여러 분석 동시 실행, ApiExtractor.apis()로 지연 평가 Stream<ApiInfo> 제공 [cite: 2026-10-18]
+ * 3. [안정성] 컨트롤러별 git 이력 / 소스 읽기 / JavaParser / Regex 폴백 단계에 제한 시간(StepWatchdog, WATCHDOG_*_SEC) 적용 : 초과 시 git은 강제 종료, 파싱은 결과를 버리고 다음 단계로 진행하며, 초과 컨트롤러는 병렬 분석 후 전용 스레드에서 1회 재시도하고 [TIMEOUTS] 로그로 집계 [cite: 2026-10-18]
+ * 4. [연계] EXPORT_FORMAT(csv/jsonl) 지정 시 인벤토리 행을 엑셀 작성과 같은 순회에서 gzip CSV/JSON Lines(TidyExporter)로 함께 기록하여 BI가 xlsx를 다시 열지 않도록 함 [cite: 2026-10-18]
+ * 5. [메모리] STATS_MODE=approx 수집 시 상위 표에 없는 API는 Bloom 필터(미수집 0건 확정)와 Count-Min 추정치로 호출건수 조회 (원래 경로 → 템플릿 경로) [cite: 2026-10-18]
+ * 6. [조인] APM 호출건수 조회 시 원래 경로가 없으면 {변수} 세그먼트를 APM 경로 정규화 자리표시자로 바꾼 경로로 재조회 (ID가 치환된 APM 수집 키와 매칭) [cite: 2026-10-18]
+ * 7. [재진입] 남은 전역 상태 제거 : 문자열·커밋 풀과 상수 / 타입 보관소는 실행 단위 엔진 컨텍스트(ApiExtractor.Context, 리비전 간 공유)로, 제한 시간 / 문자셋 판별 설정은 ApiExtractor.Config로 이동 (전역 StringPool.clear() 제거) [cite: 2026-10-19]
  */
 public class ApiExcelExporter {
 
@@ -67,12 +62,51 @@ public class ApiExcelExporter {
     /** [v13.6 신규] Whatap 연동 여부 : N일 경우 호출건수 등을 표시하지 않음 */
     private static String WHATAP_ENABLED = "Y";
 
-    /** [v13.12 신규] API 경로 내 상수 치환용 맵 (config.properties의 PATH_CONSTANTS) */
-    private static final Map<String, String> PATH_CONSTANTS_MAP = new HashMap<>();
+    /** [v13.37] Jennifer 연동 여부 : 와탭 / 제니퍼 중 하나라도 Y이면 호출건수 컬럼 표시 */
+    private static String JENNIFER_ENABLED = "N";
+
+    /** [v13.37] 와탭 / 제니퍼가 같은 경로를 집계한 경우 호출건수 결정 방식 (MAX / WHATAP / JENNIFER, 기본 MAX) */
+    private static String APM_MERGE = "MAX";
 
     /** [v13.13 신규] 전체 API 경로 앞에 일괄 추가할 Prefix (config.properties의 API_PATH_PREFIX) */
     private static String API_PATH_PREFIX = "";
 
+    /** [v13.20 신규] 수기 검토 컬럼 이월용 이전 결과 엑셀 경로 (AUTO: OUTPUT_DIR의 최신 결과, 빈값: 이월 안 함) */
+    private static String PREVIOUS_RESULT_PATH = "";
+
+    /** [v13.21 신규] 실행 결과 스냅샷 저장 위치 (미기입 시 OUTPUT_DIR/snapshot) */
+    private static String SNAPSHOT_DIR = "";
+
+    /** [v13.21 신규] 변경내역의 호출건수 변동으로 표시할 최소 증감 건수 */
+    private static long DIFF_CALL_DELTA_MIN = 1;
+
+    /** [v13.22 신규] 실행 간 재사용 캐시 위치 (미기입 시 OUTPUT_DIR/.cache) */
+    private static String CACHE_DIR = "";
+
+    /** [v13.36 신규] 소스 분석 설정 (PATH_CONSTANTS / CONSTANT_INDEX_ENABLED / GIT_HISTORY_SCOPE / GIT_BLAME_PROCESSES 등) : 분석마다 ApiExtractor 인스턴스를 이 설정으로 생성 */
+    private static ApiExtractor.Config EXTRACTOR = ApiExtractor.Config.from(null);
+
+    /** [v13.27 신규] 분할 분석 중간 결과 저장 위치 (미기입 시 OUTPUT_DIR/shard) */
+    private static String SHARD_DIR = "";
+
+    /** [v13.28 신규] 감시 모드 변경 묶음 대기 시간 (마지막 파일 변경 후 이 시간 동안 추가 변경이 없으면 재분석) */
+    private static long WATCH_DEBOUNCE_MS = 300;
+
+    /** [v13.29 신규] 로컬 조회 API 포트 (localhost 전용, 미기입 시 사용 안 함) */
+    private static int QUERY_SERVER_PORT = 0;
+
+    /** [v13.30 신규] 시트당 최대 행 수 (머리글 포함, 미기입 시 엑셀 한도 1,048,576) : 초과분은 "시트명 (2)" 시트로 이어서 기록 */
+    private static int EXCEL_MAX_ROWS_PER_SHEET = StatsSheetWriter.MAX_ROWS;
+
+    /** [v13.32] APM 경로 정규화 규칙 : 인벤토리 {변수} 경로를 APM 수집 키와 같은 자리표시자로 바꾸어 호출건수 조인 */
+    private static ApmPathNormalizer APM_PATHS = ApmPathNormalizer.fromConfig();
+
+    /** [v13.33] STATS_MODE=approx 수집 결과 (Whatap/Jennifer) : 상위 표에 없는 경로의 호출건수를 스케치 추정치로 조회 */
+    private static final List<ApmApproxStats> APM_APPROX = new ArrayList<>();
+
+    /** [v13.24 신규] 체크아웃 없이 분석할 git 리비전 목록 (태그/브랜치/커밋, 미기입 시 ROOT_PATH 작업 트리 분석) */
+    private static final List<String> REVISIONS = new ArrayList<>();
+
     /** 설정 파일 로드 성공 여부 플래그 */
     private static boolean isConfigLoaded = false;
 
@@ -80,10 +114,23 @@ public class ApiExcelExporter {
     // [ 2. 분석 엔진 및 로깅 전용 변수 ]
     // ==========================================================================================
 
-    private static final List<String> MAPPING_ANNS = Arrays.asList("RequestMapping", "GetMapping", "PostMapping", "PutMapping", "DeleteMapping", "PatchMapping");
     private static final List<String> RUNTIME_LOGS = Collections.synchronizedList(new ArrayList<>());
     private static String logPath = "";
-    private static final AtomicInteger PROCESSED_COUNT = new AtomicInteger(0);
+
+    /** [v13.27] --shard i/n 실행 시 담당 분할 (1부터 시작, 0이면 전체 분석) / 전체 분할 수 */
+    private static int SHARD_INDEX = 0, SHARD_COUNT = 0;
+
+    /** [v13.27] --merge 실행 시 분할 결과 디렉토리 (null이면 소스 분석 수행) */
+    private static String MERGE_DIR = null;
+
+    /** [v13.28] --watch 실행 여부 / 감시 모드 재분석 중 여부 (재분석 결과는 스냅샷·변경내역을 저장하지 않음) */
+    private static boolean WATCH = false;
+    private static volatile boolean watchRefreshing = false;
+
+    /** [v13.29] 로컬 조회 API (QUERY_SERVER_PORT 지정 시 기동, 인벤토리 생성마다 갱신) */
+    private static InventoryQueryServer QUERY_SERVER = null;
+    /** [v13.29] --serve 실행 여부 : 일회성 실행 후에도 조회 API를 계속 제공 (미지정 시 엑셀 생성 후 조회 API를 닫고 종료) */
+    private static boolean SERVE = false;
 
     // ==========================================================================================
 
@@ -95,69 +142,311 @@ public class ApiExcelExporter {
             return;
         }
 
+        // [v13.27] 분할 분석 : --shard i/n (담당 컨트롤러만 분석 후 중간 결과 저장) / --merge [디렉토리] (중간 결과 병합 후 엑셀 생성)
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--shard".equals(args[i]) && i + 1 < args.length) {
+                    int[] spec = ShardPartial.parseSpec(args[++i]);
+                    SHARD_INDEX = spec[0]; SHARD_COUNT = spec[1];
+                } else if ("--watch".equals(args[i])) {
+                    WATCH = true;
+                } else if ("--serve".equals(args[i])) {
+                    SERVE = true;
+                } else if ("--merge".equals(args[i])) {
+                    MERGE_DIR = (i + 1 < args.length && !args[i + 1].startsWith("--")) ? args[++i] : SHARD_DIR;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("[ERROR] " + e.getMessage());
+            return;
+        }
+
         File dir = new File(OUTPUT_DIR);
         if (!dir.exists()) dir.mkdirs();
 
+        if (SHARD_COUNT > 0) { runShard(); return; }
+        if (WATCH && (!REVISIONS.isEmpty() || MERGE_DIR != null)) {
+            System.err.println("[ERROR] 감시 모드(--watch)는 ROOT_PATH 작업 트리 분석에서만 사용할 수 있습니다. (REVISION / --merge 미지원)");
+            return;
+        }
+
         long startTime = System.currentTimeMillis();
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd'_추출'"));
 
+        if (SERVE && QUERY_SERVER_PORT <= 0) System.err.println("[WARN] --serve는 QUERY_SERVER_PORT 설정 시에만 사용됩니다. 엑셀 생성 후 종료합니다.");
+        if (QUERY_SERVER_PORT > 0) {
+            try {
+                QUERY_SERVER = new InventoryQueryServer(QUERY_SERVER_PORT);
+                System.out.println("[INFO] 로컬 조회 API: http://localhost:" + QUERY_SERVER.port() + "/api/apis (분석 완료 후 조회 가능)");
+            } catch (IOException e) {
+                System.err.println("[ERROR] 로컬 조회 API 기동 실패 (포트 " + QUERY_SERVER_PORT + "): " + e.getMessage());
+            }
+        }
+
         System.out.println("===============================================================");
-        System.out.println("[START] " + REPO_NAME + " API 추출 및 Whatap 통합 시작 (v13.17)");
+        System.out.println("[START] " + REPO_NAME + " API 추출 및 Whatap 통합 시작 (v13.37)");
         System.out.println("[INFO] 관리 정보: 팀[" + TEAM_NAME + "] / 담당자[" + MANAGER_NAME + "]");
         System.out.println("===============================================================");
 
-        Map<String, long[]> whatapStats = WhatapApiCounter.getApiStats();
-        WhatapApiCounter.generateExcelReport(timestamp);
+        // [v13.18] APM 수집 / 메뉴 추출 / 소스 분석을 독립 작업으로 동시 실행 (최종 조인만 전체 완료 대기)
+        ExecutorService phasePool = Executors.newFixedThreadPool(6);
+        // [v13.36] 수집기 인스턴스별 설정 / 결과 (ApmStats)
+        Properties apmConfig = AppConfig.load();
+        CompletableFuture<ApmStats> whatapTask = runPhase("Whatap 수집", () -> {
+            WhatapApiCounter counter = new WhatapApiCounter(WhatapApiCounter.Config.from(apmConfig));
+            ApmStats stats = counter.collect();
+            if (!stats.isEmpty()) counter.generateExcelReport(stats, timestamp);
+            return stats;
+        }, ApmStats.empty(), phasePool);
+        CompletableFuture<ApmStats> jenniferTask = runPhase("Jennifer 수집", () -> {
+            JenniferApiCounter counter = new JenniferApiCounter(JenniferApiCounter.Config.from(apmConfig));
+            ApmStats stats = counter.collect();
+            if (!stats.isEmpty()) counter.generateExcelReport(stats, timestamp);
+            return stats;
+        }, ApmStats.empty(), phasePool);
+        CompletableFuture<List<MenuExcelExporter.MenuInfo>> menuTask = runPhase("메뉴 추출",
+                () -> MenuExcelExporter.exportMenus(timestamp), Collections.emptyList(), phasePool);
+        CompletableFuture<MenuIndex> menuIndexTask = menuTask.thenApply(menus -> new MenuIndex(menus, API_PATH_PREFIX));
+        // [v13.24] REVISION 지정 시 리비전별로 인벤토리를 생성 (레파지토리 표시명: REPO_NAME@리비전)
+        List<String> repoLabels = new ArrayList<>();
+        if (REVISIONS.isEmpty()) repoLabels.add(REPO_NAME);
+        else for (String rev : REVISIONS) repoLabels.add(revisionLabel(rev));
+
+        CompletableFuture<Map<String, SourceAnalysis>> sourceTask = MERGE_DIR != null
+                ? runPhase("분할 결과 병합", () -> mergeShards(new File(MERGE_DIR)), Collections.emptyMap(), phasePool)
+                : runPhase("소스 분석", ApiExcelExporter::analyzeAllSources, Collections.emptyMap(), phasePool);
+        CompletableFuture<Map<String, ReviewCarryOver>> carryTask = runPhase("이전 검토결과 로드", () -> {
+            Map<String, ReviewCarryOver> byLabel = new HashMap<>();
+            // 관련메뉴 자동값 판별에 메뉴 조인 결과가 필요하므로 메뉴 추출 완료 후 판독
+            MenuIndex menus = menuIndexTask.join();
+            for (String label : repoLabels) byLabel.put(label, loadPreviousReview(label, menus));
+            return byLabel;
+        }, Collections.emptyMap(), phasePool);
+        CompletableFuture<Map<String, InventorySnapshot>> snapshotTask = runPhase("이전 스냅샷 로드", () -> {
+            Map<String, InventorySnapshot> byLabel = new HashMap<>();
+            for (String label : repoLabels) byLabel.put(label, loadPreviousSnapshot(label));
+            return byLabel;
+        }, Collections.emptyMap(), phasePool);
+
+        CompletableFuture.allOf(whatapTask, jenniferTask, menuTask, sourceTask, carryTask, snapshotTask).join();
+        phasePool.shutdown();
+
+        Map<String, SourceAnalysis> analyses = sourceTask.join();
+        if (analyses.isEmpty()) { if (QUERY_SERVER != null) QUERY_SERVER.stop(); return; }
+        Map<String, Long> apmTotals = mergeApmTotals(whatapTask.join().stats, jenniferTask.join().stats, APM_MERGE);
+        APM_APPROX.clear();
+        for (ApmStats apm : Arrays.asList(whatapTask.join(), jenniferTask.join())) if (apm.approx != null) APM_APPROX.add(apm.approx);
+        MenuIndex menuIndex = menuIndexTask.join();
+        File lastOutput = null;
+        for (Map.Entry<String, SourceAnalysis> e : analyses.entrySet()) {
+            String label = e.getKey();
+            lastOutput = exportInventory(label, e.getValue(), apmTotals, menuIndex, carryTask.join().getOrDefault(label, ReviewCarryOver.empty()),
+                    snapshotTask.join().get(label), timestamp);
+        }
+        addLog("\n[FINISH] 작업 종료: " + (System.currentTimeMillis() - startTime) / 1000 + "초 소요");
+        if (WATCH && analyses.containsKey(REPO_NAME)) {
+            runWatch(analyses.get(REPO_NAME), apmTotals, menuIndex, carryTask.join().getOrDefault(REPO_NAME, ReviewCarryOver.empty()),
+                    snapshotTask.join().get(REPO_NAME), lastOutput);
+        }
+        if (QUERY_SERVER != null && SERVE && !WATCH) {
+            // [v13.29] --serve : 일회성 실행이어도 조회 API를 계속 제공 (종료: Ctrl+C)
+            System.out.println("\n[QUERY] 로컬 조회 API 제공 중: http://localhost:" + QUERY_SERVER.port() + "/api/apis (종료: Ctrl+C)");
+            try { Thread.currentThread().join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        // [v13.29] 배치 실행은 조회 API를 닫고 종료 (HttpServer 수신 스레드가 남아 프로세스가 끝나지 않는 문제 방지)
+        if (QUERY_SERVER != null) QUERY_SERVER.stop();
+    }
 
-        List<ApiInfo> allApiList = Collections.synchronizedList(new ArrayList<>());
-        int totalFiles = 0;
+    /**
+     * [v13.28] 감시 모드 : 최초 전체 분석 결과를 메모리에 유지한 채 ROOT_PATH 변경을 감시하고, 변경된 컨트롤러만 재분석하여 엑셀을 갱신합니다.
+     * APM 집계 / 메뉴 / 이전 검토결과 / 이전 스냅샷은 최초 실행 시 로드한 값을 그대로 사용합니다. (종료: Ctrl+C)
+     */
+    private static void runWatch(SourceAnalysis analysis, Map<String, Long> apmTotals, MenuIndex menuIndex, ReviewCarryOver carryOver,
+                                 InventorySnapshot previousSnapshot, File lastOutput) {
+        Path rootPathObj = Paths.get(ROOT_PATH);
+        Map<String, SourceFile> files = new TreeMap<>();
+        for (SourceFile f : analysis.sourceFiles) files.put(f.relPath, f);
+        GitBlame blame = EXTRACTOR.newBlame(null);
+        // [v13.36] 감시 중에는 최초 분석의 추출 엔진을 유지하고 변경 / 삭제 파일만 인덱스에 반영
+        ApiExtractor extractor = analysis.extractor;
+        // 감시 시작 전에 있던 결과 파일(최초 전체 실행 / 이전 날짜 결과)은 정리 대상에서 제외 : 감시 모드가 만든 파일만 삭제
+        Set<File> batchOutputs = new HashSet<>();
+        File[] existing = new File(OUTPUT_DIR).listFiles((d, n) -> n.endsWith(".xlsx") || n.endsWith(".log"));
+        if (existing != null) batchOutputs.addAll(Arrays.asList(existing));
+        // 컨트롤러별 참조 클래스명 (스탬프가 같으면 재사용) : 저장할 때마다 전체 컨트롤러를 다시 읽지 않음
+        Map<String, Map.Entry<String, Set<String>>> referenceCache = new HashMap<>();
+        watchRefreshing = true;
+
+        try (SourceWatcher watcher = new SourceWatcher(rootPathObj, WATCH_DEBOUNCE_MS)) {
+            System.out.println("\n[WATCH] 소스 변경 감시 시작: " + ROOT_PATH + " (디렉토리 " + watcher.watchedDirectories() + "개, 종료: Ctrl+C)");
+            while (true) {
+                Set<Path> changed = watcher.awaitChanges();
+                long begin = System.currentTimeMillis();
+                RUNTIME_LOGS.clear();
+
+                // 변경 파일 반영 : 이벤트 유실 시에는 전체 재탐색 후 스탬프가 달라진 파일만 변경으로 간주
+                Set<String> changedRel = new TreeSet<>();
+                List<String> removedKeys = new ArrayList<>();
+                if (changed == null) {
+                    Map<String, SourceFile> rescanned = new TreeMap<>();
+                    try (java.util.stream.Stream<Path> walk = Files.walk(rootPathObj)) {
+                        for (Path p : (Iterable<Path>) walk.filter(p -> p.toString().endsWith(".java"))::iterator) {
+                            SourceFile f = SourceFile.ofPath(rootPathObj, p, EXTRACTOR.source);
+                            rescanned.put(f.relPath, f);
+                            SourceFile old = files.get(f.relPath);
+                            if (old == null || !old.stamp.equals(f.stamp)) changedRel.add(f.relPath);
+                        }
+                    }
+                    for (SourceFile f : files.values()) if (!rescanned.containsKey(f.relPath)) { changedRel.add(f.relPath); removedKeys.add(f.cacheKey); }
+                    files = rescanned;
+                } else {
+                    for (Path p : changed) {
+                        String rel = rootPathObj.relativize(p).toString();
+                        if (!rel.endsWith(".java")) {
+                            // 삭제된 디렉토리 : 하위 파일을 모두 삭제로 처리
+                            String prefix = rel + File.separator;
+                            for (Iterator<SourceFile> it = files.values().iterator(); it.hasNext(); ) {
+                                SourceFile known = it.next();
+                                if (known.relPath.startsWith(prefix)) { it.remove(); changedRel.add(known.relPath); removedKeys.add(known.cacheKey); }
+                            }
+                        } else if (Files.isRegularFile(p)) {
+                            SourceFile f = SourceFile.ofPath(rootPathObj, p, EXTRACTOR.source);
+                            SourceFile old = files.put(rel, f);
+                            if (old == null || !old.stamp.equals(f.stamp)) changedRel.add(rel);
+                        } else {
+                            SourceFile removed = files.remove(rel);
+                            if (removed != null) { changedRel.add(rel); removedKeys.add(removed.cacheKey); }
+                        }
+                    }
+                }
+                if (changedRel.isEmpty()) continue;
+
+                // 재분석 대상 : 변경된 컨트롤러 + 변경된 파일(상수/상위 타입)의 클래스명을 참조하는 컨트롤러
+                List<SourceFile> updated = new ArrayList<>();
+                for (String rel : changedRel) if (files.containsKey(rel)) updated.add(files.get(rel));
+                extractor.update(updated, removedKeys);
+                List<SourceFile> javaFiles = new ArrayList<>(files.values());
+                Set<String> changedNames = new HashSet<>();
+                for (String rel : changedRel) {
+                    String name = Paths.get(rel).getFileName().toString();
+                    changedNames.add(name.substring(0, name.length() - ".java".length()));
+                }
+                List<SourceFile> targets = new ArrayList<>();
+                for (SourceFile f : javaFiles) {
+                    if (!ApiExtractor.isControllerPath(f.relPath)) continue;
+                    if (changedRel.contains(f.relPath) || referencesAny(f, changedNames, referenceCache)) targets.add(f);
+                }
+                for (String rel : changedRel) if (!files.containsKey(rel)) { analysis.byController.remove(rel); referenceCache.remove(rel); }
+
+                analysis.byController.putAll(extractor.analyzeControllers(targets, null, blame));
+                RUNTIME_LOGS.addAll(extractor.drainLogs());
+
+                SourceAnalysis refreshed = new SourceAnalysis();
+                refreshed.byController.putAll(analysis.byController);
+                refreshed.totalFiles = refreshed.byController.size();
+                for (List<ApiInfo> apis : refreshed.byController.values()) refreshed.apis.addAll(apis);
+                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd'_추출'"));
+                File output = exportInventory(REPO_NAME, refreshed, apmTotals, menuIndex, carryOver, previousSnapshot, timestamp);
+                // 컨트롤러/API 수가 바뀌면 파일명이 달라지므로 감시 모드가 만든 직전 결과 파일만 정리 (최초 전체 실행 결과는 보존)
+                if (output != null && lastOutput != null && !output.equals(lastOutput) && !batchOutputs.contains(lastOutput)) {
+                    lastOutput.delete();
+                    File lastLog = new File(lastOutput.getPath().replaceAll("\\.xlsx$", ".log"));
+                    if (!batchOutputs.contains(lastLog)) lastLog.delete();
+                }
+                if (output != null) lastOutput = output;
+                // 갱신마다 엔진의 문자열 풀 교체 : 수정 전 주석 / 커밋 문자열이 감시 중 계속 쌓이지 않도록 (보관 중인 행은 기존 인스턴스 그대로 사용)
+                extractor.context().releasePool();
+                addLog(String.format("\n[WATCH] 변경 %d개 파일 → 컨트롤러 %d개 재분석, API %d건 갱신 (%dms)",
+                        changedRel.size(), targets.size(), refreshed.apis.size(), System.currentTimeMillis() - begin));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            addExceptionLog("감시 모드 오류", e);
+        } finally {
+            watchRefreshing = false;
+        }
+    }
 
-        try {
-            Path rootPathObj = Paths.get(ROOT_PATH);
-            List<Path> controllerFiles = Files.walk(rootPathObj)
-                    .filter(p -> p.toString().endsWith(".java") &&
-                            (p.toString().contains("Controller") || p.toString().contains("Conrtoller")))
-                    .collect(Collectors.toList());
-
-            totalFiles = controllerFiles.size();
-            final int total = totalFiles;
-
-            controllerFiles.parallelStream().forEach(file -> {
-                String relativePath = rootPathObj.relativize(file).toString();
-                int current = PROCESSED_COUNT.incrementAndGet();
-                List<String[]> gitHistories = getRecentGitHistories(relativePath, ROOT_PATH, 3);
-                StringBuilder fileLog = new StringBuilder();
-                fileLog.append(String.format("\n[%d/%d] 분석: %s", current, total, file.getFileName()));
-                fileLog.append(String.format(" (최신커밋: %s | %s)", gitHistories.get(0)[0], gitHistories.get(0)[1]));
-
-                allApiList.addAll(extractApisHybrid(file, relativePath, gitHistories, fileLog));
-                System.out.print(fileLog.toString());
-                synchronized (RUNTIME_LOGS) { RUNTIME_LOGS.add(fileLog.toString()); }
-            });
-        } catch (Exception e) { addExceptionLog("디렉토리 탐색 오류", e); return; }
-
-        allApiList.sort(Comparator.comparing(ApiInfo::getApiPath));
+    /**
+     * [v13.28] 컨트롤러 원문이 변경된 클래스명 중 하나를 참조하는지 확인 (상수/상위 타입 변경의 영향 범위 판단용, 파싱 없이 텍스트 검색)
+     * 컨트롤러별 참조 이름(대문자로 시작하는 식별자) 집합을 스탬프 기준으로 보관하여 변경된 파일만 다시 읽습니다.
+     */
+    private static boolean referencesAny(SourceFile file, Set<String> classNames, Map<String, Map.Entry<String, Set<String>>> cache) {
+        Map.Entry<String, Set<String>> cached = cache.get(file.relPath);
+        if (cached == null || !cached.getKey().equals(file.stamp)) {
+            try { cached = new AbstractMap.SimpleImmutableEntry<>(file.stamp, typeNames(file.readString())); }
+            catch (IOException e) { return false; }
+            cache.put(file.relPath, cached);
+        }
+        for (String name : classNames) if (cached.getValue().contains(name)) return true;
+        return false;
+    }
+
+    /** 원문에서 대문자로 시작하는 식별자 (클래스명 후보) */
+    private static Set<String> typeNames(String src) {
+        Set<String> names = new HashSet<>();
+        int i = 0, n = src.length();
+        while (i < n) {
+            if (!Character.isJavaIdentifierStart(src.charAt(i))) { i++; continue; }
+            int start = i;
+            while (i < n && Character.isJavaIdentifierPart(src.charAt(i))) i++;
+            if (Character.isUpperCase(src.charAt(start))) names.add(src.substring(start, i));
+        }
+        return names;
+    }
+
+    /**
+     * [v13.24] 소스 분석 결과 1건(작업 트리 또는 리비전 1개)을 APM/메뉴/이전 검토결과와 조인하여 인벤토리 엑셀과 스냅샷을 저장합니다.
+     * @param repoLabel 레파지토리 표시명 (작업 트리: REPO_NAME, 리비전: REPO_NAME@리비전)
+     */
+    private static File exportInventory(String repoLabel, SourceAnalysis analysis, Map<String, Long> apmTotals, MenuIndex menuIndex,
+                                        ReviewCarryOver carryOver, InventorySnapshot previousSnapshot, String timestamp) {
+        List<ApiInfo> allApiList = analysis.apis;
+        int totalFiles = analysis.totalFiles;
+        RUNTIME_LOGS.add(String.format("\n[JOIN] APM 고유 경로 %d건 / 메뉴 URL %d건 / 이전 검토 %d건 / API %d건 조인 시작",
+                apmTotals.size(), menuIndex.size(), carryOver.size(), allApiList.size()));
+
+        // [v13.27] 전순서 정렬 : 병렬 분석 완료 순서와 무관하게 단일 실행 / 분할 병합 결과가 항상 동일한 행 순서가 되도록 함
+        allApiList.sort(ShardPartial.ORDER);
+
+        // [v13.21] 이번 실행 스냅샷 생성 및 이전 스냅샷 대비 변경내역 산출 (엑셀을 열지 않고 해시 조인으로 비교)
+        boolean isApmOn = isApmEnabled();
+        List<InventorySnapshot.Entry> snapshotEntries = new ArrayList<>(allApiList.size());
+        for (ApiInfo info : allApiList) {
+            snapshotEntries.add(new InventorySnapshot.Entry(info.apiPath, info.controllerName, info.methodName, getLatestCommitter(info),
+                    "Y".equals(info.isDeprecated), isApmOn ? apmCalls(apmTotals, info.apiPath) : InventorySnapshot.CALLS_UNKNOWN));
+        }
+        InventorySnapshot currentSnapshot = new InventorySnapshot(repoLabel, System.currentTimeMillis(), snapshotEntries);
+        List<InventorySnapshot.Change> changes = previousSnapshot == null ? Collections.emptyList()
+                : InventorySnapshot.diff(previousSnapshot, currentSnapshot, DIFF_CALL_DELTA_MIN);
 
         String baseFileName = String.format("API목록_(%s)_(컨트롤러  %d개 & API %d개)_(%s)",
-                REPO_NAME, totalFiles, allApiList.size(), timestamp);
+                repoLabel, totalFiles, allApiList.size(), timestamp);
         logPath = OUTPUT_DIR + File.separator + baseFileName + ".log";
         saveInitialLogsToPath();
 
         File finalExcelFile = new File(OUTPUT_DIR, baseFileName + ".xlsx");
+        File workbookFile = new File(OUTPUT_DIR, baseFileName + ".xlsx.tmp");
+        // [v13.27] 재현 가능한 결과 파일 : 문서 생성일시/zip 엔트리 시각을 추출일 0시로 고정 (단일 실행과 분할 병합 결과가 바이트 단위로 동일)
+        long extractTime = LocalDate.parse(timestamp.substring(0, 10)).atStartOfDay(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // [v13.34] EXPORT_FORMAT 지정 시 엑셀과 같은 컬럼의 인벤토리 행을 같은 순회에서 gzip CSV/JSONL로 함께 기록
+        TidyExporter.Format tidyFormat = TidyExporter.format();
+        TidyExporter tidy = null;
+        if (tidyFormat != null) {
+            try { tidy = new TidyExporter(new File(OUTPUT_DIR, baseFileName + tidyFormat.extension), tidyFormat, INVENTORY_HEADERS); }
+            catch (IOException e) { addExceptionLog("인벤토리 " + tidyFormat + " 생성 중 오류", e); }
+        }
 
-        try (Workbook workbook = new XSSFWorkbook();
-             FileOutputStream fos = new FileOutputStream(finalExcelFile)) {
-
-            String sheetName = "API분석_" + REPO_NAME;
-            if (sheetName.length() > 31) sheetName = sheetName.substring(0, 31);
-            Sheet sheet = workbook.createSheet(sheetName);
-            CreationHelper helper = workbook.getCreationHelper();
+        int carriedRows = 0;
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+             FileOutputStream fos = new FileOutputStream(workbookFile)) {
 
             // --- 스타일 정의 부 ---
             CellStyle greyH = createStyle(workbook, IndexedColors.GREY_25_PERCENT.getIndex(), true, true);
             CellStyle yellowH = createStyle(workbook, IndexedColors.YELLOW.getIndex(), true, true);
             CellStyle orangeH = createStyle(workbook, IndexedColors.ORANGE.getIndex(), true, true);
-            CellStyle blueH = createStyle(workbook, IndexedColors.LIGHT_CORNFLOWER_BLUE.getIndex(), true, true);
             CellStyle ivoryH = createStyle(workbook, IndexedColors.LEMON_CHIFFON.getIndex(), true, true);
             CellStyle leftD = createStyle(workbook, null, false, false);
             CellStyle centerD = createStyle(workbook, null, false, true);
@@ -174,96 +463,73 @@ public class ApiExcelExporter {
             CellStyle boxBottomLeft = createStyle(workbook, null, false, true); boxBottomLeft.setBorderBottom(BorderStyle.THICK); boxBottomLeft.setBorderLeft(BorderStyle.THICK);
             CellStyle boxBottomRight = createStyle(workbook, null, false, true); boxBottomRight.setBorderBottom(BorderStyle.THICK); boxBottomRight.setBorderRight(BorderStyle.THICK);
 
-            sheet.createFreezePane(4, 1);
-
-            String[] headers = {"순번","추출일자","레파지토리","API 경로","전체 URL","repository path","컨트롤러명","호출메소드",
-                    "프로그램ID(자동추출)","ApiOperation(참고용)","description주석(참고용)","메소드주석(참고용)",
-                    "RequestProperty(참고용)","컨트롤러RequestProperty(참고용)","컨트롤러주석(참고용)","Deprecated",
-                    "커밋일자1","커밋터1","코멘트1","커밋일자2","커밋터2","코멘트2","커밋일자3","커밋터3","코멘트3",
-                    "호출건수(APM추출필요)","미사용 의심건","팀","담당자","미사용 검토결과","관련메뉴(미사용시)",
-                    "조치예정일자","조치일자","관련티켓","조치담당자","비고"};
-
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                if (i <= 4) cell.setCellStyle(greyH);
-                else if (i <= 14) cell.setCellStyle(yellowH);
-                else if (i <= 26) cell.setCellStyle(orangeH);
+            CellStyle[] headerStyles = new CellStyle[INVENTORY_HEADERS.length];
+            for (int i = 0; i < headerStyles.length; i++) {
+                if (i <= 4) headerStyles[i] = greyH;
+                else if (i <= 14) headerStyles[i] = yellowH;
+                else if (i <= 26) headerStyles[i] = orangeH;
                 else if (i >= 27 && i <= 30) {
                     CellStyle style = createStyle(workbook, IndexedColors.LIGHT_CORNFLOWER_BLUE.getIndex(), true, true);
                     style.setBorderTop(BorderStyle.THICK); if (i == 27) style.setBorderLeft(BorderStyle.THICK); if (i == 30) style.setBorderRight(BorderStyle.THICK);
-                    cell.setCellStyle(style);
+                    headerStyles[i] = style;
                 }
-                else cell.setCellStyle(ivoryH);
+                else headerStyles[i] = ivoryH;
             }
-            sheet.setAutoFilter(new CellRangeAddress(0, 0, 0, headers.length - 1));
 
-            DataValidationHelper validationHelper = sheet.getDataValidationHelper();
-            int maxRowIndex = Math.max(5000, allApiList.size() + 1000);
-            String lastRowStr = String.valueOf(maxRowIndex + 1);
-
-            CellRangeAddressList suspicionAddressList = new CellRangeAddressList(1, maxRowIndex, 26, 26);
-            DataValidation suspicionValidation = validationHelper.createValidation(validationHelper.createExplicitListConstraint(new String[]{"★☆☆", "★★☆", "★★★"}), suspicionAddressList);
-            sheet.addValidationData(suspicionValidation);
-
-            CellRangeAddressList addressList = new CellRangeAddressList(1, maxRowIndex, 29, 29);
-            DataValidation validation = validationHelper.createValidation(validationHelper.createExplicitListConstraint(new String[]{"O(미사용)", "△(판단불가)", "X(사용)"}), addressList);
-            sheet.addValidationData(validation);
-
-            SheetConditionalFormatting sheetCF = sheet.getSheetConditionalFormatting();
-            String callCountFormula = String.format("AND(Z2<>\"\", Z2<=%d)", NOT_USE_LIMIT_COUNT);
-            ConditionalFormattingRule callCountRule = sheetCF.createConditionalFormattingRule(callCountFormula);
-            PatternFormatting callCountFill = callCountRule.createPatternFormatting();
-            callCountFill.setFillBackgroundColor(IndexedColors.ROSE.getIndex()); callCountFill.setFillPattern(PatternFormatting.SOLID_FOREGROUND);
-            sheetCF.addConditionalFormatting(new CellRangeAddress[]{CellRangeAddress.valueOf("Z2:Z" + lastRowStr)}, callCountRule);
-
-            ConditionalFormattingRule rule3 = sheetCF.createConditionalFormattingRule(ComparisonOperator.EQUAL, "\"★★★\"");
-            rule3.createPatternFormatting().setFillBackgroundColor(IndexedColors.ROSE.getIndex()); rule3.createPatternFormatting().setFillPattern(PatternFormatting.SOLID_FOREGROUND);
-            ConditionalFormattingRule rule2 = sheetCF.createConditionalFormattingRule(ComparisonOperator.EQUAL, "\"★★☆\"");
-            rule2.createPatternFormatting().setFillBackgroundColor(IndexedColors.YELLOW.getIndex()); rule2.createPatternFormatting().setFillPattern(PatternFormatting.SOLID_FOREGROUND);
-            ConditionalFormattingRule rule1 = sheetCF.createConditionalFormattingRule(ComparisonOperator.EQUAL, "\"★☆☆\"");
-            rule1.createPatternFormatting().setFillBackgroundColor(IndexedColors.LIGHT_GREEN.getIndex()); rule1.createPatternFormatting().setFillPattern(PatternFormatting.SOLID_FOREGROUND);
-            sheetCF.addConditionalFormatting(new CellRangeAddress[]{CellRangeAddress.valueOf("AA2:AA" + lastRowStr)}, new ConditionalFormattingRule[]{rule3, rule2, rule1});
+            // [v13.30] 엑셀 행 한도 분할 : 시트당 EXCEL_MAX_ROWS_PER_SHEET - 1건씩 "API분석_레파지토리 (n)" 시트로 이어서 기록 (머리글/틀 고정/검증 규칙 반복)
+            int rowsPerSheet = EXCEL_MAX_ROWS_PER_SHEET - 1;
+            int sheetParts = Math.max(1, (allApiList.size() + rowsPerSheet - 1) / rowsPerSheet);
+            Set<String> usedSheetNames = new HashSet<>();
+            Sheet sheet = null;
+            int partStart = 0, partEnd = 0;
 
             LocalDate now = LocalDate.now();
-
-            for (int i = 0; i < allApiList.size(); i++) {
+            // [v13.26] 커밋 날짜는 yyyyMMdd 정수로 보관되므로 기준일도 정수로 1회 변환하여 비교
+            int thresholdDate = CommitInfo.packDate(LocalDate.parse(LAST_COMMIT_DATE).toString());
+
+            for (int i = 0; i < allApiList.size() || sheet == null; i++) {
+                if (sheet == null || i == partEnd) {
+                    partStart = i;
+                    partEnd = Math.min(allApiList.size(), i + rowsPerSheet);
+                    String suffix = sheetParts == 1 ? "" : " (" + (i / rowsPerSheet + 1) + ")";
+                    sheet = createInventorySheet(workbook, StatsSheetWriter.partSheetName("API분석_" + repoLabel, suffix, usedSheetNames), headerStyles, partEnd - partStart);
+                    if (i >= allApiList.size()) break;
+                }
                 ApiInfo info = allApiList.get(i);
-                Row row = sheet.createRow(i + 1);
+                Row row = sheet.createRow(i - partStart + 1);
                 boolean isDep = "Y".equals(info.isDeprecated);
                 String fullUrl = DOMAIN + info.apiPath;
 
-                long totalCalls = 0;
-                long[] rowStats = whatapStats.get(info.apiPath);
-                if (rowStats != null) for (long count : rowStats) totalCalls += count;
-
-                String suspicionScore = "";
-                LocalDate thresholdDate = LocalDate.parse(LAST_COMMIT_DATE);
-                LocalDate latestCommitDate = getLatestDate(info.git1[0], info.git2[0], info.git3[0]);
-                if (isDep && totalCalls == 0) suspicionScore = "★★★";
-                else if (totalCalls <= NOT_USE_LIMIT_COUNT) {
-                    if (latestCommitDate != null && latestCommitDate.isBefore(thresholdDate)) suspicionScore = "★★☆";
-                    else suspicionScore = "★☆☆";
-                }
+                long totalCalls = apmCalls(apmTotals, info.apiPath);
+
+                String suspicionScore = suspicionScore(info, totalCalls, thresholdDate);
 
-                String autoRelatedMenu = autoPopulateRelatedMenu(info);
-                boolean isWhatapOn = "Y".equalsIgnoreCase(WHATAP_ENABLED);
+                // [v13.19] 메뉴 JSON 조인 결과(메뉴 경로)를 우선 사용하고, 미매칭 시 기존 주석 기반 추정값 사용
+                String programId = autoExtractProgramId(info.apiPath);
+                MenuExcelExporter.MenuInfo relatedMenu = menuIndex.find(info.apiPath, programId);
+                String autoRelatedMenu = relatedMenu != null ? relatedMenu.menuPath : autoPopulateRelatedMenu(info);
 
-                String[] data = {String.valueOf(i + 1), "", REPO_NAME, info.apiPath, fullUrl, info.repoPath,
-                        info.controllerName, info.methodName, autoExtractProgramId(info.apiPath),
+                CommitInfo c1 = info.commits[0], c2 = info.commits[1], c3 = info.commits[2];
+                String[] data = {String.valueOf(i + 1), "", repoLabel, info.apiPath, fullUrl, info.repoPath,
+                        info.controllerName, info.methodName, programId,
                         info.apiOperationValue, info.descriptionTag, info.fullComment,
                         info.requestPropertyValue, info.controllerRequestPropertyValue, info.controllerComment,
-                        info.isDeprecated, info.git1[0], info.git1[1], info.git1[2], info.git2[0], info.git2[1], info.git2[2],
-                        info.git3[0], info.git3[1], info.git3[2], isWhatapOn ? String.valueOf(totalCalls) : "", isWhatapOn ? suspicionScore : "",
+                        info.isDeprecated, c1.dateText(), c1.author, c1.message, c2.dateText(), c2.author, c2.message,
+                        c3.dateText(), c3.author, c3.message, isApmOn ? String.valueOf(totalCalls) : "", isApmOn ? suspicionScore : "",
                         TEAM_NAME, MANAGER_NAME, "", autoRelatedMenu, "", "", "", "", ""};
 
-                boolean isLastRow = (i == allApiList.size() - 1);
+                // [v13.20] 이전 결과의 수기 검토 컬럼(29~35) 이월
+                if (carryOver.merge(data, info.apiPath, info.controllerName, info.methodName)) carriedRows++;
+                if (tidy != null) writeTidyRow(tidy, data, i + 1, now, isApmOn ? totalCalls : -1);
+
+                boolean isLastRow = (i == partEnd - 1);
                 for (int j = 0; j < data.length; j++) {
                     Cell cell = row.createCell(j);
                     if (j == 1) { cell.setCellValue(now); cell.setCellStyle(dateD); }
-                    else if (j == 25) { if (isWhatapOn) { cell.setCellValue(totalCalls); cell.setCellStyle(numD); } else cell.setCellStyle(centerD); }
+                    else if (j == 25) { if (isApmOn) { cell.setCellValue(totalCalls); cell.setCellStyle(numD); } else cell.setCellStyle(centerD); }
                     else if (j == 26) { cell.setCellValue(data[j]); cell.setCellStyle(centerD); }
+                    // [v13.20] 이월된 조치예정일자 / 조치일자는 날짜 셀로 기록 (정렬 / 필터 유지)
+                    else if (ReviewCarryOver.isDateColumn(j) && ReviewCarryOver.parseDate(data[j]) != null) { cell.setCellValue(ReviewCarryOver.parseDate(data[j])); cell.setCellStyle(dateD); }
                     else {
                         cell.setCellValue(data[j]);
                         boolean isCenter = (j==0 || j==1 || j==2 || (j>=6 && j<=8) || (j>=15 && j<=25) || (j>=27));
@@ -277,12 +543,377 @@ public class ApiExcelExporter {
                     }
                 }
             }
-            sheet.setColumnWidth(1, 4000); sheet.setColumnWidth(3, 14500); sheet.setColumnWidth(4, 8500);
-            for (int k = 9; k <= 14; k++) sheet.setColumnWidth(k, 5800);
-            sheet.setColumnWidth(29, 3500); sheet.setColumnWidth(30, 6000);
+
+            if (previousSnapshot != null) writeChangeSheet(workbook, changes, greyH, centerD, leftD, numD);
+            workbook.getXSSFWorkbook().getProperties().getCoreProperties().setCreated(Optional.of(new Date(extractTime)));
             workbook.write(fos);
-        } catch (Exception e) { addExceptionLog("엑셀 저장 중 오류", e); }
-        addLog("\n[FINISH] 작업 종료: " + (System.currentTimeMillis() - startTime) / 1000 + "초 소요");
+            workbook.dispose();
+            if (tidy != null) {
+                tidy.close();
+                addLog("[EXPORT] 인벤토리 " + tidyFormat + " 생성 (" + tidy.summary() + "): " + tidy.file().getAbsolutePath());
+            }
+        } catch (Exception e) {
+            if (tidy != null) tidy.abort();
+            addExceptionLog("엑셀 저장 중 오류", e);
+        }
+        try {
+            writeReproducibleZip(workbookFile, finalExcelFile, extractTime);
+        } catch (IOException e) { addExceptionLog("엑셀 저장 중 오류", e); return null; }
+        finally { workbookFile.delete(); }
+        if (carryOver.size() > 0) addLog("[CARRY] 이전 검토결과 이월: " + carriedRows + "건 / 이전 입력 " + carryOver.size() + "건");
+        if (!watchRefreshing) saveSnapshotAndChanges(repoLabel, currentSnapshot, previousSnapshot, changes, timestamp);
+        if (QUERY_SERVER != null) publishToQueryServer(repoLabel, allApiList, apmTotals);
+        return finalExcelFile.exists() ? finalExcelFile : null;
+    }
+
+    /** [v13.34] 인벤토리 1행 세로형 출력 : 순번/호출건수는 숫자, 추출일자는 yyyy-MM-dd (APM 미사용 시 호출건수 빈 칸) */
+    private static void writeTidyRow(TidyExporter tidy, String[] data, long seq, LocalDate extractDate, long totalCalls) {
+        for (int j = 0; j < data.length; j++) {
+            if (j == 0) tidy.number(seq);
+            else if (j == 1) tidy.text(extractDate.toString());
+            else if (j == 25 && totalCalls >= 0) tidy.number(totalCalls);
+            else tidy.text(data[j]);
+        }
+        tidy.endRow();
+    }
+
+    /** 인벤토리 컬럼 머리글 */
+    private static final String[] INVENTORY_HEADERS = {"순번","추출일자","레파지토리","API 경로","전체 URL","repository path","컨트롤러명","호출메소드",
+            "프로그램ID(자동추출)","ApiOperation(참고용)","description주석(참고용)","메소드주석(참고용)",
+            "RequestProperty(참고용)","컨트롤러RequestProperty(참고용)","컨트롤러주석(참고용)","Deprecated",
+            "커밋일자1","커밋터1","코멘트1","커밋일자2","커밋터2","코멘트2","커밋일자3","커밋터3","코멘트3",
+            "호출건수(APM추출필요)","미사용 의심건","팀","담당자","미사용 검토결과","관련메뉴(미사용시)",
+            "조치예정일자","조치일자","관련티켓","조치담당자","비고"};
+
+    /**
+     * [v13.30] 인벤토리 시트 1개 생성 : 머리글 / 틀 고정 / 자동 필터 / 입력 목록 검증 / 조건부 서식 / 열 너비 (분할 시트마다 동일하게 적용)
+     * @param dataRows 이 시트에 기록할 데이터 행 수 (검증/서식 적용 범위 산정용)
+     */
+    private static Sheet createInventorySheet(Workbook workbook, String sheetName, CellStyle[] headerStyles, int dataRows) {
+        Sheet sheet = workbook.createSheet(sheetName);
+        sheet.createFreezePane(4, 1);
+
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < INVENTORY_HEADERS.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(INVENTORY_HEADERS[i]);
+            cell.setCellStyle(headerStyles[i]);
+        }
+        sheet.setAutoFilter(new CellRangeAddress(0, 0, 0, INVENTORY_HEADERS.length - 1));
+
+        DataValidationHelper validationHelper = sheet.getDataValidationHelper();
+        int maxRowIndex = Math.min(StatsSheetWriter.MAX_ROWS - 1, Math.max(5000, dataRows + 1000));
+        String lastRowStr = String.valueOf(maxRowIndex + 1);
+
+        CellRangeAddressList suspicionAddressList = new CellRangeAddressList(1, maxRowIndex, 26, 26);
+        DataValidation suspicionValidation = validationHelper.createValidation(validationHelper.createExplicitListConstraint(new String[]{"★☆☆", "★★☆", "★★★"}), suspicionAddressList);
+        sheet.addValidationData(suspicionValidation);
+
+        CellRangeAddressList addressList = new CellRangeAddressList(1, maxRowIndex, 29, 29);
+        DataValidation validation = validationHelper.createValidation(validationHelper.createExplicitListConstraint(new String[]{"O(미사용)", "△(판단불가)", "X(사용)"}), addressList);
+        sheet.addValidationData(validation);
+
+        SheetConditionalFormatting sheetCF = sheet.getSheetConditionalFormatting();
+        String callCountFormula = String.format("AND(Z2<>\"\", Z2<=%d)", NOT_USE_LIMIT_COUNT);
+        ConditionalFormattingRule callCountRule = sheetCF.createConditionalFormattingRule(callCountFormula);
+        PatternFormatting callCountFill = callCountRule.createPatternFormatting();
+        callCountFill.setFillBackgroundColor(IndexedColors.ROSE.getIndex()); callCountFill.setFillPattern(PatternFormatting.SOLID_FOREGROUND);
+        sheetCF.addConditionalFormatting(new CellRangeAddress[]{CellRangeAddress.valueOf("Z2:Z" + lastRowStr)}, callCountRule);
+
+        ConditionalFormattingRule rule3 = sheetCF.createConditionalFormattingRule(ComparisonOperator.EQUAL, "\"★★★\"");
+        rule3.createPatternFormatting().setFillBackgroundColor(IndexedColors.ROSE.getIndex()); rule3.createPatternFormatting().setFillPattern(PatternFormatting.SOLID_FOREGROUND);
+        ConditionalFormattingRule rule2 = sheetCF.createConditionalFormattingRule(ComparisonOperator.EQUAL, "\"★★☆\"");
+        rule2.createPatternFormatting().setFillBackgroundColor(IndexedColors.YELLOW.getIndex()); rule2.createPatternFormatting().setFillPattern(PatternFormatting.SOLID_FOREGROUND);
+        ConditionalFormattingRule rule1 = sheetCF.createConditionalFormattingRule(ComparisonOperator.EQUAL, "\"★☆☆\"");
+        rule1.createPatternFormatting().setFillBackgroundColor(IndexedColors.LIGHT_GREEN.getIndex()); rule1.createPatternFormatting().setFillPattern(PatternFormatting.SOLID_FOREGROUND);
+        sheetCF.addConditionalFormatting(new CellRangeAddress[]{CellRangeAddress.valueOf("AA2:AA" + lastRowStr)}, new ConditionalFormattingRule[]{rule3, rule2, rule1});
+
+        sheet.setColumnWidth(1, 4000); sheet.setColumnWidth(3, 14500); sheet.setColumnWidth(4, 8500);
+        for (int k = 9; k <= 14; k++) sheet.setColumnWidth(k, 5800);
+        sheet.setColumnWidth(29, 3500); sheet.setColumnWidth(30, 6000);
+        return sheet;
+    }
+
+    /** 미사용 의심 등급 : Deprecated + 호출 없음(★★★), 호출 기준 이하 + 기준일 이전 최종 커밋(★★☆), 호출 기준 이하(★☆☆) */
+    private static String suspicionScore(ApiInfo info, long totalCalls, int thresholdDate) {
+        if ("Y".equals(info.isDeprecated) && totalCalls == 0) return "★★★";
+        if (totalCalls > NOT_USE_LIMIT_COUNT) return "";
+        int latestCommitDate = CommitInfo.latest(info.commits).date;
+        return latestCommitDate != 0 && latestCommitDate < thresholdDate ? "★★☆" : "★☆☆";
+    }
+
+    /** [v13.29] 로컬 조회 API 갱신 : 엑셀과 동일 기준의 프로그램ID / 호출건수 / 미사용 의심 등급으로 조회 인덱스 재구성 */
+    private static void publishToQueryServer(String repoLabel, List<ApiInfo> apis, Map<String, Long> apmTotals) {
+        long begin = System.currentTimeMillis();
+        boolean isApmOn = isApmEnabled();
+        int thresholdDate = CommitInfo.packDate(LocalDate.parse(LAST_COMMIT_DATE).toString());
+        List<InventoryQueryServer.Entry> entries = new ArrayList<>(apis.size());
+        for (ApiInfo info : apis) {
+            long calls = apmCalls(apmTotals, info.apiPath);
+            CommitInfo latest = CommitInfo.latest(info.commits);
+            entries.add(new InventoryQueryServer.Entry(info.apiPath, DOMAIN + info.apiPath, info.controllerName, info.methodName, info.repoPath,
+                    autoExtractProgramId(info.apiPath), info.isDeprecated, isApmOn ? calls : -1, isApmOn ? suspicionScore(info, calls, thresholdDate) : "",
+                    latest.dateText(), latest.author));
+        }
+        QUERY_SERVER.publish(repoLabel, entries);
+        addLog("[QUERY] 로컬 조회 API 갱신: " + repoLabel + " API " + entries.size() + "건 (" + (System.currentTimeMillis() - begin) + "ms)");
+    }
+
+    /**
+     * [v13.24] 소스 분석 단계 : REVISION 미지정 시 ROOT_PATH 작업 트리를, 지정 시 각 리비전을 체크아웃 없이 순서대로 분석합니다.
+     * 리비전 간 동일 blob의 상수/타입 파싱 결과는 blob SHA 기준으로 공유됩니다.
+     * @return 레파지토리 표시명 → 분석 결과 (실패한 리비전은 제외)
+     */
+    private static Map<String, SourceAnalysis> analyzeAllSources() {
+        Map<String, SourceAnalysis> results = new LinkedHashMap<>();
+        // [v13.25] 메소드 단위 커밋 이력 : 리비전 간 공유되는 blame 캐시 (blob SHA 기준)
+        GitBlame blame = EXTRACTOR.newBlame(new File(CACHE_DIR, "blame_" + REPO_NAME + ".bin.gz"));
+        try {
+            analyzeAllSources(results, blame, new ApiExtractor.Context());
+        } finally {
+            if (blame != null) { blame.save(); RUNTIME_LOGS.add("\n[BLAME] 메소드 단위 이력 캐시: " + blame.cachedFiles() + "개 파일"); }
+        }
+        return results;
+    }
+
+    private static void analyzeAllSources(Map<String, SourceAnalysis> results, GitBlame blame, ApiExtractor.Context context) {
+        if (REVISIONS.isEmpty()) {
+            try {
+                results.put(REPO_NAME, analyzeSources(REPO_NAME, null, ApiExtractor.scan(Paths.get(ROOT_PATH), EXTRACTOR.source), blame, context));
+            } catch (Exception e) { addExceptionLog("디렉토리 탐색 오류", e); }
+            return;
+        }
+
+        try (GitRevisionSource git = new GitRevisionSource(GIT_BIN_PATH, new File(ROOT_PATH), EXTRACTOR.source)) {
+            for (String rev : REVISIONS) {
+                try {
+                    List<SourceFile> javaFiles = git.listJavaFiles(rev);
+                    RUNTIME_LOGS.add("\n[REV] 리비전 분석: " + rev + " (.java " + javaFiles.size() + "개)");
+                    results.put(revisionLabel(rev), analyzeSources(revisionLabel(rev), rev, javaFiles, blame, context));
+                } catch (Exception e) { addExceptionLog("리비전 조회 오류 (" + rev + ")", e); }
+            }
+        }
+    }
+
+    /**
+     * [v13.27] 분할 실행 : 담당 컨트롤러만 분석하여 SHARD_DIR에 중간 결과를 저장합니다. (APM/메뉴/엑셀 생성은 병합 단계에서 1회 수행)
+     * 분할 번호 배정은 상대 경로 해시로 고정되므로 노드별로 같은 설정/소스를 두고 --shard 1/n ~ n/n을 각각 실행하면 됩니다.
+     */
+    private static void runShard() {
+        long startTime = System.currentTimeMillis();
+        System.out.println("===============================================================");
+        System.out.println("[START] " + REPO_NAME + " 분할 분석 " + SHARD_INDEX + "/" + SHARD_COUNT + " 시작 (v13.37)");
+        System.out.println("===============================================================");
+
+        Map<String, SourceAnalysis> analyses = analyzeAllSources();
+        if (analyses.isEmpty()) return;
+        int controllers = 0, apis = 0;
+        for (SourceAnalysis a : analyses.values()) {
+            a.apis.sort(ShardPartial.ORDER);
+            controllers += a.totalFiles; apis += a.apis.size();
+        }
+        new File(SHARD_DIR).mkdirs();
+        File partFile = new File(SHARD_DIR, ShardPartial.fileName(REPO_NAME, SHARD_INDEX, SHARD_COUNT));
+        logPath = SHARD_DIR + File.separator + ShardPartial.fileName(REPO_NAME, SHARD_INDEX, SHARD_COUNT).replace(".part.gz", ".log");
+        try {
+            new ShardPartial(REPO_NAME, SHARD_INDEX, SHARD_COUNT, System.currentTimeMillis(), controllers, System.currentTimeMillis() - startTime, analyses).write(partFile);
+            RUNTIME_LOGS.add(String.format("\n[SHARD] 분할 %d/%d 저장: 컨트롤러 %d개 / API %d건 / %dms -> %s",
+                    SHARD_INDEX, SHARD_COUNT, controllers, apis, System.currentTimeMillis() - startTime, partFile.getAbsolutePath()));
+        } catch (IOException e) { addExceptionLog("분할 결과 저장 오류", e); }
+        saveInitialLogsToPath();
+        addLog("\n[FINISH] 분할 분석 종료: " + (System.currentTimeMillis() - startTime) / 1000 + "초 소요");
+    }
+
+    /** [v13.27] 병합 단계 : 디렉토리의 동일 REPO_NAME 분할 결과를 모두 읽어 k-way 병합합니다. (누락/중복 분할이 있으면 실패) */
+    private static Map<String, SourceAnalysis> mergeShards(File shardDir) throws IOException {
+        File[] files = shardDir.listFiles((d, n) -> ShardPartial.isShardOf(n, REPO_NAME));
+        if (files == null || files.length == 0) throw new IOException("분할 결과 파일이 없습니다: " + shardDir.getAbsolutePath());
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        List<ShardPartial> parts = new ArrayList<>();
+        StringPool pool = new StringPool();
+        for (File f : files) {
+            ShardPartial p = ShardPartial.read(f, pool);
+            // [v13.27] 파일명이 바뀌어 복사된 경우 대비 : 헤더의 레파지토리명 확인
+            if (!REPO_NAME.equals(p.repoName)) throw new IOException("다른 레파지토리의 분할 결과입니다: " + f.getName() + " (" + p.repoName + ")");
+            parts.add(p);
+            RUNTIME_LOGS.add(String.format("\n[MERGE] 분할 %d/%d 로드: 컨트롤러 %d개 / 분석 %dms (%s)", p.shardIndex, p.shardCount, p.controllerCount, p.elapsedMs, f.getName()));
+        }
+        return ShardPartial.merge(parts);
+    }
+
+    /** [v13.24] 리비전별 레파지토리 표시명 : 파일명/시트명에 사용할 수 없는 문자(/ \\ : * ? [ ] 등)는 '_'로 치환 */
+    private static String revisionLabel(String revision) {
+        return REPO_NAME + "@" + revision.replaceAll("[\\\\/:*?\"<>|\\[\\]]", "_");
+    }
+
+    /**
+     * [v13.18] 소스 분석 단계 : 컨트롤러를 병렬 분석합니다. (APM/메뉴 단계와 동시 실행)
+     * [v13.36] 분석은 리비전마다 새 ApiExtractor 인스턴스로 수행하고 분석 로그만 실행 로그에 합칩니다.
+     * @param revision git 리비전 (작업 트리 분석 시 null)
+     * @param blame    메소드 단위 이력 조회용 (GIT_HISTORY_SCOPE=FILE이면 null)
+     * @param context  이번 실행의 엔진 컨텍스트 (리비전 간 문자열 풀 / 동일 blob 파싱 결과 공유)
+     */
+    private static SourceAnalysis analyzeSources(String repoLabel, String revision, List<SourceFile> javaFiles, GitBlame blame, ApiExtractor.Context context) {
+        ApiExtractor extractor = new ApiExtractor(EXTRACTOR, context);
+        try {
+            // [v13.27] 분할 실행 시 담당 컨트롤러만 분석 (상수/타입 인덱스는 상속·상수 참조 해석을 위해 전체 파일 기준으로 구성)
+            return extractor.analyze(javaFiles, revision, blame, rel -> SHARD_COUNT == 0 || ShardPartial.owns(rel, SHARD_INDEX, SHARD_COUNT),
+                    new File(CACHE_DIR, "constant_index_" + repoLabel + ".bin.gz"));
+        } finally {
+            RUNTIME_LOGS.addAll(extractor.drainLogs());
+        }
+    }
+
+    /** [v13.20] 이전 결과 로드 단계 : 수기 검토 컬럼을 SAX 이벤트 모델로 읽어 이월 인덱스를 구성합니다. */
+    private static ReviewCarryOver loadPreviousReview(String repoLabel, MenuIndex menuIndex) throws Exception {
+        if (PREVIOUS_RESULT_PATH.isEmpty()) return ReviewCarryOver.empty();
+        File prev = "AUTO".equalsIgnoreCase(PREVIOUS_RESULT_PATH)
+                ? ReviewCarryOver.findLatest(OUTPUT_DIR, repoLabel) : new File(PREVIOUS_RESULT_PATH);
+        if (prev == null || !prev.exists()) {
+            RUNTIME_LOGS.add("\n[CARRY] 이월할 이전 결과 파일이 없습니다: " + PREVIOUS_RESULT_PATH);
+            return ReviewCarryOver.empty();
+        }
+        ReviewCarryOver carry = ReviewCarryOver.load(prev, row -> autoRelatedMenu(row, menuIndex));
+        RUNTIME_LOGS.add("\n[CARRY] 이전 결과 로드: " + prev.getName() + " (검토 입력 " + carry.size() + "건)");
+        return carry;
+    }
+
+    /** [v13.21] 이전 스냅샷 로드 단계 : SNAPSHOT_DIR에서 동일 레파지토리의 최신 스냅샷을 읽습니다. */
+    private static InventorySnapshot loadPreviousSnapshot(String repoLabel) throws IOException {
+        File prev = InventorySnapshot.findLatest(new File(SNAPSHOT_DIR), repoLabel);
+        if (prev == null) { RUNTIME_LOGS.add("\n[DIFF] 비교할 이전 스냅샷이 없습니다. 이번 실행 결과가 기준 스냅샷이 됩니다."); return null; }
+        InventorySnapshot snapshot = InventorySnapshot.read(prev);
+        if (!repoLabel.equals(snapshot.repoName)) {
+            RUNTIME_LOGS.add("\n[DIFF] 다른 레파지토리의 스냅샷이므로 비교하지 않습니다: " + prev.getName() + " (" + snapshot.repoName + ")");
+            return null;
+        }
+        RUNTIME_LOGS.add("\n[DIFF] 이전 스냅샷 로드: " + prev.getName() + " (API " + snapshot.entries.size() + "건)");
+        return snapshot;
+    }
+
+    /** [v13.21] 이번 실행 스냅샷을 저장하고, 변경내역이 있으면 JSON 파일로도 출력합니다. */
+    private static void saveSnapshotAndChanges(String repoLabel, InventorySnapshot current, InventorySnapshot previous, List<InventorySnapshot.Change> changes, String timestamp) {
+        try {
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+            File snapFile = new File(SNAPSHOT_DIR, InventorySnapshot.fileNamePrefix(repoLabel) + stamp + ".snap.gz");
+            current.write(snapFile);
+            addLog("[DIFF] 스냅샷 저장: " + snapFile.getAbsolutePath());
+
+            if (previous != null) {
+                File jsonFile = new File(OUTPUT_DIR, String.format("API변경내역_(%s)_(%s).json", repoLabel, timestamp));
+                InventorySnapshot.writeJson(jsonFile, previous, current, changes);
+                addLog("[DIFF] 변경내역 " + changes.size() + "건 저장: " + jsonFile.getAbsolutePath());
+            }
+        } catch (Exception e) { addExceptionLog("스냅샷/변경내역 저장 중 오류", e); }
+    }
+
+    /** [v13.21] 변경내역 시트 : 추가 / 삭제 / 이동 / 담당자변경 / 호출건수변동 순으로 기록 ([v13.30] 행 한도 초과 시 "변경내역 (n)" 시트로 분할) */
+    private static void writeChangeSheet(Workbook workbook, List<InventorySnapshot.Change> changes, CellStyle headerS, CellStyle centerS, CellStyle leftS, CellStyle numS) {
+        String[] headers = {"구분", "API 경로", "이전 컨트롤러#메소드", "현재 컨트롤러#메소드", "이전 담당(커밋터)", "현재 담당(커밋터)", "이전 호출건수", "현재 호출건수", "증감"};
+        int rowsPerSheet = EXCEL_MAX_ROWS_PER_SHEET - 1;
+        int sheetParts = Math.max(1, (changes.size() + rowsPerSheet - 1) / rowsPerSheet);
+        Set<String> usedSheetNames = new HashSet<>();
+        for (Sheet existing : workbook) usedSheetNames.add(existing.getSheetName().toLowerCase());
+
+        for (int part = 0; part < sheetParts; part++) {
+            Sheet sheet = workbook.createSheet(StatsSheetWriter.partSheetName("변경내역", sheetParts == 1 ? "" : " (" + (part + 1) + ")", usedSheetNames));
+            sheet.createFreezePane(0, 1);
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) { Cell c = headerRow.createCell(i); c.setCellValue(headers[i]); c.setCellStyle(headerS); }
+
+            int rowIdx = 1;
+            for (InventorySnapshot.Change c : changes.subList(part * rowsPerSheet, Math.min(changes.size(), (part + 1) * rowsPerSheet))) {
+                Row row = sheet.createRow(rowIdx++);
+                String[] text = {c.type, c.apiPath, c.oldHandler, c.newHandler, c.oldOwner, c.newOwner};
+                for (int j = 0; j < text.length; j++) { Cell cell = row.createCell(j); cell.setCellValue(text[j]); cell.setCellStyle(j == 0 ? centerS : leftS); }
+                long[] nums = {c.oldCalls, c.newCalls, c.delta()};
+                for (int j = 0; j < nums.length; j++) {
+                    Cell cell = row.createCell(text.length + j);
+                    if (nums[j] >= 0 || j == 2) cell.setCellValue(nums[j]);
+                    cell.setCellStyle(numS);
+                }
+            }
+            sheet.setAutoFilter(new CellRangeAddress(0, 0, 0, headers.length - 1));
+            sheet.setColumnWidth(0, 3500); sheet.setColumnWidth(1, 14500);
+            for (int k = 2; k <= 5; k++) sheet.setColumnWidth(k, 7000);
+            for (int k = 6; k <= 8; k++) sheet.setColumnWidth(k, 4000);
+        }
+    }
+
+    /**
+     * [v13.18] 단계 실행기 : 각 단계를 전용 풀에서 실행하고 소요시간을 기록합니다.
+     * 한 단계가 실패해도 나머지 단계와 최종 조인이 진행되도록 fallback 값을 반환합니다.
+     */
+    private static <T> CompletableFuture<T> runPhase(String name, Callable<T> task, T fallback, ExecutorService pool) {
+        return CompletableFuture.supplyAsync(() -> {
+            long begin = System.currentTimeMillis();
+            try {
+                T value = task.call();
+                String phaseLog = String.format("\n[PHASE] %s 완료: %.1f초", name, (System.currentTimeMillis() - begin) / 1000.0);
+                System.out.print(phaseLog); RUNTIME_LOGS.add(phaseLog);
+                return value;
+            } catch (Exception e) {
+                StringWriter sw = new StringWriter(); e.printStackTrace(new PrintWriter(sw));
+                String phaseLog = "\n[ERROR] " + name + " 단계 실패\n" + sw;
+                System.out.print(phaseLog); RUNTIME_LOGS.add(phaseLog);
+                return fallback;
+            }
+        }, pool);
+    }
+
+    /** [v13.32] API 경로별 APM 호출건수 : 원래 경로로 먼저 찾고, 없으면 {변수}를 정규화 자리표시자로 바꾼 경로로 조회 */
+    private static long apmCalls(Map<String, Long> apmTotals, String apiPath) {
+        Long calls = apmTotals.get(apiPath);
+        if (calls == null) calls = apmTotals.get(APM_PATHS.templateKey(apiPath));
+        if (calls == null && !APM_APPROX.isEmpty()) return approxCalls(apiPath);
+        return calls == null ? 0L : calls;
+    }
+
+    /** [v13.33] 근사 모드 : Bloom 필터에 없으면 0건 확정, 있으면 Count-Min 추정치(과대 추정만 발생)를 원래 경로 → 템플릿 경로 순으로 조회 */
+    private static long approxCalls(String apiPath) {
+        String template = APM_PATHS.templateKey(apiPath);
+        long sum = 0;
+        for (ApmApproxStats approx : APM_APPROX) {
+            long calls = approx.estimateTotal(apiPath);
+            if (calls == 0 && template != null && !template.equals(apiPath)) calls = approx.estimateTotal(template);
+            sum += calls;
+        }
+        return sum;
+    }
+
+    /** [v13.37] 와탭 / 제니퍼 중 하나라도 연동하면 호출건수 / 미사용 의심 컬럼 표시 */
+    private static boolean isApmEnabled() {
+        return "Y".equalsIgnoreCase(WHATAP_ENABLED) || "Y".equalsIgnoreCase(JENNIFER_ENABLED);
+    }
+
+    /**
+     * [v13.18] Whatap / Jennifer 구간별 통계를 API 경로별 총 호출건수로 합산합니다. ([v13.31] 수집 시 누적된 총합계 칸 사용)
+     * 경로별 총 호출건수 조인 맵 : 두 APM이 같은 서비스를 함께 모니터링하면 같은 호출이 양쪽에 잡히므로 더하지 않습니다.
+     * [v13.37] APM_MERGE=MAX(기본)이면 큰 값, WHATAP / JENNIFER이면 해당 APM 값을 우선하고 없는 경로만 다른 APM 값으로 채움
+     */
+    static Map<String, Long> mergeApmTotals(Map<String, long[]> whatapStats, Map<String, long[]> jenniferStats, String mergeMode) {
+        Map<String, Long> totals = new HashMap<>();
+        boolean jenniferFirst = "JENNIFER".equals(mergeMode);
+        Map<String, long[]> primary = jenniferFirst ? jenniferStats : whatapStats, secondary = jenniferFirst ? whatapStats : jenniferStats;
+        for (Map.Entry<String, long[]> entry : primary.entrySet()) totals.put(entry.getKey(), ApmStatsReport.total(entry.getValue()));
+        for (Map.Entry<String, long[]> entry : secondary.entrySet()) {
+            long calls = ApmStatsReport.total(entry.getValue());
+            if ("MAX".equals(mergeMode)) totals.merge(entry.getKey(), calls, Math::max);
+            else totals.putIfAbsent(entry.getKey(), calls);
+        }
+        return totals;
+    }
+
+    /** 이전 결과 행(머리글 → 값) 기준으로 이번 실행이 관련메뉴 컬럼에 생성할 값 (메뉴 조인 → 주석 기반 추정, 인벤토리 작성과 동일 순서) */
+    private static String autoRelatedMenu(Map<String, String> row, MenuIndex menuIndex) {
+        String apiPath = row.getOrDefault("API 경로", "");
+        MenuExcelExporter.MenuInfo menu = menuIndex.find(apiPath, autoExtractProgramId(apiPath));
+        if (menu != null) return menu.menuPath;
+        ApiInfo info = new ApiInfo();
+        info.apiOperationValue = row.get("ApiOperation(참고용)"); info.descriptionTag = row.get("description주석(참고용)");
+        info.fullComment = row.get("메소드주석(참고용)"); info.requestPropertyValue = row.get("RequestProperty(참고용)");
+        info.controllerRequestPropertyValue = row.get("컨트롤러RequestProperty(참고용)"); info.controllerComment = row.get("컨트롤러주석(참고용)");
+        return autoPopulateRelatedMenu(info);
     }
 
     private static String autoPopulateRelatedMenu(ApiInfo info) {
@@ -324,255 +955,78 @@ public class ApiExcelExporter {
         return valid.isEmpty() ? "-" : valid.get(valid.size() - 1);
     }
 
-    private static LocalDate getLatestDate(String d1, String d2, String d3) {
-        List<LocalDate> dates = new ArrayList<>();
-        try { if(d1!=null && !"-".equals(d1)) dates.add(LocalDate.parse(d1)); } catch(Exception ignored){}
-        try { if(d2!=null && !"-".equals(d2)) dates.add(LocalDate.parse(d2)); } catch(Exception ignored){}
-        try { if(d3!=null && !"-".equals(d3)) dates.add(LocalDate.parse(d3)); } catch(Exception ignored){}
-        return dates.stream().max(Comparator.naturalOrder()).orElse(null);
+    /** [v13.21] 최근 3건 커밋 중 가장 최신 커밋의 커밋터 (스냅샷 담당자 비교용) */
+    private static String getLatestCommitter(ApiInfo info) {
+        return CommitInfo.latest(info.commits).author;
     }
 
     private static void loadExternalConfig() {
-        Properties prop = new Properties();
-        try (InputStreamReader isr = new InputStreamReader(new FileInputStream("config.properties"), StandardCharsets.UTF_8)) {
-            prop.load(isr);
-            REPO_NAME = prop.getProperty("REPO_NAME", "Unknown").trim();
+        Properties prop = AppConfig.load();
+        if (prop == null) { System.err.println("[ERROR] 설정 로드 실패: config.properties 파일이 없습니다."); return; }
+        try {
+            // [v13.36] 소스 분석 설정은 ApiExtractor.Config에서 1회 해석하여 공유
+            EXTRACTOR = ApiExtractor.Config.from(prop);
+            REPO_NAME = EXTRACTOR.repoName;
             DOMAIN = prop.getProperty("DOMAIN", "").trim();
-            ROOT_PATH = prop.getProperty("ROOT_PATH", "").trim();
+            ROOT_PATH = EXTRACTOR.rootPath;
             OUTPUT_DIR = prop.getProperty("OUTPUT_DIR", "").trim();
-            GIT_BIN_PATH = prop.getProperty("GIT_BIN_PATH", "git").trim();
+            GIT_BIN_PATH = EXTRACTOR.gitBinPath;
             TEAM_NAME = prop.getProperty("TEAM_NAME", "").trim();
             MANAGER_NAME = prop.getProperty("MANAGER_NAME", "").trim();
             NOT_USE_LIMIT_COUNT = Long.parseLong(prop.getProperty("NOT_USE_LIMIT_COUNT", "0").trim());
             LAST_COMMIT_DATE = prop.getProperty("LAST_COMMIT_DATE", "1900-01-01").trim();
             WHATAP_ENABLED = prop.getProperty("WHATAP_ENABLED", "Y").trim();
-
-            API_PATH_PREFIX = prop.getProperty("API_PATH_PREFIX", "").trim();
-
-            String pathConstantsStr = prop.getProperty("PATH_CONSTANTS", "").trim();
-            if (!pathConstantsStr.isEmpty()) {
-                for (String pair : pathConstantsStr.split(",")) {
-                    String[] kv = pair.split("=");
-                    if (kv.length == 2) PATH_CONSTANTS_MAP.put(kv[0].trim(), kv[1].trim());
-                }
-            }
+            JENNIFER_ENABLED = prop.getProperty("JENNIFER_ENABLED", "N").trim();
+            APM_MERGE = prop.getProperty("APM_MERGE", "").trim().toUpperCase();
+            if (!Arrays.asList("MAX", "WHATAP", "JENNIFER").contains(APM_MERGE)) APM_MERGE = "MAX";
+
+            API_PATH_PREFIX = EXTRACTOR.apiPathPrefix;
+            PREVIOUS_RESULT_PATH = prop.getProperty("PREVIOUS_RESULT_PATH", "").trim();
+            SNAPSHOT_DIR = prop.getProperty("SNAPSHOT_DIR", "").trim();
+            if (SNAPSHOT_DIR.isEmpty()) SNAPSHOT_DIR = OUTPUT_DIR + File.separator + "snapshot";
+            DIFF_CALL_DELTA_MIN = Long.parseLong(prop.getProperty("DIFF_CALL_DELTA_MIN", "1").trim());
+            CACHE_DIR = prop.getProperty("CACHE_DIR", "").trim();
+            if (CACHE_DIR.isEmpty()) CACHE_DIR = OUTPUT_DIR + File.separator + ".cache";
+            SHARD_DIR = prop.getProperty("SHARD_DIR", "").trim();
+            String queryPort = prop.getProperty("QUERY_SERVER_PORT", "").trim();
+            if (!queryPort.isEmpty()) QUERY_SERVER_PORT = Integer.parseInt(queryPort);
+            String debounce = prop.getProperty("WATCH_DEBOUNCE_MS", "").trim();
+            if (!debounce.isEmpty()) WATCH_DEBOUNCE_MS = Long.parseLong(debounce);
+            String maxRows = prop.getProperty("EXCEL_MAX_ROWS_PER_SHEET", "").trim();
+            if (!maxRows.isEmpty() && Long.parseLong(maxRows) > 0)
+                EXCEL_MAX_ROWS_PER_SHEET = (int) Math.max(2, Math.min(StatsSheetWriter.MAX_ROWS, Long.parseLong(maxRows)));
+            APM_PATHS = ApmPathNormalizer.fromConfig();
+            if (SHARD_DIR.isEmpty()) SHARD_DIR = OUTPUT_DIR + File.separator + "shard";
+            for (String rev : prop.getProperty("REVISION", "").split(",")) if (!rev.trim().isEmpty()) REVISIONS.add(rev.trim());
         } catch (Exception e) { System.err.println("[ERROR] 설정 로드 실패: " + e.getMessage()); }
     }
 
-    private static List<ApiInfo> extractApisHybrid(Path path, String rel, List<String[]> git, StringBuilder log) {
-        try { return extractWithJavaParser(path, rel, git, log); }
-        catch (Exception e) { return extractWithRegex(path, rel, git, log); }
-    }
-
-    private static List<ApiInfo> extractWithJavaParser(Path filePath, String relPath, List<String[]> git, StringBuilder log) throws Exception {
-        List<ApiInfo> apis = new ArrayList<>();
-        CompilationUnit cu = StaticJavaParser.parse(new String(Files.readAllBytes(filePath), StandardCharsets.UTF_8));
-        String classPath = ""; String controllerComment = "-"; String controllerRequestProperty = "-";
-        Optional<ClassOrInterfaceDeclaration> mainClass = cu.findFirst(ClassOrInterfaceDeclaration.class);
-        if (mainClass.isPresent()) {
-            ClassOrInterfaceDeclaration n = mainClass.get();
-            controllerComment = n.getComment().isPresent() ? n.getComment().get().getContent().replaceAll("\\r|\\n|\\*", " ").trim() : "-";
-            controllerRequestProperty = extractRequestPropertyFromNode(n);
-            Optional<AnnotationExpr> classAnn = n.getAnnotationByName("RequestMapping");
-            if (classAnn.isPresent()) { List<String> cpList = getPathsFromAnn(classAnn.get()); if (!cpList.isEmpty()) classPath = cpList.get(0).trim(); }
-        }
-
-        for (MethodDeclaration method : cu.findAll(MethodDeclaration.class)) {
-            log.append("\n    * [Analyze] 메소드명: ").append(method.getNameAsString());
-            boolean hasMapping = false;
-
-            for (String annName : MAPPING_ANNS) {
-                Optional<AnnotationExpr> methodAnn = method.getAnnotationByName(annName);
-                if (methodAnn.isPresent()) {
-                    hasMapping = true;
-                    List<String> subPaths = getPathsFromAnn(methodAnn.get());
-                    if (subPaths.isEmpty()) {
-                        subPaths.add("");
-                        log.append("\n      - [Info] 매핑값 없음, 기본(\"\") 경로로 처리");
-                    }
-                    for (String s : subPaths) {
-                        String finalPath = (API_PATH_PREFIX + classPath + (s.trim().startsWith("/") ? s.trim() : (s.trim().isEmpty() ? "" : "/" + s.trim()))).replaceAll("/+", "/");
-                        ApiInfo info = new ApiInfo();
-                        info.apiPath = (finalPath.isEmpty() ? "/" : finalPath);
-                        info.methodName = method.getNameAsString(); info.isDeprecated = method.isAnnotationPresent("Deprecated") ? "Y" : "N";
-                        info.controllerName = filePath.getFileName().toString(); info.repoPath = (REPO_NAME + "/" + relPath).replace("\\", "/");
-                        info.git1 = git.get(0); info.git2 = git.get(1); info.git3 = git.get(2);
-                        info.controllerComment = controllerComment; info.controllerRequestPropertyValue = controllerRequestProperty;
-                        if (method.getComment().isPresent()) {
-                            String full = method.getComment().get().getContent();
-                            info.fullComment = full.replaceAll("\\r|\\n|\\*", " ").trim();
-                            Matcher dM = Pattern.compile("@?(description|deprecation)[\\s:]*([^@\\n\\r*]+)", Pattern.CASE_INSENSITIVE).matcher(full);
-                            info.descriptionTag = dM.find() ? dM.group(2).trim() : "-";
-                        } else { info.fullComment = "-"; info.descriptionTag = "-"; }
-                        info.requestPropertyValue = extractRequestPropertyFromNode(method);
-
-                        // [v13.17] @ApiOperation(value) 우선, 없으면 @Operation(summary) 파싱 [cite: 2026-03-20]
-                        info.apiOperationValue = extractAnnotationValue(method, "ApiOperation", "value");
-                        if ("-".equals(info.apiOperationValue)) {
-                            info.apiOperationValue = extractAnnotationValue(method, "Operation", "summary");
-                        }
-
-                        apis.add(info);
-                        log.append("\n      └ [Found] ").append(info.apiPath);
-                    }
-                }
-            }
-            if (!hasMapping) {
-                log.append("\n      └ [Skip] 매핑 어노테이션(RequestMapping 등) 미존재");
-            }
-        }
-        return apis;
-    }
-
-    private static String evaluateExpression(Expression expr) {
-        if (expr instanceof StringLiteralExpr) {
-            return ((StringLiteralExpr) expr).getValue();
-        } else if (expr instanceof BinaryExpr) {
-            BinaryExpr be = (BinaryExpr) expr;
-            if (be.getOperator() == BinaryExpr.Operator.PLUS) {
-                return evaluateExpression(be.getLeft()) + evaluateExpression(be.getRight());
-            }
-        } else if (expr instanceof FieldAccessExpr || expr instanceof NameExpr) {
-            String constName = expr.toString();
-            return PATH_CONSTANTS_MAP.getOrDefault(constName, "{" + constName + "}");
-        }
-        return "";
-    }
-
-    private static List<String> getPathsFromAnn(AnnotationExpr ann) {
-        List<String> paths = new ArrayList<>();
-        Expression value = null;
-        if (ann instanceof SingleMemberAnnotationExpr) {
-            value = ((SingleMemberAnnotationExpr) ann).getMemberValue();
-        } else if (ann instanceof NormalAnnotationExpr) {
-            value = ((NormalAnnotationExpr) ann).getPairs().stream()
-                    .filter(p -> p.getNameAsString().equals("value") || p.getNameAsString().equals("path"))
-                    .map(MemberValuePair::getValue).findFirst().orElse(null);
-        }
-
-        if (value instanceof ArrayInitializerExpr) {
-            for (Expression expr : ((ArrayInitializerExpr) value).getValues()) {
-                String eval = evaluateExpression(expr);
-                if (!eval.isEmpty()) paths.add(eval);
-            }
-        } else if (value != null) {
-            String eval = evaluateExpression(value);
-            if (!eval.isEmpty()) paths.add(eval);
-        }
-        return paths;
-    }
-
-    private static String extractRequestPropertyFromNode(com.github.javaparser.ast.nodeTypes.NodeWithAnnotations<?> node) {
-        String title = extractValueFromNode(node, "RequestProperty", "title");
-        return !"-".equals(title) ? title : extractValueFromNode(node, "RequestProperty", "value");
-    }
-
-    private static String extractValueFromNode(com.github.javaparser.ast.nodeTypes.NodeWithAnnotations<?> node, String annName, String attrName) {
-        Optional<AnnotationExpr> ann = node.getAnnotationByName(annName);
-        if (ann.isPresent() && ann.get() instanceof NormalAnnotationExpr) {
-            return ((NormalAnnotationExpr) ann.get()).getPairs().stream().filter(p -> p.getNameAsString().equals(attrName)).map(p -> p.getValue().toString().replaceAll("\"", "")).findFirst().orElse("-");
-        } else if (ann.isPresent() && ann.get() instanceof SingleMemberAnnotationExpr && "value".equals(attrName)) {
-            return ((SingleMemberAnnotationExpr) ann.get()).getMemberValue().toString().replaceAll("\"", "");
-        }
-        return "-";
-    }
-
-    private static String extractAnnotationValue(MethodDeclaration method, String annName, String attrName) { return extractValueFromNode(method, annName, attrName); }
-
-    private static List<ApiInfo> extractWithRegex(Path filePath, String relPath, List<String[]> git, StringBuilder log) {
-        List<ApiInfo> apis = new ArrayList<>();
-        try {
-            String raw = new String(Files.readAllBytes(filePath), StandardCharsets.UTF_8);
-            String clean = raw.replaceAll("(?s)/\\*.*?\\*/", " ").replaceAll("//.*", " ");
-            Matcher cM_Main = Pattern.compile("/\\*\\*(.*?)\\*/", Pattern.DOTALL).matcher(raw);
-            String controllerComment = cM_Main.find() ? cM_Main.group(1).replaceAll("\\r|\\n|\\*", " ").trim() : "-";
-
-            String classPath = "";
-            String classHeadChunk = clean.substring(0, Math.min(clean.length(), 3000));
-            Matcher cm = Pattern.compile("@RequestMapping\\s*\\((.*?)\\)", Pattern.DOTALL).matcher(classHeadChunk);
-            if (cm.find()) {
-                String cParams = cm.group(1);
-                for (Map.Entry<String, String> entry : PATH_CONSTANTS_MAP.entrySet()) {
-                    cParams = cParams.replace(entry.getKey(), "\"" + entry.getValue() + "\"");
-                }
-                cParams = cParams.replaceAll("\"\\s*\\+\\s*\"", "");
-                Matcher cp = Pattern.compile("\"([^\"]+)\"").matcher(cParams);
-                if (cp.find()) classPath = cp.group(1).trim();
-            }
-
-            Matcher mMatcher = Pattern.compile("@(GetMapping|PostMapping|RequestMapping|PutMapping|DeleteMapping|PatchMapping)\\s*\\((.*?)\\)", Pattern.DOTALL).matcher(raw);
-            while (mMatcher.find()) {
-                String mappingType = mMatcher.group(1);
-                String params = mMatcher.group(2);
-
-                for (Map.Entry<String, String> entry : PATH_CONSTANTS_MAP.entrySet()) {
-                    params = params.replace(entry.getKey(), "\"" + entry.getValue() + "\"");
-                }
-                params = params.replaceAll("\"\\s*\\+\\s*\"", "");
-
-                Matcher mName = Pattern.compile("(?:public|private|protected)\\s+[\\w<>,\\s]+\\s+(\\w+)\\s*\\(").matcher(clean.substring(mMatcher.end(), Math.min(mMatcher.end() + 1000, clean.length())));
-                if (mName.find()) {
-                    String methodNameStr = mName.group(1);
-                    log.append("\n    * [Analyze-Regex] 메소드명: ").append(methodNameStr).append(" (").append(mappingType).append(")");
-
-                    Matcher p = Pattern.compile("\"([^\"]+)\"").matcher(params);
-                    boolean foundValidPath = false;
-                    while (p.find()) {
-                        String s = p.group(1).trim();
-                        if (!s.contains("RequestMethod")) {
-                            foundValidPath = true;
-                            String finalPath = (API_PATH_PREFIX + classPath + (s.startsWith("/") ? s : (s.isEmpty() ? "" : "/" + s))).replaceAll("/+", "/");
-                            ApiInfo info = new ApiInfo(); info.apiPath = (finalPath.isEmpty() ? "/" : finalPath);
-                            info.methodName = methodNameStr; info.isDeprecated = clean.substring(Math.max(0, mMatcher.start() - 300), mMatcher.start()).contains("@Deprecated") ? "Y" : "N";
-                            info.controllerName = filePath.getFileName().toString(); info.repoPath = (REPO_NAME + "/" + relPath).replace("\\", "/");
-                            info.git1 = git.get(0); info.git2 = git.get(1); info.git3 = git.get(2);
-                            info.controllerComment = controllerComment; String headArea = raw.substring(Math.max(0, mMatcher.start() - 1000), mMatcher.start());
-                            Matcher cM = Pattern.compile("/\\*\\*(.*?)\\*/", Pattern.DOTALL).matcher(headArea);
-                            if (cM.find()) { info.fullComment = cM.group(1).replaceAll("\\r|\\n|\\*", " ").trim();
-                                Matcher dM = Pattern.compile("@?(description|deprecation)[\\s:]*([^@\\n\\r*]+)", Pattern.CASE_INSENSITIVE).matcher(cM.group(1));
-                                info.descriptionTag = dM.find() ? dM.group(2).trim() : "-";
-                            } else { info.fullComment = "-"; info.descriptionTag = "-"; }
-
-                            // [v13.17 Regex] @ApiOperation(value) 우선, 없으면 @Operation(summary) 파싱 [cite: 2026-03-20]
-                            Matcher aM = Pattern.compile("@ApiOperation\\s*\\(.*?value\\s*=\\s*\"([^\"]+)\".*?\\)", Pattern.DOTALL).matcher(headArea);
-                            if (aM.find()) {
-                                info.apiOperationValue = aM.group(1);
-                            } else {
-                                Matcher opM = Pattern.compile("@Operation\\s*\\(.*?summary\\s*=\\s*\"([^\"]+)\".*?\\)", Pattern.DOTALL).matcher(headArea);
-                                info.apiOperationValue = opM.find() ? opM.group(1) : "-";
-                            }
-
-                            apis.add(info);
-                            log.append("\n      └ [Found-Regex] ").append(info.apiPath);
-                        } else {
-                            log.append("\n      └ [Skip-Regex] RequestMethod 포함 구문 스킵: ").append(s);
-                        }
-                    }
-                    if (!foundValidPath) {
-                        log.append("\n      └ [Skip-Regex] 유효한 문자열 경로 추출 실패");
-                    }
-                } else {
-                    log.append("\n    * [Skip-Regex] 어노테이션(").append(mappingType).append(") 존재하나 메소드 매칭 실패");
-                }
-            }
-        } catch (Exception ignored) {}
-        return apis;
-    }
-
     private static void addLog(String msg) { System.out.println(msg); if (logPath != null && !logPath.isEmpty()) { try (FileWriter fw = new FileWriter(logPath, true); PrintWriter pw = new PrintWriter(fw)) { pw.println(msg); } catch (IOException ignored) {} } }
-    private static void saveInitialLogsToPath() { try (FileWriter fw = new FileWriter(logPath, false); PrintWriter pw = new PrintWriter(fw)) { pw.println("==============================================================="); pw.println("[START] " + REPO_NAME + " API 추출 및 Whatap 통합 시작 (v13.17)"); pw.println("==============================================================="); synchronized (RUNTIME_LOGS) { for (String l : RUNTIME_LOGS) pw.println(l); } } catch (IOException ignored) {} }
+    private static void saveInitialLogsToPath() { try (FileWriter fw = new FileWriter(logPath, false); PrintWriter pw = new PrintWriter(fw)) { pw.println("==============================================================="); pw.println("[START] " + REPO_NAME + " API 추출 및 Whatap 통합 시작 (v13.37)"); pw.println("==============================================================="); synchronized (RUNTIME_LOGS) { for (String l : RUNTIME_LOGS) pw.println(l); } } catch (IOException ignored) {} }
     private static void addExceptionLog(String title, Exception e) { StringWriter sw = new StringWriter(); e.printStackTrace(new PrintWriter(sw)); addLog("\n[ERROR] " + title + "\n" + sw.toString()); }
 
-    private static List<String[]> getRecentGitHistories(String rel, String root, int c) {
-        List<String[]> h = new ArrayList<>(); for (int i = 0; i < c; i++) h.add(new String[]{"-", "-", "No History"});
-        try { Process p = new ProcessBuilder(GIT_BIN_PATH, "log", "-" + c, "--pretty=format:%as|%an|%s", "--", rel).directory(new File(root)).start();
-            try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
-                List<String> lines = new ArrayList<>(); String l; while ((l = r.readLine()) != null) lines.add(l); Collections.reverse(lines);
-                for (int i = 0; i < lines.size(); i++) { String[] parts = lines.get(i).split("\\|", 3); h.set(i, new String[]{parts[0], parts[1], parts.length > 2 ? parts[2] : ""}); }
+    /**
+     * [v13.27] 작성된 xlsx의 zip 엔트리를 재압축 없이(raw 복사) 옮기면서 엔트리 시각만 고정값으로 바꿉니다.
+     * POI는 엔트리 시각을 저장 시점으로 기록하므로, 같은 내용이라도 실행할 때마다 파일 바이트가 달라지는 것을 방지합니다.
+     */
+    private static void writeReproducibleZip(File source, File dest, long entryTime) throws IOException {
+        // [v13.28] 완성된 파일만 보이도록 임시 파일에 기록 후 이름 변경 (감시 모드 갱신 중 엑셀을 열어도 깨진 파일이 보이지 않음)
+        File part = new File(dest.getPath() + ".part");
+        try (ZipFile zip = new ZipFile(source);
+             ZipArchiveOutputStream out = new ZipArchiveOutputStream(part)) {
+            for (ZipArchiveEntry entry : Collections.list(zip.getEntriesInPhysicalOrder())) {
+                entry.setTime(entryTime);
+                try (InputStream raw = zip.getRawInputStream(entry)) { out.addRawArchiveEntry(entry, raw); }
             }
-            p.waitFor();
-        } catch (Exception ignored) {}
-        return h;
+        }
+        try {
+            Files.move(part.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            part.delete();
+            throw e;
+        }
     }
 
     private static CellStyle createStyle(Workbook wb, Short bg, boolean bold, boolean center) {
@@ -582,9 +1036,41 @@ public class ApiExcelExporter {
         Font f = wb.createFont(); f.setBold(bold); s.setFont(f); return s;
     }
 
+    /** [v13.18] 소스 분석 단계 결과 : 추출된 API 목록과 분석 대상 컨트롤러 수 */
+    static class SourceAnalysis {
+        final List<ApiInfo> apis = Collections.synchronizedList(new ArrayList<>());
+        int totalFiles = 0;
+        /** [v13.28] 감시 모드 증분 갱신용 : 컨트롤러 상대 경로 → 추출 행 / 작업 트리 전체 .java 파일 (리비전 분석·분할 병합 시 null) */
+        final Map<String, List<ApiInfo>> byController = new ConcurrentHashMap<>();
+        List<SourceFile> sourceFiles;
+        /** [v13.28] 감시 모드 증분 갱신용 : 인덱스를 구성한 추출 엔진 (변경 파일만 인덱스에 반영, 리비전 분석·분할 병합 시 null) */
+        ApiExtractor extractor;
+    }
+
     static class ApiInfo {
         String apiPath, methodName, isDeprecated, controllerName, repoPath;
         String controllerComment, fullComment, descriptionTag, apiOperationValue, requestPropertyValue, controllerRequestPropertyValue;
-        String[] git1, git2, git3; String getApiPath() { return apiPath; }
+        /** [v13.26] 커밋 이력 3건 (CommitInfo Flyweight, 같은 메소드/파일의 행끼리 배열 공유) */
+        CommitInfo[] commits; String getApiPath() { return apiPath; }
+        /** [v13.27] 파일 내 추출 순서 (동일 경로 행의 정렬 기준) */
+        int ordinal;
+
+        /** [v13.26] 경로만 다른 사본 : 나머지 필드는 같은 인스턴스를 참조 */
+        ApiInfo withPath(String path) {
+            ApiInfo c = new ApiInfo();
+            c.apiPath = path; c.methodName = methodName; c.isDeprecated = isDeprecated; c.controllerName = controllerName; c.repoPath = repoPath;
+            c.controllerComment = controllerComment; c.fullComment = fullComment; c.descriptionTag = descriptionTag; c.apiOperationValue = apiOperationValue;
+            c.requestPropertyValue = requestPropertyValue; c.controllerRequestPropertyValue = controllerRequestPropertyValue; c.commits = commits;
+            return c;
+        }
+
+        /** [v13.26] 반복되는 문자열 필드를 실행 단위 문자열 풀의 인스턴스로 교체 */
+        ApiInfo intern(StringPool pool) {
+            methodName = pool.intern(methodName); controllerName = pool.intern(controllerName); repoPath = pool.intern(repoPath);
+            controllerComment = pool.intern(controllerComment); fullComment = pool.intern(fullComment); descriptionTag = pool.intern(descriptionTag);
+            apiOperationValue = pool.intern(apiOperationValue); requestPropertyValue = pool.intern(requestPropertyValue);
+            controllerRequestPropertyValue = pool.intern(controllerRequestPropertyValue);
+            return this;
+        }
     }
 }
\ No newline at end of file
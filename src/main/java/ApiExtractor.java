@@ -0,0 +1,651 @@
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 프로젝트명: ApiExtractor (API 추출 엔진)
+ * Version: 1.6
+ * 반영사항:
+ * 1. [재진입] ApiExcelExporter의 정적 필드(ROOT_PATH / PATH_CONSTANTS_MAP / PROCESSED_COUNT / 상수·타입 인덱스 / 분석 로그)에 의존하던 컨트롤러 분석을 인스턴스로 분리 : 불변 설정(Config)으로 생성하며 인덱스 / 진행 건수 / 로그 / 제한 시간 기록을 인스턴스마다 따로 보관 [cite: 2026-10-18]
+ * 2. [연동] apis() : 최종 연산 시점에 인덱스를 구성하고 컨트롤러를 1개씩 분석하는 지연 평가 Stream 제공 (parallel() 지정 시 컨트롤러 단위 병렬 분석) [cite: 2026-10-18]
+ * 3. [기능 유지] ApiExcelExporter v13.35의 JavaParser / Regex 폴백 추출, 상속 매핑, 상수 해석, 단계별 제한 시간 및 1회 재시도 로직 동일 적용 [cite: 2026-10-18]
+ * 4. [성능] 컨트롤러 소스를 1회만 읽어(SourceFile.readText, 문자셋 자동 판별) JavaParser와 Regex 폴백이 같은 디코딩 결과를 사용 : 폴백 시 재읽기 제거, 판별 문자셋별 건수는 [CHARSET] 로그로 출력 [cite: 2026-10-18]
+ * 5. [상수 해석] 단독 상수명(@RequestMapping(BASE))은 컨트롤러 파일의 static import / 구현 인터페이스 기준으로 상수 인덱스 조회 [cite: 2026-10-18]
+ * 6. [성능] 상수 / 타입 인덱스 구성, blame 캐시 키, 추출이 SourceFile의 1회 읽기 결과를 공유 : 인덱스 구성 후 컨트롤러가 아닌 파일, 추출 후 컨트롤러의 읽기 결과 해제 [cite: 2026-10-18]
+ * 7. [감시] update() : 감시 모드에서 변경 / 삭제 파일만 상수 / 타입 인덱스에 반영 (작업 트리 전체로 인덱스를 다시 구성하지 않음) [cite: 2026-10-18]
+ * 8. [안정성] Regex 폴백의 정규식 탐색을 중단 가능한 문자열(StepWatchdog.interruptible)에서 실행하여 제한 시간 초과 후 버려진 탐색이 바로 종료되고, 1차 작업이 실행 중인 컨트롤러는 재시도 생략 [cite: 2026-10-19]
+ * 9. [재진입] 남아 있던 전역 상태 제거 : 제한 시간(StepWatchdog.Limits) / 문자셋 판별(SourceFile.Options)은 Config가, 문자열·커밋 풀과 파일별 상수 정의 / 타입 정보 보관소는 엔진 컨텍스트(Context)가 소유 [cite: 2026-10-19]
+ *
+ * 사용 예 (한 JVM에서 팀별 동시 분석) :
+ *   new ApiExtractor(ApiExtractor.Config.from(teamProps)).apis(ApiExtractor.scan(Paths.get(root))).parallel().filter(...).collect(...)
+ */
+public class ApiExtractor {
+
+    /** 매핑 어노테이션 (클래스/메소드 공통) */
+    static final List<String> MAPPING_ANNS = Collections.unmodifiableList(Arrays.asList("RequestMapping", "GetMapping", "PostMapping", "PutMapping", "DeleteMapping", "PatchMapping"));
+
+    /** Regex 폴백에서 상수 참조(Class.FIELD, pkg.Class.FIELD)로 보이는 토큰 */
+    private static final Pattern CONSTANT_REF_PATTERN = Pattern.compile("\\b(?:[a-z_][\\w]*\\.)*[A-Z]\\w*(?:\\.[A-Z]\\w*)*\\.[A-Z][A-Z0-9_]*\\b");
+
+    /** 추출 설정 (불변) : 같은 설정으로 여러 엔진을 동시에 만들어도 서로 영향 없음 */
+    public static final class Config {
+        public final String repoName, rootPath, gitBinPath, apiPathPrefix;
+        /** PATH_CONSTANTS 수동 치환 (상수명 → 값, 수정 불가) */
+        public final Map<String, String> pathConstants;
+        /** 전역 상수 인덱스 사용 여부 / 메소드 단위 커밋 이력(GIT_HISTORY_SCOPE=METHOD) 여부 */
+        public final boolean constantIndexEnabled, methodHistory;
+        public final int blameProcesses;
+        /** [v1.6] 단계별 제한 시간 (WATCHDOG_*_SEC) / 소스 문자셋 판별·메모리 매핑 (SOURCE_FALLBACK_CHARSET, SOURCE_MMAP_KB) */
+        public final StepWatchdog.Limits watchdog;
+        public final SourceFile.Options source;
+
+        private Config(String repoName, String rootPath, String gitBinPath, String apiPathPrefix, Map<String, String> pathConstants,
+                       boolean constantIndexEnabled, boolean methodHistory, int blameProcesses, StepWatchdog.Limits watchdog, SourceFile.Options source) {
+            this.repoName = repoName; this.rootPath = rootPath; this.gitBinPath = gitBinPath; this.apiPathPrefix = apiPathPrefix;
+            this.pathConstants = Collections.unmodifiableMap(new LinkedHashMap<>(pathConstants));
+            this.constantIndexEnabled = constantIndexEnabled; this.methodHistory = methodHistory; this.blameProcesses = blameProcesses;
+            this.watchdog = watchdog; this.source = source;
+        }
+
+        /** config.properties 형식의 설정에서 생성 (null이면 기본값) */
+        public static Config from(Properties prop) {
+            Properties p = prop != null ? prop : new Properties();
+            Map<String, String> constants = new LinkedHashMap<>();
+            String pathConstantsStr = p.getProperty("PATH_CONSTANTS", "").trim();
+            if (!pathConstantsStr.isEmpty()) {
+                for (String pair : pathConstantsStr.split(",")) {
+                    String[] kv = pair.split("=");
+                    if (kv.length == 2) constants.put(kv[0].trim(), kv[1].trim());
+                }
+            }
+            String blameProcesses = p.getProperty("GIT_BLAME_PROCESSES", "").trim();
+            return new Config(p.getProperty("REPO_NAME", "Unknown").trim(), p.getProperty("ROOT_PATH", "").trim(),
+                    p.getProperty("GIT_BIN_PATH", "git").trim(), p.getProperty("API_PATH_PREFIX", "").trim(), constants,
+                    "Y".equalsIgnoreCase(p.getProperty("CONSTANT_INDEX_ENABLED", "Y").trim()),
+                    "METHOD".equalsIgnoreCase(p.getProperty("GIT_HISTORY_SCOPE", "METHOD").trim()),
+                    blameProcesses.isEmpty() ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(blameProcesses),
+                    StepWatchdog.Limits.from(p), SourceFile.Options.from(p));
+        }
+
+        /** 레파지토리만 바꾼 사본 (공통 설정 1개로 팀별 레파지토리 분석) */
+        public Config forRepository(String repoName, String rootPath) {
+            return new Config(repoName, rootPath, gitBinPath, apiPathPrefix, pathConstants, constantIndexEnabled, methodHistory, blameProcesses, watchdog, source);
+        }
+
+        /** 메소드 단위 이력용 blame (GIT_HISTORY_SCOPE=FILE이면 null) */
+        public GitBlame newBlame(File cacheFile) {
+            return methodHistory ? new GitBlame(gitBinPath, new File(rootPath), blameProcesses, cacheFile) : null;
+        }
+    }
+
+    /**
+     * [v1.6] 엔진 실행 단위 공유 상태 : 문자열 / 커밋 풀, 파일별 상수 정의 / 타입 정보 보관소.
+     * 한 실행의 리비전별 엔진이 같은 컨텍스트를 쓰면 동일 blob은 1회만 파싱하고, 다른 컨텍스트(다른 팀 분석 등)와는 공유 / 해제가 섞이지 않습니다.
+     */
+    public static final class Context {
+        final ConstantIndex.Memory constants = new ConstantIndex.Memory();
+        final TypeHierarchyIndex.Memory types = new TypeHierarchyIndex.Memory();
+        private volatile StringPool pool = new StringPool();
+
+        public StringPool pool() { return pool; }
+
+        /** 새 풀로 교체 (감시 모드 갱신마다 수정 전 문자열이 쌓이지 않도록, 이미 만든 행은 기존 인스턴스 그대로 사용) */
+        public void releasePool() { pool = new StringPool(); }
+    }
+
+    private final Config config;
+    private final Context context;
+    /** 분석 로그 (컨트롤러별 추출 내역 / 인덱스 구성 / [TIMEOUTS]) : drainLogs()로 가져감 */
+    private final List<String> logs = Collections.synchronizedList(new ArrayList<>());
+    /** 컨트롤러 분석 전에 구성되는 전역 문자열 상수 인덱스 / 상속 매핑 탐색용 타입 계층 인덱스 */
+    private volatile ConstantIndex constantIndex = ConstantIndex.empty();
+    private volatile TypeHierarchyIndex typeIndex = TypeHierarchyIndex.empty();
+    /** [v1.1] 컨트롤러 소스 판별 문자셋별 건수 */
+    private final Map<String, AtomicInteger> charsets = new java.util.concurrent.ConcurrentSkipListMap<>();
+
+    public ApiExtractor(Config config) { this(config, new Context()); }
+
+    /** @param context 같은 실행의 다른 엔진(리비전별 분석)과 공유할 컨텍스트 */
+    public ApiExtractor(Config config, Context context) {
+        this.config = config; this.context = context;
+    }
+
+    public Config config() { return config; }
+
+    public Context context() { return context; }
+
+    public static boolean isControllerPath(String relPath) {
+        return relPath.contains("Controller") || relPath.contains("Conrtoller");
+    }
+
+    /** 작업 트리의 .java 파일 목록 (기본 읽기 설정) */
+    public static List<SourceFile> scan(Path root) throws IOException { return scan(root, SourceFile.Options.DEFAULT); }
+
+    /** 작업 트리의 .java 파일 목록 */
+    public static List<SourceFile> scan(Path root, SourceFile.Options options) throws IOException {
+        List<SourceFile> javaFiles = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path p : (Iterable<Path>) walk.filter(p -> p.toString().endsWith(".java"))::iterator) javaFiles.add(SourceFile.ofPath(root, p, options));
+        }
+        return javaFiles;
+    }
+
+    /** 누적된 분석 로그를 반환하고 비웁니다. */
+    public List<String> drainLogs() {
+        synchronized (logs) {
+            List<String> drained = new ArrayList<>(logs);
+            logs.clear();
+            return drained;
+        }
+    }
+
+    // ==========================================================================================
+    // [ 분석 진입점 ]
+    // ==========================================================================================
+
+    /**
+     * 컨트롤러 분석 전 전역 상수 인덱스 / 타입 계층 인덱스를 구성합니다. (소스가 바뀌면 다시 호출)
+     * @param constantCache 상수 정의 캐시 파일 (null이면 실행 중 메모리 캐시만 사용)
+     */
+    public void prepare(List<SourceFile> javaFiles, File constantCache) {
+        StepWatchdog.Session session = new StepWatchdog.Session(config.watchdog);
+        session.within(() -> {
+            if (config.constantIndexEnabled) {
+                long t = System.currentTimeMillis();
+                constantIndex = ConstantIndex.build(javaFiles, constantCache, context.constants);
+                logs.add("\n[CONST] 상수 인덱스 구성: " + constantIndex.summary() + " (" + (System.currentTimeMillis() - t) + "ms)");
+            }
+            long typeStart = System.currentTimeMillis();
+            typeIndex = TypeHierarchyIndex.build(javaFiles, MAPPING_ANNS, context.types);
+            logs.add("\n[TYPE] 타입 계층 인덱스 구성: " + typeIndex.size() + "개 타입 (" + (System.currentTimeMillis() - typeStart) + "ms)");
+            // 인덱스 구성에 읽은 내용은 컨트롤러만 추출까지 보관 (blame / 추출이 재사용)
+            for (SourceFile file : javaFiles) if (!isControllerPath(file.relPath)) file.release();
+            return null;
+        });
+        logs.addAll(session.report());
+    }
+
+    /**
+     * prepare()로 구성한 인덱스에 변경 / 삭제 파일만 반영합니다. (감시 모드 증분 갱신)
+     * @param changed     추가 / 수정된 .java 파일
+     * @param removedKeys 삭제된 파일의 캐시 키 (SourceFile.cacheKey)
+     */
+    public void update(List<SourceFile> changed, Collection<String> removedKeys) {
+        StepWatchdog.Session session = new StepWatchdog.Session(config.watchdog);
+        session.within(() -> {
+            if (config.constantIndexEnabled) {
+                long t = System.currentTimeMillis();
+                constantIndex = constantIndex.update(changed, removedKeys);
+                logs.add("\n[CONST] 상수 인덱스 갱신: 변경 " + changed.size() + "개 / 삭제 " + removedKeys.size() + "개 → " + constantIndex.summary() + " (" + (System.currentTimeMillis() - t) + "ms)");
+            }
+            long typeStart = System.currentTimeMillis();
+            typeIndex = typeIndex.update(changed, removedKeys);
+            logs.add("\n[TYPE] 타입 계층 인덱스 갱신: " + typeIndex.size() + "개 타입 (" + (System.currentTimeMillis() - typeStart) + "ms)");
+            for (SourceFile file : changed) if (!isControllerPath(file.relPath)) file.release();
+            return null;
+        });
+        logs.addAll(session.report());
+    }
+
+    /**
+     * 지연 평가 API 목록 : 최종 연산이 시작될 때 인덱스를 구성하고, 컨트롤러를 요청되는 만큼만 분석합니다.
+     * parallel()을 지정하면 컨트롤러 단위로 병렬 분석하며, 제한 시간을 넘긴 컨트롤러는 같은 작업 스레드에서 즉시 1회 재시도합니다.
+     * 커밋 이력은 작업 트리(HEAD) 기준입니다.
+     */
+    public Stream<ApiExcelExporter.ApiInfo> apis(List<SourceFile> javaFiles) {
+        StepWatchdog.Session session = new StepWatchdog.Session(config.watchdog);
+        AtomicInteger processed = new AtomicInteger();
+        int[] total = new int[1];
+        GitBlame[] blame = new GitBlame[1];
+        return StreamSupport.stream(() -> {
+            prepare(javaFiles, null);
+            blame[0] = config.newBlame(null);
+            List<SourceFile> controllers = javaFiles.stream().filter(f -> isControllerPath(f.relPath)).collect(Collectors.toList());
+            total[0] = controllers.size();
+            return controllers.spliterator();
+        }, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED, false).flatMap(file -> session.within(() -> {
+            List<ApiExcelExporter.ApiInfo> apis = analyzeController(file, null, blame[0], processed.incrementAndGet(), total[0]);
+            return session.retryable(file.relPath) ? session.retrying(() -> analyzeController(file, null, blame[0], -1, total[0])) : apis;
+        }).stream());
+    }
+
+    /**
+     * 소스 분석 1회 (작업 트리 또는 리비전 1개) : 인덱스 구성 후 컨트롤러를 병렬 분석합니다.
+     * @param revision git 리비전 (작업 트리 분석 시 null)
+     * @param blame    메소드 단위 이력 조회용 (GIT_HISTORY_SCOPE=FILE이면 null)
+     * @param owns     분석할 컨트롤러 (분할 실행 시 담당 여부, 상수/타입 인덱스는 전체 파일 기준)
+     */
+    ApiExcelExporter.SourceAnalysis analyze(List<SourceFile> javaFiles, String revision, GitBlame blame, Predicate<String> owns, File constantCache) {
+        ApiExcelExporter.SourceAnalysis result = new ApiExcelExporter.SourceAnalysis();
+        List<SourceFile> controllerFiles = javaFiles.stream()
+                .filter(f -> isControllerPath(f.relPath))
+                .filter(f -> owns.test(f.relPath))
+                .collect(Collectors.toList());
+        prepare(javaFiles, constantCache);
+
+        result.totalFiles = controllerFiles.size();
+        result.byController.putAll(analyzeControllers(controllerFiles, revision, blame));
+        // 파일 순서대로 전체 목록 구성 (재시도 결과 포함)
+        for (SourceFile file : controllerFiles) {
+            List<ApiExcelExporter.ApiInfo> apis = result.byController.get(file.relPath);
+            if (apis != null) result.apis.addAll(apis);
+        }
+        if (revision == null) { result.sourceFiles = javaFiles; result.extractor = this; }
+        return result;
+    }
+
+    /**
+     * 컨트롤러들을 병렬 분석하고, 단계 제한 시간을 넘긴 컨트롤러는 전용 스레드에서 1회 재분석한 뒤 [TIMEOUTS] 로그를 남깁니다.
+     * @return 컨트롤러 상대 경로 → 추출 행
+     */
+    Map<String, List<ApiExcelExporter.ApiInfo>> analyzeControllers(List<SourceFile> controllers, String revision, GitBlame blame) {
+        Map<String, List<ApiExcelExporter.ApiInfo>> byController = new java.util.concurrent.ConcurrentHashMap<>();
+        StepWatchdog.Session session = new StepWatchdog.Session(config.watchdog);
+        AtomicInteger processed = new AtomicInteger();
+        int total = controllers.size();
+        controllers.parallelStream().forEach(file -> byController.put(file.relPath,
+                session.within(() -> analyzeController(file, revision, blame, processed.incrementAndGet(), total))));
+
+        List<SourceFile> overran = new ArrayList<>();
+        for (SourceFile file : controllers) if (session.retryable(file.relPath)) overran.add(file);
+        try {
+            Map<SourceFile, List<ApiExcelExporter.ApiInfo>> retried = session.retryOnce(overran, file -> analyzeController(file, revision, blame, -1, total));
+            for (Map.Entry<SourceFile, List<ApiExcelExporter.ApiInfo>> e : retried.entrySet()) byController.put(e.getKey().relPath, e.getValue());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            StringWriter sw = new StringWriter();
+            e.printStackTrace(new PrintWriter(sw));
+            logs.add("\n[ERROR] 제한 시간 초과 재시도 오류\n" + sw);
+        }
+        List<String> report = new ArrayList<>(session.report());
+        report.add(0, charsetSummary());
+        for (String line : report) System.out.print(line);
+        logs.addAll(report);
+        return byController;
+    }
+
+    /** [v1.1] [CHARSET] 로그 : 지금까지 분석한 컨트롤러의 판별 문자셋별 건수 */
+    private String charsetSummary() {
+        StringBuilder sb = new StringBuilder("\n[CHARSET] 컨트롤러 소스 문자셋:");
+        if (charsets.isEmpty()) return sb.append(" 없음").toString();
+        String sep = " ";
+        for (Map.Entry<String, AtomicInteger> e : charsets.entrySet()) { sb.append(sep).append(e.getKey()).append(' ').append(e.getValue().get()).append("건"); sep = " / "; }
+        return sb.toString();
+    }
+
+    /** 컨트롤러 1개 분석 : 커밋 이력 조회 후 API 행을 추출하고 파일 내 추출 순서를 부여합니다. (current < 0이면 재시도) */
+    private List<ApiExcelExporter.ApiInfo> analyzeController(SourceFile file, String revision, GitBlame blame, int current, int total) {
+        CommitInfo[] gitHistories = getRecentGitHistories(file.relPath, config.rootPath, revision, 3);
+        StringBuilder fileLog = new StringBuilder();
+        fileLog.append(current < 0 ? "\n[재시도] 분석: " + file.fileName : String.format("\n[%d/%d] 분석: %s", current, total, file.fileName));
+        fileLog.append(String.format(" (최신커밋: %s | %s)", gitHistories[0].dateText(), gitHistories[0].author));
+
+        GitBlame.FileBlame fileBlame = blame != null ? blame.blame(file, revision) : null;
+        List<ApiExcelExporter.ApiInfo> apis = extractApisHybrid(file, gitHistories, fileBlame, fileLog);
+        file.release();
+        for (int i = 0; i < apis.size(); i++) apis.get(i).ordinal = i;
+        System.out.print(fileLog.toString());
+        logs.add(fileLog.toString());
+        return apis;
+    }
+
+    // ==========================================================================================
+    // [ 추출 ]
+    // ==========================================================================================
+
+    private List<ApiExcelExporter.ApiInfo> extractApisHybrid(SourceFile file, CommitInfo[] git, GitBlame.FileBlame blame, StringBuilder log) {
+        // [v1.1] 1회 읽기 : 두 추출 전략이 같은 디코딩 결과를 사용 (읽기 실패 / 제한 시간 초과 시 빈 목록)
+        String src;
+        try {
+            SourceFile.Text text = file.readText();
+            charsets.computeIfAbsent(text.charset, k -> new AtomicInteger()).incrementAndGet();
+            if (!text.charset.startsWith("UTF-8")) log.append(" [").append(text.charset).append("]");
+            src = text.content;
+        } catch (IOException e) {
+            log.append(e instanceof StepWatchdog.StepTimeoutException ? " [TIMEOUT] " : " [READ-FAIL] ").append(e.getMessage());
+            return new ArrayList<>();
+        }
+        try { return extractWithJavaParser(file, src, git, blame, log); }
+        catch (Exception e) {
+            if (e instanceof StepWatchdog.StepTimeoutException) log.append(" [TIMEOUT] ").append(e.getMessage());
+            // [v13.35] Regex 폴백도 제한 시간 감시 : 초과 시 결과를 버리고 빈 목록 (버려진 작업이 로그를 건드리지 않도록 별도 버퍼 사용)
+            StringBuilder regexLog = new StringBuilder();
+            try {
+                List<ApiExcelExporter.ApiInfo> apis = StepWatchdog.call(StepWatchdog.Step.REGEX, file.relPath, () -> extractWithRegex(file, src, git, regexLog));
+                log.append(regexLog);
+                return apis;
+            } catch (Exception timeout) {
+                log.append(" [TIMEOUT] ").append(timeout.getMessage());
+                return new ArrayList<>();
+            }
+        }
+    }
+
+    private List<ApiExcelExporter.ApiInfo> extractWithJavaParser(SourceFile file, String src, CommitInfo[] git, GitBlame.FileBlame blame, StringBuilder log) throws Exception {
+        List<ApiExcelExporter.ApiInfo> apis = new ArrayList<>();
+        CompilationUnit cu = StepWatchdog.call(StepWatchdog.Step.PARSE, file.relPath, () -> StaticJavaParser.parse(src));
+        String classPath = ""; String ownerClass = null; String qualifiedName = null;
+        ApiExcelExporter.ApiInfo base = new ApiExcelExporter.ApiInfo();
+        base.controllerName = context.pool().intern(file.fileName); base.repoPath = context.pool().intern((config.repoName + "/" + file.relPath).replace("\\", "/"));
+        base.controllerComment = "-"; base.controllerRequestPropertyValue = "-";
+        Optional<ClassOrInterfaceDeclaration> mainClass = cu.findFirst(ClassOrInterfaceDeclaration.class);
+        if (mainClass.isPresent()) {
+            ClassOrInterfaceDeclaration n = mainClass.get();
+            // [v13.23] 추상 클래스/인터페이스는 Spring이 핸들러로 등록하지 않으며, 매핑은 하위 컨트롤러 행으로 상속되어 출력됨
+            if (n.isAbstract() || n.isInterface()) {
+                log.append("\n    * [Skip] 추상 클래스/인터페이스 (매핑은 하위 컨트롤러에 상속 반영)");
+                return apis;
+            }
+            ownerClass = n.getNameAsString();
+            qualifiedName = cu.getPackageDeclaration().map(p -> p.getNameAsString() + ".").orElse("") + ownerClass;
+            base.controllerComment = context.pool().intern(n.getComment().isPresent() ? n.getComment().get().getContent().replaceAll("\\r|\\n|\\*", " ").trim() : "-");
+            base.controllerRequestPropertyValue = context.pool().intern(extractRequestPropertyFromNode(n));
+            Optional<AnnotationExpr> classAnn = n.getAnnotationByName("RequestMapping");
+            if (classAnn.isPresent()) { List<String> cpList = getPathsFromAnn(classAnn.get(), ownerClass); if (!cpList.isEmpty()) classPath = cpList.get(0).trim(); }
+            else {
+                // [v13.23] 클래스 레벨 매핑이 없으면 상위 타입(*Api 인터페이스, Abstract 컨트롤러)의 @RequestMapping 상속
+                TypeHierarchyIndex.ClassMapping cm = typeIndex.inheritedClassMapping(qualifiedName);
+                if (cm != null) {
+                    List<String> cpList = getPathsFromAnn(cm.annotation, cm.ownerClass);
+                    if (!cpList.isEmpty()) { classPath = cpList.get(0).trim(); log.append("\n    * [Inherit] 클래스 경로: ").append(classPath).append(" (").append(cm.ownerClass).append(")"); }
+                }
+            }
+        }
+
+        // [v13.23] 상위 타입에 선언된 매핑 메소드 (시그니처 → 선언)
+        Map<String, TypeHierarchyIndex.MappedMethod> inherited = qualifiedName != null ? typeIndex.inheritedMappings(qualifiedName) : Collections.emptyMap();
+        Set<String> ownSignatures = new HashSet<>();
+
+        for (MethodDeclaration method : cu.findAll(MethodDeclaration.class)) {
+            log.append("\n    * [Analyze] 메소드명: ").append(method.getNameAsString());
+            String signature = TypeHierarchyIndex.signature(method);
+            ownSignatures.add(signature);
+            // [v13.25] 메소드 라인 범위를 수정한 커밋 이력 (blame 실패 시 파일 단위 이력)
+            CommitInfo[] history = git;
+            if (blame != null && method.getRange().isPresent()) history = blame.history(method.getRange().get().begin.line, method.getRange().get().end.line, 3);
+            boolean hasMapping = addMappedApis(apis, base, history, classPath, method, method, ownerClass, log);
+
+            // 어노테이션 없이 오버라이드한 메소드는 상위 타입의 매핑을 그대로 상속 (Spring 동작과 동일)
+            TypeHierarchyIndex.MappedMethod parent = TypeHierarchyIndex.overridden(inherited, signature);
+            if (!hasMapping && parent != null && !method.isStatic() && !method.isPrivate()) {
+                log.append("\n      - [Inherit] 매핑 상속: ").append(parent.ownerClass);
+                hasMapping = addMappedApis(apis, base, history, classPath, method, parent.declaration, parent.ownerClass, log);
+            }
+            if (!hasMapping) {
+                log.append("\n      └ [Skip] 매핑 어노테이션(RequestMapping 등) 미존재");
+            }
+        }
+
+        // [v13.23] 오버라이드하지 않은 상위 타입의 매핑 메소드도 이 컨트롤러의 API로 등록
+        for (Map.Entry<String, TypeHierarchyIndex.MappedMethod> e : inherited.entrySet()) {
+            if (ownSignatures.stream().anyMatch(own -> TypeHierarchyIndex.overrides(own, e.getKey()))) continue;
+            TypeHierarchyIndex.MappedMethod parent = e.getValue();
+            log.append("\n    * [Inherit] 메소드명: ").append(parent.declaration.getNameAsString()).append(" (").append(parent.ownerClass).append(")");
+            addMappedApis(apis, base, git, classPath, parent.declaration, parent.declaration, parent.ownerClass, log);
+        }
+        return apis;
+    }
+
+    /**
+     * [v13.23] 메소드 1개의 매핑 어노테이션으로 API 행을 생성합니다.
+     * @param method        API 행의 메소드 (컨트롤러 자신의 선언)
+     * @param mappingSource 매핑 어노테이션을 읽을 선언 (상속 시 상위 타입의 선언, 주석/ApiOperation도 자신에 없으면 여기서 보완)
+     * @param mappingOwner  mappingSource를 선언한 클래스명 (상수 해석용)
+     * @param history       커밋 이력 3건 (메소드 단위 또는 파일 단위, 같은 메소드/파일의 행끼리 배열 공유)
+     * @return 매핑 어노테이션 존재 여부
+     */
+    private boolean addMappedApis(List<ApiExcelExporter.ApiInfo> apis, ApiExcelExporter.ApiInfo base, CommitInfo[] history, String classPath, MethodDeclaration method,
+                                         MethodDeclaration mappingSource, String mappingOwner, StringBuilder log) {
+        boolean hasMapping = false;
+        ApiExcelExporter.ApiInfo proto = null;
+        for (String annName : MAPPING_ANNS) {
+            Optional<AnnotationExpr> methodAnn = mappingSource.getAnnotationByName(annName);
+            if (methodAnn.isPresent()) {
+                hasMapping = true;
+                List<String> subPaths = getPathsFromAnn(methodAnn.get(), mappingOwner);
+                if (subPaths.isEmpty()) {
+                    subPaths.add("");
+                    log.append("\n      - [Info] 매핑값 없음, 기본(\"\") 경로로 처리");
+                }
+                // [v13.26] 주석/어노테이션 값은 메소드당 1회만 계산하고 문자열 풀로 공유 (매핑 경로 수만큼 반복 생성하지 않음)
+                if (proto == null) proto = describeMethod(base, history, method, mappingSource);
+                for (String s : subPaths) {
+                    String finalPath = (config.apiPathPrefix + classPath + (s.trim().startsWith("/") ? s.trim() : (s.trim().isEmpty() ? "" : "/" + s.trim()))).replaceAll("/+", "/");
+                    ApiExcelExporter.ApiInfo info = proto.withPath(finalPath.isEmpty() ? "/" : finalPath);
+                    apis.add(info);
+                    log.append("\n      └ [Found] ").append(info.apiPath);
+                }
+            }
+        }
+        return hasMapping;
+    }
+
+    /** [v13.26] 경로를 제외한 메소드 단위 API 정보 (같은 메소드의 매핑 경로별 행이 공유) */
+    private ApiExcelExporter.ApiInfo describeMethod(ApiExcelExporter.ApiInfo base, CommitInfo[] history, MethodDeclaration method, MethodDeclaration mappingSource) {
+        ApiExcelExporter.ApiInfo info = new ApiExcelExporter.ApiInfo();
+        info.methodName = method.getNameAsString();
+        info.isDeprecated = (method.isAnnotationPresent("Deprecated") || mappingSource.isAnnotationPresent("Deprecated")) ? "Y" : "N";
+        info.controllerName = base.controllerName; info.repoPath = base.repoPath;
+        info.commits = history;
+        info.controllerComment = base.controllerComment; info.controllerRequestPropertyValue = base.controllerRequestPropertyValue;
+        MethodDeclaration doc = method.getComment().isPresent() ? method : mappingSource;
+        if (doc.getComment().isPresent()) {
+            String full = doc.getComment().get().getContent();
+            info.fullComment = full.replaceAll("\\r|\\n|\\*", " ").trim();
+            Matcher dM = Pattern.compile("@?(description|deprecation)[\\s:]*([^@\\n\\r*]+)", Pattern.CASE_INSENSITIVE).matcher(full);
+            info.descriptionTag = dM.find() ? dM.group(2).trim() : "-";
+        } else { info.fullComment = "-"; info.descriptionTag = "-"; }
+        info.requestPropertyValue = extractRequestPropertyFromNode(method);
+        if ("-".equals(info.requestPropertyValue)) info.requestPropertyValue = extractRequestPropertyFromNode(mappingSource);
+
+        // [v13.17] @ApiOperation(value) 우선, 없으면 @Operation(summary) 파싱 [cite: 2026-03-20]
+        info.apiOperationValue = extractApiOperation(method);
+        if ("-".equals(info.apiOperationValue)) info.apiOperationValue = extractApiOperation(mappingSource);
+        return info.intern(context.pool());
+    }
+
+    private static String extractApiOperation(MethodDeclaration method) {
+        String value = extractAnnotationValue(method, "ApiOperation", "value");
+        return "-".equals(value) ? extractAnnotationValue(method, "Operation", "summary") : value;
+    }
+
+    /**
+     * [v13.22] 상수 참조는 PATH_CONSTANTS(수동 Override) → 전역 상수 인덱스 순으로 해석하며,
+     * 둘 다 없을 때만 {상수명} 형태로 남깁니다.
+     */
+    private String evaluateExpression(Expression expr, String ownerClass) {
+        if (expr instanceof StringLiteralExpr) {
+            return ((StringLiteralExpr) expr).getValue();
+        } else if (expr instanceof EnclosedExpr) {
+            return evaluateExpression(((EnclosedExpr) expr).getInner(), ownerClass);
+        } else if (expr instanceof BinaryExpr) {
+            BinaryExpr be = (BinaryExpr) expr;
+            if (be.getOperator() == BinaryExpr.Operator.PLUS) {
+                return evaluateExpression(be.getLeft(), ownerClass) + evaluateExpression(be.getRight(), ownerClass);
+            }
+        } else if (expr instanceof FieldAccessExpr || expr instanceof NameExpr) {
+            String constName = expr.toString();
+            String override = config.pathConstants.get(constName);
+            if (override != null) return override;
+            // 단독 상수명(BASE)은 사용 파일의 static import / 구현 인터페이스 기준으로 조회
+            String indexed = expr instanceof NameExpr
+                    ? constantIndex.lookup(constName, ownerClass, ConstantIndex.Scope.of(expr))
+                    : constantIndex.lookup(constName, ownerClass);
+            return indexed != null ? indexed : "{" + constName + "}";
+        }
+        return "";
+    }
+
+    private List<String> getPathsFromAnn(AnnotationExpr ann, String ownerClass) {
+        List<String> paths = new ArrayList<>();
+        Expression value = null;
+        if (ann instanceof SingleMemberAnnotationExpr) {
+            value = ((SingleMemberAnnotationExpr) ann).getMemberValue();
+        } else if (ann instanceof NormalAnnotationExpr) {
+            value = ((NormalAnnotationExpr) ann).getPairs().stream()
+                    .filter(p -> p.getNameAsString().equals("value") || p.getNameAsString().equals("path"))
+                    .map(MemberValuePair::getValue).findFirst().orElse(null);
+        }
+
+        if (value instanceof ArrayInitializerExpr) {
+            for (Expression expr : ((ArrayInitializerExpr) value).getValues()) {
+                String eval = evaluateExpression(expr, ownerClass);
+                if (!eval.isEmpty()) paths.add(eval);
+            }
+        } else if (value != null) {
+            String eval = evaluateExpression(value, ownerClass);
+            if (!eval.isEmpty()) paths.add(eval);
+        }
+        return paths;
+    }
+
+    private static String extractRequestPropertyFromNode(com.github.javaparser.ast.nodeTypes.NodeWithAnnotations<?> node) {
+        String title = extractValueFromNode(node, "RequestProperty", "title");
+        return !"-".equals(title) ? title : extractValueFromNode(node, "RequestProperty", "value");
+    }
+
+    private static String extractValueFromNode(com.github.javaparser.ast.nodeTypes.NodeWithAnnotations<?> node, String annName, String attrName) {
+        Optional<AnnotationExpr> ann = node.getAnnotationByName(annName);
+        if (ann.isPresent() && ann.get() instanceof NormalAnnotationExpr) {
+            return ((NormalAnnotationExpr) ann.get()).getPairs().stream().filter(p -> p.getNameAsString().equals(attrName)).map(p -> p.getValue().toString().replaceAll("\"", "")).findFirst().orElse("-");
+        } else if (ann.isPresent() && ann.get() instanceof SingleMemberAnnotationExpr && "value".equals(attrName)) {
+            return ((SingleMemberAnnotationExpr) ann.get()).getMemberValue().toString().replaceAll("\"", "");
+        }
+        return "-";
+    }
+
+    private static String extractAnnotationValue(MethodDeclaration method, String annName, String attrName) { return extractValueFromNode(method, annName, attrName); }
+
+    /** [v13.22] Regex 폴백용 : PATH_CONSTANTS 치환 후 남은 Class.FIELD 형태의 상수 참조를 상수 인덱스 값으로 치환 */
+    private String replaceIndexedConstants(String params) {
+        Matcher m = CONSTANT_REF_PATTERN.matcher(params);
+        StringBuffer sb = new StringBuffer();
+        while (m.find()) {
+            String v = constantIndex.lookup(m.group(), null);
+            m.appendReplacement(sb, Matcher.quoteReplacement(v != null ? "\"" + v + "\"" : m.group()));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    private List<ApiExcelExporter.ApiInfo> extractWithRegex(SourceFile file, String raw, CommitInfo[] git, StringBuilder log) {
+        List<ApiExcelExporter.ApiInfo> apis = new ArrayList<>();
+        try {
+            // 제한 시간 초과로 취소되면 탐색 중인 Matcher가 CancellationException으로 종료되도록 중단 가능한 문자열에서 탐색
+            CharSequence text = StepWatchdog.interruptible(raw);
+            String clean = Pattern.compile("//.*").matcher(StepWatchdog.interruptible(Pattern.compile("(?s)/\\*.*?\\*/").matcher(text).replaceAll(" "))).replaceAll(" ");
+            CharSequence cleanText = StepWatchdog.interruptible(clean);
+            Matcher cM_Main = Pattern.compile("/\\*\\*(.*?)\\*/", Pattern.DOTALL).matcher(text);
+            String controllerComment = cM_Main.find() ? cM_Main.group(1).replaceAll("\\r|\\n|\\*", " ").trim() : "-";
+
+            String classPath = "";
+            String classHeadChunk = clean.substring(0, Math.min(clean.length(), 3000));
+            Matcher cm = Pattern.compile("@RequestMapping\\s*\\((.*?)\\)", Pattern.DOTALL).matcher(StepWatchdog.interruptible(classHeadChunk));
+            if (cm.find()) {
+                String cParams = cm.group(1);
+                for (Map.Entry<String, String> entry : config.pathConstants.entrySet()) {
+                    cParams = cParams.replace(entry.getKey(), "\"" + entry.getValue() + "\"");
+                }
+                cParams = replaceIndexedConstants(cParams);
+                cParams = cParams.replaceAll("\"\\s*\\+\\s*\"", "");
+                Matcher cp = Pattern.compile("\"([^\"]+)\"").matcher(cParams);
+                if (cp.find()) classPath = cp.group(1).trim();
+            }
+
+            Matcher mMatcher = Pattern.compile("@(GetMapping|PostMapping|RequestMapping|PutMapping|DeleteMapping|PatchMapping)\\s*\\((.*?)\\)", Pattern.DOTALL).matcher(text);
+            while (mMatcher.find()) {
+                String mappingType = mMatcher.group(1);
+                String params = mMatcher.group(2);
+
+                for (Map.Entry<String, String> entry : config.pathConstants.entrySet()) {
+                    params = params.replace(entry.getKey(), "\"" + entry.getValue() + "\"");
+                }
+                params = replaceIndexedConstants(params);
+                params = params.replaceAll("\"\\s*\\+\\s*\"", "");
+
+                Matcher mName = Pattern.compile("(?:public|private|protected)\\s+[\\w<>,\\s]+\\s+(\\w+)\\s*\\(").matcher(cleanText.subSequence(mMatcher.end(), Math.min(mMatcher.end() + 1000, clean.length())));
+                if (mName.find()) {
+                    String methodNameStr = mName.group(1);
+                    log.append("\n    * [Analyze-Regex] 메소드명: ").append(methodNameStr).append(" (").append(mappingType).append(")");
+
+                    Matcher p = Pattern.compile("\"([^\"]+)\"").matcher(params);
+                    boolean foundValidPath = false;
+                    while (p.find()) {
+                        String s = p.group(1).trim();
+                        if (!s.contains("RequestMethod")) {
+                            foundValidPath = true;
+                            String finalPath = (config.apiPathPrefix + classPath + (s.startsWith("/") ? s : (s.isEmpty() ? "" : "/" + s))).replaceAll("/+", "/");
+                            ApiExcelExporter.ApiInfo info = new ApiExcelExporter.ApiInfo(); info.apiPath = (finalPath.isEmpty() ? "/" : finalPath);
+                            info.methodName = methodNameStr; info.isDeprecated = clean.substring(Math.max(0, mMatcher.start() - 300), mMatcher.start()).contains("@Deprecated") ? "Y" : "N";
+                            info.controllerName = file.fileName; info.repoPath = (config.repoName + "/" + file.relPath).replace("\\", "/");
+                            info.commits = git;
+                            info.controllerComment = controllerComment; CharSequence headArea = text.subSequence(Math.max(0, mMatcher.start() - 1000), mMatcher.start());
+                            Matcher cM = Pattern.compile("/\\*\\*(.*?)\\*/", Pattern.DOTALL).matcher(headArea);
+                            if (cM.find()) { info.fullComment = cM.group(1).replaceAll("\\r|\\n|\\*", " ").trim();
+                                Matcher dM = Pattern.compile("@?(description|deprecation)[\\s:]*([^@\\n\\r*]+)", Pattern.CASE_INSENSITIVE).matcher(cM.group(1));
+                                info.descriptionTag = dM.find() ? dM.group(2).trim() : "-";
+                            } else { info.fullComment = "-"; info.descriptionTag = "-"; }
+
+                            // [v13.17 Regex] @ApiOperation(value) 우선, 없으면 @Operation(summary) 파싱 [cite: 2026-03-20]
+                            Matcher aM = Pattern.compile("@ApiOperation\\s*\\(.*?value\\s*=\\s*\"([^\"]+)\".*?\\)", Pattern.DOTALL).matcher(headArea);
+                            if (aM.find()) {
+                                info.apiOperationValue = aM.group(1);
+                            } else {
+                                Matcher opM = Pattern.compile("@Operation\\s*\\(.*?summary\\s*=\\s*\"([^\"]+)\".*?\\)", Pattern.DOTALL).matcher(headArea);
+                                info.apiOperationValue = opM.find() ? opM.group(1) : "-";
+                            }
+
+                            apis.add(info.intern(context.pool()));
+                            log.append("\n      └ [Found-Regex] ").append(info.apiPath);
+                        } else {
+                            log.append("\n      └ [Skip-Regex] RequestMethod 포함 구문 스킵: ").append(s);
+                        }
+                    }
+                    if (!foundValidPath) {
+                        log.append("\n      └ [Skip-Regex] 유효한 문자열 경로 추출 실패");
+                    }
+                } else {
+                    log.append("\n    * [Skip-Regex] 어노테이션(").append(mappingType).append(") 존재하나 메소드 매칭 실패");
+                }
+            }
+        } catch (Exception ignored) {}
+        return apis;
+    }
+
+    /** [v13.24] revision 지정 시 해당 리비전 시점까지의 이력만 조회 (null이면 현재 HEAD 기준) */
+    private CommitInfo[] getRecentGitHistories(String rel, String root, String revision, int c) {
+        List<CommitInfo> newestFirst = new ArrayList<>();
+        List<String> cmd = new ArrayList<>(Arrays.asList(config.gitBinPath, "log", "-" + c, "--pretty=format:%as|%an|%s"));
+        if (revision != null) cmd.add(revision);
+        cmd.add("--"); cmd.add(rel);
+        // [v13.35] 자격 증명/LFS 프롬프트 대기 방지(입력 닫기, GIT_TERMINAL_PROMPT=0), stderr 버림, 제한 시간 초과 시 프로세스 강제 종료
+        ProcessBuilder pb = new ProcessBuilder(cmd).directory(new File(root)).redirectError(ProcessBuilder.Redirect.DISCARD);
+        pb.environment().put("GIT_TERMINAL_PROMPT", "0");
+        try { Process p = pb.start();
+            try (StepWatchdog.Guard guard = StepWatchdog.watchProcess(rel, p);
+                 BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                String l; while ((l = r.readLine()) != null) { String[] parts = l.split("\\|", 3); if (parts.length >= 2) newestFirst.add(context.pool().commit(parts[0], parts[1], parts.length > 2 ? parts[2] : "")); }
+                p.waitFor();
+                // 강제 종료된 git log의 잘린 출력은 사용하지 않음 (GitBlame과 동일하게 이력 없음 처리)
+                if (guard.timedOut()) newestFirst.clear();
+            }
+        } catch (Exception ignored) {}
+        return CommitInfo.columns(newestFirst, c);
+    }
+}
@@ -0,0 +1,241 @@
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 프로젝트명: ApmApproxStats (APM 근사 집계 : STATS_MODE=approx)
+ * Version: 1.2
+ * 반영사항:
+ * 1. [신규] 경로별 정확한 구간 배열(Map) 대신 구간별 Count-Min 스케치 + 전체 Count-Min 스케치 + Space-Saving 상위 경로 표 + 수집 경로 Bloom 필터로 집계 [cite: 2026-10-18]
+ * 2. [안정성] 모든 구조를 시작 시점에 고정 크기로 할당하여 APM이 반환하는 고유 경로 수와 무관하게 메모리 일정 [cite: 2026-10-18]
+ * 3. [로그] Count-Min 오차 상한(ε·N, 신뢰도 1-δ), Space-Saving 보장 임계값(N/K), Bloom 필터 오탐률 추정치를 수집 후 출력 [cite: 2026-10-18]
+ * 4. [재진입] fromConfig(Properties, 구간 수) / enabled(Properties) 추가 : 수집기 인스턴스가 각자의 설정으로 근사 집계 생성 [cite: 2026-10-18]
+ * 5. [수정] 경로 정규화기(ApmPathNormalizer)가 경로별 상한 집합을 보관하지 않으므로 근사 모드 수집 메모리는 스케치 / 상위 경로 표 / Bloom 필터 크기로 고정, 접두 경로별 상한은 상위 경로 표(heavyHitterStats 결과)에만 적용 [cite: 2026-10-18]
+ *
+ * 설정 (config.properties) : STATS_APPROX_WIDTH, STATS_APPROX_DEPTH, STATS_APPROX_TOP_K, STATS_APPROX_BLOOM_MB
+ */
+public class ApmApproxStats {
+
+    /** Bloom 필터 해시 함수 수 */
+    private static final int BLOOM_HASHES = 5;
+
+    private final int width, depth, topK, segments;
+    private final long bloomBits;
+
+    /** 구간별 Count-Min 스케치 : [구간][행 * width + 열] / 전체 호출건수 스케치 (인벤토리 조인용) */
+    private final AtomicLongArray[] segmentSketches;
+    private final AtomicLongArray totalSketch;
+
+    /** 수집된 적이 있는 경로 : 없다고 답하면 확실히 0건 */
+    private final AtomicLongArray bloom;
+
+    private final SpaceSaving heavyHitters;
+    private final LongAdder streamTotal = new LongAdder(), updates = new LongAdder();
+
+    public ApmApproxStats(int segments, int width, int depth, int topK, long bloomBits) {
+        this.segments = segments; this.width = width; this.depth = depth; this.topK = topK;
+        this.bloomBits = Math.max(64, bloomBits);
+        this.segmentSketches = new AtomicLongArray[segments];
+        for (int i = 0; i < segments; i++) segmentSketches[i] = new AtomicLongArray(width * depth);
+        this.totalSketch = new AtomicLongArray(width * depth);
+        this.bloom = new AtomicLongArray((int) ((this.bloomBits + 63) >>> 6));
+        this.heavyHitters = new SpaceSaving(topK);
+    }
+
+    /** config.properties 기준 생성 (미설정 시 폭 2048 / 깊이 4 / 상위 5000건 / Bloom 8MB) */
+    public static ApmApproxStats fromConfig(int segments) {
+        return fromConfig(AppConfig.load(), segments);
+    }
+
+    /** [v1.1] 지정한 설정 기준 생성 (null이면 기본값) : 수집기 인스턴스별 설정 */
+    public static ApmApproxStats fromConfig(Properties prop, int segments) {
+        if (prop == null) prop = new Properties();
+        int width = intProperty(prop, "STATS_APPROX_WIDTH", 2048);
+        int depth = intProperty(prop, "STATS_APPROX_DEPTH", 4);
+        int topK = intProperty(prop, "STATS_APPROX_TOP_K", 5000);
+        long bloomBits = intProperty(prop, "STATS_APPROX_BLOOM_MB", 8) * 8L * 1024 * 1024;
+        return new ApmApproxStats(segments, width, depth, topK, bloomBits);
+    }
+
+    /** approx 모드 여부 (config.properties STATS_MODE=approx) */
+    public static boolean enabled() {
+        return enabled(AppConfig.load());
+    }
+
+    /** [v1.1] 지정한 설정의 approx 모드 여부 */
+    public static boolean enabled(Properties prop) {
+        return prop != null && "approx".equalsIgnoreCase(prop.getProperty("STATS_MODE", "").trim());
+    }
+
+    private static int intProperty(Properties prop, String key, int defaultValue) {
+        String value = prop.getProperty(key, "").trim();
+        if (value.isEmpty()) return defaultValue;
+        try { return Math.max(1, Integer.parseInt(value)); } catch (NumberFormatException e) { return defaultValue; }
+    }
+
+    /** 고정 할당 메모리 (바이트, Space-Saving 표는 상위 K건 기준 추정) */
+    public long memoryBytes() {
+        return (long) (segments + 1) * width * depth * 8 + bloom.length() * 8L + (long) topK * 96;
+    }
+
+    /** 응답 1건 반영 (수집 스레드에서 동시 호출) */
+    public void add(String path, int segIdx, long count) {
+        long[] h = hashes(path);
+        for (int row = 0; row < depth; row++) {
+            int col = column(h, row);
+            segmentSketches[segIdx].addAndGet(row * width + col, count);
+            totalSketch.addAndGet(row * width + col, count);
+        }
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = position(h, depth + i, bloomBits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            if ((bloom.get(word) & mask) == 0) bloom.getAndAccumulate(word, mask, (a, b) -> a | b);
+        }
+        heavyHitters.offer(path, count);
+        streamTotal.add(count);
+        updates.increment();
+    }
+
+    /** Bloom 필터 : false면 수집되지 않은 경로 (호출 0건 확정) */
+    public boolean mightContain(String path) {
+        long[] h = hashes(path);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = position(h, depth + i, bloomBits);
+            if ((bloom.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) return false;
+        }
+        return true;
+    }
+
+    /** 전체 호출건수 추정 (과대 추정만 발생, 미수집 경로는 0) */
+    public long estimateTotal(String path) {
+        return mightContain(path) ? estimate(totalSketch, hashes(path)) : 0;
+    }
+
+    /**
+     * 상위 경로(Space-Saving 표)별 구간 추정 건수를 보고서/조인용 Map으로 변환합니다.
+     * @param arrayLength 구간 배열 길이 (구간 수 + 여유 칸, 마지막 칸은 총합계)
+     */
+    public Map<String, long[]> heavyHitterStats(int arrayLength) {
+        Map<String, long[]> result = new HashMap<>();
+        for (String path : heavyHitters.keys()) {
+            long[] h = hashes(path);
+            long[] arr = new long[arrayLength];
+            for (int seg = 0; seg < segments; seg++) ApmStatsReport.add(arr, seg, estimate(segmentSketches[seg], h));
+            result.put(path, arr);
+        }
+        return result;
+    }
+
+    /** 정확도 요약 : 수집 후 로그 출력용 */
+    public List<String> accuracyReport() {
+        long n = streamTotal.sum();
+        double epsilon = Math.E / width, delta = Math.exp(-depth);
+        long setBits = 0;
+        for (int i = 0; i < bloom.length(); i++) setBits += Long.bitCount(bloom.get(i));
+        double fill = (double) setBits / bloomBits;
+        double distinct = fill >= 1 ? Double.POSITIVE_INFINITY : -(double) bloomBits / BLOOM_HASHES * Math.log(1 - fill);
+        double fpr = Math.pow(fill, BLOOM_HASHES);
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("  > 고정 메모리 : %.1fMB (구간 %d개 × Count-Min %d×%d, 상위 %d건, Bloom %dMB)",
+                memoryBytes() / 1048576.0, segments, depth, width, topK, bloomBits / 8 / 1048576));
+        lines.add(String.format("  > 반영 %,d건 / 전체 호출 %,d건 / 고유 경로 추정 약 %,.0f건", updates.sum(), n, distinct));
+        lines.add(String.format("  > Count-Min : 추정치 ≤ 실제 + %.4f × 해당 구간 전체 건수 (전체 기준 +%,d건 이내), 신뢰도 %.2f%%",
+                epsilon, (long) Math.ceil(epsilon * n), (1 - delta) * 100));
+        lines.add(String.format("  > Space-Saving : 전체 호출 %,d건(N/K) 초과 경로는 상위 표에 반드시 포함, 최소 보관 건수 %,d",
+                n / Math.max(1, topK), heavyHitters.minCount()));
+        lines.add(String.format("  > Bloom : 채움률 %.2f%%, 미수집 경로를 수집됨으로 오판할 확률 약 %.4f%%", fill * 100, fpr * 100));
+        return lines;
+    }
+
+    private long estimate(AtomicLongArray sketch, long[] h) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) min = Math.min(min, sketch.get(row * width + column(h, row)));
+        return min;
+    }
+
+    private int column(long[] h, int row) {
+        return (int) position(h, row, width);
+    }
+
+    /** i번째 해시 위치 : h1 + i·h2 를 다시 혼합하여 폭이 2의 거듭제곱이어도 하위 비트 편중 없음 */
+    private static long position(long[] h, int i, long range) {
+        return Long.remainderUnsigned(mix(h[0] + i * h[1]), range);
+    }
+
+    /** 64비트 FNV-1a + 혼합 함수로 해시 2개 생성 (이중 해싱으로 행/비트 위치 산출) */
+    private static long[] hashes(String path) {
+        long h1 = 0xcbf29ce484222325L;
+        for (byte b : path.getBytes(StandardCharsets.UTF_8)) { h1 ^= b & 0xff; h1 *= 0x100000001b3L; }
+        h1 = mix(h1);
+        return new long[]{h1, mix(h1 ^ 0x9E3779B97F4A7C15L) | 1};
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Space-Saving 상위 경로 표 : 크기 K, 가득 차면 최소 건수 경로를 새 경로로 교체(기존 건수 승계)
+     * 최소 건수 탐색은 위치 색인이 있는 최소 힙으로 O(log K)
+     */
+    private static class SpaceSaving {
+        private final int capacity;
+        private final Map<String, Integer> position = new HashMap<>();
+        private final String[] keys;
+        private final long[] counts;
+        private int size = 0;
+
+        SpaceSaving(int capacity) {
+            this.capacity = capacity;
+            this.keys = new String[capacity];
+            this.counts = new long[capacity];
+        }
+
+        synchronized void offer(String key, long count) {
+            Integer at = position.get(key);
+            if (at != null) { counts[at] += count; siftDown(at); return; }
+            if (size < capacity) {
+                keys[size] = key; counts[size] = count; position.put(key, size);
+                siftUp(size++);
+                return;
+            }
+            // 최소 경로 교체 : 새 경로 건수 = 기존 최소 건수 + 이번 건수 (과대 추정 상한 = 최소 건수)
+            position.remove(keys[0]);
+            keys[0] = key; counts[0] += count; position.put(key, 0);
+            siftDown(0);
+        }
+
+        synchronized List<String> keys() { return new ArrayList<>(Arrays.asList(keys).subList(0, size)); }
+
+        synchronized long minCount() { return size < capacity ? 0 : counts[0]; }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int p = (i - 1) >> 1;
+                if (counts[p] <= counts[i]) break;
+                swap(i, p); i = p;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int l = 2 * i + 1, r = l + 1, min = i;
+                if (l < size && counts[l] < counts[min]) min = l;
+                if (r < size && counts[r] < counts[min]) min = r;
+                if (min == i) return;
+                swap(i, min); i = min;
+            }
+        }
+
+        private void swap(int a, int b) {
+            String k = keys[a]; keys[a] = keys[b]; keys[b] = k;
+            long c = counts[a]; counts[a] = counts[b]; counts[b] = c;
+            position.put(keys[a], a); position.put(keys[b], b);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 프로젝트명: ApmHttp (APM 응답 압축 전송 / 스트리밍 해제)
+ * Version: 1.0
+ * 반영사항:
+ * 1. [성능] 요청에 Accept-Encoding: gzip, deflate를 지정하고 응답을 InputStream으로 받아 Content-Encoding에 따라 즉시 해제 [cite: 2026-10-18]
+ * 2. [메모리] 압축/해제 본문을 String으로 모으지 않고 JSON 파서에 바로 연결하여 레코드 배열을 1건씩 처리 [cite: 2026-10-18]
+ * 3. [로그] 구간별 전송 바이트(압축)와 해제 바이트를 집계하여 절감률 출력, 수집 전체 합계 제공 [cite: 2026-10-18]
+ */
+public class ApmHttp {
+
+    /** 요청 헤더 값 : 서버가 지원하지 않으면 비압축으로 응답하므로 항상 지정 */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** 수집 1회(카운터별) 전송량 합계 */
+    public static class Traffic {
+        private final LongAdder wire = new LongAdder(), decoded = new LongAdder(), responses = new LongAdder(), compressed = new LongAdder();
+
+        public String summary() {
+            return "응답 " + responses.sum() + "건 (압축 " + compressed.sum() + "건), " + ratio(wire.sum(), decoded.sum());
+        }
+    }
+
+    /** 응답 1건 : 상태 코드 / 해제된 본문 스트림 / 전송·해제 바이트 */
+    public static class Transfer implements Closeable {
+        public final int statusCode;
+        public final String encoding;
+        private final CountingInputStream wireCounter, decodedCounter;
+        private final InputStream body;
+        private final Traffic traffic;
+        private boolean closed;
+
+        Transfer(int statusCode, String encoding, CountingInputStream wireCounter, CountingInputStream decodedCounter, Traffic traffic) {
+            this.statusCode = statusCode; this.encoding = encoding;
+            this.wireCounter = wireCounter; this.decodedCounter = decodedCounter;
+            this.body = decodedCounter; this.traffic = traffic;
+        }
+
+        /** 해제된 본문 (JSON 파서에 직접 전달) */
+        public InputStream body() { return body; }
+
+        public long wireBytes() { return wireCounter.count; }
+
+        public long decodedBytes() { return decodedCounter.count; }
+
+        /** 오류 응답 로그용 앞부분 (최대 2KB) */
+        public String snippet() throws IOException {
+            byte[] head = body.readNBytes(2048);
+            return new String(head, StandardCharsets.UTF_8);
+        }
+
+        /** 구간 로그용 : "gzip 312KB → 4,812KB (93.5% 절감)" */
+        public String summary() {
+            return (encoding.isEmpty() ? "비압축" : encoding) + " " + ratio(wireBytes(), decodedBytes());
+        }
+
+        /** 남은 본문을 버리고 연결 반환, 전송량을 합계에 반영 */
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try { body.transferTo(OutputStream.nullOutputStream()); }
+            finally {
+                body.close();
+                if (traffic != null) {
+                    traffic.wire.add(wireBytes()); traffic.decoded.add(decodedBytes()); traffic.responses.increment();
+                    if (!encoding.isEmpty()) traffic.compressed.increment();
+                }
+            }
+        }
+    }
+
+    /** Accept-Encoding 지정 */
+    public static HttpRequest.Builder acceptCompressed(HttpRequest.Builder builder) {
+        return builder.header("Accept-Encoding", ACCEPT_ENCODING);
+    }
+
+    /**
+     * 요청을 보내고 본문을 스트림으로 받습니다. Content-Encoding(gzip / deflate / x-gzip)에 따라 해제 스트림을 연결합니다.
+     * 반환된 Transfer는 반드시 close 해야 연결이 반환되고 전송량이 합계에 반영됩니다.
+     */
+    public static Transfer send(HttpClient client, HttpRequest request, Traffic traffic) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase();
+        CountingInputStream wire = new CountingInputStream(response.body());
+        InputStream decoded;
+        switch (encoding) {
+            case "gzip": case "x-gzip": decoded = new GZIPInputStream(wire, BUFFER_SIZE); break;
+            case "deflate": decoded = inflate(wire); break;
+            case "": case "identity": encoding = ""; decoded = new BufferedInputStream(wire, BUFFER_SIZE); break;
+            default:
+                wire.close();
+                throw new IOException("지원하지 않는 Content-Encoding: " + encoding);
+        }
+        return new Transfer(response.statusCode(), encoding, wire, new CountingInputStream(decoded), traffic);
+    }
+
+    /** HTTP deflate는 zlib 형식이 표준이나 raw deflate로 보내는 서버도 있어 첫 2바이트로 판별 */
+    private static InputStream inflate(InputStream in) throws IOException {
+        PushbackInputStream pb = new PushbackInputStream(in, 2);
+        int b0 = pb.read(), b1 = pb.read();
+        if (b1 >= 0) pb.unread(b1);
+        if (b0 >= 0) pb.unread(b0);
+        boolean zlib = b0 >= 0 && b1 >= 0 && (b0 & 0x0f) == 8 && ((b0 << 8) | b1) % 31 == 0;
+        return new InflaterInputStream(pb, new Inflater(!zlib), BUFFER_SIZE);
+    }
+
+    /**
+     * 최상위 객체의 배열 필드(예: "records")를 스트리밍으로 읽어 원소(JsonNode)를 1건씩 전달합니다.
+     * 배열 외 필드는 건너뛰며, 응답 전체를 트리로 만들지 않습니다.
+     * @return 전달한 원소 수
+     */
+    public static int forEachRecord(ObjectMapper mapper, InputStream body, String arrayField, Consumer<JsonNode> action) throws IOException {
+        int count = 0;
+        try (JsonParser parser = mapper.getFactory().createParser(body)) {
+            // 본문 스트림은 Transfer.close에서 닫음 (남은 바이트 계측 / 연결 반환)
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_OBJECT) return 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!arrayField.equals(field) || value != JsonToken.START_ARRAY) { parser.skipChildren(); continue; }
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    action.accept(mapper.readTree(parser));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    static String ratio(long wire, long decoded) {
+        if (decoded <= 0) return String.format("%,dKB", wire / 1024);
+        return String.format("%,dKB → %,dKB (%.1f%% 절감)", wire / 1024, decoded / 1024, 100.0 * (decoded - wire) / decoded);
+    }
+
+    /** 읽은 바이트 수 계측 */
+    static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) { super(in); }
+
+        @Override public int read() throws IOException { int b = super.read(); if (b >= 0) count++; return b; }
+
+        @Override public int read(byte[] b, int off, int len) throws IOException { int n = super.read(b, off, len); if (n > 0) count += n; return n; }
+
+        @Override public long skip(long n) throws IOException { long s = super.skip(n); count += s; return s; }
+
+        @Override public boolean markSupported() { return false; }
+    }
+}
@@ -0,0 +1,253 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 프로젝트명: ApmPathNormalizer (APM 서비스 경로 정규화)
+ * Version: 1.3
+ * 반영사항:
+ * 1. [신규] APM 응답의 서비스 경로에서 매트릭스 파라미터(;jsessionid=...) / 쿼리스트링을 제거하고,
+ *    숫자 / UUID / 해시·토큰 세그먼트를 자리표시자({id})로 치환하여 ID별로 흩어진 경로를 1개 키로 수집 [cite: 2026-10-18]
+ * 2. [안정성] 접두 경로(앞 N개 세그먼트)별 고유 경로 수 상한 : 초과분은 "접두경로/...other" 1개 키로 합산하여 수집 메모리와 엑셀 행 수를 제한 [cite: 2026-10-18]
+ * 3. [조인] 인벤토리 API 경로의 {변수} 세그먼트를 같은 자리표시자로 바꾼 templateKey로 APM 호출건수와 매칭 [cite: 2026-10-18]
+ * 4. [재진입] fromConfig(Properties) 추가 : 수집기 인스턴스가 각자의 설정으로 정규화기 생성 (기존 fromConfig()는 config.properties 기준 유지) [cite: 2026-10-18]
+ * 5. [수정] 접두 경로별 상한을 응답 도착 순서가 아닌 수집 완료 후 경로별 총 호출건수 기준으로 결정(foldTargets) : 실행마다 합산 대상이 달라지거나 늦게 도착한 상위 경로가 "...other"로 가려지던 문제 수정, normalize()는 경로별 상태를 보관하지 않음 [cite: 2026-10-18]
+ * 6. [주의] 5번 변경 이후 정확 집계 모드(STATS_MODE 미지정)에서 접두 경로별 상한은 엑셀 행 수와 캐시 크기만 제한하며, 수집 중 메모리는 정규화 후 고유 경로 수에 비례합니다.
+ *    (수집 중 제거는 응답 도착 순서에 따라 결과가 달라지므로 적용하지 않음) 고유 경로가 매우 많아 수집 메모리를 제한해야 하면 STATS_MODE=approx(ApmApproxStats) 사용 [cite: 2026-10-18]
+ *
+ * 설정 (config.properties) : APM_PATH_NORMALIZE, APM_PATH_PLACEHOLDER, APM_PATH_PREFIX_DEPTH, APM_PATH_MAX_PER_PREFIX, APM_PATH_RULE_n
+ */
+public class ApmPathNormalizer {
+
+    /** 상한 초과 경로를 합산하는 세그먼트명 */
+    public static final String OTHER_SEGMENT = "...other";
+
+    /** 해시/토큰으로 판단하는 최소 길이 (16진수 / 영숫자 혼합) */
+    private static final int HEX_HASH_MIN = 16, TOKEN_MIN = 24;
+
+    private final boolean enabled;
+    private final String placeholder;
+    private final int prefixDepth, maxPerPrefix;
+
+    /** 사용자 정의 치환 규칙 (APM_PATH_RULE_n = 정규식 => 치환값, 번호 순서로 내장 규칙보다 먼저 적용) */
+    private final List<Map.Entry<Pattern, String>> rules = new ArrayList<>();
+
+    private final LongAdder rewritten = new LongAdder(), folded = new LongAdder();
+    private final Set<String> foldedPrefixes = ConcurrentHashMap.newKeySet();
+    /** 마지막 상한 적용(foldTargets) 시 접두 경로 수 (로그용) */
+    private volatile int prefixCount;
+
+    ApmPathNormalizer(boolean enabled, String placeholder, int prefixDepth, int maxPerPrefix) {
+        this.enabled = enabled; this.placeholder = placeholder;
+        this.prefixDepth = Math.max(1, prefixDepth); this.maxPerPrefix = maxPerPrefix;
+    }
+
+    /**
+     * config.properties 기준 생성 (미설정 시 정규화 사용 / {id} / 접두 2단계 / 접두 경로당 2,000건)
+     */
+    public static ApmPathNormalizer fromConfig() {
+        return fromConfig(AppConfig.load());
+    }
+
+    /** [v1.1] 지정한 설정 기준 생성 (null이면 기본값) : 수집기 인스턴스별 설정 */
+    public static ApmPathNormalizer fromConfig(Properties prop) {
+        if (prop == null) prop = new Properties();
+        ApmPathNormalizer normalizer = new ApmPathNormalizer(
+                !"N".equalsIgnoreCase(prop.getProperty("APM_PATH_NORMALIZE", "Y").trim()),
+                prop.getProperty("APM_PATH_PLACEHOLDER", "").trim().isEmpty() ? "{id}" : prop.getProperty("APM_PATH_PLACEHOLDER").trim(),
+                intProperty(prop, "APM_PATH_PREFIX_DEPTH", 2),
+                intProperty(prop, "APM_PATH_MAX_PER_PREFIX", 2000));
+
+        // APM_PATH_RULE_1, APM_PATH_RULE_2 ... 번호 순서 적용
+        TreeMap<Integer, String> numbered = new TreeMap<>();
+        for (String key : prop.stringPropertyNames()) {
+            if (!key.startsWith("APM_PATH_RULE_")) continue;
+            try { numbered.put(Integer.parseInt(key.substring("APM_PATH_RULE_".length())), prop.getProperty(key).trim()); }
+            catch (NumberFormatException ignored) { }
+        }
+        for (String rule : numbered.values()) {
+            int arrow = rule.indexOf("=>");
+            if (rule.isEmpty() || arrow < 0) continue;
+            try {
+                normalizer.rules.add(new AbstractMap.SimpleImmutableEntry<>(Pattern.compile(rule.substring(0, arrow).trim()), rule.substring(arrow + 2).trim()));
+            } catch (Exception e) {
+                System.err.println("[WARN] APM_PATH_RULE 정규식 오류로 제외: " + rule + " (" + e.getMessage() + ")");
+            }
+        }
+        return normalizer;
+    }
+
+    private static int intProperty(Properties prop, String key, int defaultValue) {
+        String value = prop.getProperty(key, "").trim();
+        if (value.isEmpty()) return defaultValue;
+        try { return Integer.parseInt(value); } catch (NumberFormatException e) { return defaultValue; }
+    }
+
+    /**
+     * APM 서비스 경로 1건을 수집 키로 정규화합니다. (응답 파싱 중 호출, 스레드 안전)
+     * 사용자 규칙 → 매트릭스 파라미터/쿼리 제거 → 세그먼트 치환 순서로 적용합니다. (접두 경로별 상한은 수집 후 foldTargets)
+     */
+    public String normalize(String raw) {
+        if (!enabled || raw == null || raw.isEmpty()) return raw;
+        String path = raw;
+        for (Map.Entry<Pattern, String> rule : rules) path = rule.getKey().matcher(path).replaceAll(rule.getValue());
+
+        int query = path.indexOf('?');
+        if (query >= 0) path = path.substring(0, query);
+
+        StringBuilder sb = new StringBuilder(path.length());
+        int start = 0;
+        while (start <= path.length()) {
+            int slash = path.indexOf('/', start);
+            int end = slash < 0 ? path.length() : slash;
+            appendSegment(sb, path, start, end);
+            if (slash < 0) break;
+            sb.append('/');
+            start = slash + 1;
+        }
+        String normalized = sb.toString();
+        if (!normalized.equals(raw)) rewritten.increment();
+        return normalized;
+    }
+
+    /** 세그먼트 1개 : ";매트릭스" 제거, 확장자(.do 등) 보존, 식별자 형태이면 자리표시자로 치환 */
+    private void appendSegment(StringBuilder sb, String path, int start, int end) {
+        int matrix = path.indexOf(';', start);
+        if (matrix >= 0 && matrix < end) end = matrix;
+        int stemEnd = end;
+        int dot = path.lastIndexOf('.', end - 1);
+        if (dot > start && end - dot <= 6 && isAlpha(path, dot + 1, end)) stemEnd = dot;
+
+        if (isIdentifier(path, start, stemEnd)) sb.append(placeholder).append(path, stemEnd, end);
+        else sb.append(path, start, end);
+    }
+
+    /** 숫자 / UUID / 16자 이상 16진수 / 24자 이상 영숫자(숫자+문자 혼합) 토큰 */
+    private static boolean isIdentifier(String s, int from, int to) {
+        int len = to - from;
+        if (len <= 0) return false;
+        boolean digits = true, hex = true, token = true, hasDigit = false, hasAlpha = false;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            boolean d = c >= '0' && c <= '9';
+            boolean a = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+            hasDigit |= d; hasAlpha |= a;
+            digits &= d;
+            hex &= d || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+            token &= d || a || c == '-' || c == '_';
+        }
+        if (digits) return true;
+        if (len == 36 && isUuid(s, from)) return true;
+        if (hex && len >= HEX_HASH_MIN && hasDigit) return true;
+        return token && len >= TOKEN_MIN && hasDigit && hasAlpha;
+    }
+
+    private static boolean isUuid(String s, int from) {
+        for (int i = 0; i < 36; i++) {
+            char c = s.charAt(from + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) { if (c != '-') return false; }
+            else if (Character.digit(c, 16) < 0) return false;
+        }
+        return true;
+    }
+
+    private static boolean isAlpha(String s, int from, int to) {
+        if (from >= to) return false;
+        for (int i = from; i < to; i++) if (!Character.isLetter(s.charAt(i))) return false;
+        return true;
+    }
+
+    /**
+     * [v1.2] 접두 경로별 고유 경로 수 상한 : 수집이 끝난 뒤 경로별 총 호출건수로 결정합니다.
+     * 접두 경로마다 호출건수 상위 maxPerPrefix개(동률은 경로명 순)는 그대로 두고, 나머지는 "접두경로/...other"로 합산합니다.
+     * 수집이 끝난 뒤 적용하므로 수집 중 메모리는 제한하지 않습니다. (수집 메모리 제한은 STATS_MODE=approx)
+     * @param totals 수집 키 → 총 호출건수 (캐시에서 채운 날 포함 전체)
+     * @return 합산 대상 경로 → 합산 키 (상한을 넘지 않으면 빈 Map)
+     */
+    public Map<String, String> foldTargets(Map<String, Long> totals) {
+        Map<String, List<String>> byPrefix = new HashMap<>();
+        for (String path : totals.keySet()) {
+            if (path == null || path.isEmpty()) continue;
+            byPrefix.computeIfAbsent(prefixOf(path), k -> new ArrayList<>()).add(path);
+        }
+        prefixCount = byPrefix.size();
+        Map<String, String> targets = new HashMap<>();
+        if (!enabled || maxPerPrefix <= 0) return targets;
+        for (Map.Entry<String, List<String>> e : byPrefix.entrySet()) {
+            List<String> group = e.getValue();
+            if (group.size() <= maxPerPrefix) continue;
+            group.sort(Comparator.comparing((String path) -> totals.get(path)).reversed().thenComparing(Comparator.naturalOrder()));
+            String prefix = e.getKey();
+            String other = (prefix.endsWith("/") ? prefix : prefix + "/") + OTHER_SEGMENT;
+            for (String path : group.subList(maxPerPrefix, group.size())) targets.put(path, other);
+            folded.add(group.size() - maxPerPrefix);
+            foldedPrefixes.add(prefix);
+        }
+        return targets;
+    }
+
+    /**
+     * [v1.2] 구간별 건수 배열(ApmStatsReport 형식, 마지막 칸 총합계)에 상한을 적용합니다. (합산 대상은 칸별로 더함)
+     * @return 상한을 넘지 않으면 입력 Map 그대로
+     */
+    public Map<String, long[]> fold(Map<String, long[]> stats) {
+        Map<String, Long> totals = new HashMap<>(stats.size() * 2);
+        for (Map.Entry<String, long[]> e : stats.entrySet()) totals.put(e.getKey(), ApmStatsReport.total(e.getValue()));
+        Map<String, String> targets = foldTargets(totals);
+        if (targets.isEmpty()) return stats;
+        Map<String, long[]> result = new HashMap<>(stats.size() * 2);
+        for (Map.Entry<String, long[]> e : stats.entrySet()) {
+            String key = targets.getOrDefault(e.getKey(), e.getKey());
+            long[] arr = result.get(key);
+            if (arr == null) result.put(key, e.getValue().clone());
+            else for (int i = 0; i < arr.length && i < e.getValue().length; i++) arr[i] += e.getValue()[i];
+        }
+        return result;
+    }
+
+    /** 접두 경로 : 마지막 세그먼트를 제외한 상위 경로의 앞 prefixDepth개 세그먼트 (/api/order/{id}/x → /api/order) */
+    private String prefixOf(String path) {
+        int parentEnd = path.lastIndexOf('/');
+        if (parentEnd <= 0) return "/";
+        int pos = path.startsWith("/") ? 1 : 0;
+        for (int depth = 0; depth < prefixDepth; depth++) {
+            int slash = path.indexOf('/', pos);
+            if (slash < 0 || slash >= parentEnd) return path.substring(0, parentEnd);
+            pos = slash + 1;
+        }
+        return path.substring(0, pos - 1);
+    }
+
+    /**
+     * 인벤토리 API 경로의 {변수} 세그먼트를 자리표시자로 바꾼 조인 키 (/owners/{ownerId}/detail → /owners/{id}/detail)
+     * 정규화를 사용하지 않으면 원래 경로를 반환합니다.
+     */
+    public String templateKey(String apiPath) {
+        if (!enabled || apiPath == null || apiPath.indexOf('{') < 0) return apiPath;
+        return apiPath.replaceAll("\\{[^/}]*\\}", java.util.regex.Matcher.quoteReplacement(placeholder));
+    }
+
+    /**
+     * 수집 키를 결정하는 설정 문자열 (APM 일별 캐시 식별자용) : 사용 여부 / 자리표시자 / 접두 깊이 / 사용자 규칙
+     * 접두 경로별 상한은 캐시 저장 후 적용되므로 포함하지 않습니다.
+     */
+    public String identity() {
+        StringBuilder sb = new StringBuilder("normalize=").append(enabled).append(";placeholder=").append(placeholder).append(";depth=").append(prefixDepth);
+        for (Map.Entry<Pattern, String> rule : rules) sb.append(";rule=").append(rule.getKey().pattern()).append("=>").append(rule.getValue());
+        return sb.toString();
+    }
+
+    /** 수집 로그용 요약 : 치환 건수 / 상한 초과 합산 건수와 해당 접두 경로 */
+    public String summary() {
+        if (!enabled) return "경로 정규화 사용 안 함";
+        StringBuilder sb = new StringBuilder();
+        sb.append("경로 치환 ").append(rewritten.sum()).append("건, 사용자 규칙 ").append(rules.size()).append("개, 접두 경로 ").append(prefixCount).append("개");
+        if (folded.sum() > 0) {
+            List<String> prefixes = new ArrayList<>(foldedPrefixes);
+            Collections.sort(prefixes);
+            sb.append(", 상한(").append(maxPerPrefix).append("건) 초과 합산 ").append(folded.sum()).append("건 → ").append(prefixes.size() > 10 ? prefixes.subList(0, 10) + " 외 " + (prefixes.size() - 10) + "개" : prefixes);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.*;
+
+/**
+ * 프로젝트명: ApmStats (APM 수집 결과)
+ * Version: 1.1
+ * 반영사항:
+ * 1. [재진입] WhatapApiCounter / JenniferApiCounter 수집 1회의 결과(구간 라벨 / 월 키 / 경로별 구간 건수 / 근사 집계)를 정적 Map 대신 결과 객체로 반환 [cite: 2026-10-18]
+ * 2. [연동] 보고서 작성(generateExcelReport)과 인벤토리 호출건수 조인이 같은 결과 객체를 사용하여 동시 수집 간 결과가 섞이지 않음 [cite: 2026-10-18]
+ * 3. [성능] 일 단위 저장소(ApmTimeSeries)를 함께 보관하여 regroup(단위)으로 주 / 10일 / 월 / 분기 열을 APM 재요청 없이 다시 계산 [cite: 2026-10-18]
+ */
+public final class ApmStats {
+
+    private static final ApmStats EMPTY = new ApmStats(Collections.emptyList(), Collections.emptyList(), Collections.emptyMap(), null, null);
+
+    /** 수집 구간 라벨 / 구간별 월 키 (보고서 열 구성) */
+    public final List<String> labels, monthKeys;
+    /** 경로 → 구간별 건수 배열 (마지막 칸 : 전체 총합계, ApmStatsReport.total) */
+    public final Map<String, long[]> stats;
+    /** STATS_MODE=approx 집계 결과 (정확 모드면 null) : stats에는 상위 경로만 포함 */
+    public final ApmApproxStats approx;
+    /** [v1.1] 일 단위 저장소 (근사 모드면 null) : regroup으로 다른 열 단위 계산 */
+    public final ApmTimeSeries series;
+
+    ApmStats(List<String> labels, List<String> monthKeys, Map<String, long[]> stats, ApmApproxStats approx, ApmTimeSeries series) {
+        this.labels = Collections.unmodifiableList(new ArrayList<>(labels));
+        this.monthKeys = Collections.unmodifiableList(new ArrayList<>(monthKeys));
+        this.stats = Collections.unmodifiableMap(stats);
+        this.approx = approx;
+        this.series = series;
+    }
+
+    /** [v1.1] 보고서 열 구성(라벨 / 월 키)과 열 단위 건수로 생성 */
+    static ApmStats of(List<ApmTimeSeries.Bucket> buckets, Map<String, long[]> stats, ApmApproxStats approx, ApmTimeSeries series) {
+        List<String> labels = new ArrayList<>(), monthKeys = new ArrayList<>();
+        for (ApmTimeSeries.Bucket b : buckets) { labels.add(b.label); monthKeys.add(b.monthKey); }
+        return new ApmStats(labels, monthKeys, stats, approx, series);
+    }
+
+    /**
+     * [v1.1] 같은 수집 결과를 다른 열 단위로 다시 계산합니다. (APM 재요청 없음)
+     * 근사 모드는 수집 시점의 열 단위로만 집계되므로 지원하지 않습니다.
+     */
+    public ApmStats regroup(ApmTimeSeries.Granularity granularity) {
+        if (series == null) throw new IllegalStateException("일 단위 저장소가 없는 결과입니다. (STATS_MODE=approx 또는 미수집)");
+        List<ApmTimeSeries.Bucket> buckets = series.buckets(granularity);
+        return of(buckets, series.rollup(buckets), null, series);
+    }
+
+    /** 수집하지 않은 경우 (ENABLED=N / 설정 누락) */
+    public static ApmStats empty() { return EMPTY; }
+
+    public boolean isEmpty() { return stats.isEmpty(); }
+
+    public int size() { return stats.size(); }
+}
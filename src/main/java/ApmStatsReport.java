@@ -0,0 +1,326 @@
+import org.apache.poi.ss.usermodel.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * 프로젝트명: ApmStatsReport (APM 통계 엑셀 공통 레이아웃)
+ * Version: 1.2
+ * 반영사항:
+ * 1. [성능] 전체 총합계를 수집 시점에 배열 마지막 칸에 누적(add)하고, 정렬은 총합계 long 배열 기준 int 인덱스 병합 정렬로 수행 (비교마다 구간 합산 제거)
+ *    STATS_TOP_N 지정 시 크기 N의 힙으로 "상위 N" / "하위 N" 시트만 작성하는 순위 보고서 모드 제공 [cite: 2026-10-18]
+ * 2. [안정성] 엑셀 한도 분할 : 행은 EXCEL_MAX_ROWS_PER_SHEET(최대 1,048,576) 단위 시트 / EXCEL_MAX_ROWS_PER_FILE 단위 파일로,
+ *    열이 16,384개를 넘는 기간은 연도별 시트로 나누어 기록하며 각 시트에 머리글/틀 고정을 반복 [cite: 2026-10-18]
+ * 3. [신규] WhatapApiCounter / JenniferApiCounter의 통계 엑셀(API, 전체 총합계, 구간별 건수 + 월 합계 열)을 공통 레이아웃으로 작성 [cite: 2026-10-18]
+ * 4. [성능] StatsSheetWriter로 시트 XML을 직접 스트리밍하여 행당 수백 개 셀의 POI 객체 생성 없이 기록 [cite: 2026-10-18]
+ */
+public class ApmStatsReport {
+
+    /** 고정 열 : API(트랜잭션), 전체 총합계 */
+    private static final int FIXED_COLUMNS = 2;
+
+    private ApmStatsReport() {}
+
+    /**
+     * 수집 누적 : 구간 건수와 배열 마지막 칸(전체 총합계)을 함께 증가시킵니다.
+     * 구간별 건수 배열은 "구간 수 + 여유 칸" 길이로 생성하며, 마지막 칸은 총합계 전용입니다.
+     */
+    public static void add(long[] stats, int segIdx, long count) {
+        synchronized (stats) { stats[segIdx] += count; stats[stats.length - 1] += count; }
+    }
+
+    /** 수집 시점에 누적된 전체 총합계 */
+    public static long total(long[] stats) { return stats == null || stats.length == 0 ? 0 : stats[stats.length - 1]; }
+
+    /** 순위 보고서 건수 (config.properties STATS_TOP_N, 비워두거나 0이면 전체 보고서) */
+    public static int topN() { return configuredLimit("STATS_TOP_N", StatsSheetWriter.MAX_ROWS - 1, 0); }
+
+    /** 서비스 경로 / 구간 배열 / 총합계를 인덱스로 접근하는 기본형 열 묶음 (정렬은 int 인덱스만 이동) */
+    private static class Table {
+        final String[] keys; final long[][] values; final long[] totals;
+
+        Table(Map<String, long[]> stats) {
+            int n = stats.size(), i = 0;
+            keys = new String[n]; values = new long[n][]; totals = new long[n];
+            for (Map.Entry<String, long[]> e : stats.entrySet()) {
+                keys[i] = e.getKey(); values[i] = e.getValue(); totals[i] = total(e.getValue()); i++;
+            }
+        }
+
+        int size() { return keys.length; }
+
+        /** 음수면 a가 b보다 앞 순위 (descending : 총합계 큰 순, 같으면 경로 오름차순) */
+        int compare(int a, int b, boolean descending) {
+            int c = descending ? Long.compare(totals[b], totals[a]) : Long.compare(totals[a], totals[b]);
+            return c != 0 ? c : keys[a].compareTo(keys[b]);
+        }
+    }
+
+    /** 같은 월 키가 연속된 구간 묶음 [from, to) : 묶음 뒤에 월 합계 열 1개 */
+    private static class Month {
+        final String key; final int from; int to;
+        Month(String key, int from) { this.key = key; this.from = from; this.to = from; }
+        int columns() { return to - from + 1; }
+        String year() { return key.length() >= 4 ? key.substring(0, 4) : key; }
+    }
+
+    /** 통합문서별 스타일 (StatsSheetWriter 골격에 생성) */
+    private static class Styles {
+        final CellStyle grayT, lightStyle, darkStyle, apiS, numS, numThickS;
+
+        Styles(Workbook wb) {
+            short numFmt = wb.createDataFormat().getFormat("#,##0");
+            Font hFont = wb.createFont(); hFont.setBold(true);
+            grayT = createHeaderStyle(wb, hFont, IndexedColors.GREY_25_PERCENT.getIndex());
+            grayT.setBorderRight(BorderStyle.THICK);
+            lightStyle = createHeaderStyle(wb, hFont, IndexedColors.LIGHT_CORNFLOWER_BLUE.getIndex());
+            darkStyle = createHeaderStyle(wb, hFont, IndexedColors.CORNFLOWER_BLUE.getIndex());
+            darkStyle.setBorderRight(BorderStyle.THICK);
+            apiS = wb.createCellStyle(); apiS.setBorderRight(BorderStyle.THICK);
+            numS = wb.createCellStyle(); numS.setDataFormat(numFmt);
+            numThickS = wb.createCellStyle(); numThickS.setDataFormat(numFmt); numThickS.setBorderRight(BorderStyle.THICK);
+        }
+    }
+
+    /**
+     * 통계 엑셀을 작성합니다. 행은 전체 총합계 내림차순이며, 엑셀 한도를 넘으면 시트/파일을 나누어 기록합니다.
+     * @param segmentLabels    수집 구간 표시명 (열 머리글, 수집 순서)
+     * @param segmentMonthKeys 구간별 월 키 (yyyy-MM, 같은 월이 연속된 구간 뒤에 월 합계 열 추가)
+     * @param stats            서비스 경로 → 구간별 호출건수 (배열 앞쪽부터 구간 순서)
+     * @return 생성한 파일 목록 (파일 분할이 없으면 file 1개)
+     */
+    public static List<File> write(File file, String sheetName, List<String> segmentLabels, List<String> segmentMonthKeys,
+                                   Map<String, long[]> stats) throws IOException {
+        return write(file, sheetName, segmentLabels, segmentMonthKeys, stats,
+                configuredLimit("EXCEL_MAX_ROWS_PER_SHEET", StatsSheetWriter.MAX_ROWS, StatsSheetWriter.MAX_ROWS),
+                configuredLimit("EXCEL_MAX_ROWS_PER_FILE", Integer.MAX_VALUE, Integer.MAX_VALUE));
+    }
+
+    /**
+     * 행 한도를 직접 지정하여 작성합니다.
+     * @param maxRowsPerSheet 시트당 최대 행 수 (머리글 포함, EXCEL_MAX_ROWS_PER_SHEET)
+     * @param maxRowsPerFile  파일당 최대 데이터 행 수 (EXCEL_MAX_ROWS_PER_FILE, 분할 없음은 Integer.MAX_VALUE)
+     */
+    static List<File> write(File file, String sheetName, List<String> segmentLabels, List<String> segmentMonthKeys,
+                            Map<String, long[]> stats, int maxRowsPerSheet, int maxRowsPerFile) throws IOException {
+        List<List<Month>> columnParts = splitColumns(groupMonths(segmentMonthKeys));
+
+        // 데이터 행 (총합 내림차순 정렬)
+        Table table = new Table(stats);
+        int[] order = new int[table.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        sort(table, order, order.length, true);
+
+        int rowsPerSheet = maxRowsPerSheet - 1;
+        int rowsPerFile = maxRowsPerFile;
+        // 파일 경계는 시트 경계에 맞춤 (파일마다 시트 1개 이상을 채움)
+        if (rowsPerFile != Integer.MAX_VALUE) rowsPerFile = Math.max(1, rowsPerFile / rowsPerSheet) * rowsPerSheet;
+        int rowParts = Math.max(1, (order.length + rowsPerSheet - 1) / rowsPerSheet);
+        int fileCount = Math.max(1, (int) ((order.length + (long) rowsPerFile - 1) / rowsPerFile));
+
+        List<File> files = new ArrayList<>();
+        for (int f = 0; f < fileCount; f++) {
+            File partFile = fileCount == 1 ? file : numberedFile(file, f + 1);
+            int fileStart = (int) Math.min(order.length, (long) f * rowsPerFile);
+            int fileEnd = (int) Math.min(order.length, (long) fileStart + rowsPerFile);
+            try (StatsSheetWriter w = new StatsSheetWriter(partFile)) {
+                Styles st = new Styles(w.workbook());
+                Set<String> usedNames = new HashSet<>();
+                for (List<Month> months : columnParts) {
+                    String yearSuffix = columnParts.size() == 1 ? "" : "_" + months.get(0).year();
+                    int start = fileStart;
+                    do {
+                        int end = Math.min(fileEnd, start + rowsPerSheet);
+                        String rowSuffix = rowParts == 1 ? "" : " (" + (start / rowsPerSheet + 1) + ")";
+                        writeSheet(w, st, StatsSheetWriter.partSheetName(sheetName, yearSuffix + rowSuffix, usedNames),
+                                months, segmentLabels, table, order, start, end);
+                        start = end;
+                    } while (start < fileEnd);
+                }
+            }
+            files.add(partFile);
+        }
+        return files;
+    }
+
+    /**
+     * 순위 보고서 : 전체 정렬 없이 크기 N의 힙(O(n log N))으로 총합계 상위 N건 / 하위 N건(호출이 거의 없는 경로)을 골라 2개 시트로 작성합니다.
+     * 구간 열이 열 한도를 넘으면 전체 보고서와 같이 연도별 시트로 나눕니다.
+     */
+    public static File writeRanking(File file, String sheetName, List<String> segmentLabels, List<String> segmentMonthKeys,
+                                    Map<String, long[]> stats, int n) throws IOException {
+        List<List<Month>> columnParts = splitColumns(groupMonths(segmentMonthKeys));
+        Table table = new Table(stats);
+        int[] top = select(table, n, true), bottom = select(table, n, false);
+
+        try (StatsSheetWriter w = new StatsSheetWriter(file)) {
+            Styles st = new Styles(w.workbook());
+            Set<String> usedNames = new HashSet<>();
+            for (List<Month> months : columnParts) {
+                String yearSuffix = columnParts.size() == 1 ? "" : "_" + months.get(0).year();
+                writeSheet(w, st, StatsSheetWriter.partSheetName("상위" + n + "_" + sheetName, yearSuffix, usedNames),
+                        months, segmentLabels, table, top, 0, top.length);
+            }
+            for (List<Month> months : columnParts) {
+                String yearSuffix = columnParts.size() == 1 ? "" : "_" + months.get(0).year();
+                writeSheet(w, st, StatsSheetWriter.partSheetName("하위" + n + "_" + sheetName, yearSuffix, usedNames),
+                        months, segmentLabels, table, bottom, 0, bottom.length);
+            }
+        }
+        return file;
+    }
+
+    /** 시트 1개 : 머리글 / 틀 고정 / 열 너비를 매 시트 동일하게 기록 */
+    private static void writeSheet(StatsSheetWriter w, Styles st, String name, List<Month> months, List<String> segmentLabels,
+                                   Table table, int[] order, int from, int to) throws IOException {
+        int columns = FIXED_COLUMNS;
+        for (Month m : months) columns += m.columns();
+        int[] widths = new int[columns];
+        widths[0] = 18000; widths[1] = 6500;
+        for (int i = FIXED_COLUMNS; i < columns; i++) widths[i] = 5500;
+        w.beginSheet(name, FIXED_COLUMNS, 1, widths);
+
+        // 헤더 행
+        w.startRow(1);
+        w.text("API(트랜잭션)", st.grayT);
+        w.text("전체 총합계", st.grayT);
+        for (Month m : months) {
+            for (int seg = m.from; seg < m.to; seg++) w.text(segmentLabels.get(seg), st.lightStyle);
+            w.text(m.key + " 월 합계", st.darkStyle);
+        }
+        w.endRow();
+
+        int rowNum = 1;
+        for (int r = from; r < to; r++) {
+            int idx = order[r];
+            long[] values = table.values[idx];
+            w.startRow(++rowNum);
+            w.text(table.keys[idx], st.apiS);
+            w.number(table.totals[idx], st.numThickS);
+            for (Month m : months) {
+                long mSum = 0;
+                for (int seg = m.from; seg < m.to; seg++) {
+                    long v = values[seg];
+                    w.number(v, st.numS);
+                    mSum += v;
+                }
+                w.number(mSum, st.numThickS);
+            }
+            w.endRow();
+        }
+        w.endSheet();
+    }
+
+    /** int 인덱스 병합 정렬 (안정 정렬, 박싱/Comparator 객체 없음) : order[0, length) 정렬 */
+    private static void sort(Table table, int[] order, int length, boolean descending) {
+        int[] src = order, dst = new int[length];
+        for (int width = 1; width < length; width <<= 1) {
+            for (int lo = 0; lo < length; lo += width << 1) {
+                int mid = Math.min(lo + width, length), hi = Math.min(lo + (width << 1), length);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) dst[k++] = table.compare(src[j], src[i], descending) < 0 ? src[j++] : src[i++];
+                while (i < mid) dst[k++] = src[i++];
+                while (j < hi) dst[k++] = src[j++];
+            }
+            int[] t = src; src = dst; dst = t;
+        }
+        if (src != order) System.arraycopy(src, 0, order, 0, length);
+    }
+
+    /**
+     * 상위/하위 N건 선택 : 루트가 "가장 뒤 순위"인 크기 N의 힙을 유지하며 전체를 1회 순회한 뒤, 선택된 N건만 정렬합니다.
+     * @param descending true : 총합계 상위 N / false : 총합계 하위 N
+     */
+    private static int[] select(Table table, int n, boolean descending) {
+        int size = 0, limit = Math.min(n, table.size());
+        int[] heap = new int[limit];
+        for (int idx = 0; idx < table.size() && limit > 0; idx++) {
+            if (size < limit) {
+                // 추가 후 위로 이동 : 부모보다 뒤 순위이면 교환
+                int c = size++;
+                heap[c] = idx;
+                while (c > 0 && table.compare(heap[(c - 1) >> 1], heap[c], descending) < 0) {
+                    int p = (c - 1) >> 1, t = heap[p]; heap[p] = heap[c]; heap[c] = t; c = p;
+                }
+            } else if (table.compare(idx, heap[0], descending) < 0) {
+                // 루트(현재 N번째 순위)보다 앞 순위이면 교체 후 아래로 이동
+                heap[0] = idx;
+                for (int p = 0; ; ) {
+                    int l = 2 * p + 1, r = l + 1, last = p;
+                    if (l < size && table.compare(heap[last], heap[l], descending) < 0) last = l;
+                    if (r < size && table.compare(heap[last], heap[r], descending) < 0) last = r;
+                    if (last == p) break;
+                    int t = heap[p]; heap[p] = heap[last]; heap[last] = t; p = last;
+                }
+            }
+        }
+        sort(table, heap, size, descending);
+        return heap;
+    }
+
+    private static List<Month> groupMonths(List<String> segmentMonthKeys) {
+        List<Month> months = new ArrayList<>();
+        for (int i = 0; i < segmentMonthKeys.size(); i++) {
+            String key = segmentMonthKeys.get(i);
+            if (months.isEmpty() || !months.get(months.size() - 1).key.equals(key)) months.add(new Month(key, i));
+            months.get(months.size() - 1).to = i + 1;
+        }
+        return months;
+    }
+
+    /**
+     * 열 분할 : 전체 열이 한도 이내면 1개 묶음, 넘으면 연도별 묶음 (1개 연도도 넘으면 월 단위로 한도까지 채워 추가 분할)
+     */
+    private static List<List<Month>> splitColumns(List<Month> months) {
+        int total = FIXED_COLUMNS;
+        for (Month m : months) total += m.columns();
+        List<List<Month>> parts = new ArrayList<>();
+        if (total <= StatsSheetWriter.MAX_COLUMNS) { parts.add(months); return parts; }
+
+        List<Month> current = new ArrayList<>();
+        int columns = FIXED_COLUMNS;
+        for (Month m : months) {
+            boolean newYear = !current.isEmpty() && !current.get(0).year().equals(m.year());
+            if (!current.isEmpty() && (newYear || columns + m.columns() > StatsSheetWriter.MAX_COLUMNS)) {
+                parts.add(current);
+                current = new ArrayList<>();
+                columns = FIXED_COLUMNS;
+            }
+            current.add(m);
+            columns += m.columns();
+        }
+        if (!current.isEmpty()) parts.add(current);
+        return parts;
+    }
+
+    /** 분할 파일명 : 이름_part1.xlsx, 이름_part2.xlsx ... */
+    private static File numberedFile(File file, int part) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String partName = dot < 0 ? name + "_part" + part : name.substring(0, dot) + "_part" + part + name.substring(dot);
+        return new File(file.getParentFile(), partName);
+    }
+
+    /** config.properties 한도 값 (비어 있거나 0 이하이면 기본값, 지정 값은 2 이상 max 이하) */
+    private static int configuredLimit(String key, int max, int defaultValue) {
+        Properties prop = AppConfig.load();
+        String value = prop == null ? "" : prop.getProperty(key, "").trim();
+        if (value.isEmpty()) return defaultValue;
+        try {
+            long limit = Long.parseLong(value);
+            if (limit <= 0) return defaultValue;
+            return (int) Math.max(2, Math.min(limit, max));
+        } catch (NumberFormatException e) {
+            System.err.println("[WARN] " + key + " 값이 숫자가 아니어서 기본값 사용: " + value);
+            return defaultValue;
+        }
+    }
+
+    private static CellStyle createHeaderStyle(Workbook wb, Font f, short color) {
+        CellStyle st = wb.createCellStyle();
+        st.setFillForegroundColor(color); st.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        st.setAlignment(HorizontalAlignment.CENTER); st.setBorderBottom(BorderStyle.THIN); st.setFont(f);
+        return st;
+    }
+}
@@ -0,0 +1,370 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 프로젝트명: ApmTimeSeries (APM 일 단위 호출건수 저장소)
+ * Version: 1.2
+ * 반영사항:
+ * 1. [신규] APM 수집을 가장 작은 단위(1일)로 1회만 받아 경로별 일별 건수로 보관하고, 주 / 10일(1~10·11~20·21~말일) / 월 / 분기 열은 누적합(prefix sum)으로 로컬에서 계산 [cite: 2026-10-18]
+ * 2. [메모리] 수집이 끝나면 경로별 일별 배열을 이전 일 대비 차이(zigzag varint)로 인코딩한 byte[]로 압축 보관 (호출이 없는 날은 1바이트) [cite: 2026-10-18]
+ * 3. [캐시] 수집 조건(URL / 대상 / 필터)별로 받은 날짜와 건수를 CACHE_DIR에 저장하여 보고서 단위(STATS_GRANULARITY)만 바꾼 재실행은 APM 재요청 없이 생성 (오늘 이후 날짜는 저장하지 않음) [cite: 2026-10-18]
+ * 4. [정규화] fold(정규화기) : 캐시 + 신규 수집 전체의 경로별 총합으로 접두 경로별 상한을 적용하여 "...other"로 합산 (캐시는 합산 전 키로 저장) [cite: 2026-10-18]
+ * 5. [메모리] 수집 중에도 경로별 일별 배열(long[일수])을 만들지 않고 호출이 있는 날만 (일, 건수) varint 쌍으로 누적 : 고유 경로가 많고 대부분 드물게 호출되는 환경에서 10일 구간 배열보다 작게 유지, seal()에서 차이 인코딩으로 변환 [cite: 2026-10-18]
+ * 6. [캐시] 캐시 식별자에 경로 정규화 설정(ApmPathNormalizer.identity) 포함 : 정규화 규칙을 바꾸면 이전 규칙으로 만든 키를 재사용하지 않음 (캐시 형식 2) [cite: 2026-10-18]
+ *
+ * 설정 (config.properties) : STATS_GRANULARITY (DAY / WEEK / TENDAY / MONTH / QUARTER, 미기입 시 Whatap TENDAY · Jennifer DAY)
+ */
+public class ApmTimeSeries {
+
+    /** 2 : 접두 경로별 상한 적용 전 키로 저장 (1은 수집 중 상한이 적용된 키) */
+    private static final int CACHE_VERSION = 2;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /** 보고서 열 단위 */
+    public enum Granularity {
+        DAY, WEEK, TENDAY, MONTH, QUARTER;
+
+        /** 설정값 해석 (미기입 / 알 수 없는 값이면 기본값) */
+        public static Granularity parse(String value, Granularity defaultValue) {
+            if (value == null || value.trim().isEmpty()) return defaultValue;
+            try { return valueOf(value.trim().toUpperCase()); }
+            catch (IllegalArgumentException e) {
+                System.err.println("[WARN] STATS_GRANULARITY 값 오류로 기본값(" + defaultValue + ") 사용: " + value);
+                return defaultValue;
+            }
+        }
+    }
+
+    /** 보고서 열 1개 : 라벨 / 월 묶음 키 / 일 인덱스 범위 [from, to) */
+    public static class Bucket {
+        public final String label, monthKey;
+        public final int from, to;
+
+        Bucket(String label, String monthKey, int from, int to) { this.label = label; this.monthKey = monthKey; this.from = from; this.to = to; }
+    }
+
+    private final LocalDate start;
+    private final int days;
+
+    /** 수집 중 : 경로 → 호출이 있는 날의 (일, 건수) 쌍 / 수집 완료(seal) 후 : 경로 → 차이 인코딩 */
+    private final Map<String, DayCounts> open = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> sealed = new HashMap<>();
+    /** 응답을 정상 수신한 날 (캐시 대상) */
+    private final BitSet fetched = new BitSet();
+    private boolean isSealed;
+    private int cachedDays;
+
+    public ApmTimeSeries(LocalDate start, LocalDate end) {
+        this.start = start;
+        this.days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+    }
+
+    public int days() { return days; }
+
+    public LocalDate day(int index) { return start.plusDays(index); }
+
+    public int pathCount() { return isSealed ? sealed.size() : open.size(); }
+
+    /** 캐시에서 채운 날 수 (APM 요청을 생략한 날) */
+    public int cachedDays() { return cachedDays; }
+
+    /** 아직 받지 않은 날 (요청 대상) */
+    public synchronized List<Integer> missingDays() {
+        List<Integer> missing = new ArrayList<>();
+        for (int d = fetched.nextClearBit(0); d < days; d = fetched.nextClearBit(d + 1)) missing.add(d);
+        return missing;
+    }
+
+    /**
+     * 하루치 응답(필터 전체)을 한 번에 반영하고 수신 완료로 기록합니다.
+     * 일부 필터만 실패한 날은 반영하지 않아야 다음 실행에서 중복 합산 없이 다시 받을 수 있습니다.
+     */
+    public void putDay(int day, Map<String, Long> counts) {
+        if (isSealed) throw new IllegalStateException("수집이 끝난 저장소입니다.");
+        for (Map.Entry<String, Long> e : counts.entrySet()) {
+            DayCounts pairs = open.computeIfAbsent(e.getKey(), k -> new DayCounts());
+            if (e.getValue() != 0) pairs.add(day, e.getValue());
+        }
+        synchronized (this) { fetched.set(day); }
+    }
+
+    /** 수집 종료 : 경로별 (일, 건수) 쌍을 일 순서 차이 인코딩으로 바꾸고 원본을 해제 */
+    public synchronized void seal() {
+        if (isSealed) return;
+        long[] daily = new long[days];
+        for (Map.Entry<String, DayCounts> e : open.entrySet()) {
+            Arrays.fill(daily, 0);
+            e.getValue().addTo(daily);
+            sealed.put(e.getKey(), encode(daily));
+        }
+        open.clear();
+        isSealed = true;
+    }
+
+    /**
+     * 수집 중 경로 1개의 일별 건수 : 응답 도착 순서대로 (일, 건수)를 varint로 이어 붙임 (같은 날이 여러 번이면 seal에서 합산)
+     * 호출이 있는 날만 기록하므로 드물게 호출되는 경로는 수 바이트, 매일 호출되는 경로도 일수 × 2~4바이트
+     */
+    private static final class DayCounts {
+        private byte[] buf = new byte[8];
+        private int len;
+
+        synchronized void add(int day, long count) {
+            if (len + 15 > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length + 15, buf.length + (buf.length >> 1)));
+            writeVarint(day);
+            writeVarint(count);
+        }
+
+        private void writeVarint(long v) {
+            while ((v & ~0x7FL) != 0) { buf[len++] = (byte) ((v & 0x7F) | 0x80); v >>>= 7; }
+            buf[len++] = (byte) v;
+        }
+
+        synchronized void addTo(long[] daily) {
+            int[] pos = {0};
+            while (pos[0] < len) {
+                int day = (int) readVarint(pos);
+                daily[day] += readVarint(pos);
+            }
+        }
+
+        private long readVarint(int[] pos) {
+            long v = 0;
+            int shift = 0;
+            byte b;
+            do { b = buf[pos[0]++]; v |= (long) (b & 0x7F) << shift; shift += 7; } while ((b & 0x80) != 0);
+            return v;
+        }
+    }
+
+    /**
+     * 접두 경로별 상한 적용 : 경로별 총합(캐시 포함)으로 합산 대상을 정하고 일별 건수를 "...other" 키로 더합니다.
+     * saveCache 이후에 호출해야 캐시가 상한과 무관한 원래 키로 남습니다.
+     */
+    public synchronized void fold(ApmPathNormalizer paths) {
+        seal();
+        long[] prefix = new long[days + 1];
+        Map<String, Long> totals = new HashMap<>(sealed.size() * 2);
+        for (Map.Entry<String, byte[]> e : sealed.entrySet()) {
+            decodePrefix(e.getValue(), prefix);
+            totals.put(e.getKey(), prefix[days]);
+        }
+        Map<String, String> targets = paths.foldTargets(totals);
+        if (targets.isEmpty()) return;
+        Map<String, long[]> merged = new HashMap<>();
+        for (Map.Entry<String, String> t : targets.entrySet()) {
+            long[] daily = merged.computeIfAbsent(t.getValue(), k -> {
+                long[] init = new long[days];
+                byte[] existing = sealed.get(k);
+                if (existing != null) addDaily(existing, init, prefix);
+                return init;
+            });
+            addDaily(sealed.remove(t.getKey()), daily, prefix);
+        }
+        for (Map.Entry<String, long[]> e : merged.entrySet()) sealed.put(e.getKey(), encode(e.getValue()));
+    }
+
+    private static void addDaily(byte[] encoded, long[] daily, long[] prefix) {
+        decodePrefix(encoded, prefix);
+        for (int d = 0; d < daily.length; d++) daily[d] += prefix[d + 1] - prefix[d];
+    }
+
+    /** 인코딩 크기 합계 (로그용) */
+    public long encodedBytes() {
+        long bytes = 0;
+        for (byte[] b : sealed.values()) bytes += b.length;
+        return bytes;
+    }
+
+    // ==========================================================================================
+    // [ 보고서 열 계산 ]
+    // ==========================================================================================
+
+    /** 단위별 열 구성 : 조회 기간 경계에서 잘린 열은 실제 일자로 라벨 표시 */
+    public List<Bucket> buckets(Granularity granularity) {
+        List<Bucket> buckets = new ArrayList<>();
+        int from = 0;
+        while (from < days) {
+            LocalDate s = day(from);
+            LocalDate e;
+            switch (granularity) {
+                case DAY: e = s; break;
+                case WEEK: e = s.plusDays(6 - (s.getDayOfWeek().getValue() - 1)); break;
+                case TENDAY: e = s.getDayOfMonth() <= 10 ? s.withDayOfMonth(10) : s.getDayOfMonth() <= 20 ? s.withDayOfMonth(20) : s.withDayOfMonth(s.lengthOfMonth()); break;
+                case MONTH: e = s.withDayOfMonth(s.lengthOfMonth()); break;
+                default: { LocalDate q = s.withMonth((s.getMonthValue() - 1) / 3 * 3 + 3); e = q.withDayOfMonth(q.lengthOfMonth()); }
+            }
+            int to = Math.min(days, (int) ChronoUnit.DAYS.between(start, e) + 1);
+            LocalDate last = day(to - 1);
+            String label, monthKey;
+            switch (granularity) {
+                case DAY: label = s.format(DATE); monthKey = s.format(DateTimeFormatter.ofPattern("yy.MM")); break;
+                case MONTH: label = s.format(DATE) + "~" + last.getDayOfMonth(); monthKey = s.format(DateTimeFormatter.ofPattern("yy.MM")); break;
+                case QUARTER: label = s.format(DATE) + "~" + last.format(DateTimeFormatter.ofPattern("MM-dd")); monthKey = s.format(DateTimeFormatter.ofPattern("yy")) + ".Q" + ((s.getMonthValue() - 1) / 3 + 1); break;
+                default:
+                    // 10일 / 주 단위 : 기존 Whatap 라벨 형식 (yyyy-MM-dd~dd), 월을 넘는 주는 시작일의 월로 묶음
+                    label = s.format(DATE) + "~" + (last.getMonth() == s.getMonth() ? String.valueOf(last.getDayOfMonth()) : last.format(DateTimeFormatter.ofPattern("MM-dd")));
+                    monthKey = s.format(DateTimeFormatter.ofPattern("yy.MM"));
+            }
+            buckets.add(new Bucket(label, monthKey, from, to));
+            from = to;
+        }
+        return buckets;
+    }
+
+    /** 일 인덱스 → 열 인덱스 (근사 집계처럼 일별 저장 없이 바로 열 단위로 누적할 때 사용) */
+    public static int[] bucketIndex(List<Bucket> buckets, int days) {
+        int[] index = new int[days];
+        for (int b = 0; b < buckets.size(); b++) Arrays.fill(index, buckets.get(b).from, buckets.get(b).to, b);
+        return index;
+    }
+
+    /**
+     * 열 단위 건수 배열 계산 : 경로별 누적합 1회 후 열마다 P[to] - P[from]
+     * @return 경로 → ApmStatsReport 형식 배열 (열 건수 + 여유 칸, 마지막 칸 총합계)
+     */
+    public Map<String, long[]> rollup(List<Bucket> buckets) {
+        seal();
+        Map<String, long[]> result = new HashMap<>(sealed.size() * 2);
+        long[] prefix = new long[days + 1];
+        for (Map.Entry<String, byte[]> e : sealed.entrySet()) {
+            decodePrefix(e.getValue(), prefix);
+            long[] arr = new long[buckets.size() + 10];
+            for (int b = 0; b < buckets.size(); b++) arr[b] = prefix[buckets.get(b).to] - prefix[buckets.get(b).from];
+            arr[arr.length - 1] = prefix[days];
+            result.put(e.getKey(), arr);
+        }
+        return result;
+    }
+
+    // ==========================================================================================
+    // [ 차이 인코딩 (zigzag varint) ]
+    // ==========================================================================================
+
+    static byte[] encode(long[] daily) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(daily.length + 8);
+        long prev = 0;
+        for (long v : daily) {
+            long delta = v - prev;
+            long z = (delta << 1) ^ (delta >> 63);
+            while ((z & ~0x7FL) != 0) { out.write((int) ((z & 0x7F) | 0x80)); z >>>= 7; }
+            out.write((int) z);
+            prev = v;
+        }
+        return out.toByteArray();
+    }
+
+    /** 인코딩을 풀면서 바로 누적합 계산 : prefix[i] = 0..i-1일 합계 */
+    static void decodePrefix(byte[] encoded, long[] prefix) {
+        long prev = 0, sum = 0;
+        int pos = 0;
+        prefix[0] = 0;
+        for (int d = 1; d < prefix.length; d++) {
+            long z = 0;
+            int shift = 0;
+            byte b;
+            do { b = encoded[pos++]; z |= (long) (b & 0x7F) << shift; shift += 7; } while ((b & 0x80) != 0);
+            prev += (z >>> 1) ^ -(z & 1);
+            sum += prev;
+            prefix[d] = sum;
+        }
+    }
+
+    // ==========================================================================================
+    // [ 캐시 ] 일자(epoch day) 기준 저장 : 조회 기간이 달라도 겹치는 날은 재사용
+    // ==========================================================================================
+
+    /** 캐시에서 조회 기간과 겹치는 수신 완료 일을 채웁니다. (손상 / 버전 불일치 캐시는 무시) */
+    public void loadCache(File cacheFile) {
+        if (cacheFile == null || !cacheFile.exists()) return;
+        List<Map<String, Long>> byDay = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) byDay.add(new HashMap<>());
+        BitSet hit = new BitSet();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(cacheFile))))) {
+            if (in.readInt() != CACHE_VERSION) return;
+            long cacheStart = in.readLong();
+            int cacheDays = in.readInt();
+            long[] words = new long[in.readInt()];
+            for (int i = 0; i < words.length; i++) words[i] = in.readLong();
+            BitSet cacheFetched = BitSet.valueOf(words);
+            int offset = (int) (cacheStart - start.toEpochDay());
+            for (int d = cacheFetched.nextSetBit(0); d >= 0 && d < cacheDays; d = cacheFetched.nextSetBit(d + 1)) {
+                int target = d + offset;
+                if (target >= 0 && target < days) hit.set(target);
+            }
+            int paths = in.readInt();
+            long[] prefix = new long[cacheDays + 1];
+            for (int i = 0; i < paths; i++) {
+                String path = in.readUTF();
+                byte[] encoded = new byte[in.readInt()];
+                in.readFully(encoded);
+                decodePrefix(encoded, prefix);
+                for (int d = hit.nextSetBit(0); d >= 0; d = hit.nextSetBit(d + 1)) {
+                    int src = d - offset;
+                    long count = prefix[src + 1] - prefix[src];
+                    if (count != 0) byDay.get(d).merge(path, count, Long::sum);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return; // 손상된 캐시는 무시하고 전체 재수집
+        }
+        for (int d = hit.nextSetBit(0); d >= 0; d = hit.nextSetBit(d + 1)) putDay(d, byDay.get(d));
+        cachedDays = hit.cardinality();
+    }
+
+    /** 수신 완료 일을 저장합니다. (오늘 이후 날짜는 집계가 끝나지 않았으므로 제외) */
+    public void saveCache(File cacheFile) {
+        if (cacheFile == null) return;
+        seal();
+        BitSet complete = (BitSet) fetched.clone();
+        int today = (int) ChronoUnit.DAYS.between(start, LocalDate.now());
+        if (today < days) complete.clear(Math.max(0, today), days);
+
+        if (cacheFile.getParentFile() != null && !cacheFile.getParentFile().exists()) cacheFile.getParentFile().mkdirs();
+        File tmp = new File(cacheFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmp))))) {
+            out.writeInt(CACHE_VERSION);
+            out.writeLong(start.toEpochDay());
+            out.writeInt(days);
+            long[] words = complete.toLongArray();
+            out.writeInt(words.length);
+            for (long w : words) out.writeLong(w);
+            out.writeInt(sealed.size());
+            for (Map.Entry<String, byte[]> e : sealed.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeInt(e.getValue().length);
+                out.write(e.getValue());
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            tmp.delete();
+        }
+    }
+
+    /** 수집 조건별 캐시 파일명 : 조건 문자열의 해시 (URL / 대상 / 필터 / 경로 정규화 설정이 같을 때만 재사용) */
+    public static File cacheFile(String cacheDir, String source, String... identity) {
+        if (cacheDir == null || cacheDir.isEmpty()) return null;
+        return new File(cacheDir, "apm_" + source + "_" + Integer.toHexString(String.join("|", identity).hashCode()) + ".bin.gz");
+    }
+
+    /** 로그용 요약 : "경로 1,234개 × 365일, 인코딩 512KB (배열 대비 97.1% 절감), 캐시 재사용 300일" */
+    public String summary() {
+        long raw = (long) pathCount() * days * 8;
+        long enc = encodedBytes();
+        return String.format("경로 %,d개 × %d일, 인코딩 %,dKB (배열 대비 %.1f%% 절감), 캐시 재사용 %d일",
+                pathCount(), days, enc / 1024, raw == 0 ? 0.0 : 100.0 * (raw - enc) / raw, cachedDays);
+    }
+}
@@ -0,0 +1,44 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * 프로젝트명: AppConfig (공통 설정 로더)
+ * Version: 1.0
+ * 반영사항:
+ * 1. [통합] ApiExcelExporter / WhatapApiCounter / JenniferApiCounter / MenuExcelExporter가
+ *    각자 config.properties를 다시 파싱하던 구조를 1회 로드 후 공유하는 구조로 변경 [cite: 2026-10-18]
+ * 2. [인코딩] 팀명/담당자명 등 한글 값 보존을 위해 모든 도구가 UTF-8로 동일하게 로드 [cite: 2026-10-18]
+ */
+public class AppConfig {
+
+    /** 설정 파일 기본 위치 : 실행 디렉토리 기준 */
+    private static final String CONFIG_FILE = "config.properties";
+
+    /** 최초 로드 결과 캐시 : 파일이 없으면 null 유지 */
+    private static Properties cached;
+
+    /** 로드 시도 여부 : 파일이 없는 경우에도 반복 탐색하지 않도록 기록 */
+    private static boolean attempted = false;
+
+    /**
+     * config.properties를 최초 1회만 로드하여 반환합니다.
+     * 파일이 없거나 읽기에 실패하면 null을 반환하며, 호출부는 기존처럼 기본값을 유지합니다.
+     */
+    public static synchronized Properties load() {
+        if (attempted) return cached;
+        attempted = true;
+
+        File configFile = new File(CONFIG_FILE);
+        if (!configFile.exists()) return null;
+
+        Properties prop = new Properties();
+        try (InputStreamReader isr = new InputStreamReader(new FileInputStream(configFile), StandardCharsets.UTF_8)) {
+            prop.load(isr);
+            cached = prop;
+        } catch (IOException e) {
+            System.err.println("[ERROR] 설정 로드 실패: " + e.getMessage());
+        }
+        return cached;
+    }
+}
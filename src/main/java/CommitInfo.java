@@ -0,0 +1,92 @@
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 프로젝트명: CommitInfo (커밋 이력 Flyweight)
+ * Version: 1.2
+ * 반영사항:
+ * 1. [메모리] API 행마다 보관하던 커밋 이력 String[3] 배열을 (날짜, 커밋터, 메시지) 단위로 1개만 생성하여 공유하는 Flyweight로 대체 [cite: 2026-10-18]
+ * 2. [메모리] 커밋 날짜를 yyyyMMdd 정수로 압축 보관하고, 엑셀 출력 시에만 yyyy-MM-dd 문자열로 변환 [cite: 2026-10-18]
+ * 3. [메모리] 커밋 풀도 실행 단위로 관리 : StringPool.clear() 시 함께 해제 (감시 모드 / 내장 엔진에서 무한 증가 방지) [cite: 2026-10-18]
+ * 4. [재진입] 정적 풀 제거 : of()는 풀 없이 생성하고, 공유는 분석 단위 StringPool.commit()이 담당 [cite: 2026-10-19]
+ */
+public final class CommitInfo {
+
+    /** 이력 없음 : 기존 {"-", "-", "No History"} */
+    public static final CommitInfo NONE = new CommitInfo(0, "-", "No History");
+
+    /** yyyyMMdd (0 = 날짜 없음) */
+    public final int date;
+    public final String author, message;
+
+    private CommitInfo(int date, String author, String message) {
+        this.date = date; this.author = author; this.message = message;
+    }
+
+    /**
+     * 커밋 1건을 생성합니다. (이력 없음과 같으면 NONE, 행 간 공유가 필요하면 StringPool.commit() 사용)
+     * @param isoDate yyyy-MM-dd (git log %as 형식, "-" 또는 해석 불가 시 날짜 없음)
+     */
+    public static CommitInfo of(String isoDate, String author, String message) {
+        CommitInfo c = new CommitInfo(packDate(isoDate), author, message);
+        return c.equals(NONE) ? NONE : c;
+    }
+
+    /** yyyy-MM-dd → yyyyMMdd 정수 (형식이 다르면 0) */
+    public static int packDate(String isoDate) {
+        if (isoDate == null || isoDate.length() != 10 || isoDate.charAt(4) != '-' || isoDate.charAt(7) != '-') return 0;
+        int v = 0;
+        for (int i = 0; i < 10; i++) {
+            if (i == 4 || i == 7) continue;
+            char ch = isoDate.charAt(i);
+            if (ch < '0' || ch > '9') return 0;
+            v = v * 10 + (ch - '0');
+        }
+        return v;
+    }
+
+    /** 엑셀 출력용 날짜 문자열 (날짜 없음은 "-") */
+    public String dateText() {
+        if (date == 0) return "-";
+        char[] c = new char[10];
+        int v = date;
+        for (int i = 9; i >= 0; i--) {
+            if (i == 4 || i == 7) { c[i] = '-'; continue; }
+            c[i] = (char) ('0' + v % 10); v /= 10;
+        }
+        return new String(c);
+    }
+
+    public LocalDate localDate() { return date == 0 ? null : LocalDate.of(date / 10000, date / 100 % 100, date % 100); }
+
+    /**
+     * 최신순 이력을 기존 커밋 컬럼 형식(최근 c건을 과거 → 최신 순으로, 부족분은 NONE)으로 배치합니다.
+     * 결과 배열은 같은 메소드/파일의 API 행끼리 공유되므로 수정하지 않습니다.
+     */
+    public static CommitInfo[] columns(List<CommitInfo> newestFirst, int c) {
+        CommitInfo[] h = new CommitInfo[c];
+        java.util.Arrays.fill(h, NONE);
+        int n = Math.min(c, newestFirst.size());
+        for (int i = 0; i < n; i++) h[i] = newestFirst.get(n - 1 - i);
+        return h;
+    }
+
+    /** 가장 최근 날짜의 커밋 (없으면 NONE) */
+    public static CommitInfo latest(CommitInfo[] commits) {
+        CommitInfo best = NONE;
+        for (CommitInfo c : commits) if (c != null && c.date > best.date) best = c;
+        return best;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CommitInfo)) return false;
+        CommitInfo c = (CommitInfo) o;
+        return date == c.date && Objects.equals(author, c.author) && Objects.equals(message, c.message);
+    }
+
+    @Override
+    public int hashCode() { return Objects.hash(date, author, message); }
+}
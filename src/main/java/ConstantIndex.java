@@ -0,0 +1,445 @@
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.expr.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 프로젝트명: ConstantIndex (프로젝트 전역 문자열 상수 인덱스)
+ * Version: 1.6
+ * 반영사항:
+ * 1. [신규] ROOT_PATH 전체의 static final String(인터페이스 상수 포함)을 병렬 파싱하여 단순명(Class.FIELD) / 정규화명(pkg.Class.FIELD) 인덱스 구성 [cite: 2026-10-18]
+ * 2. [해석] 문자열 결합("a" + B.C), 동일 클래스 상수 참조, 타 클래스 상수 참조를 순환 참조 검출과 함께 사전 해석하여 조회 시 O(1) [cite: 2026-10-18]
+ * 3. [캐시] 파일 크기/수정시각 기준으로 상수 정의를 캐시에 보관하여 변경되지 않은 파일은 다음 실행 시 재파싱하지 않음 [cite: 2026-10-18]
+ * 4. [리비전] git 리비전 분석 시 blob SHA 기준으로 상수 정의를 캐시하고, 한 번의 실행에서 여러 리비전을 분석할 때 동일 blob은 1회만 파싱 [cite: 2026-10-18]
+ * 5. [감시] 작업 트리 파일도 실행 중 메모리에 상수 정의를 보관하여 감시 모드 재구성 시 스탬프가 바뀐 파일만 재파싱 [cite: 2026-10-18]
+ * 6. [안정성] 파일별 JavaParser 파싱에 StepWatchdog 제한 시간 적용 : 초과 파일은 인덱스에서 제외하고 [TIMEOUTS]에 기록 [cite: 2026-10-18]
+ * 7. [재진입] 병렬 파싱 작업 스레드에 호출한 분석의 제한 시간 기록(StepWatchdog.Session)을 전달하여 동시 분석 간 [TIMEOUTS] 기록 분리 [cite: 2026-10-18]
+ * 8. [보완] 단순명 중의성은 한 번 표시되면 유지하고, 단독 상수명(BASE)은 사용 파일의 static import / 구현 인터페이스 기준으로 조회 [cite: 2026-10-18]
+ * 9. [감시] update() : 변경 파일만 다시 파싱하고 삭제 파일의 상수 정의는 제외한 새 인덱스 구성 (감시 모드에서 전체 파일 목록 재구성 생략) [cite: 2026-10-18]
+ * 10. [재진입] 실행 중 상수 정의 보관소를 전역 맵 대신 Memory 인스턴스로 분리 : 추출 엔진 컨텍스트(ApiExtractor.Context)가 소유하여 다른 엔진의 보관 내용을 삭제 / 덮어쓰지 않음 [cite: 2026-10-19]
+ */
+public class ConstantIndex {
+
+    private static final int CACHE_VERSION = 2;
+
+    /**
+     * [v1.6] 실행 중 공유 : 캐시 키(blob SHA / 작업 트리 경로) → 상수 정의 (리비전 간 공유, 감시 모드 재구성 시 스탬프가 같은 파일은 재파싱 생략)
+     * 추출 엔진 컨텍스트 단위로 소유하며, 같은 보관소로 구성한 인덱스끼리만 정의를 공유합니다.
+     */
+    public static final class Memory {
+        private final Map<String, FileDefs> defs = new ConcurrentHashMap<>();
+
+        public int size() { return defs.size(); }
+    }
+
+    private final Memory memory;
+
+    /** 정규화명 / 단순명 / 중첩 클래스명 → 해석된 상수값 */
+    private final Map<String, String> resolved = new HashMap<>();
+
+    /** 동일 단순명이 여러 패키지에 존재하는 키 (정규화명으로만 조회 가능) */
+    private final Set<String> ambiguous = new HashSet<>();
+
+    /** 캐시 키 → 상수 정의 (키 순서로 등록하여 단순명 충돌 시 결과가 실행마다 달라지지 않도록 함, update() 시 재사용) */
+    private final Map<String, FileDefs> files = new TreeMap<>();
+
+    private int fileCount = 0, parsedCount = 0, constantCount = 0, unresolvedCount = 0;
+
+    private ConstantIndex(Memory memory) { this.memory = memory; }
+
+    /** 빈 인덱스 : 상수 인덱스 구성 실패 시에도 PATH_CONSTANTS만으로 동작하도록 사용 */
+    public static ConstantIndex empty() { return new ConstantIndex(new Memory()); }
+
+    /** 파일 1개의 상수 정의 목록 (캐시 단위) */
+    private static class FileDefs {
+        String stamp = "";
+        final List<Def> defs = new ArrayList<>();
+    }
+
+    /** 상수 정의 1건 : 선언 클래스(정규화명)와 초기화 식 원문 */
+    private static class Def {
+        final String qualifiedClass, simpleClassPath, field, initializer;
+        Expression expr;
+
+        Def(String qualifiedClass, String simpleClassPath, String field, String initializer) {
+            this.qualifiedClass = qualifiedClass; this.simpleClassPath = simpleClassPath; this.field = field; this.initializer = initializer;
+        }
+    }
+
+    /**
+     * 상수 인덱스를 구성합니다.
+     * @param javaFiles ROOT_PATH(또는 리비전) 하위 전체 .java 파일 (컨트롤러 목록 수집 시 1회 조회한 결과 재사용)
+     * @param cacheFile 상수 정의 캐시 파일 (null이면 캐시 미사용)
+     */
+    public static ConstantIndex build(List<SourceFile> javaFiles, File cacheFile) { return build(javaFiles, cacheFile, new Memory()); }
+
+    /** @param memory 실행 중 상수 정의 보관소 (리비전 / 감시 갱신 간 공유) */
+    public static ConstantIndex build(List<SourceFile> javaFiles, File cacheFile, Memory memory) {
+        ConstantIndex index = new ConstantIndex(memory);
+        Map<String, FileDefs> cache = cacheFile != null ? readCache(cacheFile) : new HashMap<>();
+        Map<String, FileDefs> current = new ConcurrentHashMap<>();
+
+        StepWatchdog.Session session = StepWatchdog.Session.current();
+        javaFiles.parallelStream().forEach(file -> session.run(() -> {
+            try {
+                String key = file.cacheKey;
+                FileDefs cached = memory.defs.get(key);
+                if (cached == null || !cached.stamp.equals(file.stamp)) cached = cache.get(key);
+                if (cached != null && cached.stamp.equals(file.stamp)) { current.put(key, cached); memory.defs.put(key, cached); return; }
+
+                FileDefs defs = parseFile(file);
+                defs.stamp = file.stamp;
+                current.put(key, defs);
+                memory.defs.put(key, defs);
+                synchronized (index) { index.parsedCount++; }
+            } catch (Exception ignored) {
+                // 파싱 불가 파일은 상수 인덱스에서 제외 (컨트롤러 분석은 기존 Regex 폴백으로 진행)
+            }
+        }));
+
+        index.files.putAll(current);
+        index.resolveAll();
+
+        if (cacheFile != null) writeCache(cacheFile, current);
+        return index;
+    }
+
+    /**
+     * 변경 / 삭제 파일만 반영한 새 인덱스를 구성합니다. (기존 인덱스는 그대로 유지되므로 분석 중인 다른 스레드에 영향 없음)
+     * 변경되지 않은 파일의 상수 정의는 다시 파싱하지 않고, 상수 간 참조가 바뀔 수 있으므로 해석만 전체 정의 기준으로 다시 수행합니다.
+     * @param changed     추가 / 수정된 파일
+     * @param removedKeys 삭제된 파일의 캐시 키
+     */
+    public ConstantIndex update(List<SourceFile> changed, Collection<String> removedKeys) {
+        ConstantIndex index = new ConstantIndex(memory);
+        index.files.putAll(files);
+        for (String key : removedKeys) { index.files.remove(key); memory.defs.remove(key); }
+        for (SourceFile file : changed) {
+            FileDefs defs;
+            try {
+                defs = parseFile(file);
+            } catch (Exception e) {
+                // 파싱 불가 파일은 상수 인덱스에서 제외 (이전 정의도 더 이상 유효하지 않음)
+                index.files.remove(file.cacheKey);
+                memory.defs.remove(file.cacheKey);
+                continue;
+            }
+            defs.stamp = file.stamp;
+            index.files.put(file.cacheKey, defs);
+            memory.defs.put(file.cacheKey, defs);
+            index.parsedCount++;
+        }
+        index.resolveAll();
+        return index;
+    }
+
+    /**
+     * 어노테이션 식에 사용된 상수명을 조회합니다.
+     * @param name      식에 기재된 그대로의 이름 (예: Constants.BASE, com.x.Constants.BASE, BASE)
+     * @param ownerClass 식이 사용된 클래스의 단순명 (동일 클래스 상수 조회용, 없으면 null)
+     * @return 해석된 값, 없으면 null
+     */
+    public String lookup(String name, String ownerClass) { return lookup(name, ownerClass, null); }
+
+    /**
+     * 단독 상수명(static import / 상수 인터페이스 상속)까지 조회합니다.
+     * @param scope 식이 사용된 파일의 static import / 구현 인터페이스 (없으면 null)
+     */
+    public String lookup(String name, String ownerClass, Scope scope) {
+        if (ownerClass != null && !name.contains(".")) {
+            String own = resolved.get(ownerClass + "." + name);
+            if (own != null && !ambiguous.contains(ownerClass + "." + name)) return own;
+        }
+        if (scope != null && !name.contains(".")) {
+            String member = scope.members.get(name);
+            String v = member != null ? lookupIn(member, name) : null;
+            for (int i = 0; v == null && i < scope.classes.size(); i++) v = lookupIn(scope.classes.get(i), name);
+            if (v != null) return v;
+        }
+        if (ambiguous.contains(name)) return null;
+        String v = resolved.get(name);
+        if (v == null) {
+            int last = name.lastIndexOf('.');
+            int prev = last > 0 ? name.lastIndexOf('.', last - 1) : -1;
+            if (prev >= 0) { String shortName = name.substring(prev + 1); if (!ambiguous.contains(shortName)) v = resolved.get(shortName); }
+        }
+        return v;
+    }
+
+    /** 정규화명(pkg.Class) 우선, 없으면 단순명(Class)으로 클래스 상수 조회 */
+    private String lookupIn(String className, String field) {
+        String v = resolved.get(className + "." + field);
+        if (v != null && className.contains(".")) return v;
+        String simpleKey = className.substring(className.lastIndexOf('.') + 1) + "." + field;
+        return ambiguous.contains(simpleKey) ? null : resolved.get(simpleKey);
+    }
+
+    /** 단독 상수명 조회 범위 : static import(단일 / *)와 사용 클래스가 구현·상속한 타입 */
+    public static class Scope {
+        /** 단일 static import : 필드명 → 선언 클래스 */
+        final Map<String, String> members = new HashMap<>();
+        /** static import * 클래스, 구현 인터페이스 / 상위 클래스 (가능하면 import 기준 정규화명) */
+        final List<String> classes = new ArrayList<>();
+
+        /** 식 노드가 속한 파일 / 클래스 기준 조회 범위 */
+        public static Scope of(Node node) {
+            Scope scope = new Scope();
+            Optional<CompilationUnit> cu = node.findCompilationUnit();
+            Map<String, String> imported = new HashMap<>();
+            String pkg = "";
+            if (cu.isPresent()) {
+                pkg = cu.get().getPackageDeclaration().map(p -> p.getNameAsString() + ".").orElse("");
+                for (ImportDeclaration imp : cu.get().getImports()) {
+                    String n = imp.getNameAsString();
+                    if (imp.isStatic() && imp.isAsterisk()) scope.classes.add(n);
+                    else if (imp.isStatic()) scope.members.put(n.substring(n.lastIndexOf('.') + 1), n.substring(0, Math.max(n.lastIndexOf('.'), 0)));
+                    else if (!imp.isAsterisk()) imported.put(n.substring(n.lastIndexOf('.') + 1), n);
+                }
+            }
+            Node type = node;
+            while (type != null && !(type instanceof ClassOrInterfaceDeclaration)) type = type.getParentNode().orElse(null);
+            if (type != null) {
+                List<ClassOrInterfaceType> supers = new ArrayList<>(((ClassOrInterfaceDeclaration) type).getImplementedTypes());
+                supers.addAll(((ClassOrInterfaceDeclaration) type).getExtendedTypes());
+                for (ClassOrInterfaceType t : supers) {
+                    String n = t.getNameWithScope();
+                    scope.classes.add(n.contains(".") ? n : imported.getOrDefault(n, pkg + n));
+                }
+            }
+            return scope;
+        }
+    }
+
+    public String summary() {
+        return String.format("대상 파일 %d개(신규 파싱 %d개) / 상수 %d건 / 미해석 %d건", fileCount, parsedCount, constantCount, unresolvedCount);
+    }
+
+    // ==========================================================================================
+    // [ 파싱 ]
+    // ==========================================================================================
+
+    private static FileDefs parseFile(SourceFile file) throws Exception {
+        FileDefs result = new FileDefs();
+        String src = file.readString();
+        // 문자열 상수가 없는 파일은 파싱 생략 (인터페이스는 암묵적 static final이므로 포함)
+        if (!src.contains("String") || !(src.contains("final") || src.contains("interface"))) return result;
+
+        CompilationUnit cu = StepWatchdog.call(StepWatchdog.Step.PARSE, file.relPath, () -> StaticJavaParser.parse(src));
+        String pkg = cu.getPackageDeclaration().map(p -> p.getNameAsString() + ".").orElse("");
+        for (TypeDeclaration<?> type : cu.getTypes()) collect(type, pkg, "", result.defs);
+        return result;
+    }
+
+    private static void collect(TypeDeclaration<?> type, String pkg, String outer, List<Def> out) {
+        String simplePath = outer.isEmpty() ? type.getNameAsString() : outer + "." + type.getNameAsString();
+        boolean isInterface = type instanceof ClassOrInterfaceDeclaration && ((ClassOrInterfaceDeclaration) type).isInterface();
+
+        for (FieldDeclaration field : type.getFields()) {
+            if (!(isInterface || (field.isStatic() && field.isFinal()))) continue;
+            for (VariableDeclarator v : field.getVariables()) {
+                if (!"String".equals(v.getTypeAsString()) || !v.getInitializer().isPresent()) continue;
+                out.add(new Def(pkg + simplePath, simplePath, v.getNameAsString(), v.getInitializer().get().toString()));
+            }
+        }
+        for (com.github.javaparser.ast.body.BodyDeclaration<?> member : type.getMembers()) {
+            if (member instanceof TypeDeclaration) collect((TypeDeclaration<?>) member, pkg, simplePath, out);
+        }
+    }
+
+    // ==========================================================================================
+    // [ 해석 ]
+    // ==========================================================================================
+
+    /** 모든 상수를 1회씩 해석합니다. 해석 중인 상수를 다시 만나면 순환 참조로 판단하여 미해석 처리합니다. */
+    private void resolveAll() {
+        fileCount = files.size();
+        List<Def> all = new ArrayList<>();
+        for (FileDefs f : files.values()) all.addAll(f.defs);
+        Map<String, Def> byQualified = new HashMap<>();
+        Map<String, Def> bySimple = new HashMap<>();
+        Map<String, List<Def>> byField = new HashMap<>();
+        Set<String> ambiguousDefs = new HashSet<>();
+        for (Def d : all) {
+            byQualified.putIfAbsent(d.qualifiedClass + "." + d.field, d);
+            registerSimple(bySimple, ambiguousDefs, d.simpleClassPath + "." + d.field, d);
+            int dot = d.simpleClassPath.lastIndexOf('.');
+            if (dot != -1) registerSimple(bySimple, ambiguousDefs, d.simpleClassPath.substring(dot + 1) + "." + d.field, d);
+            byField.computeIfAbsent(d.field, k -> new ArrayList<>()).add(d);
+        }
+
+        Map<Def, String> values = new IdentityHashMap<>();
+        Set<Def> inProgress = Collections.newSetFromMap(new IdentityHashMap<>());
+        Resolver resolver = new Resolver(byQualified, bySimple, byField, ambiguousDefs, values, inProgress);
+
+        Set<String> simpleSeen = new HashSet<>();
+        for (Def d : all) {
+            String v = resolver.value(d);
+            constantCount++;
+            if (v == null) unresolvedCount++;
+            else resolved.putIfAbsent(d.qualifiedClass + "." + d.field, v);
+            putSimple(simpleSeen, d.simpleClassPath + "." + d.field, v);
+            int dot = d.simpleClassPath.lastIndexOf('.');
+            if (dot != -1) putSimple(simpleSeen, d.simpleClassPath.substring(dot + 1) + "." + d.field, v);
+        }
+    }
+
+    private static void registerSimple(Map<String, Def> bySimple, Set<String> ambiguousDefs, String key, Def d) {
+        Def prev = bySimple.putIfAbsent(key, d);
+        if (prev != null && prev != d) ambiguousDefs.add(key);
+    }
+
+    /**
+     * 단순명 등록 : 단순명이 같아도 값이 같으면 중의성 없음.
+     * 값이 다르거나 해석되지 않은 정의가 섞이면 중의성으로 표시하며, 표시된 키는 이후 같은 값이 나와도 해제하지 않습니다.
+     */
+    private void putSimple(Set<String> simpleSeen, String key, String value) {
+        if (simpleSeen.add(key)) {
+            if (value != null) resolved.put(key, value);
+            return;
+        }
+        if (value == null || !value.equals(resolved.get(key))) ambiguous.add(key);
+    }
+
+    private class Resolver {
+        final Map<String, Def> byQualified, bySimple;
+        final Map<String, List<Def>> byField;
+        final Set<String> ambiguousDefs;
+        final Map<Def, String> values;
+        final Set<Def> inProgress;
+
+        Resolver(Map<String, Def> byQualified, Map<String, Def> bySimple, Map<String, List<Def>> byField, Set<String> ambiguousDefs, Map<Def, String> values, Set<Def> inProgress) {
+            this.byQualified = byQualified; this.bySimple = bySimple; this.byField = byField; this.ambiguousDefs = ambiguousDefs; this.values = values; this.inProgress = inProgress;
+        }
+
+        String value(Def d) {
+            if (values.containsKey(d)) return values.get(d);
+            if (!inProgress.add(d)) return null; // 순환 참조
+            String v = null;
+            try {
+                if (d.expr == null) d.expr = StaticJavaParser.parseExpression(d.initializer);
+                v = eval(d.expr, d);
+            } catch (Exception ignored) {
+            } finally {
+                inProgress.remove(d);
+            }
+            values.put(d, v);
+            return v;
+        }
+
+        private String eval(Expression expr, Def ctx) {
+            if (expr instanceof StringLiteralExpr) return ((StringLiteralExpr) expr).getValue();
+            if (expr instanceof TextBlockLiteralExpr) return ((TextBlockLiteralExpr) expr).getValue();
+            if (expr instanceof CharLiteralExpr) return ((CharLiteralExpr) expr).getValue();
+            if (expr instanceof IntegerLiteralExpr || expr instanceof LongLiteralExpr) return expr.toString().replaceAll("[lL]$", "");
+            if (expr instanceof EnclosedExpr) return eval(((EnclosedExpr) expr).getInner(), ctx);
+            if (expr instanceof BinaryExpr && ((BinaryExpr) expr).getOperator() == BinaryExpr.Operator.PLUS) {
+                String l = eval(((BinaryExpr) expr).getLeft(), ctx);
+                String r = eval(((BinaryExpr) expr).getRight(), ctx);
+                return (l == null || r == null) ? null : l + r;
+            }
+            if (expr instanceof NameExpr) {
+                String name = ((NameExpr) expr).getNameAsString();
+                Def own = byQualified.get(ctx.qualifiedClass + "." + name);
+                if (own != null) return value(own);
+                // 외부 클래스 상수 (중첩 클래스 내부에서 참조)
+                String outer = ctx.qualifiedClass;
+                while (outer.lastIndexOf('.') > 0) {
+                    outer = outer.substring(0, outer.lastIndexOf('.'));
+                    Def d = byQualified.get(outer + "." + name);
+                    if (d != null) return value(d);
+                }
+                // static import 등 : 프로젝트 전체에서 유일한 필드명일 때만 사용
+                List<Def> candidates = byField.get(name);
+                return (candidates != null && candidates.size() == 1) ? value(candidates.get(0)) : null;
+            }
+            if (expr instanceof FieldAccessExpr) {
+                String full = expr.toString();
+                Def d = byQualified.get(full);
+                if (d == null && !ambiguousDefs.contains(full)) d = bySimple.get(full);
+                if (d == null) {
+                    FieldAccessExpr fa = (FieldAccessExpr) expr;
+                    String scope = fa.getScope().toString();
+                    String shortKey = scope.substring(scope.lastIndexOf('.') + 1) + "." + fa.getNameAsString();
+                    if (!ambiguousDefs.contains(shortKey)) d = bySimple.get(shortKey);
+                }
+                return d != null ? value(d) : null;
+            }
+            return null;
+        }
+    }
+
+    // ==========================================================================================
+    // [ 캐시 ]
+    // ==========================================================================================
+
+    private static Map<String, FileDefs> readCache(File cacheFile) {
+        Map<String, FileDefs> cache = new HashMap<>();
+        if (!cacheFile.exists()) return cache;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(cacheFile))))) {
+            if (in.readInt() != CACHE_VERSION) return cache;
+            int files = in.readInt();
+            for (int i = 0; i < files; i++) {
+                String key = in.readUTF();
+                FileDefs f = new FileDefs();
+                f.stamp = in.readUTF();
+                int n = in.readInt();
+                for (int j = 0; j < n; j++) f.defs.add(new Def(in.readUTF(), in.readUTF(), in.readUTF(), readLongUTF(in)));
+                cache.put(key, f);
+            }
+        } catch (IOException e) {
+            cache.clear(); // 손상된 캐시는 무시하고 전체 재파싱
+        }
+        return cache;
+    }
+
+    private static void writeCache(File cacheFile, Map<String, FileDefs> current) {
+        if (cacheFile.getParentFile() != null && !cacheFile.getParentFile().exists()) cacheFile.getParentFile().mkdirs();
+        File tmp = new File(cacheFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmp))))) {
+            out.writeInt(CACHE_VERSION);
+            out.writeInt(current.size());
+            for (Map.Entry<String, FileDefs> e : current.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeUTF(e.getValue().stamp);
+                out.writeInt(e.getValue().defs.size());
+                for (Def d : e.getValue().defs) {
+                    out.writeUTF(d.qualifiedClass); out.writeUTF(d.simpleClassPath); out.writeUTF(d.field); writeLongUTF(out, d.initializer);
+                }
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            tmp.delete();
+        }
+    }
+
+    /** 초기화 식은 Text Block 등으로 64KB(writeUTF 한계)를 넘을 수 있어 길이 + UTF-8 바이트로 기록 */
+    private static void writeLongUTF(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length); out.write(b);
+    }
+
+    private static String readLongUTF(DataInputStream in) throws IOException {
+        byte[] b = new byte[in.readInt()];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
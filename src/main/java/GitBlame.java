@@ -0,0 +1,231 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 프로젝트명: GitBlame (메소드 단위 커밋 이력)
+ * Version: 1.4
+ * 반영사항:
+ * 1. [신규] 파일당 git blame --incremental 1회로 라인 → 커밋 매핑을 구성하고, 메소드 라인 범위를 수정한 최근 커밋을 조회 [cite: 2026-10-18]
+ * 2. [성능] 동시에 실행되는 git 프로세스 수를 세마포어로 제한 (컨트롤러 병렬 분석 시 프로세스 폭주 방지) [cite: 2026-10-18]
+ * 3. [캐시] blob SHA(+경로) 기준으로 blame 결과를 캐시하여 변경되지 않은 파일은 다음 실행/다른 리비전에서 blame을 생략 [cite: 2026-10-18]
+ * 4. [메모리] 커밋 정보는 CommitInfo Flyweight로 공유하고, 메소드 이력은 CommitInfo[]로 반환 [cite: 2026-10-18]
+ * 5. [안정성] 자격 증명/LFS 프롬프트 대기 방지(입력 닫기, GIT_TERMINAL_PROMPT=0) 및 StepWatchdog 제한 시간 초과 시 blame 프로세스 강제 종료 [cite: 2026-10-18]
+ * 6. [성능] 작업 트리 파일의 캐시 키(blob SHA)는 SourceFile.contentSha()로 조회 : 인덱스 / 추출과 같은 1회 읽기에서 계산하여 SHA 계산용 재읽기 제거 [cite: 2026-10-18]
+ * 7. [수정] 작업 트리 blame의 미커밋 라인("Not Committed Yet", SHA 0000...)은 커밋 구간에서 제외 : 최근 커밋 / 커밋터 컬럼에 실제 커밋처럼 표시되던 문제 수정 [cite: 2026-10-18]
+ * 8. [재진입] 커밋 Flyweight는 blame 인스턴스가 소유한 StringPool에서 공유 (전역 커밋 풀 제거) [cite: 2026-10-19]
+ */
+public class GitBlame {
+
+    private static final int CACHE_VERSION = 1;
+
+    /** 커밋되지 않은 라인 (작업 트리 수정분)의 blame SHA */
+    private static final String UNCOMMITTED = "0000000000000000000000000000000000000000";
+
+    /** 커밋 1건 : 날짜는 git log %as와 동일하게 작성자 시간대 기준 yyyy-MM-dd, 정렬용 작성 시각(epoch 초) 별도 보관 */
+    static class Commit {
+        final CommitInfo info;
+        final long time;
+
+        Commit(CommitInfo info, long time) {
+            this.info = info; this.time = time;
+        }
+    }
+
+    /** 파일 1개의 blame 결과 : 라인 구간(시작 라인, 라인 수) → 커밋 */
+    public static class FileBlame {
+        final List<Commit> commits = new ArrayList<>();
+        int[] starts = new int[0], counts = new int[0], commitIdx = new int[0];
+
+        /**
+         * 라인 범위 [begin, end]를 마지막으로 수정한 커밋 중 최근 c건을 getRecentGitHistories와 동일한 형식으로 반환합니다.
+         * @return 최신 c건을 과거 → 최신 순으로 배치 (부족분은 CommitInfo.NONE)
+         */
+        public CommitInfo[] history(int begin, int end, int c) {
+            Set<Integer> touched = new HashSet<>();
+            // 구간은 시작 라인 순으로 정렬되어 있으므로 begin을 포함하는 구간부터 순차 확인
+            int i = Arrays.binarySearch(starts, begin);
+            if (i < 0) i = Math.max(0, -i - 2);
+            for (; i < starts.length && starts[i] <= end; i++) {
+                if (starts[i] + counts[i] - 1 >= begin) touched.add(commitIdx[i]);
+            }
+            List<Commit> recent = new ArrayList<>();
+            for (int idx : touched) recent.add(commits.get(idx));
+            recent.sort((a, b) -> Long.compare(b.time, a.time));
+
+            List<CommitInfo> newestFirst = new ArrayList<>();
+            for (int k = 0; k < Math.min(c, recent.size()); k++) newestFirst.add(recent.get(k).info);
+            return CommitInfo.columns(newestFirst, c);
+        }
+    }
+
+    private final String gitBin;
+    private final File workDir;
+    private final Semaphore processes;
+    private final File cacheFile;
+
+    /** blob SHA|경로 → blame 결과. 이번 실행에서 사용한 키만 캐시 파일에 다시 저장 */
+    private final Map<String, FileBlame> cache = new ConcurrentHashMap<>();
+    private final Set<String> used = ConcurrentHashMap.newKeySet();
+    /** [v1.4] 커밋 / 커밋터 / 메시지 공유 (리비전 간 공유되는 blame 단위) */
+    private final StringPool pool = new StringPool();
+
+    /**
+     * @param maxProcesses 동시에 실행할 git blame 프로세스 최대 수
+     * @param cacheFile    blame 캐시 파일 (null이면 메모리 캐시만 사용)
+     */
+    public GitBlame(String gitBin, File workDir, int maxProcesses, File cacheFile) {
+        this.gitBin = gitBin; this.workDir = workDir; this.processes = new Semaphore(Math.max(1, maxProcesses)); this.cacheFile = cacheFile;
+        if (cacheFile != null) readCache();
+    }
+
+    /**
+     * 파일의 blame 결과를 조회합니다. 실패(이력 없음, git 미설치 등) 시 null을 반환하며 호출부는 파일 단위 이력을 사용합니다.
+     * @param revision git 리비전 (작업 트리 분석 시 null)
+     */
+    public FileBlame blame(SourceFile file, String revision) {
+        String relPath = file.relPath.replace('\\', '/');
+        String key;
+        try {
+            // 작업 트리 파일은 추출과 같은 1회 읽기 결과에서 계산된 SHA 사용 (SourceFile.readText 공유)
+            key = file.contentSha() + "|" + relPath;
+        } catch (IOException e) {
+            return null;
+        }
+        FileBlame cached = cache.get(key);
+        if (cached != null) { used.add(key); return cached; }
+
+        List<String> cmd = new ArrayList<>(Arrays.asList(gitBin, "blame", "--incremental"));
+        if (revision != null) cmd.add(revision);
+        cmd.add("--"); cmd.add(file.relPath);
+
+        boolean acquired = false;
+        try {
+            processes.acquire();
+            acquired = true;
+            ProcessBuilder pb = new ProcessBuilder(cmd).directory(workDir).redirectError(ProcessBuilder.Redirect.DISCARD);
+            pb.environment().put("GIT_TERMINAL_PROMPT", "0");
+            Process p = pb.start();
+            boolean[] uncommitted = {false};
+            FileBlame result;
+            // 제한 시간(StepWatchdog GIT) 초과 시 프로세스 강제 종료 → 읽기 종료, 결과 사용 안 함
+            try (StepWatchdog.Guard guard = StepWatchdog.watchProcess(file.relPath, p);
+                 BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                result = parseIncremental(r, pool, uncommitted);
+                if (p.waitFor() != 0 || guard.timedOut() || result.starts.length == 0) return null;
+            }
+            // 커밋되지 않은 수정분이 있는 결과는 커밋 후 내용이 같아도 이력이 달라지므로 캐시하지 않음
+            if (!uncommitted[0]) { cache.put(key, result); used.add(key); }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        } finally {
+            if (acquired) processes.release();
+        }
+    }
+
+    /** 이번 실행에서 사용한 blame 결과만 캐시 파일로 저장 (삭제/변경된 파일의 결과가 누적되지 않도록) */
+    public void save() {
+        if (cacheFile == null) return;
+        if (cacheFile.getParentFile() != null && !cacheFile.getParentFile().exists()) cacheFile.getParentFile().mkdirs();
+        File tmp = new File(cacheFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmp))))) {
+            out.writeInt(CACHE_VERSION);
+            out.writeInt(used.size());
+            for (String key : used) {
+                FileBlame b = cache.get(key);
+                out.writeUTF(key);
+                out.writeInt(b.commits.size());
+                for (Commit c : b.commits) { out.writeUTF(c.info.dateText()); out.writeUTF(c.info.author); out.writeUTF(c.info.message); out.writeLong(c.time); }
+                out.writeInt(b.starts.length);
+                for (int i = 0; i < b.starts.length; i++) { out.writeInt(b.starts[i]); out.writeInt(b.counts[i]); out.writeInt(b.commitIdx[i]); }
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        try {
+            java.nio.file.Files.move(tmp.toPath(), cacheFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING, java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            tmp.delete();
+        }
+    }
+
+    public int cachedFiles() { return cache.size(); }
+
+    /**
+     * --incremental 출력 판독 : "<sha> <원본라인> <최종라인> <라인수>" 다음에 커밋 헤더가 오고 "filename" 줄로 끝남.
+     * 커밋 헤더(author, author-time 등)는 해당 커밋이 처음 등장할 때만 출력됩니다.
+     */
+    static FileBlame parseIncremental(BufferedReader r, StringPool pool, boolean[] uncommitted) throws IOException {
+        FileBlame result = new FileBlame();
+        Map<String, Integer> commitIndex = new HashMap<>();
+        Map<String, String[]> headers = new HashMap<>(); // sha → {author, time, tz, summary}
+        List<int[]> ranges = new ArrayList<>();
+
+        String line, sha = null;
+        int finalLine = 0, numLines = 0;
+        while ((line = r.readLine()) != null) {
+            if (sha == null) {
+                String[] parts = line.split(" ");
+                if (parts.length < 4 || parts[0].length() != 40) continue;
+                sha = parts[0]; finalLine = Integer.parseInt(parts[2]); numLines = Integer.parseInt(parts[3]);
+                headers.computeIfAbsent(sha, k -> new String[]{"-", "0", "+0000", ""});
+                continue;
+            }
+            String[] h = headers.get(sha);
+            if (line.startsWith("author ")) h[0] = line.substring(7);
+            else if (line.startsWith("author-time ")) h[1] = line.substring(12);
+            else if (line.startsWith("author-tz ")) h[2] = line.substring(10);
+            else if (line.startsWith("summary ")) h[3] = line.substring(8);
+            else if (line.startsWith("filename ")) {
+                // 미커밋 라인은 커밋 이력이 아니므로 구간에서 제외 (해당 라인만 수정한 메소드는 이전 커밋 이력이 없는 것으로 처리)
+                if (UNCOMMITTED.equals(sha)) { uncommitted[0] = true; sha = null; continue; }
+                Integer idx = commitIndex.get(sha);
+                if (idx == null) {
+                    long time = Long.parseLong(h[1]);
+                    String date = DateTimeFormatter.ISO_LOCAL_DATE.format(Instant.ofEpochSecond(time).atOffset(ZoneOffset.of(h[2])));
+                    idx = result.commits.size();
+                    result.commits.add(new Commit(pool.commit(date, h[0], h[3]), time));
+                    commitIndex.put(sha, idx);
+                }
+                ranges.add(new int[]{finalLine, numLines, idx});
+                sha = null;
+            }
+        }
+        ranges.sort(Comparator.comparingInt(a -> a[0]));
+        result.starts = new int[ranges.size()]; result.counts = new int[ranges.size()]; result.commitIdx = new int[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++) { result.starts[i] = ranges.get(i)[0]; result.counts[i] = ranges.get(i)[1]; result.commitIdx[i] = ranges.get(i)[2]; }
+        return result;
+    }
+
+    private void readCache() {
+        if (!cacheFile.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(cacheFile))))) {
+            if (in.readInt() != CACHE_VERSION) return;
+            int files = in.readInt();
+            for (int f = 0; f < files; f++) {
+                String key = in.readUTF();
+                FileBlame b = new FileBlame();
+                int commits = in.readInt();
+                for (int i = 0; i < commits; i++) b.commits.add(new Commit(pool.commit(in.readUTF(), in.readUTF(), in.readUTF()), in.readLong()));
+                int n = in.readInt();
+                b.starts = new int[n]; b.counts = new int[n]; b.commitIdx = new int[n];
+                for (int i = 0; i < n; i++) { b.starts[i] = in.readInt(); b.counts[i] = in.readInt(); b.commitIdx[i] = in.readInt(); }
+                cache.put(key, b);
+            }
+        } catch (IOException e) {
+            cache.clear(); // 손상된 캐시는 무시하고 다시 blame
+        }
+    }
+}
@@ -0,0 +1,152 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 프로젝트명: GitRevisionSource (체크아웃 없는 git 리비전 소스 공급자)
+ * Version: 1.2
+ * 반영사항:
+ * 1. [신규] git ls-tree -r 로 리비전(태그/브랜치/커밋)의 파일 목록을 조회하여 작업 트리 체크아웃 없이 분석 [cite: 2026-10-18]
+ * 2. [성능] 파일 내용은 장기 실행 git cat-file --batch 프로세스 1개로 순차 스트리밍하여 파일마다 프로세스를 띄우지 않음 [cite: 2026-10-18]
+ * 3. [캐시] 각 파일에 blob SHA를 부여하여 리비전 간 변경되지 않은 파일의 파싱 결과를 공유 [cite: 2026-10-18]
+ * 4. [안정성] blob 조회 제한 시간(StepWatchdog READ)은 cat-file 잠금 획득 후부터 측정 : 병렬 파싱 중 잠금 대기가 초과로 집계되지 않으며, 초과 시 cat-file 프로세스를 강제 종료하고 다음 조회에서 다시 기동 [cite: 2026-10-19]
+ * 5. [재진입] 조회한 파일의 문자셋 판별 설정(SourceFile.Options)을 생성 시 지정 (전역 설정 제거) [cite: 2026-10-19]
+ */
+public class GitRevisionSource implements Closeable {
+
+    private final String gitBin;
+    private final File workDir;
+    private final SourceFile.Options options;
+
+    /** cat-file --batch 프로세스 (최초 조회 시 기동) */
+    private Process catFile;
+    private OutputStream catIn;
+    private BufferedInputStream catOut;
+
+    /**
+     * @param gitBin  git 실행 파일 (GIT_BIN_PATH)
+     * @param workDir ROOT_PATH : 저장소 하위 디렉토리여도 되며, 목록/경로는 이 디렉토리 기준으로 조회됨
+     */
+    public GitRevisionSource(String gitBin, File workDir) { this(gitBin, workDir, SourceFile.Options.DEFAULT); }
+
+    /** @param options 조회한 파일의 대체 문자셋 (SOURCE_FALLBACK_CHARSET) */
+    public GitRevisionSource(String gitBin, File workDir, SourceFile.Options options) {
+        this.gitBin = gitBin; this.workDir = workDir; this.options = options;
+    }
+
+    /** 리비전에 포함된 .java 파일 목록 (ROOT_PATH 하위만, ROOT_PATH 기준 상대 경로) */
+    public List<SourceFile> listJavaFiles(String revision) throws IOException {
+        Process p = new ProcessBuilder(gitBin, "ls-tree", "-r", "-z", revision).directory(workDir).start();
+        drainAsync(p.getErrorStream());
+        List<SourceFile> files = new ArrayList<>();
+        try (InputStream in = new BufferedInputStream(p.getInputStream())) {
+            ByteArrayOutputStream entry = new ByteArrayOutputStream(256);
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b != 0) { entry.write(b); continue; }
+                // 형식 : <mode> SP <type> SP <object> TAB <path>
+                String line = entry.toString(StandardCharsets.UTF_8);
+                entry.reset();
+                int tab = line.indexOf('\t');
+                if (tab == -1) continue;
+                String[] meta = line.substring(0, tab).split(" ");
+                String path = line.substring(tab + 1);
+                if (meta.length < 3 || !"blob".equals(meta[1]) || !path.endsWith(".java")) continue;
+                String sha = meta[2];
+                files.add(new SourceFile(path.replace('/', File.separatorChar), sha, "blob:" + sha, "", () -> readBlob(sha, path), options));
+            }
+        }
+        try {
+            if (p.waitFor() != 0) throw new IOException("git ls-tree 실패 (리비전: " + revision + ", 종료코드: " + p.exitValue() + ")");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("git ls-tree 중단", e);
+        }
+        return files;
+    }
+
+    /**
+     * blob 내용을 조회합니다. cat-file 프로세스는 요청/응답이 순서대로 1:1 대응하므로 호출을 직렬화합니다.
+     * (파싱은 호출부에서 병렬로 진행되며, 프로세스 파이프 I/O만 순차 처리)
+     */
+    public byte[] readBlob(String sha) throws IOException { return readBlob(sha, sha); }
+
+    /**
+     * [v1.1] 제한 시간(StepWatchdog READ)은 잠금을 얻은 뒤부터 측정합니다. 초과하면 cat-file 프로세스를 강제 종료하여 대기 중인 읽기를 해제하고
+     * StepTimeoutException을 던지며, 요청/응답 순서가 어긋난 프로세스 대신 다음 조회에서 새 프로세스를 기동합니다.
+     * @param target [TIMEOUTS] 기록 대상 (파일 상대 경로)
+     */
+    synchronized byte[] readBlob(String sha, String target) throws IOException {
+        start();
+        Process process = catFile;
+        try (StepWatchdog.Guard guard = StepWatchdog.watch(StepWatchdog.Step.READ, target, process::destroyForcibly)) {
+            try {
+                return request(sha);
+            } catch (IOException e) {
+                if (!guard.timedOut()) throw e;
+                throw new StepWatchdog.StepTimeoutException(StepWatchdog.Step.READ, target, guard.deadlineMs);
+            }
+        }
+    }
+
+    /** cat-file 프로세스 기동 (최초 조회 시, 또는 제한 시간 초과로 강제 종료된 경우 다시 기동) */
+    private void start() throws IOException {
+        if (catFile != null && !catFile.isAlive()) {
+            try { catIn.close(); } catch (IOException ignored) {}
+            try { catOut.close(); } catch (IOException ignored) {}
+            catFile = null;
+        }
+        if (catFile == null) {
+            catFile = new ProcessBuilder(gitBin, "cat-file", "--batch").directory(workDir).start();
+            drainAsync(catFile.getErrorStream());
+            catIn = catFile.getOutputStream();
+            catOut = new BufferedInputStream(catFile.getInputStream(), 1 << 16);
+        }
+    }
+
+    private byte[] request(String sha) throws IOException {
+        catIn.write((sha + "\n").getBytes(StandardCharsets.US_ASCII));
+        catIn.flush();
+
+        // 응답 헤더 : <sha> SP <type> SP <size> LF (없으면 <sha> SP missing LF)
+        String header = readLine(catOut);
+        String[] parts = header.split(" ");
+        if (parts.length < 3) throw new IOException("git cat-file 조회 실패: " + header);
+        int size = Integer.parseInt(parts[2]);
+        byte[] content = new byte[size];
+        int off = 0;
+        while (off < size) {
+            int n = catOut.read(content, off, size - off);
+            if (n < 0) throw new IOException("git cat-file 응답이 중간에 종료되었습니다: " + sha);
+            off += n;
+        }
+        catOut.read(); // 내용 뒤 LF
+        return content;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (catFile == null) return;
+        try { catIn.close(); } catch (IOException ignored) {}
+        try { catFile.waitFor(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); catFile.destroy(); }
+        catFile = null;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') line.write(b);
+        if (b == -1 && line.size() == 0) throw new IOException("git cat-file 프로세스가 종료되었습니다.");
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    /** stderr 버퍼가 가득 차 git 프로세스가 멈추지 않도록 별도 스레드에서 비움 */
+    private static void drainAsync(InputStream err) {
+        Thread t = new Thread(() -> {
+            try (InputStream in = err) { byte[] buf = new byte[4096]; while (in.read(buf) != -1) { } } catch (IOException ignored) {}
+        }, "git-stderr");
+        t.setDaemon(true);
+        t.start();
+    }
+}
@@ -0,0 +1,279 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+/**
+ * 프로젝트명: InventoryQueryServer (API 인벤토리 로컬 조회 API)
+ * Version: 1.0
+ * 반영사항:
+ * 1. [신규] JDK 내장 HttpServer를 localhost에만 바인딩하여 메모리의 API 인벤토리(추출 결과 + APM 호출건수)를 JSON으로 제공 (엑셀을 열지 않고 조회) [cite: 2026-10-18]
+ * 2. [성능] 경로 세그먼트 트라이({변수} 세그먼트는 와일드카드), 컨트롤러, 프로그램ID, 미사용 의심 등급별 인덱스를 실행 결과마다 1회 구성하여 조회를 ms 단위로 응답 [cite: 2026-10-18]
+ * 3. [갱신] 실행(감시 모드 재분석 포함)이 끝날 때마다 새 인덱스로 원자적으로 교체하여 조회 중인 요청은 이전 인덱스로 일관되게 응답 [cite: 2026-10-18]
+ */
+public class InventoryQueryServer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int DEFAULT_LIMIT = 1000;
+
+    /** 조회 대상 API 1건 (엑셀 1행과 동일 기준의 값) */
+    public static class Entry {
+        public final String apiPath, fullUrl, controllerName, methodName, repoPath, programId, deprecated, suspicion, latestCommitDate, latestCommitter;
+        /** APM 호출건수 (APM 미연동 시 -1) */
+        public final long calls;
+
+        public Entry(String apiPath, String fullUrl, String controllerName, String methodName, String repoPath, String programId,
+                     String deprecated, long calls, String suspicion, String latestCommitDate, String latestCommitter) {
+            this.apiPath = apiPath; this.fullUrl = fullUrl; this.controllerName = controllerName; this.methodName = methodName;
+            this.repoPath = repoPath; this.programId = programId; this.deprecated = deprecated; this.calls = calls;
+            this.suspicion = suspicion == null ? "" : suspicion; this.latestCommitDate = latestCommitDate; this.latestCommitter = latestCommitter;
+        }
+
+        /** 미사용 의심 등급 : ★ 개수 (0 ~ 3) */
+        int suspicionLevel() {
+            int n = 0;
+            for (int i = 0; i < suspicion.length(); i++) if (suspicion.charAt(i) == '★') n++;
+            return n;
+        }
+    }
+
+    /** 경로 트라이 노드 : 세그먼트 단위, {변수}/{미해석 상수} 세그먼트는 와일드카드 자식으로 보관 */
+    private static class TrieNode {
+        final Map<String, TrieNode> children = new HashMap<>();
+        TrieNode wildcard;
+        final List<Entry> entries = new ArrayList<>();
+
+        TrieNode child(String segment) {
+            if (segment.startsWith("{") && segment.endsWith("}")) return wildcard != null ? wildcard : (wildcard = new TrieNode());
+            return children.computeIfAbsent(segment, k -> new TrieNode());
+        }
+    }
+
+    /** 레파지토리 표시명 1건의 조회 인덱스 (구성 후 읽기 전용) */
+    private static class Index {
+        final String repo;
+        final long builtAt;
+        final List<Entry> entries;
+        final TrieNode root = new TrieNode();
+        final Map<String, List<Entry>> byController = new HashMap<>(), byProgramId = new HashMap<>();
+        final List<List<Entry>> bySuspicion = new ArrayList<>();
+        final int controllers;
+
+        Index(String repo, List<Entry> entries) {
+            this.repo = repo; this.builtAt = System.currentTimeMillis(); this.entries = entries;
+            for (int i = 0; i <= 3; i++) bySuspicion.add(new ArrayList<>());
+            for (Entry e : entries) {
+                TrieNode node = root;
+                for (String seg : segments(e.apiPath)) node = node.child(seg);
+                node.entries.add(e);
+                byController.computeIfAbsent(e.controllerName.toLowerCase(), k -> new ArrayList<>()).add(e);
+                byProgramId.computeIfAbsent(e.programId.toLowerCase(), k -> new ArrayList<>()).add(e);
+                bySuspicion.get(Math.min(3, e.suspicionLevel())).add(e);
+            }
+            this.controllers = byController.size();
+        }
+
+        /** 실제 요청 경로와 일치하는 API : 고정 세그먼트 우선, {변수} 세그먼트는 임의 값과 일치 */
+        List<Entry> match(String path) {
+            List<Entry> out = new ArrayList<>();
+            match(root, segments(path), 0, out);
+            return out;
+        }
+
+        private void match(TrieNode node, List<String> segs, int i, List<Entry> out) {
+            if (i == segs.size()) { out.addAll(node.entries); return; }
+            TrieNode exact = node.children.get(segs.get(i));
+            if (exact != null) match(exact, segs, i + 1, out);
+            if (node.wildcard != null) match(node.wildcard, segs, i + 1, out);
+        }
+
+        /** 경로 접두어 하위 API 전체 (세그먼트 단위 접두어) */
+        List<Entry> prefix(String path) {
+            TrieNode node = root;
+            for (String seg : segments(path)) {
+                node = seg.startsWith("{") ? node.wildcard : node.children.get(seg);
+                if (node == null) return Collections.emptyList();
+            }
+            List<Entry> out = new ArrayList<>();
+            Deque<TrieNode> stack = new ArrayDeque<>();
+            stack.push(node);
+            while (!stack.isEmpty()) {
+                TrieNode n = stack.pop();
+                out.addAll(n.entries);
+                n.children.values().forEach(stack::push);
+                if (n.wildcard != null) stack.push(n.wildcard);
+            }
+            return out;
+        }
+    }
+
+    private final HttpServer server;
+    private final Map<String, Index> indexes = new ConcurrentHashMap<>();
+    private volatile String defaultRepo;
+
+    /** localhost(루프백)에만 바인딩하여 조회 서버를 시작합니다. */
+    public InventoryQueryServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(Executors.newFixedThreadPool(2, r -> { Thread t = new Thread(r, "query-server"); t.setDaemon(true); return t; }));
+        server.createContext("/api/summary", ex -> handle(ex, this::summary));
+        server.createContext("/api/apis", ex -> handle(ex, this::apis));
+        server.start();
+    }
+
+    public int port() { return server.getAddress().getPort(); }
+
+    public void stop() { server.stop(0); }
+
+    /** 실행 결과 반영 : 인덱스를 새로 구성한 뒤 참조만 교체 */
+    public void publish(String repo, List<Entry> entries) {
+        indexes.put(repo, new Index(repo, Collections.unmodifiableList(new ArrayList<>(entries))));
+        if (defaultRepo == null) defaultRepo = repo;
+    }
+
+    // ==========================================================================================
+    // [ 요청 처리 ]
+    // ==========================================================================================
+
+    private interface Handler {
+        ObjectNode apply(Map<String, String> params) throws QueryException;
+    }
+
+    private static class QueryException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+        QueryException(int status, String message) { super(message); this.status = status; }
+    }
+
+    private void handle(HttpExchange ex, Handler handler) throws IOException {
+        long begin = System.nanoTime();
+        int status = 200;
+        ObjectNode body;
+        try {
+            if (!"GET".equalsIgnoreCase(ex.getRequestMethod())) throw new QueryException(405, "GET 요청만 지원합니다.");
+            body = handler.apply(params(ex.getRequestURI().getRawQuery()));
+            body.put("tookMicros", (System.nanoTime() - begin) / 1000);
+        } catch (QueryException e) {
+            status = e.status;
+            body = MAPPER.createObjectNode().put("error", e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body = MAPPER.createObjectNode().put("error", String.valueOf(e.getMessage()));
+        }
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) { out.write(bytes); }
+    }
+
+    /** GET /api/summary[?repo=] : 레파지토리별 API / 컨트롤러 / 의심 등급 건수 */
+    private ObjectNode summary(Map<String, String> params) throws QueryException {
+        ObjectNode root = MAPPER.createObjectNode();
+        ArrayNode repos = root.putArray("repos");
+        for (Index idx : new TreeMap<>(indexes).values()) {
+            if (params.containsKey("repo") && !idx.repo.equals(params.get("repo"))) continue;
+            ObjectNode r = repos.addObject();
+            r.put("repo", idx.repo).put("builtAt", idx.builtAt).put("apis", idx.entries.size()).put("controllers", idx.controllers);
+            ObjectNode s = r.putObject("suspicion");
+            for (int i = 3; i >= 1; i--) s.put(String.valueOf(i), idx.bySuspicion.get(i).size());
+            r.put("zeroCalls", idx.entries.stream().filter(e -> e.calls == 0).count());
+        }
+        return root;
+    }
+
+    /**
+     * GET /api/apis : 조건에 맞는 API 목록 (조건은 모두 AND)
+     * <ul>
+     *   <li>path : 실제 요청 경로 (예: /APP/pets/123 → /APP/pets/{id} 매칭)</li>
+     *   <li>prefix : 경로 접두어 (세그먼트 단위)</li>
+     *   <li>controller : 컨트롤러 파일명 (.java 생략 가능, 대소문자 무시)</li>
+     *   <li>programId : 프로그램ID (대소문자 무시)</li>
+     *   <li>suspicion : 미사용 의심 등급 하한 (1 ~ 3, ★ 개수)</li>
+     *   <li>maxCalls : 호출건수 상한 (0이면 호출 없는 API)</li>
+     *   <li>repo : 레파지토리 표시명 (미지정 시 최초 등록 레파지토리), limit : 최대 건수 (기본 1000)</li>
+     * </ul>
+     */
+    private ObjectNode apis(Map<String, String> params) throws QueryException {
+        Index idx = indexes.get(params.getOrDefault("repo", defaultRepo == null ? "" : defaultRepo));
+        if (idx == null) throw new QueryException(404, "조회 가능한 인벤토리가 없습니다: " + params.getOrDefault("repo", "(분석 진행 중)"));
+
+        String controller = params.containsKey("controller") ? normalizeController(params.get("controller")) : null;
+        String programId = params.containsKey("programId") ? params.get("programId").toLowerCase() : null;
+        int suspicion = intParam(params, "suspicion", 0);
+        long maxCalls = intParam(params, "maxCalls", -1);
+        int limit = intParam(params, "limit", DEFAULT_LIMIT);
+
+        // 가장 선택도가 높은 인덱스로 후보를 구한 뒤 나머지 조건으로 필터링
+        List<Entry> candidates;
+        if (params.containsKey("path")) candidates = idx.match(params.get("path"));
+        else if (params.containsKey("prefix")) candidates = idx.prefix(params.get("prefix"));
+        else if (controller != null) candidates = idx.byController.getOrDefault(controller, Collections.emptyList());
+        else if (programId != null) candidates = idx.byProgramId.getOrDefault(programId, Collections.emptyList());
+        else if (suspicion > 0) {
+            candidates = new ArrayList<>();
+            for (int i = 3; i >= Math.min(3, suspicion); i--) candidates.addAll(idx.bySuspicion.get(i));
+        } else candidates = idx.entries;
+
+        Predicate<Entry> filter = e -> true;
+        if (controller != null) filter = filter.and(e -> e.controllerName.equalsIgnoreCase(controller));
+        if (programId != null) filter = filter.and(e -> e.programId.equalsIgnoreCase(programId));
+        if (suspicion > 0) filter = filter.and(e -> e.suspicionLevel() >= suspicion);
+        if (maxCalls >= 0) filter = filter.and(e -> e.calls >= 0 && e.calls <= maxCalls);
+
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("repo", idx.repo).put("builtAt", idx.builtAt);
+        ArrayNode items = MAPPER.createArrayNode();
+        int matched = 0;
+        for (Entry e : candidates) {
+            if (!filter.test(e)) continue;
+            if (matched++ < limit) items.add(MAPPER.valueToTree(e));
+        }
+        root.put("count", matched).put("truncated", matched > limit);
+        root.set("items", items);
+        return root;
+    }
+
+    private static String normalizeController(String name) {
+        String n = name.trim().toLowerCase();
+        return n.endsWith(".java") ? n : n + ".java";
+    }
+
+    private static int intParam(Map<String, String> params, String key, int defaultValue) throws QueryException {
+        String v = params.get(key);
+        if (v == null || v.isEmpty()) return defaultValue;
+        try { return Integer.parseInt(v.trim()); }
+        catch (NumberFormatException e) { throw new QueryException(400, key + " 값이 숫자가 아닙니다: " + v); }
+    }
+
+    private static Map<String, String> params(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String k = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String v = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(k, v);
+        }
+        return params;
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segs = new ArrayList<>();
+        if (path == null) return segs;
+        for (String s : path.split("/")) if (!s.isEmpty()) segs.add(s);
+        return segs;
+    }
+}
@@ -0,0 +1,309 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 프로젝트명: InventorySnapshot (실행 결과 스냅샷 및 변경내역 비교 도구)
+ * Version: 1.1
+ * 반영사항:
+ * 1. [신규] 매 실행마다 API 목록과 API별 총 호출건수를 문자열 사전 + 가변길이 정수 기반의 압축 바이너리 스냅샷으로 저장 [cite: 2026-10-18]
+ * 2. [신규] 이전/현재 스냅샷을 해시 조인으로 비교하여 추가 / 삭제 / 이동(컨트롤러·메소드 변경) / 담당자 변경 / 호출건수 변동 산출 [cite: 2026-10-18]
+ * 3. [연동] 비교 결과는 ApiExcelExporter의 "변경내역" 시트와 JSON 파일로 출력, 엑셀을 열지 않고 스냅샷 2개만으로 단독 비교 가능 [cite: 2026-10-18]
+ * 4. [수정] 최신 스냅샷 탐색 시 파일명을 snapshot_[레파지토리]_[yyyyMMdd_HHmmss].snap.gz 형식과 정확히 비교 : 이름이 접두어로 겹치는 다른 레파지토리(api / api_admin)의 스냅샷과 비교되던 문제 수정 [cite: 2026-10-18]
+ *
+ * 단독 실행 : java InventorySnapshot [이전 스냅샷] [현재 스냅샷] [결과 JSON 경로(생략 시 콘솔 출력)]
+ */
+public class InventorySnapshot {
+
+    /** 파일 식별자 ('APIS') 및 포맷 버전 */
+    private static final int MAGIC = 0x41504953;
+    private static final short FORMAT_VERSION = 1;
+
+    /** 호출건수 미수집(APM 비활성) 표시값 : 호출건수 변동 비교에서 제외됩니다. */
+    public static final long CALLS_UNKNOWN = -1;
+
+    /** [v1.1] 스냅샷 파일명에서 레파지토리명 뒤에 오는 부분 (저장 시각 + 확장자) */
+    private static final Pattern SNAPSHOT_STAMP = Pattern.compile("\\d{8}_\\d{6}\\.snap\\.gz");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public final String repoName;
+    public final long createdAt;
+    public final List<Entry> entries;
+
+    public InventorySnapshot(String repoName, long createdAt, List<Entry> entries) {
+        this.repoName = repoName;
+        this.createdAt = createdAt;
+        this.entries = entries;
+    }
+
+    /** 스냅샷 1행 : API 경로 기준 비교에 필요한 최소 정보만 보관 */
+    public static class Entry {
+        public final String apiPath, controllerName, methodName, owner;
+        public final boolean deprecated;
+        public final long calls;
+
+        public Entry(String apiPath, String controllerName, String methodName, String owner, boolean deprecated, long calls) {
+            this.apiPath = apiPath; this.controllerName = controllerName; this.methodName = methodName;
+            this.owner = owner; this.deprecated = deprecated; this.calls = calls;
+        }
+
+        String handler() { return controllerName + "#" + methodName; }
+    }
+
+    /** 변경내역 1건 */
+    public static class Change {
+        public final String type, apiPath, oldHandler, newHandler, oldOwner, newOwner;
+        public final long oldCalls, newCalls;
+
+        Change(String type, String apiPath, String oldHandler, String newHandler, String oldOwner, String newOwner, long oldCalls, long newCalls) {
+            this.type = type; this.apiPath = apiPath; this.oldHandler = oldHandler; this.newHandler = newHandler;
+            this.oldOwner = oldOwner; this.newOwner = newOwner; this.oldCalls = oldCalls; this.newCalls = newCalls;
+        }
+
+        public long delta() { return (oldCalls < 0 || newCalls < 0) ? 0 : newCalls - oldCalls; }
+    }
+
+    public static final String ADDED = "추가", REMOVED = "삭제", MOVED = "이동", OWNER_CHANGED = "담당자변경", CALL_DELTA = "호출건수변동";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("사용법: java InventorySnapshot [이전 스냅샷] [현재 스냅샷] [결과 JSON 경로]");
+            return;
+        }
+        long begin = System.currentTimeMillis();
+        InventorySnapshot before = read(new File(args[0]));
+        InventorySnapshot after = read(new File(args[1]));
+        List<Change> changes = diff(before, after, 1);
+        if (args.length > 2) {
+            writeJson(new File(args[2]), before, after, changes);
+            System.out.println("[SUCCESS] 변경내역 " + changes.size() + "건 저장: " + new File(args[2]).getAbsolutePath());
+        } else {
+            System.out.println(MAPPER.writeValueAsString(toJson(before, after, changes)));
+        }
+        System.err.println("[INFO] 비교 소요: " + (System.currentTimeMillis() - begin) + "ms");
+    }
+
+    // ==========================================================================================
+    // [ 저장 / 로드 ]
+    // ==========================================================================================
+
+    /** 스냅샷을 gzip 압축 바이너리로 저장합니다. 반복되는 경로/컨트롤러/담당자 문자열은 사전으로 1회만 기록합니다. */
+    public void write(File file) throws IOException {
+        if (file.getParentFile() != null && !file.getParentFile().exists()) file.getParentFile().mkdirs();
+
+        Map<String, Integer> dict = new LinkedHashMap<>();
+        for (Entry e : entries) {
+            for (String s : new String[]{e.apiPath, e.controllerName, e.methodName, e.owner}) dict.putIfAbsent(nz(s), dict.size());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file), 1 << 16)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeLong(createdAt);
+            writeString(out, nz(repoName));
+
+            writeVarLong(out, dict.size());
+            for (String s : dict.keySet()) writeString(out, s);
+
+            writeVarLong(out, entries.size());
+            for (Entry e : entries) {
+                writeVarLong(out, dict.get(nz(e.apiPath)));
+                writeVarLong(out, dict.get(nz(e.controllerName)));
+                writeVarLong(out, dict.get(nz(e.methodName)));
+                writeVarLong(out, dict.get(nz(e.owner)));
+                out.writeByte(e.deprecated ? 1 : 0);
+                writeVarLong(out, e.calls + 1); // 미수집(-1)을 0으로 기록
+            }
+        }
+    }
+
+    public static InventorySnapshot read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file), 1 << 16)))) {
+            if (in.readInt() != MAGIC) throw new IOException("스냅샷 파일 형식이 아닙니다: " + file);
+            short version = in.readShort();
+            if (version != FORMAT_VERSION) throw new IOException("지원하지 않는 스냅샷 버전: " + version);
+            long createdAt = in.readLong();
+            String repo = readString(in);
+
+            String[] dict = new String[(int) readVarLong(in)];
+            for (int i = 0; i < dict.length; i++) dict[i] = readString(in);
+
+            int count = (int) readVarLong(in);
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String path = dict[(int) readVarLong(in)], ctrl = dict[(int) readVarLong(in)];
+                String method = dict[(int) readVarLong(in)], owner = dict[(int) readVarLong(in)];
+                boolean dep = in.readByte() == 1;
+                entries.add(new Entry(path, ctrl, method, owner, dep, readVarLong(in) - 1));
+            }
+            return new InventorySnapshot(repo, createdAt, entries);
+        }
+    }
+
+    /** 스냅샷 디렉토리에서 동일 레파지토리의 가장 최근 스냅샷을 찾습니다. 없으면 null */
+    public static File findLatest(File dir, String repoName) {
+        File[] files = dir.listFiles((d, n) -> isSnapshotOf(n, repoName));
+        if (files == null || files.length == 0) return null;
+        // 파일명에 yyyyMMdd_HHmmss가 포함되어 있으므로 이름순 최댓값이 최신
+        return Arrays.stream(files).max(Comparator.comparing(File::getName)).orElse(null);
+    }
+
+    public static String fileNamePrefix(String repoName) { return "snapshot_" + repoName + "_"; }
+
+    /** [v1.1] 파일명이 정확히 snapshot_[레파지토리]_[yyyyMMdd_HHmmss].snap.gz 인지 (접두어만 같은 다른 레파지토리 제외) */
+    static boolean isSnapshotOf(String fileName, String repoName) {
+        String prefix = fileNamePrefix(repoName);
+        return fileName.startsWith(prefix) && SNAPSHOT_STAMP.matcher(fileName.substring(prefix.length())).matches();
+    }
+
+    // ==========================================================================================
+    // [ 비교 엔진 ]
+    // ==========================================================================================
+
+    /**
+     * 두 스냅샷을 API 경로 기준 해시 조인으로 비교합니다. (O(n), 5만 건 전수 변경 기준 1초 미만)
+     * @param minCallDelta 호출건수 변동으로 간주할 최소 증감 절댓값 (1 이상)
+     */
+    public static List<Change> diff(InventorySnapshot before, InventorySnapshot after, long minCallDelta) {
+        Map<String, PathGroup> oldMap = group(before.entries);
+        Map<String, PathGroup> newMap = group(after.entries);
+        List<Change> added = new ArrayList<>(), removed = new ArrayList<>(), moved = new ArrayList<>(), owners = new ArrayList<>(), calls = new ArrayList<>();
+
+        for (Map.Entry<String, PathGroup> e : newMap.entrySet()) {
+            PathGroup n = e.getValue(), o = oldMap.get(e.getKey());
+            if (o == null) { added.add(new Change(ADDED, e.getKey(), "", n.handlers(), "", n.owner, CALLS_UNKNOWN, n.calls)); continue; }
+            if (!o.handlers().equals(n.handlers())) moved.add(new Change(MOVED, e.getKey(), o.handlers(), n.handlers(), o.owner, n.owner, o.calls, n.calls));
+            if (!o.owner.equals(n.owner)) owners.add(new Change(OWNER_CHANGED, e.getKey(), o.handlers(), n.handlers(), o.owner, n.owner, o.calls, n.calls));
+            if (o.calls >= 0 && n.calls >= 0 && Math.abs(n.calls - o.calls) >= Math.max(1, minCallDelta)) {
+                calls.add(new Change(CALL_DELTA, e.getKey(), o.handlers(), n.handlers(), o.owner, n.owner, o.calls, n.calls));
+            }
+        }
+        for (Map.Entry<String, PathGroup> e : oldMap.entrySet()) {
+            if (!newMap.containsKey(e.getKey())) {
+                PathGroup o = e.getValue();
+                removed.add(new Change(REMOVED, e.getKey(), o.handlers(), "", o.owner, "", o.calls, CALLS_UNKNOWN));
+            }
+        }
+
+        Comparator<Change> byPath = Comparator.comparing(c -> c.apiPath);
+        added.sort(byPath); removed.sort(byPath); moved.sort(byPath); owners.sort(byPath);
+        calls.sort(Comparator.comparingLong((Change c) -> -Math.abs(c.delta())).thenComparing(c -> c.apiPath));
+
+        List<Change> result = new ArrayList<>(added.size() + removed.size() + moved.size() + owners.size() + calls.size());
+        result.addAll(added); result.addAll(removed); result.addAll(moved); result.addAll(owners); result.addAll(calls);
+        return result;
+    }
+
+    /** 동일 경로가 여러 메소드에 매핑된 경우 하나의 그룹으로 묶어 비교 (핸들러 목록은 정렬하여 순서 차이 무시) */
+    private static Map<String, PathGroup> group(List<Entry> entries) {
+        Map<String, PathGroup> map = new HashMap<>(Math.max(16, (int) (entries.size() / 0.75f) + 1));
+        for (Entry e : entries) {
+            PathGroup g = map.computeIfAbsent(e.apiPath, k -> new PathGroup());
+            g.add(e.handler());
+            if (g.owner.isEmpty()) g.owner = nz(e.owner);
+            g.calls = Math.max(g.calls, e.calls);
+        }
+        return map;
+    }
+
+    private static class PathGroup {
+        String owner = "";
+        long calls = CALLS_UNKNOWN;
+        /** 대부분의 경로는 핸들러가 1개이므로 2개 이상일 때만 정렬 집합을 생성 */
+        private String single;
+        private TreeSet<String> multi;
+        private String joined;
+
+        void add(String handler) {
+            if (single == null && multi == null) { single = handler; return; }
+            if (multi == null) { multi = new TreeSet<>(); multi.add(single); }
+            multi.add(handler);
+            joined = null;
+        }
+
+        String handlers() {
+            if (multi == null) return single;
+            if (joined == null) joined = String.join(", ", multi);
+            return joined;
+        }
+    }
+
+    // ==========================================================================================
+    // [ JSON 출력 ]
+    // ==========================================================================================
+
+    public static void writeJson(File file, InventorySnapshot before, InventorySnapshot after, List<Change> changes) throws IOException {
+        if (file.getParentFile() != null && !file.getParentFile().exists()) file.getParentFile().mkdirs();
+        try (Writer w = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(file)), StandardCharsets.UTF_8)) {
+            MAPPER.writeValue(w, toJson(before, after, changes));
+        }
+    }
+
+    private static ObjectNode toJson(InventorySnapshot before, InventorySnapshot after, List<Change> changes) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("repoName", after.repoName);
+        root.put("beforeCreatedAt", before.createdAt);
+        root.put("afterCreatedAt", after.createdAt);
+        root.put("beforeApiCount", before.entries.size());
+        root.put("afterApiCount", after.entries.size());
+
+        Map<String, Integer> summary = new LinkedHashMap<>();
+        for (String t : new String[]{ADDED, REMOVED, MOVED, OWNER_CHANGED, CALL_DELTA}) summary.put(t, 0);
+        for (Change c : changes) summary.merge(c.type, 1, Integer::sum);
+        ObjectNode sum = root.putObject("summary");
+        summary.forEach(sum::put);
+
+        ArrayNode arr = root.putArray("changes");
+        for (Change c : changes) {
+            ObjectNode n = arr.addObject();
+            n.put("type", c.type);
+            n.put("apiPath", c.apiPath);
+            n.put("oldHandler", c.oldHandler);
+            n.put("newHandler", c.newHandler);
+            n.put("oldOwner", c.oldOwner);
+            n.put("newOwner", c.newOwner);
+            if (c.oldCalls >= 0) n.put("oldCalls", c.oldCalls);
+            if (c.newCalls >= 0) n.put("newCalls", c.newCalls);
+            if (CALL_DELTA.equals(c.type)) n.put("delta", c.delta());
+        }
+        return root;
+    }
+
+    // ==========================================================================================
+    // [ 바이너리 인코딩 유틸 ]
+    // ==========================================================================================
+
+    private static String nz(String s) { return s == null ? "" : s; }
+
+    static void writeVarLong(DataOutput out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) { out.writeByte((int) ((v & 0x7F) | 0x80)); v >>>= 7; }
+        out.writeByte((int) v);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long v = 0; int shift = 0; byte b;
+        do { b = in.readByte(); v |= (long) (b & 0x7F) << shift; shift += 7; } while ((b & 0x80) != 0);
+        return v;
+    }
+
+    static void writeString(DataOutput out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
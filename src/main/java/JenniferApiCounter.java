@@ -1,7 +1,5 @@
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.*;
 import java.net.URI;
@@ -15,7 +13,7 @@ import java.util.stream.Collectors;
 
 /**
  * 프로젝트명: GenericApmCounter (범용 APM 통계 추출 도구)
- * Version: 1.0
+ * Version: 1.9
  *
  * WhatapApiCounter와 동일한 Excel/Log 출력을 생성하되,
  * Whatap이 아닌 다른 APM의 Open API와 연동합니다.
@@ -38,33 +36,109 @@ import java.util.stream.Collectors;
  *   - buildRequestBody(): APM에 보낼 요청 Body(JSON/Query 등) 생성
  *   - parseResponse():    APM 응답에서 Map<서비스경로, 호출건수> 추출
  * ──────────────────────────────────────────────────────────────
+ *
+ * [수정 사항]
+ * 1. [성능] 통계 엑셀을 ApmStatsReport(StatsSheetWriter)로 작성하여 일 단위 수백 개 열도 셀 객체 없이 스트리밍 기록 [cite: 2026-10-18]
+ * 2. [안정성] 수년 단위 일별 기간처럼 열 한도(16,384)를 넘으면 연도별 시트로, 행 한도를 넘으면 시트/파일로 분할 기록 [cite: 2026-10-18]
+ * 3. [성능] 전체 총합계를 수집 시 누적하여 정렬 비교마다 재합산하지 않도록 개선, STATS_TOP_N 지정 시 상위/하위 N건 순위 보고서만 생성 [cite: 2026-10-18]
+ * 4. [안정성] parseResponse에서 서비스 경로를 정규화(ApmPathNormalizer)하여 ID/세션 토큰별 키 폭증 방지 [cite: 2026-10-18]
+ * 5. [메모리] STATS_MODE=approx 지정 시 ApmApproxStats(Count-Min/Space-Saving/Bloom)로 고정 메모리 집계, 상위 경로만 보고서 작성 [cite: 2026-10-18]
+ * 6. [연계] EXPORT_FORMAT(csv/jsonl) 지정 시 통계를 세로형 gzip 파일로 함께 출력, EXPORT_EXCEL=N이면 엑셀 생략 [cite: 2026-10-18]
+ * 7. [성능] 응답을 gzip/deflate 압축 전송으로 받아 스트림 해제 후 parseResponse에 직접 전달(본문 버퍼링 없음), 구간별 전송/해제 바이트 및 합계 로그 [cite: 2026-10-18]
+ * 8. [재진입] 설정·수집 상태를 정적 필드에서 인스턴스로 이동 : 불변 Config로 생성하고 collect()가 ApmStats 결과 객체를 반환하여 한 JVM에서 여러 수집을 동시에 실행 가능 [cite: 2026-10-18]
+ * 9. [성능] 일별 응답을 ApmTimeSeries(경로별 일별 차이 인코딩)에 보관하고 STATS_GRANULARITY(DAY/WEEK/TENDAY/MONTH/QUARTER, 기본 DAY) 열은 누적합으로 계산, 받은 날은 CACHE_DIR에 저장하여 단위만 바꾼 재실행 시 APM 재요청 없음 (시작일 앞뒤 0초 구간 요청 제거) [cite: 2026-10-18]
  */
 public class JenniferApiCounter {
 
-    // ── 공통 설정 (WhatapApiCounter와 동일한 키 공유 가능) ──────────────────
-    private static String START_DATE  = "";
-    private static String END_DATE    = "";
-    private static String OUTPUT_DIR  = "";
-
-    // ── APM별 설정 ──────────────────────────────────────────────────────────
-    private static boolean JENNIFER_ENABLED      = false;
-    private static String  JENNIFER_URL          = "";
-    /** API 인증 키 (Bearer 토큰, API Key 등) */
-    private static String  JENNIFER_KEY          = "";
-    /** Authorization 헤더 scheme. Bearer / Basic / ApiKey 중 선택. 기본값: Bearer */
-    private static String  JENNIFER_AUTH_SCHEME  = "Bearer";
-    /** 엑셀 파일명/시트명에 표시할 서비스 이름 */
-    private static String  JENNIFER_DISPLAY_NAME = "Unknown";
-    /** 도메인 ID */
-    private static String  JENNIFER_DOMAIN_ID = "";
-    /** 서비스 경로 필터 목록 (없으면 [""] 로 전체 수집) */
-    private static List<String> JENNIFER_FILTERS = new ArrayList<>();
-
-    // ── 내부 상태 ────────────────────────────────────────────────────────────
-    private static final Map<String, long[]> STATS_MAP = new ConcurrentHashMap<>();
-    private static final List<FetchSegment>  SEGMENTS  = new ArrayList<>();
+    // ── [v1.8] 수집 설정 (불변, WhatapApiCounter와 동일한 키 공유 가능) ─────────
+    public static final class Config {
+        // 공통 설정
+        public final String startDate, endDate, outputDir;
+
+        // APM별 설정
+        public final boolean enabled;
+        public final String  url;
+        /** API 인증 키 (Bearer 토큰, API Key 등) */
+        public final String  key;
+        /** Authorization 헤더 scheme. Bearer / Basic / ApiKey 중 선택. 기본값: Bearer */
+        public final String  authScheme;
+        /** 엑셀 파일명/시트명에 표시할 서비스 이름 */
+        public final String  displayName;
+        /** 도메인 ID */
+        public final String  domainId;
+        /** 서비스 경로 필터 목록 (없으면 [""] 로 전체 수집, 수정 불가) */
+        public final List<String> filters;
+
+        /** [v1.9] 보고서 열 단위 (STATS_GRANULARITY, 기본값: 일) / 일별 수집 결과 캐시 경로 (CACHE_DIR, 기본값: OUTPUT_DIR/.cache) */
+        public final ApmTimeSeries.Granularity granularity;
+        public final String cacheDir;
+
+        /** 경로 정규화 / 근사 집계 설정 원본 (사본) */
+        private final Properties source;
+
+        private Config(Properties p) {
+            this.source = new Properties();
+            this.source.putAll(p);
+            this.granularity = ApmTimeSeries.Granularity.parse(p.getProperty("STATS_GRANULARITY"), ApmTimeSeries.Granularity.DAY);
+
+            this.startDate = p.getProperty("START_DATE", "").trim();
+            this.endDate   = p.getProperty("END_DATE",   "").trim();
+            this.outputDir = p.getProperty("OUTPUT_DIR", "").trim();
+            String cacheDir = p.getProperty("CACHE_DIR", "").trim();
+            this.cacheDir  = cacheDir.isEmpty() && !outputDir.isEmpty() ? outputDir + File.separator + ".cache" : cacheDir;
+
+            this.enabled     = "Y".equalsIgnoreCase(p.getProperty("JENNIFER_ENABLED", "N"));
+            this.url         = p.getProperty("JENNIFER_URL",          "").trim();
+            this.key         = p.getProperty("JENNIFER_KEY",          "").trim();
+            this.authScheme  = p.getProperty("JENNIFER_AUTH_SCHEME",  "Bearer").trim();
+            this.displayName = p.getProperty("JENNIFER_DISPLAY_NAME", "Unknown").trim();
+            this.domainId    = p.getProperty("JENNIFER_DOMAIN_ID",    "Unknown").trim();
+
+            String fProp = p.getProperty("JENNIFER_FILTER", "").trim();
+            List<String> filters = Arrays.stream(fProp.split(","))
+                    .map(String::trim).filter(s -> !s.isEmpty())
+                    .collect(Collectors.toList());
+            if (filters.isEmpty()) filters.add("");
+            this.filters = Collections.unmodifiableList(filters);
+        }
+
+        /** config.properties 형식의 설정에서 생성 (null이면 기본값 = 수집 안 함) */
+        public static Config from(Properties prop) {
+            return new Config(prop != null ? prop : new Properties());
+        }
+
+        void log() {
+            addLog("[LOG] 설정값 로드 상세 내역:");
+            addLog("  > JENNIFER_URL          : " + (url.isEmpty() ? "MISSING!" : url));
+            addLog("  > JENNIFER_AUTH_SCHEME  : " + authScheme);
+            addLog("  > JENNIFER_DISPLAY_NAME : " + displayName);
+            addLog("  > JENNIFER_FILTER       : " + filters);
+            addLog("  > START_DATE       : " + startDate);
+            addLog("  > END_DATE         : " + endDate);
+            addLog("  > OUTPUT_DIR       : " + (outputDir.isEmpty() ? "MISSING!" : outputDir));
+            addLog("  > GRANULARITY      : " + granularity);
+            addLog("  > JENNIFER_ENABLED      : " + enabled);
+            addLog("---------------------------------------------------------------");
+        }
+    }
+
+    // ── 내부 상태 (수집기 인스턴스별) ─────────────────────────────────────────
+    private final Config config;
+    /** [v1.9] 일별 호출건수 저장소 / 보고서 열 구성 / 일 → 열 인덱스 (근사 모드 누적용) */
+    private ApmTimeSeries series;
+    private List<ApmTimeSeries.Bucket> buckets;
+    private int[] bucketOf;
+    /** 요청 구간 : 캐시에 없는 날 (1일 단위) */
+    private final List<FetchSegment>  segments = new ArrayList<>();
+    /** [v1.4] 서비스 경로 정규화 (숫자/UUID/토큰 세그먼트 치환, 접두 경로별 고유 경로 수 상한) */
+    private final ApmPathNormalizer paths;
+    /** [v1.5] STATS_MODE=approx : 고정 크기 스케치 집계 (미사용 시 null) */
+    private ApmApproxStats approx;
+    /** [v1.7] 응답 전송량(압축) / 해제량 합계 */
+    private final ApmHttp.Traffic traffic = new ApmHttp.Traffic();
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
+    // ── 로그 (프로세스 단위 출력 : 수집기 인스턴스가 공유) ──────────────────────
     private static PrintWriter logWriter;
     private static String      currentLogPath;
 
@@ -73,49 +147,83 @@ public class JenniferApiCounter {
         public long   stime;
         public long   etime;
         public String monthKey;
+        /** [v1.9] 조회 기간 내 일 인덱스 */
+        public int    day;
+    }
+
+    public JenniferApiCounter(Config config) {
+        this.config = config;
+        this.paths  = ApmPathNormalizer.fromConfig(config.source);
     }
 
+    public Config config() { return config; }
+
     // ════════════════════════════════════════════════════════════════════════
-    // PUBLIC API (WhatapApiCounter.getApiStats()와 동일한 시그니처)
+    // PUBLIC API (WhatapApiCounter.collect()와 동일한 시그니처)
     // ════════════════════════════════════════════════════════════════════════
 
-    public static Map<String, long[]> getApiStats() {
-        STATS_MAP.clear();
-        SEGMENTS.clear();
-
-        if (START_DATE.isEmpty()) loadConfig();
-        if (!JENNIFER_ENABLED) return STATS_MAP;
+    /** [v1.8] 구간별 통계를 수집하여 결과 객체로 반환 (수집기 1개당 1회, 정적 Map을 쓰던 getApiStats() 대체) */
+    public synchronized ApmStats collect() {
+        if (series != null) throw new IllegalStateException("이미 수집한 JenniferApiCounter입니다. 새 인스턴스를 생성하세요.");
+        config.log();
+        if (!config.enabled) return ApmStats.empty();
+
+        // [v1.9] 1일 단위 저장소 + 수집 후 누적합으로 보고서 열 계산 (근사 모드는 열 단위 스케치에 바로 누적, 캐시 미사용)
+        series   = new ApmTimeSeries(LocalDate.parse(config.startDate, DateTimeFormatter.ofPattern("yyyyMMdd")),
+                                     LocalDate.parse(config.endDate,   DateTimeFormatter.ofPattern("yyyyMMdd")));
+        buckets  = series.buckets(config.granularity);
+        bucketOf = ApmTimeSeries.bucketIndex(buckets, series.days());
+        approx = ApmApproxStats.enabled(config.source) ? ApmApproxStats.fromConfig(config.source, buckets.size()) : null;
+        File cache = approx == null ? ApmTimeSeries.cacheFile(config.cacheDir, "jennifer", config.url, config.domainId, config.key, paths.identity()) : null;
+        series.loadCache(cache);
 
         generateSegments();
+        addLog("[SERIES] 조회 " + series.days() + "일 중 캐시 " + series.cachedDays() + "일, APM 요청 " + segments.size() + "일");
         fetchBatchData();
+        addLog("[TRAFFIC] " + traffic.summary());
+        Map<String, long[]> stats;
+        if (approx != null) {
+            // 수집 중에는 경로별 상태 없이 스케치에만 누적 (메모리 고정), 접두 경로별 상한은 상위 경로 표에만 적용
+            stats = paths.fold(approx.heavyHitterStats(buckets.size() + 10));
+            addLog("[APPROX] 근사 집계 정확도");
+            approx.accuracyReport().forEach(JenniferApiCounter::addLog);
+        } else {
+            series.saveCache(cache);
+            // 접두 경로별 상한은 캐시 저장 후 전체(캐시 + 신규) 총합 기준으로 적용 (응답 도착 순서와 무관)
+            series.fold(paths);
+            stats = series.rollup(buckets);
+            addLog("[SERIES] " + series.summary() + " → " + config.granularity + " " + buckets.size() + "열");
+        }
+        addLog("[NORMALIZE] " + paths.summary() + " / 수집 키 " + stats.size() + "건");
 
-        return STATS_MAP;
+        return ApmStats.of(buckets, stats, approx, approx == null ? series : null);
     }
 
     public static void main(String[] args) {
-        loadConfig();
+        Config config = Config.from(AppConfig.load());
 
         LocalDateTime execStartTime = LocalDateTime.now();
         String timestamp = execStartTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'_추출'"));
         DateTimeFormatter logFmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-        initLogFile(timestamp);
+        initLogFile(config.outputDir, timestamp);
 
         addLog("===============================================================");
-        addLog("[START] GenericApmCounter v1.0 실행 시작: " + execStartTime.format(logFmt));
+        addLog("[START] GenericApmCounter v1.8 실행 시작: " + execStartTime.format(logFmt));
         addLog("===============================================================");
 
-        getApiStats();
+        JenniferApiCounter counter = new JenniferApiCounter(config);
+        ApmStats result = counter.collect();
 
-        if (JENNIFER_ENABLED && !STATS_MAP.isEmpty()) {
-            generateExcelReport(timestamp);
+        if (!result.isEmpty()) {
+            counter.generateExcelReport(result, timestamp);
         }
 
         LocalDateTime execEndTime = LocalDateTime.now();
         addLog("\n===============================================================");
         addLog("[FINISH] GenericApmCounter 실행 종료: " + execEndTime.format(logFmt));
         addLog("[RESULT] 총 소요 시간: " + Duration.between(execStartTime, execEndTime).getSeconds() + "초");
-        addLog("[RESULT] 총 수집 고유 API: " + STATS_MAP.size() + "건");
+        addLog("[RESULT] 총 수집 고유 API: " + result.size() + "건");
         addLog("[LOG_FILE] 로그 확인 경로: " + currentLogPath);
         addLog("===============================================================");
 
@@ -141,9 +249,9 @@ public class JenniferApiCounter {
      * "from=" + stime + "&to=" + etime + "&entitySelector=type(SERVICE)"
      * ──────────────────────────────────────────────────────────────────
      */
-    private static String buildQueryString(long stime, long etime) {
+    private String buildQueryString(long stime, long etime) {
         // ↓↓↓ 여기를 대상 APM 스펙에 맞게 수정 ↓↓↓
-        return "token=" + JENNIFER_KEY + "&domain_id=" + JENNIFER_DOMAIN_ID + "&startTime=" + stime + "&endTime=" + etime;
+        return "token=" + config.key + "&domain_id=" + config.domainId + "&startTime=" + stime + "&endTime=" + etime;
         // ↑↑↑ 여기를 대상 APM 스펙에 맞게 수정 ↑↑↑
     }
 
@@ -155,7 +263,7 @@ public class JenniferApiCounter {
     /**
      * APM 응답 Body를 파싱하여 Map&lt;서비스경로, 호출건수&gt;를 반환합니다.
      *
-     * @param responseBody HTTP 응답 Body 문자열
+     * @param responseBody HTTP 응답 Body 스트림 (압축 해제됨, String으로 모으지 않고 파서에 직접 연결)
      * @return Map&lt;서비스 경로, 호출 건수&gt;
      *
      * ── 예시: Elastic APM 응답 ──────────────────────────────────────────
@@ -167,26 +275,22 @@ public class JenniferApiCounter {
      * → 커스텀 파싱 필요
      * ─────────────────────────────────────────────────────────────────────
      */
-    private static Map<String, Long> parseResponse(String responseBody) throws Exception {
+    private Map<String, Long> parseResponse(InputStream responseBody) throws Exception {
         Map<String, Long> result = new HashMap<>();
 
         // ↓↓↓ 여기를 대상 APM 응답 스펙에 맞게 수정 ↓↓↓
-        JsonNode root = MAPPER.readTree(responseBody);
-
         // 예시: { "records": [ { "service": "/api/...", "count": 123 } ] }
         // → Whatap 응답과 동일한 구조라면 그대로 사용 가능
         String rootPath    = "result";  // ← 응답의 배열 필드명
         String serviceField = "name"; // ← 서비스 경로 필드명
         String countField   = "calls";   // ← 호출 건수 필드명
 
-        JsonNode records = root.path(rootPath);
-        if (records.isArray()) {
-            for (JsonNode node : records) {
-                String svc = node.path(serviceField).asText();
-                long   cnt = node.path(countField).asLong();
-                if (!svc.isBlank()) result.merge(svc, cnt, Long::sum);
-            }
-        }
+        // 배열 원소를 1건씩 파싱 (커스텀 구조는 MAPPER.readTree(responseBody)로 전체 트리를 읽어도 됨)
+        ApmHttp.forEachRecord(MAPPER, responseBody, rootPath, node -> {
+            String svc = node.path(serviceField).asText();
+            long   cnt = node.path(countField).asLong();
+            if (!svc.isBlank()) result.merge(paths.normalize(svc), cnt, Long::sum);
+        });
         // ↑↑↑ 여기를 대상 APM 응답 스펙에 맞게 수정 ↑↑↑
 
         return result;
@@ -196,56 +300,57 @@ public class JenniferApiCounter {
     // 공통 처리 로직 (수정 불필요)
     // ════════════════════════════════════════════════════════════════════════
 
-    private static void fetchBatchData() {
+    private void fetchBatchData() {
         ExecutorService executor = Executors.newFixedThreadPool(3);
         List<CompletableFuture<Void>> futures = new ArrayList<>();
 
-        for (int i = 0; i < SEGMENTS.size(); i++) {
-            final int segIdx = i;
-            final FetchSegment seg = SEGMENTS.get(i);
-
-            futures.add(CompletableFuture.runAsync(() -> requestWithDetailedFetch(seg, segIdx), executor));
+        for (FetchSegment seg : segments) {
+            futures.add(CompletableFuture.runAsync(() -> requestWithDetailedFetch(seg), executor));
         }
 
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
         executor.shutdown();
     }
 
-    private static void requestWithDetailedFetch(FetchSegment seg, int segIdx) {
+    private void requestWithDetailedFetch(FetchSegment seg) {
         try {
-            if (JENNIFER_URL.isEmpty()) {
+            if (config.url.isEmpty()) {
                 addLog("  - [SKIP] JENNIFER_URL이 설정되지 않았습니다.");
                 return;
             }
 
             String queryString = buildQueryString(seg.stime, seg.etime);
-            String requestUrl  = JENNIFER_URL + "?" + queryString;
+            String requestUrl  = config.url + "?" + queryString;
             addLog("  URL: " + requestUrl);
 
             HttpClient client = HttpClient.newBuilder()
                     .connectTimeout(Duration.ofSeconds(20))
                     .build();
 
-            HttpRequest request = HttpRequest.newBuilder()
+            // [v1.7] gzip/deflate 압축 전송 요청, 해제 스트림을 parseResponse에 바로 전달
+            HttpRequest request = ApmHttp.acceptCompressed(HttpRequest.newBuilder()
                     .uri(URI.create(requestUrl))
                     .header("Content-Type", "application/json")
-                    .header("Authorization", JENNIFER_AUTH_SCHEME + " " + JENNIFER_KEY)
+                    .header("Authorization", config.authScheme + " " + config.key))
                     .GET()
 
                     .build();
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                Map<String, Long> stats = parseResponse(response.body());
-                for (Map.Entry<String, Long> entry : stats.entrySet()) {
-                    long[] arr = STATS_MAP.computeIfAbsent(
-                            entry.getKey(), k -> new long[SEGMENTS.size() + 10]);
-                    synchronized (arr) { arr[segIdx] += entry.getValue(); }
+            ApmHttp.Transfer transfer = ApmHttp.send(client, request, traffic);
+            try (transfer) {
+                if (transfer.statusCode == 200) {
+                    Map<String, Long> parsed = parseResponse(transfer.body());
+                    transfer.close();
+                    // [v1.9] 하루치를 일별 저장소에 반영 (열 / 총합계는 수집 후 누적합으로 계산)
+                    if (approx != null) {
+                        for (Map.Entry<String, Long> entry : parsed.entrySet()) approx.add(entry.getKey(), bucketOf[seg.day], entry.getValue());
+                    } else {
+                        series.putDay(seg.day, parsed);
+                    }
+                    addLog("  - [INFO] " + seg.label + " 수집 완료 (" + parsed.size() + "건, " + transfer.summary() + ")");
+                } else {
+                    addLog("  - [WARN] HTTP " + transfer.statusCode + ": " + transfer.snippet());
                 }
-                addLog("  - [INFO] " + seg.label + " 수집 완료 (" + stats.size() + "건)");
-            } else {
-                addLog("  - [WARN] HTTP " + response.statusCode() + ": " + response.body());
             }
 
         } catch (Exception e) {
@@ -253,120 +358,65 @@ public class JenniferApiCounter {
         }
     }
 
-    private static void generateSegments() {
-        LocalDate startLimit = LocalDate.parse(START_DATE, DateTimeFormatter.ofPattern("yyyyMMdd"));
-        LocalDate endLimit   = LocalDate.parse(END_DATE,   DateTimeFormatter.ofPattern("yyyyMMdd"));
-        LocalDate cur = startLimit.withDayOfMonth(1);
-        while (!cur.isAfter(endLimit)) {
-            String mKey = cur.format(DateTimeFormatter.ofPattern("yy.MM"));
-            addValidSegment(cur, cur.plusDays(1), startLimit, endLimit, mKey);
-            cur = cur.plusDays(1);
-        }
-    }
-
-    private static void addValidSegment(LocalDate s, LocalDate e,
-                                        LocalDate limitS, LocalDate limitE, String monthKey) {
-        LocalDate actualS = s.isBefore(limitS) ? limitS : s;
-        LocalDate actualE = e.isAfter(limitE)  ? limitE : e;
-        if (!actualS.isAfter(actualE)) {
+    /** [v1.9] 캐시에 없는 날만 [당일 0시, 다음날 0시) 요청 구간으로 생성 */
+    private void generateSegments() {
+        for (int day : series.missingDays()) {
+            LocalDate date = series.day(day);
             FetchSegment seg = new FetchSegment();
-            seg.label    = actualS.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            seg.stime    = actualS.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-            seg.etime    = actualE.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-            seg.monthKey = monthKey;
-            SEGMENTS.add(seg);
+            seg.label    = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+            seg.stime    = date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            seg.etime    = date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            seg.monthKey = date.format(DateTimeFormatter.ofPattern("yy.MM"));
+            seg.day      = day;
+            segments.add(seg);
         }
     }
 
-    public static void generateExcelReport(String ts) {
-        if (OUTPUT_DIR.isEmpty()) {
+    /** [v1.8] 수집 결과(collect)로 통계 엑셀 / 세로형 파일 생성 */
+    public void generateExcelReport(ApmStats result, String ts) {
+        if (config.outputDir.isEmpty()) {
             System.err.println("[ERROR] OUTPUT_DIR이 비어있어 엑셀을 생성할 수 없습니다.");
             return;
         }
 
-        String fileName = String.format("APM통계_(%s)_(%s~%s)_(%s).xlsx",
-                JENNIFER_DISPLAY_NAME, START_DATE, END_DATE, ts);
-        File file = new File(OUTPUT_DIR, fileName);
+        // [v1.3] STATS_TOP_N 지정 시 상위/하위 N건 순위 보고서
+        int topN = ApmStatsReport.topN();
+        String fileName = String.format("APM통계%s_(%s)_(%s~%s)_(%s).xlsx",
+                topN > 0 ? "_TOP" + topN : "", config.displayName, config.startDate, config.endDate, ts);
+        File file = new File(config.outputDir, fileName);
         if (!file.getParentFile().exists()) file.getParentFile().mkdirs();
 
-        try (SXSSFWorkbook wb = new SXSSFWorkbook(100);
-             FileOutputStream fos = new FileOutputStream(file)) {
-
-            Sheet s = wb.createSheet(JENNIFER_DISPLAY_NAME);
-            s.createFreezePane(2, 1);
-
-            DataFormat df   = wb.createDataFormat();
-            short numFmt    = df.getFormat("#,##0");
-            Font  hFont     = wb.createFont();
-            hFont.setBold(true);
-
-            CellStyle grayT          = createHeaderStyle(wb, hFont, IndexedColors.GREY_25_PERCENT.getIndex());
-            grayT.setBorderRight(BorderStyle.THICK);
-            CellStyle lightStyle     = createHeaderStyle(wb, hFont, IndexedColors.LIGHT_CORNFLOWER_BLUE.getIndex());
-            CellStyle darkStyle      = createHeaderStyle(wb, hFont, IndexedColors.CORNFLOWER_BLUE.getIndex());
-            darkStyle.setBorderRight(BorderStyle.THICK);
-
-            CellStyle apiS     = wb.createCellStyle(); apiS.setBorderRight(BorderStyle.THICK);
-            CellStyle numS     = wb.createCellStyle(); numS.setDataFormat(numFmt);
-            CellStyle numThickS = wb.createCellStyle(); numThickS.setDataFormat(numFmt); numThickS.setBorderRight(BorderStyle.THICK);
-
-            // 헤더 행
-            Row hr = s.createRow(0);
-            hr.createCell(0).setCellValue("API(트랜잭션)"); hr.getCell(0).setCellStyle(grayT);
-            hr.createCell(1).setCellValue("전체 총합계");   hr.getCell(1).setCellStyle(grayT);
-
-            int colIdx = 2;
-            String lastMonth = "";
-            Map<String, List<Integer>> monthCols = new LinkedHashMap<>();
-
-            for (int i = 0; i < SEGMENTS.size(); i++) {
-                FetchSegment seg = SEGMENTS.get(i);
-                if (!seg.monthKey.equals(lastMonth) && !lastMonth.isEmpty()) {
-                    Cell c = hr.createCell(colIdx++);
-                    c.setCellValue(lastMonth + " 월 합계"); c.setCellStyle(darkStyle);
-                }
-                Cell c = hr.createCell(colIdx);
-                c.setCellValue(seg.label); c.setCellStyle(lightStyle);
-                monthCols.computeIfAbsent(seg.monthKey, k -> new ArrayList<>()).add(colIdx++);
-                lastMonth = seg.monthKey;
-            }
-            Cell cLast = hr.createCell(colIdx++);
-            cLast.setCellValue(lastMonth + " 월 합계"); cLast.setCellStyle(darkStyle);
-
-            // 데이터 행 (총합 내림차순 정렬)
-            List<Map.Entry<String, long[]>> sorted = STATS_MAP.entrySet().stream()
-                    .sorted((e1, e2) -> Long.compare(calculateGrandTotal(e2.getValue()), calculateGrandTotal(e1.getValue())))
-                    .collect(Collectors.toList());
-
-            int rIdx = 1;
-            for (Map.Entry<String, long[]> entry : sorted) {
-                Row r = s.createRow(rIdx++);
-                r.createCell(0).setCellValue(entry.getKey()); r.getCell(0).setCellStyle(apiS);
-                r.createCell(1).setCellValue(calculateGrandTotal(entry.getValue())); r.getCell(1).setCellStyle(numThickS);
-
-                int dCol = 2, ptr = 0;
-                for (String m : monthCols.keySet()) {
-                    long mSum = 0;
-                    for (int ignored : monthCols.get(m)) {
-                        long v = entry.getValue()[ptr++];
-                        Cell c = r.createCell(dCol++); c.setCellValue(v); c.setCellStyle(numS);
-                        mSum += v;
-                    }
-                    Cell cS = r.createCell(dCol++); cS.setCellValue(mSum); cS.setCellStyle(numThickS);
-                }
+        List<String> labels = result.labels, monthKeys = result.monthKeys;
+
+        // [v1.6] EXPORT_FORMAT 지정 시 (api, segment, month, count) 세로형 gzip CSV/JSONL 출력
+        TidyExporter.Format format = TidyExporter.format();
+        if (format != null) {
+            try {
+                long started = System.currentTimeMillis();
+                String tidyName = String.format("APM통계_(%s)_(%s~%s)_(%s)", config.displayName, config.startDate, config.endDate, ts) + format.extension;
+                TidyExporter tidy = TidyExporter.writeStats(new File(config.outputDir, tidyName), format, labels, monthKeys, result.stats);
+                addLog("\n[SUCCESS] 통계 " + format + " 생성 완료 (" + tidy.summary() + ", " + (System.currentTimeMillis() - started) + "ms)");
+                addLog("  > 전체 경로 : " + tidy.file().getAbsolutePath());
+            } catch (Exception e) {
+                addLog("  - [ERROR] 통계 " + format + " 생성 실패: " + e.getMessage());
             }
+        }
+        if (!TidyExporter.excelEnabled()) return;
 
-            s.setColumnWidth(0, 18000);
-            s.setColumnWidth(1, 6500);
-            for (int i = 2; i < colIdx; i++) s.setColumnWidth(i, 5500);
-
-            wb.write(fos);
-            wb.dispose();
+        // [v1.1] 셀 객체 없이 시트 XML을 직접 스트리밍 (ApmStatsReport / StatsSheetWriter) [cite: 2026-10-18]
+        try {
+            long started = System.currentTimeMillis();
+            List<File> files = topN > 0
+                    ? Collections.singletonList(ApmStatsReport.writeRanking(file, config.displayName, labels, monthKeys, result.stats, topN))
+                    : ApmStatsReport.write(file, config.displayName, labels, monthKeys, result.stats);
 
-            addLog("\n[SUCCESS] 통계 엑셀 생성 완료");
+            addLog("\n[SUCCESS] 통계 엑셀 생성 완료 (" + (topN > 0 ? "상위/하위 " + topN + "건 / 전체 " : "") + result.stats.size() + "행, " + (System.currentTimeMillis() - started) + "ms)");
             addLog("  > 저장 위치 : " + file.getParent());
-            addLog("  > 파 일 명  : " + file.getName());
-            addLog("  > 전체 경로 : " + file.getAbsolutePath());
+            // [v1.2] 엑셀 한도 초과 시 분할 파일 전체 출력 [cite: 2026-10-18]
+            for (File part : files) {
+                addLog("  > 파 일 명  : " + part.getName());
+                addLog("  > 전체 경로 : " + part.getAbsolutePath());
+            }
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -377,53 +427,10 @@ public class JenniferApiCounter {
     // 설정 로드 / 로그
     // ════════════════════════════════════════════════════════════════════════
 
-    private static void loadConfig() {
-        Properties prop = new Properties();
-        File configFile = new File("config.properties");
-        if (!configFile.exists()) return;
-
-        try (InputStream is = new FileInputStream(configFile)) {
-            prop.load(is);
-
-            // 공통 설정
-            START_DATE = prop.getProperty("START_DATE", "").trim();
-            END_DATE   = prop.getProperty("END_DATE",   "").trim();
-            OUTPUT_DIR = prop.getProperty("OUTPUT_DIR", "").trim();
-
-            // APM별 설정
-            JENNIFER_ENABLED      = "Y".equalsIgnoreCase(prop.getProperty("JENNIFER_ENABLED", "N"));
-            JENNIFER_URL          = prop.getProperty("JENNIFER_URL",          "").trim();
-            JENNIFER_KEY          = prop.getProperty("JENNIFER_KEY",          "").trim();
-            JENNIFER_AUTH_SCHEME  = prop.getProperty("JENNIFER_AUTH_SCHEME",  "Bearer").trim();
-            JENNIFER_DISPLAY_NAME = prop.getProperty("JENNIFER_DISPLAY_NAME", "Unknown").trim();
-            JENNIFER_DOMAIN_ID = prop.getProperty("JENNIFER_DOMAIN_ID", "Unknown").trim();
-
-            String fProp = prop.getProperty("JENNIFER_FILTER", "").trim();
-            JENNIFER_FILTERS = Arrays.stream(fProp.split(","))
-                    .map(String::trim).filter(s -> !s.isEmpty())
-                    .collect(Collectors.toList());
-            if (JENNIFER_FILTERS.isEmpty()) JENNIFER_FILTERS.add("");
-
-            addLog("[LOG] 설정값 로드 상세 내역:");
-            addLog("  > JENNIFER_URL          : " + (JENNIFER_URL.isEmpty() ? "MISSING!" : JENNIFER_URL));
-            addLog("  > JENNIFER_AUTH_SCHEME  : " + JENNIFER_AUTH_SCHEME);
-            addLog("  > JENNIFER_DISPLAY_NAME : " + JENNIFER_DISPLAY_NAME);
-            addLog("  > JENNIFER_FILTER       : " + JENNIFER_FILTERS);
-            addLog("  > START_DATE       : " + START_DATE);
-            addLog("  > END_DATE         : " + END_DATE);
-            addLog("  > OUTPUT_DIR       : " + (OUTPUT_DIR.isEmpty() ? "MISSING!" : OUTPUT_DIR));
-            addLog("  > JENNIFER_ENABLED      : " + JENNIFER_ENABLED);
-            addLog("---------------------------------------------------------------");
-
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private static void initLogFile(String ts) {
+    private static void initLogFile(String outputDir, String ts) {
         try {
-            if (OUTPUT_DIR.isEmpty()) return;
-            File dir = new File(OUTPUT_DIR);
+            if (outputDir.isEmpty()) return;
+            File dir = new File(outputDir);
             if (!dir.exists()) dir.mkdirs();
             String fileName = "JENNIFER_통계_추출로그_" + ts + ".log";
             File logFile = new File(dir, fileName);
@@ -439,20 +446,4 @@ public class JenniferApiCounter {
         System.out.println(msg);
         if (logWriter != null) { logWriter.println(msg); logWriter.flush(); }
     }
-
-    private static CellStyle createHeaderStyle(Workbook wb, Font f, short color) {
-        CellStyle st = wb.createCellStyle();
-        st.setFillForegroundColor(color);
-        st.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        st.setAlignment(HorizontalAlignment.CENTER);
-        st.setBorderBottom(BorderStyle.THIN);
-        st.setFont(f);
-        return st;
-    }
-
-    private static long calculateGrandTotal(long[] stats) {
-        long sum = 0;
-        if (stats != null) for (long v : stats) sum += v;
-        return sum;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 프로젝트명: Launcher (통합 실행 jar 진입점)
+ * Version: 1.0
+ * 반영사항:
+ * 1. [배포] 실행 jar 1개(-P launcher 빌드)에서 하위 명령으로 4개 도구 실행 : api / menu / whatap / jennifer (나머지 인자는 그대로 전달) [cite: 2026-10-18]
+ * 2. [성능 개선] cds-train : POI / Jackson / JavaParser / HttpClient와 도구 클래스를 부작용 없이 한 번씩 사용하는 학습 실행으로 AppCDS 아카이브 생성 대상 클래스 적재 [cite: 2026-10-18]
+ *
+ * 실행 예 : java -XX:SharedArchiveFile=target/ApiExcelExporter.jsa -jar target/ApiExcelExporter-launcher.jar api --watch
+ * 아카이브 생성 : java -XX:ArchiveClassesAtExit=target/ApiExcelExporter.jsa -jar target/ApiExcelExporter-launcher.jar cds-train
+ * (아카이브는 생성한 JDK / 같은 jar 경로 문자열로 실행할 때만 유효하며, 다르면 아카이브 없이 일반 클래스 로딩으로 동작)
+ */
+public class Launcher {
+
+    /** 하위 명령 → 도구 main */
+    private static final Map<String, String> COMMANDS = new LinkedHashMap<>();
+
+    static {
+        COMMANDS.put("api", "ApiExcelExporter");
+        COMMANDS.put("menu", "MenuExcelExporter");
+        COMMANDS.put("whatap", "WhatapApiCounter");
+        COMMANDS.put("jennifer", "JenniferApiCounter");
+    }
+
+    public static void main(String[] args) throws Exception {
+        String command = args.length == 0 ? "" : args[0].toLowerCase();
+        String[] rest = args.length == 0 ? args : Arrays.copyOfRange(args, 1, args.length);
+
+        if ("cds-train".equals(command)) { train(); return; }
+        String mainClass = mainClass(command);
+        if (mainClass == null) {
+            System.err.println("사용법: java -jar ApiExcelExporter-launcher.jar <" + String.join(" | ", COMMANDS.keySet()) + " | cds-train> [인자...]");
+            System.exit(1);
+            return;
+        }
+        Class.forName(mainClass).getMethod("main", String[].class).invoke(null, (Object) rest);
+    }
+
+    /** 하위 명령(대소문자 무시)의 도구 main 클래스명 (없으면 null) */
+    static String mainClass(String command) {
+        return command == null ? null : COMMANDS.get(command.toLowerCase());
+    }
+
+    // ==========================================================================================
+    // [ AppCDS 학습 실행 ]
+    // ==========================================================================================
+
+    /**
+     * 실제 실행에서 시작 시간을 차지하는 클래스(엑셀 쓰기·읽기 / JSON 스트리밍 / 소스 파싱 / HTTP)를 적재합니다.
+     * 설정 파일 / 네트워크 / git 없이 임시 디렉토리 안에서만 동작하며, JVM 종료 시 적재된 클래스가 아카이브로 기록됩니다.
+     */
+    private static void train() throws Exception {
+        long start = System.currentTimeMillis();
+        Path work = Files.createTempDirectory("cds-train");
+        try {
+            trainParser();
+            trainExcel(work);
+            trainJson();
+            trainHttp();
+            int loaded = loadToolClasses();
+            System.out.printf("[CDS] 학습 실행 완료: 도구 클래스 %d개 적재 (%dms)%n", loaded, System.currentTimeMillis() - start);
+        } finally {
+            try (java.util.stream.Stream<Path> walk = Files.walk(work)) {
+                walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    /** 컨트롤러 분석 경로 : 매핑 어노테이션 / 상수 참조가 있는 소스 파싱 후 메소드·어노테이션 탐색 */
+    private static void trainParser() {
+        String source = String.join("\n",
+                "package sample;",
+                "import org.springframework.web.bind.annotation.*;",
+                "@RestController",
+                "@RequestMapping(SampleController.BASE)",
+                "public class SampleController extends BaseController implements Api {",
+                "    static final String BASE = \"/api/\" + \"sample\";",
+                "    /** 조회 */",
+                "    @GetMapping(value = {\"/list\", \"/items/{id}\"}, produces = \"application/json\")",
+                "    public java.util.List<String> list(@PathVariable(\"id\") long id, @RequestParam(required = false) String q) {",
+                "        return java.util.Collections.emptyList();",
+                "    }",
+                "    @RequestMapping(value = \"/save\", method = {RequestMethod.POST, RequestMethod.PUT})",
+                "    @Deprecated",
+                "    public void save(@RequestBody Object body) { if (body == null) throw new IllegalArgumentException(\"x\"); }",
+                "}");
+        CompilationUnit cu = StaticJavaParser.parse(source);
+        for (MethodDeclaration m : cu.findAll(MethodDeclaration.class)) {
+            m.getAnnotations().forEach(a -> a.getNameAsString());
+            m.getJavadocComment().ifPresent(c -> c.parse().getDescription().toText());
+        }
+        cu.toString();
+    }
+
+    /** 엑셀 출력 / 이전 결과 읽기 경로 : 스타일·틀 고정·필터·검증 규칙이 있는 시트 작성 후 다시 열기 */
+    private static void trainExcel(Path work) throws IOException {
+        File file = work.resolve("train.xlsx").toFile();
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(100)) {
+            Sheet sheet = wb.createSheet("API목록");
+            CellStyle header = wb.createCellStyle();
+            Font bold = wb.createFont();
+            bold.setBold(true);
+            header.setFont(bold);
+            header.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            header.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            header.setBorderBottom(BorderStyle.THIN);
+            CellStyle number = wb.createCellStyle();
+            number.setDataFormat(wb.createDataFormat().getFormat("#,##0"));
+            Row head = sheet.createRow(0);
+            for (int c = 0; c < 4; c++) { Cell cell = head.createCell(c); cell.setCellValue("컬럼" + c); cell.setCellStyle(header); }
+            for (int r = 1; r <= 200; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue("/api/sample/" + r);
+                row.createCell(1).setCellValue("SampleController");
+                Cell count = row.createCell(2);
+                count.setCellValue(r * 10L);
+                count.setCellStyle(number);
+                row.createCell(3).setCellValue(r % 2 == 0 ? "Y" : "N");
+            }
+            sheet.createFreezePane(0, 1);
+            sheet.setAutoFilter(new CellRangeAddress(0, 200, 0, 3));
+            DataValidationHelper dv = sheet.getDataValidationHelper();
+            sheet.addValidationData(dv.createValidation(dv.createExplicitListConstraint(new String[]{"Y", "N"}), new org.apache.poi.ss.util.CellRangeAddressList(1, 200, 3, 3)));
+            SheetConditionalFormatting cf = sheet.getSheetConditionalFormatting();
+            cf.addConditionalFormatting(new CellRangeAddress[]{new CellRangeAddress(1, 200, 2, 2)},
+                    cf.createConditionalFormattingRule(ComparisonOperator.LE, "2"));
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) { wb.write(out); }
+            wb.dispose();
+        }
+        try (XSSFWorkbook wb = new XSSFWorkbook(file)) {
+            DataFormatter fmt = new DataFormatter();
+            for (Row row : wb.getSheetAt(0)) for (Cell cell : row) fmt.formatCellValue(cell);
+        } catch (org.apache.poi.openxml4j.exceptions.InvalidFormatException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /** APM 응답 / 메뉴 JSON 경로 : gzip 본문 스트리밍 해제 후 레코드 단위 파싱 */
+    private static void trainJson() throws IOException {
+        StringBuilder json = new StringBuilder("{\"meta\":{\"page\":1},\"records\":[");
+        for (int i = 0; i < 200; i++) json.append(i == 0 ? "" : ",").append("{\"service\":\"/api/sample/").append(i).append("\",\"count\":").append(i).append('}');
+        json.append("]}");
+        ByteArrayOutputStream gz = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gz)) { out.write(json.toString().getBytes(StandardCharsets.UTF_8)); }
+        ObjectMapper mapper = new ObjectMapper();
+        long[] sum = new long[1];
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gz.toByteArray()))) {
+            ApmHttp.forEachRecord(mapper, in, "records", node -> sum[0] += node.path("count").asLong());
+        }
+        mapper.writeValueAsString(mapper.readTree(json.toString()).path("meta"));
+    }
+
+    /** APM 수집 경로 : 클라이언트 / 요청 생성까지만 (전송 없음) */
+    private static void trainHttp() {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(java.time.Duration.ofSeconds(1)).build();
+        ApmHttp.acceptCompressed(HttpRequest.newBuilder(URI.create("http://localhost/api"))).GET().build();
+        client.version();
+    }
+
+    /** 실행 jar 내 기본 패키지 클래스(도구 / 보조 클래스) 적재 (초기화 없이, 설정 로드 등 정적 초기화 부작용 방지) */
+    private static int loadToolClasses() throws IOException {
+        Path location;
+        try { location = Paths.get(Launcher.class.getProtectionDomain().getCodeSource().getLocation().toURI()); }
+        catch (Exception e) { return 0; }
+        List<String> names = new ArrayList<>();
+        if (Files.isDirectory(location)) {
+            try (java.util.stream.Stream<Path> list = Files.list(location)) {
+                list.map(p -> p.getFileName().toString()).filter(n -> n.endsWith(".class")).forEach(names::add);
+            }
+        } else {
+            try (JarFile jar = new JarFile(location.toFile())) {
+                for (Enumeration<JarEntry> e = jar.entries(); e.hasMoreElements(); ) {
+                    String name = e.nextElement().getName();
+                    if (name.endsWith(".class") && name.indexOf('/') < 0) names.add(name);
+                }
+            }
+        }
+        int loaded = 0;
+        ClassLoader loader = Launcher.class.getClassLoader();
+        for (String name : names) {
+            try { Class.forName(name.substring(0, name.length() - ".class".length()), false, loader); loaded++; }
+            catch (ClassNotFoundException | LinkageError ignored) { }
+        }
+        return loaded;
+    }
+}
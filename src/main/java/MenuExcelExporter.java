@@ -1,32 +1,44 @@
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * 프로젝트명: MenuExcelExporter
- * Version: 1.4 (프로그램 ID 자동 추출 로직 통합)
+ * Version: 1.8 (대용량 메뉴 JSON 스트리밍 추출)
  * 반영사항:
- * 1. [자동화] ApiExcelExporter v13.1의 지능형 프로그램 ID 추출 로직 동일 적용 [cite: 2026-03-10]
- * 2. [레이아웃] '프로그램ID(자동추출)' 컬럼을 연결 URL 바로 옆(3번째)으로 배치 [cite: 2026-03-10]
- * 3. [기능 유지] 하위 sub 배열을 끝까지 추적하는 재귀 탐색 알고리즘 유지 [cite: 2026-03-09]
- * 4. [에러 수정] JSON 내 비표준 주석 처리 가능하도록 ALLOW_COMMENTS 유지 [cite: 2026-03-09]
- * 5. [환경] config.properties UTF-8 로드 및 상세 로그 시스템 유지 [cite: 2026-03-09]
+ * 1. [성능 개선] readTree + 재귀 탐색을 JsonParser 스트리밍 + 명시적 스택 탐색으로 교체하여 수백 MB / 깊은 중첩 메뉴에서도 메모리 일정 및 StackOverflow 방지 [cite: 2026-10-18]
+ * 2. [성능 개선] 추출 행을 SXSSFWorkbook에 즉시 기록하고, 항목별 콘솔 출력 대신 10,000건 단위 진행 로그 출력 [cite: 2026-10-18]
+ * 3. [연동] 상위 메뉴명을 누적한 메뉴 경로(menuPath)를 수집하여 ApiExcelExporter 관련메뉴 조인(MenuIndex)에 제공 [cite: 2026-10-18]
+ * 4. [기능 유지] ApiExcelExporter v13.1의 지능형 프로그램 ID 추출 로직 동일 적용 [cite: 2026-03-10]
+ * 5. [에러 수정] JSON 내 비표준 주석 처리 가능하도록 ALLOW_COMMENTS 유지 [cite: 2026-03-09]
+ * 6. [에러 수정] 메뉴 행을 "sub" 시작 시점(URL을 이미 읽은 경우) 또는 메뉴 객체 종료 시점 중 먼저 오는 시점에 기록 : 상위 → 하위(기존 재귀 탐색과 같은 전위 순서)로 기록하고, URL이 "sub" 뒤에 오는 메뉴는 누락하지 않고 객체 종료 시 기록. 하위 행을 보류하지 않으므로 메모리는 중첩 깊이에만 비례 [cite: 2026-10-18]
  */
 public class MenuExcelExporter {
 
     private static String MENU_JSON_PATH = "";
     private static String MENU_OUTPUT_DIR = "";
 
-    private static final ObjectMapper MAPPER = new ObjectMapper()
-            .configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+    /** [v1.6] 메뉴 경로 구분자 : 관련메뉴 컬럼에 '상위 > 하위' 형태로 표시 */
+    static final String MENU_PATH_DELIMITER = " > ";
+
+    /** [v1.7] 진행 로그 출력 간격 : 항목별 출력 대신 N건마다 1회 출력 */
+    private static final int PROGRESS_INTERVAL = 10000;
+
+    /** [v1.7] 스트리밍 파서는 명시적 스택으로 깊이를 관리하므로 Jackson 기본 중첩 제한(1,000단계)을 완화 */
+    private static final int MAX_NESTING_DEPTH = 1_000_000;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .configure(JsonParser.Feature.ALLOW_COMMENTS, true)
+            .setStreamReadConstraints(StreamReadConstraints.builder().maxNestingDepth(MAX_NESTING_DEPTH).build());
 
     public static void main(String[] args) {
         loadConfig();
@@ -40,74 +52,154 @@ public class MenuExcelExporter {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd'_추출'"));
 
         System.out.println("===============================================================");
-        System.out.println("[START] 메뉴 JSON 링크 및 프로그램 ID 추출 시작 (v1.4)");
+        System.out.println("[START] 메뉴 JSON 링크 및 프로그램 ID 추출 시작 (v1.7)");
         System.out.println("[INFO] 대상 파일: " + MENU_JSON_PATH);
         System.out.println("===============================================================");
 
-        try {
-            File jsonFile = new File(MENU_JSON_PATH);
-            if (!jsonFile.exists()) {
-                System.err.println("[ERROR] 파일을 찾을 수 없습니다.");
-                return;
-            }
-
-            JsonNode root = MAPPER.readTree(jsonFile);
-            List<MenuInfo> resultList = new ArrayList<>();
+        // 단독 실행 시에는 메뉴 목록을 보관하지 않으므로 파일 크기와 무관하게 메모리 사용량이 일정
+        exportMenus(timestamp, null);
 
-            if (root.isArray()) {
-                traverseMenu(root, resultList);
-            } else if (root.has("menu")) {
-                traverseMenu(root.get("menu"), resultList);
-            } else {
-                traverseMenu(root, resultList);
-            }
+        System.out.println("\n[FINISH] 전체 작업 종료: " + (System.currentTimeMillis() - startTime) / 1000 + "초 소요");
+    }
 
-            saveToExcel(resultList, timestamp);
+    /**
+     * [v1.5 연동 인터페이스] 메뉴 JSON을 추출하여 엑셀로 저장하고, 수집된 메뉴 목록을 반환합니다.
+     * ApiExcelExporter의 통합 실행 시 APM 수집/소스 분석과 병렬로 호출됩니다.
+     * MENU_JSON_PATH 미설정 또는 파일 부재 시 빈 목록을 반환합니다.
+     */
+    public static List<MenuInfo> exportMenus(String timestamp) {
+        List<MenuInfo> resultList = new ArrayList<>();
+        exportMenus(timestamp, resultList::add);
+        return resultList;
+    }
 
-        } catch (Exception e) {
-            System.err.println("[ERROR] 처리 중 오류: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * [v1.7] 메뉴 JSON을 스트리밍으로 읽어 SXSSF 시트에 바로 기록합니다.
+     * 수백 MB 메뉴 파일도 트리 전체를 메모리에 올리지 않으며, collector가 null이면 메모리 사용량이 일정하게 유지됩니다.
+     */
+    private static void exportMenus(String timestamp, Consumer<MenuInfo> collector) {
+        if (MENU_JSON_PATH.isEmpty()) loadConfig();
+        if (MENU_JSON_PATH.isEmpty()) return;
+
+        File jsonFile = new File(MENU_JSON_PATH);
+        if (!jsonFile.exists()) {
+            System.err.println("[ERROR] 파일을 찾을 수 없습니다.");
+            return;
         }
 
-        System.out.println("\n[FINISH] 전체 작업 종료: " + (System.currentTimeMillis() - startTime) / 1000 + "초 소요");
-    }
+        String fileName = "메뉴목록_(" + timestamp + ").xlsx";
+        File outFile = new File(MENU_OUTPUT_DIR, fileName);
+        if (!outFile.getParentFile().exists()) outFile.getParentFile().mkdirs();
+
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(100);
+             FileOutputStream fos = new FileOutputStream(outFile)) {
+
+            Sheet sheet = wb.createSheet("LOCA_Menu_Info");
+
+            CellStyle headerStyle = wb.createCellStyle();
+            headerStyle.setFillForegroundColor(IndexedColors.LIGHT_CORNFLOWER_BLUE.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            headerStyle.setAlignment(HorizontalAlignment.CENTER);
+            headerStyle.setBorderBottom(BorderStyle.THIN);
+            Font font = wb.createFont(); font.setBold(true); headerStyle.setFont(font);
 
-    private static void traverseMenu(JsonNode node, List<MenuInfo> list) {
-        if (node.isArray()) {
-            for (JsonNode item : node) {
-                processItem(item, list);
+            // [v1.4] 프로그램ID 컬럼을 URL 바로 옆(인덱스 2)으로 배치 [cite: 2026-03-10]
+            String[] headers = {"순번", "연결URL(locaMenUrl)", "프로그램ID(자동추출)", "메뉴ID(locaMenId)", "메뉴구분(locaMenC)", "메뉴명(locaMenIdNm)", "구분명(locaMenCNm)", "검색정보(locaMenSeaInfCn)"};
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                Cell c = headerRow.createCell(i);
+                c.setCellValue(headers[i]);
+                c.setCellStyle(headerStyle);
             }
-        } else {
-            processItem(node, list);
-        }
-    }
 
-    private static void processItem(JsonNode item, List<MenuInfo> list) {
-        String url = item.path("locaMenUrl").asText("").trim();
+            for (int i = 0; i < headers.length; i++) {
+                if (i == 1) sheet.setColumnWidth(i, 15000);
+                else if (i == 2) sheet.setColumnWidth(i, 6000); // 프로그램 ID 너비
+                else if (i == 7) sheet.setColumnWidth(i, 12000);
+                else sheet.setColumnWidth(i, 6000);
+            }
 
-        if (!url.isEmpty()) {
-            MenuInfo info = new MenuInfo();
-            info.locaMenId = item.path("locaMenId").asText("-");
-            info.locaMenC = item.path("locaMenC").asText("-");
-            info.locaMenIdNm = item.path("locaMenIdNm").asText("-");
-            info.locaMenCNm = item.path("locaMenCNm").asText("-");
-            info.locaMenSeaInfCn = item.path("locaMenSeaInfCn").asText("-");
-            info.locaMenUrl = url;
+            int[] rowIdx = {1};
+            streamMenus(jsonFile, m -> {
+                Row r = sheet.createRow(rowIdx[0]++);
+                r.createCell(0).setCellValue(rowIdx[0] - 1);
+                r.createCell(1).setCellValue(m.locaMenUrl);
+                r.createCell(2).setCellValue(m.progId); // 프로그램 ID 삽입 [cite: 2026-03-10]
+                r.createCell(3).setCellValue(m.locaMenId);
+                r.createCell(4).setCellValue(m.locaMenC);
+                r.createCell(5).setCellValue(m.locaMenIdNm);
+                r.createCell(6).setCellValue(m.locaMenCNm);
+                r.createCell(7).setCellValue(m.locaMenSeaInfCn);
+                if (collector != null) collector.accept(m);
+                if ((rowIdx[0] - 1) % PROGRESS_INTERVAL == 0) System.out.println("  > [수집] " + (rowIdx[0] - 1) + "건 처리 중...");
+            });
 
-            // [v1.4] URL 경로 분석을 통한 프로그램 ID 자동 생성 [cite: 2026-03-10]
-            info.progId = autoExtractProgramId(url);
+            wb.write(fos);
+            wb.dispose();
+            System.out.println("\n[SUCCESS] 엑셀 저장 완료: " + outFile.getAbsolutePath());
+            System.out.println("[INFO] 총 추출 건수: " + (rowIdx[0] - 1) + "건");
 
-            list.add(info);
-            System.out.println("  > [수집] " + info.locaMenIdNm + " (ID: " + info.progId + ")");
+        } catch (Exception e) {
+            System.err.println("[ERROR] 처리 중 오류: " + e.getMessage());
+            e.printStackTrace();
         }
+    }
 
-        if (item.has("sub") && item.get("sub").isArray()) {
-            traverseMenu(item.get("sub"), list);
+    /**
+     * [v1.7] JsonParser 기반 비재귀 메뉴 탐색기.
+     * 명시적 스택(Deque)으로 깊이를 관리하므로 중첩이 아무리 깊어도 StackOverflow가 발생하지 않습니다.
+     * 지원 구조 : 최상위 배열 / {"menu": [...]} 래퍼 / 단일 메뉴 객체, 하위 메뉴는 "sub" 배열
+     * [v1.8] 메뉴 행은 "sub" 배열이 열릴 때(URL을 읽은 경우) 또는 객체가 닫힐 때 중 먼저 오는 시점에 기록하므로 다른 필드가 "sub" 앞뒤 어디에 있어도 상위 → 하위 순서가 유지되며,
+     * 하위 행을 보류하지 않아 메모리 사용량은 현재 중첩 경로의 프레임 수로 제한됩니다. ("sub" 뒤에 오는 필드는 하위 행의 메뉴 경로 / 먼저 기록된 상위 행에 반영되지 않음)
+     */
+    static long streamMenus(File jsonFile, Consumer<MenuInfo> sink) throws IOException {
+        long emitted = 0;
+        Deque<MenuFrame> stack = new ArrayDeque<>();
+
+        try (JsonParser p = JSON_FACTORY.createParser(jsonFile)) {
+            JsonToken t;
+            while ((t = p.nextToken()) != null) {
+                MenuFrame top = stack.peek();
+
+                if (t == JsonToken.START_OBJECT) {
+                    // 최상위 객체 또는 메뉴 배열 내부의 객체만 메뉴 항목으로 취급
+                    if (top == null || top.container) stack.push(MenuFrame.item(top == null ? null : top.parent, top == null));
+                    else p.skipChildren();
+                } else if (t == JsonToken.START_ARRAY) {
+                    if (top == null) stack.push(MenuFrame.container(null));
+                    else p.skipChildren();
+                } else if (t == JsonToken.END_ARRAY) {
+                    stack.pop();
+                } else if (t == JsonToken.END_OBJECT) {
+                    emitted += stack.pop().close(sink);
+                } else if (t == JsonToken.FIELD_NAME && top != null && !top.container) {
+                    String field = p.currentName();
+                    JsonToken v = p.nextToken();
+                    boolean childField = "sub".equals(field) || ("menu".equals(field) && top.root);
+                    if (childField && (v == JsonToken.START_ARRAY || (v == JsonToken.START_OBJECT && "menu".equals(field)))) {
+                        if ("sub".equals(field)) emitted += top.open(sink);
+                        // {"menu": ...} 래퍼는 메뉴가 아니므로 메뉴 경로에 포함하지 않음
+                        MenuFrame children = MenuFrame.container("menu".equals(field) ? null : top);
+                        stack.push(children);
+                        // {"menu": {...}} 처럼 단일 객체인 경우 컨테이너 안에서 곧바로 항목 시작
+                        if (v == JsonToken.START_OBJECT) { children.single = true; stack.push(MenuFrame.item(children.parent, false)); }
+                    } else if (v == JsonToken.START_OBJECT || v == JsonToken.START_ARRAY) {
+                        p.skipChildren();
+                    } else {
+                        top.set(field, v == JsonToken.VALUE_NULL ? null : p.getValueAsString());
+                    }
+                }
+
+                // 단일 객체 컨테이너는 항목 종료와 함께 닫음
+                MenuFrame cur = stack.peek();
+                if (t == JsonToken.END_OBJECT && cur != null && cur.container && cur.single) stack.pop();
+            }
         }
+        return emitted;
     }
 
     /** [v1.4] ApiExcelExporter v13.1과 동일한 지능형 리소스명 추출 로직 [cite: 2026-03-10] */
-    private static String autoExtractProgramId(String path) {
+    static String autoExtractProgramId(String path) {
         if (path == null || path.isEmpty() || "/".equals(path)) return "-";
 
         // 1. 확장자가 있는 패턴 (.lc, .do)
@@ -134,73 +226,107 @@ public class MenuExcelExporter {
         return validNouns.isEmpty() ? "-" : validNouns.get(validNouns.size() - 1);
     }
 
-    private static void saveToExcel(List<MenuInfo> list, String ts) {
-        String fileName = "메뉴목록_(" + ts + ").xlsx";
-        File outFile = new File(MENU_OUTPUT_DIR, fileName);
-
-        if (!outFile.getParentFile().exists()) outFile.getParentFile().mkdirs();
+    private static void loadConfig() {
+        Properties prop = AppConfig.load();
+        if (prop != null) {
+            MENU_JSON_PATH = prop.getProperty("MENU_JSON_PATH", "").trim();
+            MENU_OUTPUT_DIR = prop.getProperty("MENU_OUTPUT_DIR", "").trim();
+        }
+    }
 
-        try (Workbook wb = new XSSFWorkbook();
-             FileOutputStream fos = new FileOutputStream(outFile)) {
+    static class MenuInfo {
+        String locaMenId, locaMenC, locaMenIdNm, locaMenCNm, locaMenSeaInfCn, locaMenUrl, progId;
+        /** [v1.6] 최상위부터 현재 메뉴까지의 locaMenIdNm 경로 (예: 카드 > 카드신청 > 발급내역) */
+        String menuPath;
+    }
 
-            Sheet sheet = wb.createSheet("LOCA_Menu_Info");
+    /** [v1.7] 스트리밍 탐색용 스택 프레임 : 메뉴 항목(item) 또는 하위 메뉴 배열(container) */
+    private static class MenuFrame {
+        boolean container, root, single;
+        /** [v1.8] 상위 메뉴 항목 (컨테이너는 하위 항목의 상위 메뉴, 최상위면 null) */
+        MenuFrame parent;
+        /** [v1.8] 행을 이미 기록했는지 ("sub" 시작 시 기록한 메뉴는 객체 종료 시 다시 기록하지 않음) */
+        boolean emitted;
+        /** [v1.8] 확정된 메뉴 경로 (상위 경로 재계산 방지) */
+        String cachedPath;
+        String locaMenId, locaMenC, locaMenIdNm, locaMenCNm, locaMenSeaInfCn, locaMenUrl;
+
+        static MenuFrame item(MenuFrame parent, boolean root) {
+            MenuFrame f = new MenuFrame(); f.parent = parent; f.root = root; return f;
+        }
 
-            CellStyle headerStyle = wb.createCellStyle();
-            headerStyle.setFillForegroundColor(IndexedColors.LIGHT_CORNFLOWER_BLUE.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setAlignment(HorizontalAlignment.CENTER);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            Font font = wb.createFont(); font.setBold(true); headerStyle.setFont(font);
+        static MenuFrame container(MenuFrame parent) {
+            MenuFrame f = new MenuFrame(); f.container = true; f.parent = parent; return f;
+        }
 
-            // [v1.4] 프로그램ID 컬럼을 URL 바로 옆(인덱스 2)으로 배치 [cite: 2026-03-10]
-            String[] headers = {"순번", "연결URL(locaMenUrl)", "프로그램ID(자동추출)", "메뉴ID(locaMenId)", "메뉴구분(locaMenC)", "메뉴명(locaMenIdNm)", "구분명(locaMenCNm)", "검색정보(locaMenSeaInfCn)"};
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                Cell c = headerRow.createCell(i);
-                c.setCellValue(headers[i]);
-                c.setCellStyle(headerStyle);
+        void set(String field, String value) {
+            switch (field) {
+                case "locaMenId": locaMenId = value; break;
+                case "locaMenC": locaMenC = value; break;
+                case "locaMenIdNm": locaMenIdNm = value; cachedPath = null; break;
+                case "locaMenCNm": locaMenCNm = value; break;
+                case "locaMenSeaInfCn": locaMenSeaInfCn = value; break;
+                case "locaMenUrl": locaMenUrl = value; break;
+                default: break;
             }
+        }
 
-            int rowIdx = 1;
-            for (MenuInfo m : list) {
-                Row r = sheet.createRow(rowIdx++);
-                r.createCell(0).setCellValue(rowIdx - 1);
-                r.createCell(1).setCellValue(m.locaMenUrl);
-                r.createCell(2).setCellValue(m.progId); // 프로그램 ID 삽입 [cite: 2026-03-10]
-                r.createCell(3).setCellValue(m.locaMenId);
-                r.createCell(4).setCellValue(m.locaMenC);
-                r.createCell(5).setCellValue(m.locaMenIdNm);
-                r.createCell(6).setCellValue(m.locaMenCNm);
-                r.createCell(7).setCellValue(m.locaMenSeaInfCn);
+        /**
+         * [v1.6] 상위 메뉴명을 누적하여 '상위 > 하위' 형태의 메뉴 경로 생성 (관련메뉴 조인용)
+         * [v1.8] 상위 항목을 반복문으로 거슬러 올라가며 계산 (깊은 중첩에서도 재귀 없음), 계산한 경로는 각 항목에 보관
+         */
+        String menuPath() {
+            Deque<MenuFrame> chain = new ArrayDeque<>();
+            MenuFrame f = this;
+            while (f != null && f.cachedPath == null) { chain.push(f); f = f.parent; }
+            String path = f == null ? "" : f.cachedPath;
+            while (!chain.isEmpty()) {
+                MenuFrame c = chain.pop();
+                String name = c.locaMenIdNm == null ? "" : c.locaMenIdNm.trim();
+                path = name.isEmpty() ? path : (path.isEmpty() ? name : path + MENU_PATH_DELIMITER + name);
+                c.cachedPath = path;
             }
+            return path;
+        }
 
-            for (int i = 0; i < headers.length; i++) {
-                if (i == 1) sheet.setColumnWidth(i, 15000);
-                else if (i == 2) sheet.setColumnWidth(i, 6000); // 프로그램 ID 너비
-                else if (i == 7) sheet.setColumnWidth(i, 12000);
-                else sheet.setColumnWidth(i, 6000);
-            }
+        /**
+         * [v1.8] 하위 메뉴 배열 시작 : URL을 이미 읽었으면 하위 행보다 먼저 자신의 행을 기록 (전위 순서 유지)
+         * "sub" 뒤에 오는 필드는 이 행에 반영되지 않으며, URL이 아직 없으면 객체 종료 시점에 기록합니다.
+         */
+        int open(Consumer<MenuInfo> sink) {
+            if (container || emitted || locaMenUrl == null || locaMenUrl.trim().isEmpty()) return 0;
+            emitted = true;
+            return emit(sink) ? 1 : 0;
+        }
 
-            wb.write(fos);
-            System.out.println("\n[SUCCESS] 엑셀 저장 완료: " + outFile.getAbsolutePath());
-            System.out.println("[INFO] 총 추출 건수: " + list.size() + "건");
+        /** [v1.8] 객체 종료 : 아직 기록하지 않은 메뉴 행 기록 */
+        int close(Consumer<MenuInfo> sink) {
+            if (container || emitted) return 0;
+            emitted = true;
+            return emit(sink) ? 1 : 0;
+        }
 
-        } catch (Exception e) { e.printStackTrace(); }
-    }
+        /** URL이 있는 메뉴만 내보냅니다. */
+        boolean emit(Consumer<MenuInfo> sink) {
+            String url = locaMenUrl == null ? "" : locaMenUrl.trim();
+            if (url.isEmpty()) return false;
 
-    private static void loadConfig() {
-        Properties prop = new Properties();
-        File configFile = new File("config.properties");
-        if (configFile.exists()) {
-            try (InputStreamReader isr = new InputStreamReader(new FileInputStream(configFile), StandardCharsets.UTF_8)) {
-                prop.load(isr);
-                MENU_JSON_PATH = prop.getProperty("MENU_JSON_PATH", "").trim();
-                MENU_OUTPUT_DIR = prop.getProperty("MENU_OUTPUT_DIR", "").trim();
-            } catch (IOException e) { e.printStackTrace(); }
+            MenuInfo info = new MenuInfo();
+            info.locaMenId = orDash(locaMenId);
+            info.locaMenC = orDash(locaMenC);
+            info.locaMenIdNm = orDash(locaMenIdNm);
+            info.locaMenCNm = orDash(locaMenCNm);
+            info.locaMenSeaInfCn = orDash(locaMenSeaInfCn);
+            info.locaMenUrl = url;
+            String menuPath = menuPath();
+            info.menuPath = menuPath.isEmpty() ? info.locaMenIdNm : menuPath;
+
+            // [v1.4] URL 경로 분석을 통한 프로그램 ID 자동 생성 [cite: 2026-03-10]
+            info.progId = autoExtractProgramId(url);
+            sink.accept(info);
+            return true;
         }
-    }
 
-    static class MenuInfo {
-        String locaMenId, locaMenC, locaMenIdNm, locaMenCNm, locaMenSeaInfCn, locaMenUrl, progId;
+        private static String orDash(String v) { return v == null ? "-" : v; }
     }
 }
\ No newline at end of file
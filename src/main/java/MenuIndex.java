@@ -0,0 +1,98 @@
+import java.util.*;
+
+/**
+ * 프로젝트명: MenuIndex (메뉴 ↔ API 조인 인덱스)
+ * Version: 1.1
+ * 반영사항:
+ * 1. [신규] MenuExcelExporter가 수집한 메뉴 목록을 프로그램ID / 정규화 URL 기준 해시 인덱스로 구성 [cite: 2026-10-18]
+ * 2. [조인] ApiExcelExporter 행 생성 시 API 1건당 O(1) 조회로 관련메뉴(locaMenIdNm 경로)를 자동 기입 [cite: 2026-10-18]
+ * 3. [정규화] 도메인/쿼리스트링/세미콜론 파라미터/끝 슬래시/대소문자 차이와 {변수명} 차이를 무시하고 매칭 [cite: 2026-10-18]
+ * 4. [보완] 여러 메뉴에 걸친 프로그램ID(list / detail 등 범용 이름)는 임의 메뉴로 조인되지 않도록 프로그램ID 조회에서 제외 [cite: 2026-10-18]
+ */
+public class MenuIndex {
+
+    /** 정규화 URL → 메뉴 (동일 URL이 여러 메뉴에 걸려 있으면 먼저 등장한 메뉴 우선) */
+    private final Map<String, MenuExcelExporter.MenuInfo> byUrl;
+
+    /** 프로그램ID(소문자) → 메뉴 (2개 이상 메뉴에 등장한 프로그램ID는 제외) */
+    private final Map<String, MenuExcelExporter.MenuInfo> byProgId;
+
+    /** 2개 이상 메뉴에 등장한 프로그램ID (소문자) */
+    private final Set<String> ambiguousProgIds = new HashSet<>();
+
+    /** 메뉴 URL에 생략되어 있을 수 있는 API 경로 Prefix (config.properties의 API_PATH_PREFIX) */
+    private final String apiPathPrefix;
+
+    public MenuIndex(List<MenuExcelExporter.MenuInfo> menus, String apiPathPrefix) {
+        // 수만 건 메뉴 트리에서도 rehash가 발생하지 않도록 초기 용량을 미리 확보
+        int capacity = Math.max(16, (int) (menus.size() / 0.75f) + 1);
+        this.byUrl = new HashMap<>(capacity);
+        this.byProgId = new HashMap<>(capacity);
+        this.apiPathPrefix = normalizeUrl(apiPathPrefix);
+
+        for (MenuExcelExporter.MenuInfo m : menus) {
+            String url = normalizeUrl(m.locaMenUrl);
+            if (!url.isEmpty()) byUrl.putIfAbsent(url, m);
+            if (m.progId == null || "-".equals(m.progId)) continue;
+            String progId = m.progId.toLowerCase();
+            if (ambiguousProgIds.contains(progId)) continue;
+            MenuExcelExporter.MenuInfo prev = byProgId.putIfAbsent(progId, m);
+            if (prev != null && prev != m) { ambiguousProgIds.add(progId); byProgId.remove(progId); }
+        }
+    }
+
+    /**
+     * API 경로로 관련 메뉴를 찾습니다.
+     * 1순위 정규화 URL 일치, 2순위 Prefix를 제거한 URL 일치, 3순위 프로그램ID 일치 순으로 조회하며 없으면 null을 반환합니다.
+     */
+    public MenuExcelExporter.MenuInfo find(String apiPath, String programId) {
+        if (byUrl.isEmpty() && byProgId.isEmpty()) return null;
+
+        String url = normalizeUrl(apiPath);
+        MenuExcelExporter.MenuInfo hit = byUrl.get(url);
+        if (hit == null && !apiPathPrefix.isEmpty() && url.startsWith(apiPathPrefix + "/")) {
+            hit = byUrl.get(url.substring(apiPathPrefix.length()));
+        }
+        if (hit == null && programId != null && !"-".equals(programId)) {
+            hit = byProgId.get(programId.toLowerCase());
+        }
+        return hit;
+    }
+
+    public int size() { return byUrl.size(); }
+
+    /**
+     * 메뉴 URL과 API 경로를 동일한 기준으로 정규화합니다.
+     * 예) https://host/APP/owners/{ownerId}/detail.do;jsessionid=XX?a=1 → /app/owners/{*}/detail.do
+     */
+    static String normalizeUrl(String raw) {
+        if (raw == null) return "";
+        String url = raw.trim();
+        if (url.isEmpty() || "-".equals(url)) return "";
+
+        int scheme = url.indexOf("://");
+        if (scheme != -1) {
+            int pathStart = url.indexOf('/', scheme + 3);
+            url = pathStart == -1 ? "/" : url.substring(pathStart);
+        }
+        int cut = url.length();
+        for (char c : new char[]{'?', '#', ';'}) {
+            int idx = url.indexOf(c);
+            if (idx != -1 && idx < cut) cut = idx;
+        }
+        url = url.substring(0, cut);
+
+        StringBuilder sb = new StringBuilder(url.length() + 1);
+        if (!url.startsWith("/")) sb.append('/');
+        boolean inVar = false;
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (inVar) { if (c == '}') { sb.append("*}"); inVar = false; } continue; }
+            if (c == '{') { sb.append('{'); inVar = true; continue; }
+            if (c == '/' && sb.length() > 0 && sb.charAt(sb.length() - 1) == '/') continue;
+            sb.append(Character.toLowerCase(c));
+        }
+        if (sb.length() > 1 && sb.charAt(sb.length() - 1) == '/') sb.setLength(sb.length() - 1);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,243 @@
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * 프로젝트명: ReviewCarryOver (수기 검토 컬럼 이월 도구)
+ * Version: 1.3
+ * 반영사항:
+ * 1. [신규] 이전 실행 결과 엑셀의 수기 입력 컬럼(미사용 검토결과 ~ 비고)을 새 결과에 자동 이월 [cite: 2026-10-18]
+ * 2. [성능] XSSF 이벤트(SAX) 모델로 인벤토리 시트만 순차 판독하여 10만 행 이상에서도 DOM 로드 없이 저메모리로 처리 [cite: 2026-10-18]
+ * 3. [매칭] API 경로 + 컨트롤러/메소드 → API 경로 → 컨트롤러/메소드 순서의 해시 인덱스로 O(1) 조회 [cite: 2026-10-18]
+ * 4. [분할 대응] 행 한도로 나누어 저장된 "API분석_... (n)" 시트까지 모두 판독 [cite: 2026-10-18]
+ * 5. [수정] 관련메뉴(미사용시)는 매 실행 자동 생성되는 컬럼이므로, 이전 값이 도구가 생성할 값과 같으면 수기 입력으로 보지 않음 : 자동값이 이월되어 메뉴 조인 결과가 고정되거나 입력 없는 행까지 보관되던 문제 수정 [cite: 2026-10-18]
+ * 6. [수정] 조치예정일자 / 조치일자의 날짜 셀은 셀 서식 문자열이 아닌 yyyy-MM-dd 값으로 읽어 새 결과에 날짜 셀로 다시 기록 : 이월 후 문자열이 되어 정렬 / 필터가 깨지던 문제 수정 [cite: 2026-10-18]
+ */
+public class ReviewCarryOver {
+
+    /** 이월 대상 컬럼 헤더 : ApiExcelExporter 인벤토리 시트의 29 ~ 35번 컬럼 */
+    static final String[] REVIEW_HEADERS = {"미사용 검토결과", "관련메뉴(미사용시)", "조치예정일자", "조치일자", "관련티켓", "조치담당자", "비고"};
+
+    /** 인벤토리 시트에서 수기 검토 컬럼이 시작되는 위치 */
+    static final int FIRST_REVIEW_COL = 29;
+
+    /** [v1.3] 날짜 검토 컬럼 (조치예정일자, 조치일자) */
+    private static final int[] DATE_REVIEW_INDEXES = {2, 3};
+
+    /** 자동 생성값이 채워지는 검토 컬럼 (관련메뉴(미사용시)) */
+    private static final int AUTO_REVIEW_INDEX = 1;
+
+    /** [v1.2] 자동 생성 컬럼 판별 : 이전 행(머리글 → 셀 값)에 대해 이번 실행에서 도구가 생성할 관련메뉴 값을 계산 */
+    public interface AutoValue {
+        String relatedMenu(Map<String, String> rowByHeader);
+    }
+
+    /** 인벤토리 시트명 접두어 : 행 한도 초과 시 "API분석_레파지토리 (n)" 시트로 분할 저장됨 */
+    private static final String INVENTORY_SHEET_PREFIX = "API분석_";
+
+    private static final String KEY_DELIMITER = "|";
+
+    /** API 경로 + 컨트롤러#메소드 → 검토값 */
+    private final Map<String, String[]> byPathAndMethod = new HashMap<>();
+
+    /** API 경로 → 검토값 (동일 경로가 여러 행이면 중의성 때문에 제거) */
+    private final Map<String, String[]> byPath = new HashMap<>();
+
+    /** 컨트롤러#메소드 → 검토값 (경로가 변경된 API 대응, 중의성 있으면 제거) */
+    private final Map<String, String[]> byMethod = new HashMap<>();
+
+    /** 이전 결과 전체 행 기준으로 2회 이상 등장한 키 (한 메소드가 여러 경로를 매핑하는 경우 등) */
+    private final Set<String> seenPaths = new HashSet<>(), ambiguousPaths = new HashSet<>();
+    private final Set<String> seenMethods = new HashSet<>(), ambiguousMethods = new HashSet<>();
+    private int loadedRows = 0;
+    /** [v1.2] 관련메뉴 자동 생성값 계산 (null이면 이전 값을 그대로 수기 입력으로 간주) */
+    private final AutoValue autoValue;
+
+    private ReviewCarryOver(AutoValue autoValue) { this.autoValue = autoValue; }
+
+    /** 이월할 이전 결과가 없는 경우 사용하는 빈 인덱스 */
+    public static ReviewCarryOver empty() { return new ReviewCarryOver(null); }
+
+    /**
+     * 이전 결과 엑셀을 SAX 이벤트 모델로 읽어 인덱스를 구성합니다.
+     * 헤더명으로 컬럼 위치를 찾으므로 이전 버전 레이아웃에서 컬럼이 밀려도 이월이 가능합니다.
+     * @param autoValue 관련메뉴 자동 생성값 계산 : 이전 값이 이 값과 같으면 이월하지 않음 (null이면 모두 이월)
+     */
+    public static ReviewCarryOver load(File xlsx, AutoValue autoValue) throws Exception {
+        ReviewCarryOver index = new ReviewCarryOver(autoValue);
+        try (OPCPackage pkg = OPCPackage.open(xlsx, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+
+            // 첫 번째 시트 + 행 한도로 분할된 "API분석_... (n)" 시트 (변경내역 등 다른 시트는 제외)
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            boolean first = true;
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    if (!first && !sheets.getSheetName().startsWith(INVENTORY_SHEET_PREFIX)) continue;
+                    first = false;
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, index.new RowCollector(), new IsoDateFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * OUTPUT_DIR에서 동일 레파지토리의 가장 최근 인벤토리 결과를 찾습니다.
+     * 이번 실행 결과는 모든 단계가 끝난 뒤 저장되므로, 같은 날 재실행한 경우 직전 결과가 선택됩니다.
+     */
+    public static File findLatest(String outputDir, String repoName) {
+        File[] candidates = new File(outputDir).listFiles((d, n) -> n.startsWith("API목록_(" + repoName + ")_") && n.endsWith(".xlsx"));
+        if (candidates == null || candidates.length == 0) return null;
+        return Arrays.stream(candidates).max(Comparator.comparingLong(File::lastModified)).orElse(null);
+    }
+
+    /** 새 행의 검토값을 조회합니다. 매칭되는 이전 행이 없으면 null */
+    public String[] find(String apiPath, String controllerName, String methodName) {
+        String method = controllerName + "#" + methodName;
+        String[] hit = byPathAndMethod.get(apiPath + KEY_DELIMITER + method);
+        if (hit == null && !ambiguousPaths.contains(apiPath)) hit = byPath.get(apiPath);
+        if (hit == null && !ambiguousMethods.contains(method)) hit = byMethod.get(method);
+        return hit;
+    }
+
+    /**
+     * 새 행 데이터(data)의 29~35번 컬럼에 이전 검토값을 병합합니다. 이전 값이 빈 칸이면 새 값(자동 추출값)을 유지합니다.
+     * @return 이월된 값이 1건 이상 있으면 true
+     */
+    public boolean merge(String[] data, String apiPath, String controllerName, String methodName) {
+        String[] prev = find(apiPath, controllerName, methodName);
+        if (prev == null) return false;
+        boolean merged = false;
+        for (int k = 0; k < REVIEW_HEADERS.length; k++) {
+            if (prev[k] != null && !prev[k].isEmpty()) { data[FIRST_REVIEW_COL + k] = prev[k]; merged = true; }
+        }
+        return merged;
+    }
+
+    public int size() { return loadedRows; }
+
+    /** [v1.3] 인벤토리 시트 컬럼이 날짜 검토 컬럼(조치예정일자 / 조치일자)인지 */
+    public static boolean isDateColumn(int col) {
+        for (int k : DATE_REVIEW_INDEXES) if (col == FIRST_REVIEW_COL + k) return true;
+        return false;
+    }
+
+    /** [v1.3] 날짜 검토 컬럼 값(yyyy-MM-dd) → 날짜, 수기로 입력한 다른 형식의 문자열이면 null (문자열 셀로 유지) */
+    public static LocalDate parseDate(String value) {
+        if (value == null || value.length() != 10) return null;
+        try { return LocalDate.parse(value); }
+        catch (DateTimeParseException e) { return null; }
+    }
+
+    /**
+     * [v1.3] 날짜 서식 숫자 셀을 셀 서식(예: 2025. 3. 1. / 3월 1일)과 무관하게 yyyy-MM-dd로 변환하는 포매터.
+     * 시각이 포함된 값과 날짜가 아닌 셀은 기존과 같이 셀 서식 문자열로 읽습니다.
+     */
+    private static class IsoDateFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value) && value == Math.floor(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+
+    /** 중의성 판단용으로 모든 행의 키를 기록합니다. (검토값이 없는 행 포함) */
+    private void track(String apiPath, String method) {
+        if (!seenPaths.add(apiPath)) { ambiguousPaths.add(apiPath); byPath.remove(apiPath); }
+        if (!seenMethods.add(method)) { ambiguousMethods.add(method); byMethod.remove(method); }
+    }
+
+    private void put(String apiPath, String method, String[] values) {
+        loadedRows++;
+        byPathAndMethod.put(apiPath + KEY_DELIMITER + method, values);
+        if (!ambiguousPaths.contains(apiPath)) byPath.put(apiPath, values);
+        if (!ambiguousMethods.contains(method)) byMethod.put(method, values);
+    }
+
+    /** SAX 행 수집기 : 행 단위로 필요한 컬럼만 보관하고 즉시 인덱스에 반영 */
+    private class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private int pathCol = 3, controllerCol = 6, methodCol = 7;
+        private final int[] reviewCols = new int[REVIEW_HEADERS.length];
+        private final Map<Integer, String> row = new HashMap<>();
+        /** 컬럼 위치 → 머리글 (자동 생성값 계산용) */
+        private final Map<Integer, String> headers = new HashMap<>();
+        private boolean header = true;
+
+        RowCollector() { for (int k = 0; k < reviewCols.length; k++) reviewCols[k] = FIRST_REVIEW_COL + k; }
+
+        @Override public void startRow(int rowNum) { row.clear(); }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null || formattedValue == null) return;
+            row.put((int) new CellReference(cellReference).getCol(), formattedValue.trim());
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (header) { header = false; resolveColumns(); return; }
+            String apiPath = row.get(pathCol);
+            if (apiPath == null || apiPath.isEmpty()) return;
+
+            String method = row.getOrDefault(controllerCol, "") + "#" + row.getOrDefault(methodCol, "");
+            track(apiPath, method);
+
+            String[] values = new String[REVIEW_HEADERS.length];
+            boolean any = false;
+            for (int k = 0; k < values.length; k++) {
+                String v = row.get(reviewCols[k]);
+                if (v != null && !v.isEmpty() && !"-".equals(v)) { values[k] = v; any = true; }
+            }
+            // [v1.2] 관련메뉴가 도구가 생성할 값과 같으면 자동값 (이월 / 보관 대상 아님)
+            if (values[AUTO_REVIEW_INDEX] != null && autoValue != null && values[AUTO_REVIEW_INDEX].equals(autoValue.relatedMenu(rowByHeader()))) {
+                values[AUTO_REVIEW_INDEX] = null;
+                any = false;
+                for (String v : values) if (v != null) { any = true; break; }
+            }
+            // 수기 입력이 하나도 없는 행은 보관하지 않음 (메모리 절감)
+            if (any) put(apiPath, method, values);
+        }
+
+        private Map<String, String> rowByHeader() {
+            Map<String, String> byHeader = new HashMap<>();
+            for (Map.Entry<Integer, String> e : row.entrySet()) {
+                String h = headers.get(e.getKey());
+                if (h != null) byHeader.put(h, e.getValue());
+            }
+            return byHeader;
+        }
+
+        private void resolveColumns() {
+            headers.putAll(row);
+            for (Map.Entry<Integer, String> e : row.entrySet()) {
+                String h = e.getValue();
+                if ("API 경로".equals(h)) pathCol = e.getKey();
+                else if ("컨트롤러명".equals(h)) controllerCol = e.getKey();
+                else if ("호출메소드".equals(h)) methodCol = e.getKey();
+                for (int k = 0; k < REVIEW_HEADERS.length; k++) if (REVIEW_HEADERS[k].equals(h)) reviewCols[k] = e.getKey();
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 프로젝트명: ShardPartial (분할 분석 중간 결과)
+ * Version: 1.2
+ * 반영사항:
+ * 1. [신규] --shard i/n 실행 시 컨트롤러 상대 경로의 CRC32로 담당 파일을 고정 배정하고, 분석 결과(API 행 + 커밋 이력 + 분할 지표)를 압축 바이너리로 저장 [cite: 2026-10-18]
+ * 2. [신규] --merge 실행 시 n개 중간 결과를 API 경로 기준 k-way 병합하여 단일 실행과 동일한 순서의 API 목록을 복원 [cite: 2026-10-18]
+ * 3. [저장] 스냅샷과 동일한 문자열 사전 + varint 형식 (반복되는 컨트롤러/주석/커밋터 문자열은 1회만 기록) [cite: 2026-10-18]
+ * 4. [수정] 병합 대상은 파일명이 정확히 shard_[레파지토리]_[i]of[n].part.gz 인 파일만 선택하고 (api / api_admin 접두어 충돌 방지),
+ *    헤더에 레파지토리명을 기록하여 로드 후 다시 확인 (형식 버전 2) [cite: 2026-10-18]
+ * 5. [재진입] 로드한 문자열 / 커밋은 호출부가 넘긴 StringPool에서 공유 (병합 단위 풀, 전역 풀 제거) [cite: 2026-10-19]
+ */
+public class ShardPartial {
+
+    private static final int MAGIC = 0x41505350; // "APSP"
+    private static final short FORMAT_VERSION = 2;
+
+    /** [v1.1] 분할 결과 파일명에서 레파지토리명 뒤에 오는 부분 (분할 번호 + 확장자) */
+    private static final Pattern SHARD_SUFFIX = Pattern.compile("[1-9]\\d*of[1-9]\\d*\\.part\\.gz");
+
+    /**
+     * API 목록 정렬 기준 (전순서) : API 경로 → repository path → 파일 내 추출 순서.
+     * 동일 경로가 여러 메소드에 매핑되어도 병렬 분석 완료 순서와 무관하게 항상 같은 순서가 되도록 합니다.
+     */
+    public static final Comparator<ApiExcelExporter.ApiInfo> ORDER = Comparator
+            .comparing((ApiExcelExporter.ApiInfo a) -> a.apiPath)
+            .thenComparing(a -> a.repoPath)
+            .thenComparingInt(a -> a.ordinal);
+
+    /** [v1.1] 분할 실행 시의 REPO_NAME (병합 시 다른 레파지토리 결과가 섞이지 않았는지 확인) */
+    public final String repoName;
+
+    /** 1부터 시작하는 분할 번호 / 전체 분할 수 */
+    public final int shardIndex, shardCount;
+    public final long createdAt;
+
+    /** 분할 지표 : 담당 컨트롤러 수, 소요 시간(ms) */
+    public final int controllerCount;
+    public final long elapsedMs;
+
+    /** 레파지토리 표시명 → 분석 결과 (API 행은 ORDER 순 정렬) */
+    public final Map<String, ApiExcelExporter.SourceAnalysis> analyses;
+
+    public ShardPartial(String repoName, int shardIndex, int shardCount, long createdAt, int controllerCount, long elapsedMs,
+                        Map<String, ApiExcelExporter.SourceAnalysis> analyses) {
+        this.repoName = repoName;
+        this.shardIndex = shardIndex; this.shardCount = shardCount; this.createdAt = createdAt;
+        this.controllerCount = controllerCount; this.elapsedMs = elapsedMs; this.analyses = analyses;
+    }
+
+    /** "3/8" → {3, 8} (1 ≤ i ≤ n) */
+    public static int[] parseSpec(String spec) {
+        String[] parts = spec == null ? new String[0] : spec.trim().split("/");
+        if (parts.length == 2) {
+            try {
+                int i = Integer.parseInt(parts[0].trim()), n = Integer.parseInt(parts[1].trim());
+                if (n >= 1 && i >= 1 && i <= n) return new int[]{i, n};
+            } catch (NumberFormatException ignored) {}
+        }
+        throw new IllegalArgumentException("분할 지정 형식이 올바르지 않습니다 (예: --shard 3/8): " + spec);
+    }
+
+    /**
+     * 상대 경로가 분할 i/n의 담당인지 판단합니다. OS 구분자와 무관하도록 '/'로 통일한 경로의 CRC32를 사용하므로
+     * 노드(Windows/Linux)나 실행 순서가 달라도 같은 파일은 항상 같은 분할에 배정됩니다.
+     */
+    public static boolean owns(String relPath, int shardIndex, int shardCount) {
+        CRC32 crc = new CRC32();
+        crc.update(relPath.replace('\\', '/').getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shardCount) == shardIndex - 1;
+    }
+
+    public static String fileName(String repoName, int shardIndex, int shardCount) {
+        return "shard_" + repoName + "_" + shardIndex + "of" + shardCount + ".part.gz";
+    }
+
+    /** [v1.1] 파일명이 정확히 shard_[레파지토리]_[i]of[n].part.gz 인지 (접두어만 같은 다른 레파지토리 제외) */
+    static boolean isShardOf(String fileName, String repoName) {
+        String prefix = "shard_" + repoName + "_";
+        return fileName.startsWith(prefix) && SHARD_SUFFIX.matcher(fileName.substring(prefix.length())).matches();
+    }
+
+    // ==========================================================================================
+    // [ 저장 / 로드 ]
+    // ==========================================================================================
+
+    public void write(File file) throws IOException {
+        if (file.getParentFile() != null && !file.getParentFile().exists()) file.getParentFile().mkdirs();
+
+        // 문자열 사전 : 0번은 null (null과 빈 문자열은 엑셀에서 빈 셀/빈 문자열 셀로 구분되므로 그대로 보존)
+        Map<String, Integer> dict = new LinkedHashMap<>();
+        Map<CommitInfo, Integer> commits = new LinkedHashMap<>();
+        for (ApiExcelExporter.SourceAnalysis a : analyses.values()) {
+            for (ApiExcelExporter.ApiInfo info : a.apis) {
+                for (String s : fields(info)) if (s != null) dict.putIfAbsent(s, dict.size() + 1);
+                for (CommitInfo c : info.commits) {
+                    if (commits.putIfAbsent(c, commits.size()) == null) { dict.putIfAbsent(c.author, dict.size() + 1); dict.putIfAbsent(c.message, dict.size() + 1); }
+                }
+            }
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmp), 1 << 16)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeLong(createdAt);
+            InventorySnapshot.writeString(out, repoName);
+            InventorySnapshot.writeVarLong(out, shardIndex);
+            InventorySnapshot.writeVarLong(out, shardCount);
+            InventorySnapshot.writeVarLong(out, controllerCount);
+            InventorySnapshot.writeVarLong(out, elapsedMs);
+
+            InventorySnapshot.writeVarLong(out, dict.size());
+            for (String s : dict.keySet()) InventorySnapshot.writeString(out, s);
+
+            InventorySnapshot.writeVarLong(out, commits.size());
+            for (CommitInfo c : commits.keySet()) {
+                InventorySnapshot.writeVarLong(out, c.date);
+                InventorySnapshot.writeVarLong(out, dict.get(c.author));
+                InventorySnapshot.writeVarLong(out, dict.get(c.message));
+            }
+
+            InventorySnapshot.writeVarLong(out, analyses.size());
+            for (Map.Entry<String, ApiExcelExporter.SourceAnalysis> e : analyses.entrySet()) {
+                InventorySnapshot.writeString(out, e.getKey());
+                InventorySnapshot.writeVarLong(out, e.getValue().totalFiles);
+                InventorySnapshot.writeVarLong(out, e.getValue().apis.size());
+                for (ApiExcelExporter.ApiInfo info : e.getValue().apis) {
+                    for (String s : fields(info)) InventorySnapshot.writeVarLong(out, s == null ? 0 : dict.get(s));
+                    InventorySnapshot.writeVarLong(out, info.ordinal);
+                    InventorySnapshot.writeVarLong(out, info.commits.length);
+                    for (CommitInfo c : info.commits) InventorySnapshot.writeVarLong(out, commits.get(c));
+                }
+            }
+        }
+        java.nio.file.Files.move(tmp.toPath(), file.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static ShardPartial read(File file) throws IOException { return read(file, new StringPool()); }
+
+    /** @param pool 분할 결과 간 문자열 / 커밋 공유용 (병합 시 1개를 여러 파일에 사용) */
+    public static ShardPartial read(File file, StringPool pool) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file), 1 << 16)))) {
+            if (in.readInt() != MAGIC) throw new IOException("분할 결과 파일 형식이 아닙니다: " + file);
+            short version = in.readShort();
+            if (version != FORMAT_VERSION) throw new IOException("지원하지 않는 분할 결과 버전: " + version);
+            long createdAt = in.readLong();
+            String repoName = InventorySnapshot.readString(in);
+            int index = (int) InventorySnapshot.readVarLong(in), count = (int) InventorySnapshot.readVarLong(in);
+            int controllers = (int) InventorySnapshot.readVarLong(in);
+            long elapsed = InventorySnapshot.readVarLong(in);
+
+            String[] dict = new String[(int) InventorySnapshot.readVarLong(in) + 1];
+            for (int i = 1; i < dict.length; i++) dict[i] = pool.intern(InventorySnapshot.readString(in));
+
+            CommitInfo[] commits = new CommitInfo[(int) InventorySnapshot.readVarLong(in)];
+            for (int i = 0; i < commits.length; i++) {
+                int date = (int) InventorySnapshot.readVarLong(in);
+                String author = dict[(int) InventorySnapshot.readVarLong(in)], message = dict[(int) InventorySnapshot.readVarLong(in)];
+                commits[i] = pool.commit(date == 0 ? "-" : unpackDate(date), author, message);
+            }
+
+            Map<String, ApiExcelExporter.SourceAnalysis> analyses = new LinkedHashMap<>();
+            int labels = (int) InventorySnapshot.readVarLong(in);
+            for (int l = 0; l < labels; l++) {
+                String label = InventorySnapshot.readString(in);
+                ApiExcelExporter.SourceAnalysis a = new ApiExcelExporter.SourceAnalysis();
+                a.totalFiles = (int) InventorySnapshot.readVarLong(in);
+                int rows = (int) InventorySnapshot.readVarLong(in);
+                // 같은 커밋 배열은 행끼리 공유 (분석 시와 동일한 메모리 구성)
+                Map<List<CommitInfo>, CommitInfo[]> shared = new HashMap<>();
+                for (int r = 0; r < rows; r++) {
+                    ApiExcelExporter.ApiInfo info = new ApiExcelExporter.ApiInfo();
+                    String[] f = new String[11];
+                    for (int k = 0; k < f.length; k++) f[k] = dict[(int) InventorySnapshot.readVarLong(in)];
+                    info.apiPath = f[0]; info.methodName = f[1]; info.isDeprecated = f[2]; info.controllerName = f[3]; info.repoPath = f[4];
+                    info.controllerComment = f[5]; info.fullComment = f[6]; info.descriptionTag = f[7]; info.apiOperationValue = f[8];
+                    info.requestPropertyValue = f[9]; info.controllerRequestPropertyValue = f[10];
+                    info.ordinal = (int) InventorySnapshot.readVarLong(in);
+                    CommitInfo[] history = new CommitInfo[(int) InventorySnapshot.readVarLong(in)];
+                    for (int k = 0; k < history.length; k++) history[k] = commits[(int) InventorySnapshot.readVarLong(in)];
+                    info.commits = shared.computeIfAbsent(Arrays.asList(history), k -> history);
+                    a.apis.add(info);
+                }
+                analyses.put(label, a);
+            }
+            return new ShardPartial(repoName, index, count, createdAt, controllers, elapsed, analyses);
+        }
+    }
+
+    // ==========================================================================================
+    // [ 병합 ]
+    // ==========================================================================================
+
+    /**
+     * 분할 결과 n개를 검증 후 레파지토리 표시명별로 k-way 병합합니다.
+     * 각 분할의 API 행은 ORDER 순으로 저장되어 있으므로 힙에서 최솟값을 꺼내는 것만으로 전체 정렬 결과가 됩니다.
+     * @throws IOException 분할 수가 일치하지 않거나 누락/중복된 분할이 있는 경우
+     */
+    public static Map<String, ApiExcelExporter.SourceAnalysis> merge(List<ShardPartial> parts) throws IOException {
+        if (parts.isEmpty()) throw new IOException("병합할 분할 결과가 없습니다.");
+        int count = parts.get(0).shardCount;
+        BitSet seen = new BitSet(count + 1);
+        for (ShardPartial p : parts) {
+            if (p.shardCount != count) throw new IOException("분할 수가 서로 다른 결과가 섞여 있습니다: " + p.shardIndex + "/" + p.shardCount + " (기준 " + count + ")");
+            if (seen.get(p.shardIndex)) throw new IOException("중복된 분할 결과: " + p.shardIndex + "/" + count);
+            seen.set(p.shardIndex);
+        }
+        if (seen.cardinality() != count) {
+            List<String> missing = new ArrayList<>();
+            for (int i = 1; i <= count; i++) if (!seen.get(i)) missing.add(i + "/" + count);
+            throw new IOException("누락된 분할 결과: " + missing);
+        }
+
+        Set<String> labels = new LinkedHashSet<>();
+        List<ShardPartial> ordered = new ArrayList<>(parts);
+        ordered.sort(Comparator.comparingInt(p -> p.shardIndex));
+        for (ShardPartial p : ordered) labels.addAll(p.analyses.keySet());
+
+        Map<String, ApiExcelExporter.SourceAnalysis> merged = new LinkedHashMap<>();
+        for (String label : labels) {
+            ApiExcelExporter.SourceAnalysis out = new ApiExcelExporter.SourceAnalysis();
+            List<List<ApiExcelExporter.ApiInfo>> runs = new ArrayList<>();
+            for (ShardPartial p : ordered) {
+                ApiExcelExporter.SourceAnalysis a = p.analyses.get(label);
+                if (a == null) continue;
+                out.totalFiles += a.totalFiles;
+                runs.add(a.apis);
+            }
+            // 힙 원소 : {분할 순번, 다음 행 위치}
+            PriorityQueue<int[]> heap = new PriorityQueue<>((x, y) -> ORDER.compare(runs.get(x[0]).get(x[1]), runs.get(y[0]).get(y[1])));
+            for (int r = 0; r < runs.size(); r++) if (!runs.get(r).isEmpty()) heap.add(new int[]{r, 0});
+            while (!heap.isEmpty()) {
+                int[] top = heap.poll();
+                List<ApiExcelExporter.ApiInfo> run = runs.get(top[0]);
+                out.apis.add(run.get(top[1]));
+                if (++top[1] < run.size()) heap.add(top);
+            }
+            merged.put(label, out);
+        }
+        return merged;
+    }
+
+    private static String[] fields(ApiExcelExporter.ApiInfo i) {
+        return new String[]{i.apiPath, i.methodName, i.isDeprecated, i.controllerName, i.repoPath, i.controllerComment, i.fullComment,
+                i.descriptionTag, i.apiOperationValue, i.requestPropertyValue, i.controllerRequestPropertyValue};
+    }
+
+    private static String unpackDate(int date) {
+        return String.format("%04d-%02d-%02d", date / 10000, date / 100 % 100, date % 100);
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+
+/**
+ * 프로젝트명: SourceFile (분석 대상 소스 파일)
+ * Version: 1.5
+ * 반영사항:
+ * 1. [신규] 작업 트리 파일과 git 오브젝트(blob)를 동일하게 다루기 위한 소스 파일 추상화 [cite: 2026-10-18]
+ * 2. [캐시] 작업 트리는 경로 + 크기/수정시각, git blob은 blob SHA를 캐시 키로 사용하여 리비전 간 파싱 결과 공유 [cite: 2026-10-18]
+ * 3. [안정성] 내용 읽기에 StepWatchdog 제한 시간 적용 (네트워크 드라이브 등에서 멈춘 읽기를 버리고 진행) [cite: 2026-10-18]
+ * 4. [인코딩] readText() : BOM(UTF-8 / UTF-16) → UTF-8 유효성 검사 → 대체 문자셋(SOURCE_FALLBACK_CHARSET, 기본 MS949) 순으로 판별하여 MS949/EUC-KR 레거시 소스의 한글 주석이 깨지지 않음 [cite: 2026-10-18]
+ * 5. [성능] 작업 트리의 큰 파일(SOURCE_MMAP_KB 이상)은 힙 복사 없이 메모리 매핑 버퍼에서 바로 판별 / 디코딩 [cite: 2026-10-18]
+ * 6. [성능] 디코딩 결과와 blob SHA(같은 버퍼에서 계산)를 파일 객체에 보관하여 상수 / 타입 인덱스, blame, 추출이 1회 읽기를 공유 : 마지막 사용처가 release()로 해제 [cite: 2026-10-18]
+ * 7. [안정성] git blob 읽기는 감시 스레드를 거치지 않고 GitRevisionSource가 cat-file 잠금을 얻은 뒤 제한 시간 측정 (병렬 읽기의 잠금 대기가 초과로 집계되지 않음) [cite: 2026-10-19]
+ * 8. [재진입] 대체 문자셋 / 메모리 매핑 기준을 전역 설정(configure) 대신 불변 Options로 분리하여 파일마다 보관 : 추출 설정(ApiExtractor.Config)이 다른 엔진끼리 영향 없음 [cite: 2026-10-19]
+ *
+ * 설정 (config.properties) : SOURCE_FALLBACK_CHARSET, SOURCE_MMAP_KB (0이면 매핑 안 함, Options.from으로 로드)
+ */
+public class SourceFile {
+
+    /** 내용 조회 함수 : 작업 트리는 파일 읽기, git 리비전은 cat-file --batch 조회 */
+    public interface ContentReader {
+        byte[] read() throws IOException;
+
+        /** [v1.2] 판별 / 디코딩용 버퍼 (기본 : read() 결과를 감싸기만 함, 작업 트리의 큰 파일은 메모리 매핑) */
+        default ByteBuffer buffer() throws IOException { return ByteBuffer.wrap(read()); }
+    }
+
+    /** [v1.2] 디코딩된 소스 : 추출 전략(JavaParser / Regex 폴백)이 같은 내용을 공유 */
+    public static final class Text {
+        public final String content;
+        /** 판별 결과 (예: UTF-8, UTF-8(BOM), UTF-16LE(BOM), MS949) */
+        public final String charset;
+        /** [v1.3] 원본 바이트의 git blob SHA (git blame 캐시 키) */
+        public final String sha;
+
+        Text(String content, String charset, String sha) { this.content = content; this.charset = charset; this.sha = sha; }
+    }
+
+    private static final String DEFAULT_FALLBACK = "MS949";
+    private static final int DEFAULT_MMAP_KB = 1024;
+
+    /** [v1.5] 읽기 / 판별 설정 (불변) : UTF-8이 아닌 소스의 문자셋 / 메모리 매핑 기준 크기(바이트, 0이면 매핑 안 함) */
+    public static final class Options {
+        /** 미설정 기본값 : MS949 / 1024KB */
+        public static final Options DEFAULT = new Options(Charset.forName(DEFAULT_FALLBACK), DEFAULT_FALLBACK, DEFAULT_MMAP_KB * 1024L);
+
+        final Charset fallbackCharset;
+        final String fallbackName;
+        final long mmapThreshold;
+
+        Options(Charset fallbackCharset, String fallbackName, long mmapThreshold) {
+            this.fallbackCharset = fallbackCharset; this.fallbackName = fallbackName; this.mmapThreshold = mmapThreshold;
+        }
+
+        /** config.properties 형식의 설정에서 로드 (미설정·미지원 문자셋이면 MS949 / 1024KB) */
+        public static Options from(Properties prop) {
+            String name = prop == null ? "" : prop.getProperty("SOURCE_FALLBACK_CHARSET", "").trim();
+            Charset charset = DEFAULT.fallbackCharset;
+            String label = DEFAULT_FALLBACK;
+            if (!name.isEmpty()) {
+                try { charset = Charset.forName(name); label = name.toUpperCase(); }
+                catch (IllegalArgumentException e) { System.out.println("[WARN] 지원하지 않는 SOURCE_FALLBACK_CHARSET: " + name + " (" + DEFAULT_FALLBACK + " 사용)"); }
+            }
+            String kb = prop == null ? "" : prop.getProperty("SOURCE_MMAP_KB", "").trim();
+            long threshold = DEFAULT_MMAP_KB;
+            if (!kb.isEmpty()) { try { threshold = Long.parseLong(kb); } catch (NumberFormatException ignored) { } }
+            return new Options(charset, label, Math.max(0, threshold) * 1024);
+        }
+    }
+
+    /** ROOT_PATH 기준 상대 경로 (OS 구분자 그대로) */
+    public final String relPath;
+
+    /** 파일명 (컨트롤러명 컬럼에 사용) */
+    public final String fileName;
+
+    /** git blob SHA : 작업 트리 파일이면 null */
+    public final String blobSha;
+
+    /** 캐시 키 / 변경 판단용 스탬프 : 키가 같고 스탬프가 같으면 내용이 같다고 판단 */
+    public final String cacheKey, stamp;
+
+    private final ContentReader reader;
+    private final Options options;
+
+    /** [v1.3] 1회 읽기 결과 : 스탬프가 바뀌면 새 SourceFile이 만들어지므로 객체 단위로 보관 (메모리가 부족하면 GC가 회수) */
+    private volatile SoftReference<Text> text;
+
+    public SourceFile(String relPath, String blobSha, String cacheKey, String stamp, ContentReader reader, Options options) {
+        this.relPath = relPath;
+        int slash = Math.max(relPath.lastIndexOf('/'), relPath.lastIndexOf('\\'));
+        this.fileName = relPath.substring(slash + 1);
+        this.blobSha = blobSha; this.cacheKey = cacheKey; this.stamp = stamp; this.reader = reader; this.options = options;
+    }
+
+    /** 작업 트리 파일 (기본 읽기 설정) */
+    public static SourceFile ofPath(Path root, Path file) throws IOException { return ofPath(root, file, Options.DEFAULT); }
+
+    /** 작업 트리 파일 */
+    public static SourceFile ofPath(Path root, Path file, Options options) throws IOException {
+        String stamp = Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
+        return new SourceFile(root.relativize(file).toString(), null, file.toAbsolutePath().toString(), stamp, new PathReader(file, options.mmapThreshold), options);
+    }
+
+    /** [v1.2] 작업 트리 파일 읽기 : 기준 크기 이상이면 읽기 전용 메모리 매핑 (채널은 매핑 직후 닫아도 버퍼는 유효) */
+    private static final class PathReader implements ContentReader {
+        private final Path file;
+        private final long mmapThreshold;
+
+        PathReader(Path file, long mmapThreshold) { this.file = file; this.mmapThreshold = mmapThreshold; }
+
+        @Override
+        public byte[] read() throws IOException { return Files.readAllBytes(file); }
+
+        @Override
+        public ByteBuffer buffer() throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (mmapThreshold <= 0 || size < mmapThreshold || size > Integer.MAX_VALUE) return ByteBuffer.wrap(read());
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+    }
+
+    /** 파일 읽기 : 제한 시간(StepWatchdog READ) 초과 시 StepTimeoutException */
+    public byte[] readBytes() throws IOException { return watched(reader::read); }
+
+    /** 파일 읽기 + 문자셋 판별 (1회 읽기) */
+    public String readString() throws IOException { return readText().content; }
+
+    /** [v1.2] 파일을 1회 읽어 문자셋을 판별하고 디코딩 : 제한 시간(StepWatchdog READ) 초과 시 StepTimeoutException */
+    public Text readText() throws IOException {
+        SoftReference<Text> ref = text;
+        Text cached = ref != null ? ref.get() : null;
+        if (cached != null) return cached;
+        Text read = watched(() -> decode(reader.buffer(), options));
+        text = new SoftReference<>(read);
+        return read;
+    }
+
+    /** [v1.4] 작업 트리 파일은 감시 스레드에서 읽고, git blob은 GitRevisionSource가 잠금 획득 후 직접 감시하므로 호출 스레드에서 읽음 */
+    private <T> T watched(Callable<T> read) throws IOException {
+        try { return blobSha != null ? read.call() : StepWatchdog.call(StepWatchdog.Step.READ, relPath, read); }
+        catch (IOException | RuntimeException e) { throw e; }
+        catch (Exception e) { throw new IOException(e); }
+    }
+
+    /** [v1.3] git blob SHA : git 리비전 파일은 오브젝트 SHA, 작업 트리 파일은 읽은 내용에서 계산 (readText()와 1회 읽기 공유) */
+    public String contentSha() throws IOException { return blobSha != null ? blobSha : readText().sha; }
+
+    /** [v1.3] 보관 중인 읽기 결과 해제 (인덱스 구성 / 추출이 끝난 파일) */
+    public void release() { text = null; }
+
+    // ==========================================================================================
+    // [ 문자셋 판별 ]
+    // ==========================================================================================
+
+    /** BOM → UTF-8 유효성 검사 → 대체 문자셋 순으로 판별하여 디코딩 (잘못된 바이트는 치환 문자로 대체) */
+    static Text decode(ByteBuffer buf, Options options) {
+        int pos = buf.position(), len = buf.remaining();
+        String sha = blobSha(buf);
+        if (len >= 3 && (buf.get(pos) & 0xFF) == 0xEF && (buf.get(pos + 1) & 0xFF) == 0xBB && (buf.get(pos + 2) & 0xFF) == 0xBF) {
+            return new Text(decode(buf, pos + 3, StandardCharsets.UTF_8), "UTF-8(BOM)", sha);
+        }
+        if (len >= 2 && (buf.get(pos) & 0xFF) == 0xFF && (buf.get(pos + 1) & 0xFF) == 0xFE) {
+            return new Text(decode(buf, pos + 2, StandardCharsets.UTF_16LE), "UTF-16LE(BOM)", sha);
+        }
+        if (len >= 2 && (buf.get(pos) & 0xFF) == 0xFE && (buf.get(pos + 1) & 0xFF) == 0xFF) {
+            return new Text(decode(buf, pos + 2, StandardCharsets.UTF_16BE), "UTF-16BE(BOM)", sha);
+        }
+        if (isUtf8(buf, pos, pos + len)) return new Text(decode(buf, pos, StandardCharsets.UTF_8), "UTF-8", sha);
+        return new Text(decode(buf, pos, options.fallbackCharset), options.fallbackName, sha);
+    }
+
+    /** git blob SHA-1 : "blob <크기>\0" + 내용 (git hash-object와 동일, 버퍼 위치는 변경하지 않음) */
+    static String blobSha(ByteBuffer buf) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            md.update(("blob " + buf.remaining() + "\0").getBytes(StandardCharsets.US_ASCII));
+            md.update(buf.duplicate());
+            byte[] digest = md.digest();
+            StringBuilder sb = new StringBuilder(40);
+            for (byte b : digest) sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            return sb.toString();
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decode(ByteBuffer buf, int from, Charset charset) {
+        if (buf.hasArray()) return new String(buf.array(), buf.arrayOffset() + from, buf.limit() - from, charset);
+        ByteBuffer slice = buf.duplicate();
+        slice.position(from);
+        try {
+            return charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE).decode(slice).toString();
+        } catch (java.nio.charset.CharacterCodingException e) {
+            throw new IllegalStateException(e); // REPLACE 지정 시 발생하지 않음
+        }
+    }
+
+    /** UTF-8 유효성 검사 (ASCII는 바로 통과, 과잉 길이 / 서러게이트 / U+10FFFF 초과 시퀀스는 무효) */
+    static boolean isUtf8(ByteBuffer buf, int from, int to) {
+        int i = from;
+        while (i < to) {
+            int b = buf.get(i);
+            if (b >= 0) { i++; continue; }
+            b &= 0xFF;
+            int n;
+            int min2 = 0x80, max2 = 0xBF;
+            if (b >= 0xC2 && b <= 0xDF) n = 1;
+            else if (b >= 0xE0 && b <= 0xEF) { n = 2; if (b == 0xE0) min2 = 0xA0; else if (b == 0xED) max2 = 0x9F; }
+            else if (b >= 0xF0 && b <= 0xF4) { n = 3; if (b == 0xF0) min2 = 0x90; else if (b == 0xF4) max2 = 0x8F; }
+            else return false;
+            if (i + n >= to) return false;
+            int c = buf.get(i + 1) & 0xFF;
+            if (c < min2 || c > max2) return false;
+            for (int k = 2; k <= n; k++) if ((buf.get(i + k) & 0xC0) != 0x80) return false;
+            i += n + 1;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * 프로젝트명: SourceWatcher (소스 변경 감시)
+ * Version: 1.0
+ * 반영사항:
+ * 1. [신규] WatchService로 ROOT_PATH 하위 디렉토리를 감시하고, 새로 생성된 디렉토리도 즉시 감시 대상에 추가 [cite: 2026-10-18]
+ * 2. [성능] 저장 1회에 여러 이벤트가 발생하는 IDE/포매터 특성을 고려하여 마지막 이벤트 이후 일정 시간 조용해질 때까지 모아서 1건의 변경 묶음으로 반환 (Debounce) [cite: 2026-10-18]
+ */
+public class SourceWatcher implements Closeable {
+
+    private final Path root;
+    private final long debounceMs;
+    private final WatchService service;
+    private final Map<WatchKey, Path> dirs = new HashMap<>();
+
+    /**
+     * @param root       감시 최상위 디렉토리 (ROOT_PATH)
+     * @param debounceMs 마지막 이벤트 이후 대기 시간 (이 시간 동안 추가 이벤트가 없으면 변경 묶음 확정)
+     */
+    public SourceWatcher(Path root, long debounceMs) throws IOException {
+        this.root = root; this.debounceMs = debounceMs;
+        this.service = root.getFileSystem().newWatchService();
+        register(root, null);
+    }
+
+    public int watchedDirectories() { return dirs.size(); }
+
+    /**
+     * 변경이 발생할 때까지 대기한 후, Debounce 시간 동안 이어지는 이벤트를 모아 반환합니다.
+     * @return 변경된 .java 파일과 삭제된 디렉토리의 절대 경로 (이벤트 유실(OVERFLOW) 시 null : 호출부에서 전체 재탐색)
+     */
+    public Set<Path> awaitChanges() throws InterruptedException {
+        Set<Path> changed = new TreeSet<>();
+        boolean overflow = false;
+        WatchKey key = service.take();
+        while (key != null) {
+            Path dir = dirs.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW || dir == null) { overflow = true; continue; }
+                Path path = dir.resolve((Path) event.context());
+                if (event.kind() == ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    // 디렉토리 생성과 내부 파일 생성 사이의 이벤트는 유실될 수 있으므로 등록하면서 이미 존재하는 파일을 변경으로 간주
+                    try { register(path, changed); } catch (IOException e) { overflow = true; }
+                } else if (path.toString().endsWith(".java") || (event.kind() == ENTRY_DELETE && !hidden(path))) {
+                    changed.add(path);
+                }
+            }
+            if (!key.reset()) dirs.remove(key);
+            key = service.poll(debounceMs, TimeUnit.MILLISECONDS);
+        }
+        return overflow ? null : changed;
+    }
+
+    @Override
+    public void close() throws IOException { service.close(); }
+
+    /** 하위 디렉토리 전체 등록 (.git 등 숨김 디렉토리 제외) */
+    private void register(Path start, Set<Path> existingSources) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(root) && hidden(dir)) return FileVisitResult.SKIP_SUBTREE;
+                dirs.put(dir.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (existingSources != null && file.toString().endsWith(".java")) existingSources.add(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static boolean hidden(Path path) {
+        Path name = path.getFileName();
+        return name != null && name.toString().startsWith(".");
+    }
+}
@@ -0,0 +1,273 @@
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 프로젝트명: StatsSheetWriter (대용량 통계 시트 직접 스트리밍 작성기)
+ * Version: 1.0
+ * 반영사항:
+ * 1. [신규] 시트 XML(sheetData)을 zip 스트림에 직접 기록하고, POI(XSSFWorkbook)는 스타일/통합문서 골격 생성에만 사용 [cite: 2026-10-18]
+ * 2. [성능] 셀 객체를 만들지 않고 숫자는 바이트 버퍼에 자릿수로 직접 기록, 셀 주소의 열 문자/스타일 속성은 사전 인코딩한 바이트를 재사용 [cite: 2026-10-18]
+ * 3. [호환] 틀 고정(pane) / 열 너비 / 인라인 문자열(inlineStr)로 SXSSF 출력과 동일하게 열리는 표준 xlsx 생성 [cite: 2026-10-18]
+ * 4. [안정성] 엑셀 행/열 한도 상수와 분할 시트명 생성(partSheetName) 제공, 한도를 넘는 행/열 기록 시 마지막 저장 단계가 아닌 즉시 오류 [cite: 2026-10-18]
+ *
+ * 사용 순서 : workbook()으로 스타일 생성 → beginSheet → (startRow → text/number → endRow)* → endSheet → ... → close
+ */
+public class StatsSheetWriter implements Closeable {
+
+    /** 엑셀(xlsx) 시트 한도 : 최대 행 수(머리글 포함) / 최대 열 수 */
+    public static final int MAX_ROWS = 1_048_576;
+    public static final int MAX_COLUMNS = 16_384;
+
+    private static final byte[] SHEET_HEAD = ("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+            + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SHEET_TAIL = ("</sheetData><pageMargins left=\"0.7\" right=\"0.7\" top=\"0.75\" bottom=\"0.75\" header=\"0.3\" footer=\"0.3\"/></worksheet>")
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ROW_OPEN = "<row r=\"".getBytes(StandardCharsets.US_ASCII), ROW_CLOSE = "</row>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CELL_OPEN = "<c r=\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NUM_OPEN = "><v>".getBytes(StandardCharsets.US_ASCII), NUM_CLOSE = "</v></c>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] STR_OPEN = " t=\"inlineStr\"><is><t xml:space=\"preserve\">".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] STR_CLOSE = "</t></is></c>".getBytes(StandardCharsets.US_ASCII);
+
+    private final File file;
+    private final XSSFWorkbook skeleton = new XSSFWorkbook();
+    private final ZipOutputStream zip;
+
+    /** 재사용 출력 버퍼 : 가득 차면 zip 스트림으로 비움 */
+    private final byte[] buf = new byte[1 << 16];
+    private int pos = 0;
+
+    /** 사전 인코딩 : 열 번호 → 열 문자(A, B, ..., AA), 스타일 번호 → ' s="n"' */
+    private final List<byte[]> columnNames = new ArrayList<>();
+    private final Map<Integer, byte[]> styleAttrs = new HashMap<>();
+
+    /** 현재 행 번호(1부터) 자릿수 / 현재 열 번호(0부터) */
+    private final byte[] rowDigits = new byte[20];
+    private int rowDigitLen = 0, column = 0, sheetCount = 0;
+    private boolean inSheet = false;
+
+    public StatsSheetWriter(File file) throws IOException {
+        this.file = file;
+        if (file.getParentFile() != null && !file.getParentFile().exists()) file.getParentFile().mkdirs();
+        this.zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        // 반복 패턴이 많은 시트 XML은 최저 압축 수준에서도 압축률 차이가 작고, 기록 시간은 크게 줄어듦
+        this.zip.setLevel(java.util.zip.Deflater.BEST_SPEED);
+    }
+
+    /** 스타일(폰트/채우기/테두리/표시형식) 생성용 통합문서 골격 : 시트/셀은 만들지 말 것 */
+    public XSSFWorkbook workbook() { return skeleton; }
+
+    /**
+     * 시트 시작 : 시트 XML 머리말(틀 고정, 열 너비)을 기록합니다.
+     * @param freezeCols 고정 열 수 / freezeRows 고정 행 수 (0이면 고정 안 함)
+     * @param widths     열 너비 (POI 단위, 1/256 문자), 배열 길이까지만 지정
+     */
+    public void beginSheet(String name, int freezeCols, int freezeRows, int[] widths) throws IOException {
+        if (inSheet) endSheet();
+        skeleton.createSheet(WorkbookUtil.createSafeSheetName(name));
+        sheetCount++;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        inSheet = true;
+        rowDigitLen = 0;
+
+        write(SHEET_HEAD);
+        StringBuilder head = new StringBuilder(256);
+        head.append("<sheetViews><sheetView workbookViewId=\"0\"").append(sheetCount == 1 ? " tabSelected=\"1\"" : "").append('>');
+        if (freezeCols > 0 || freezeRows > 0) {
+            String pane = freezeCols > 0 && freezeRows > 0 ? "bottomRight" : freezeCols > 0 ? "topRight" : "bottomLeft";
+            head.append("<pane");
+            if (freezeCols > 0) head.append(" xSplit=\"").append(freezeCols).append('"');
+            if (freezeRows > 0) head.append(" ySplit=\"").append(freezeRows).append('"');
+            head.append(" topLeftCell=\"").append(columnName(freezeCols)).append(freezeRows + 1)
+                    .append("\" activePane=\"").append(pane).append("\" state=\"frozen\"/><selection pane=\"").append(pane).append("\"/>");
+        }
+        head.append("</sheetView></sheetViews><sheetFormatPr defaultRowHeight=\"15\"/>");
+        if (widths != null && widths.length > 0) {
+            head.append("<cols>");
+            for (int i = 0; i < widths.length; i++) {
+                head.append("<col min=\"").append(i + 1).append("\" max=\"").append(i + 1)
+                        .append("\" width=\"").append(widths[i] / 256.0).append("\" customWidth=\"1\"/>");
+            }
+            head.append("</cols>");
+        }
+        head.append("<sheetData>");
+        write(head.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** 행 시작 (행 번호는 1부터, 시트 내에서 증가 순서로 호출) */
+    public void startRow(int rowNum) throws IOException {
+        if (rowNum < 1 || rowNum > MAX_ROWS) throw new IllegalArgumentException("행 번호 한도 초과: " + rowNum);
+        rowDigitLen = 0;
+        long v = rowNum;
+        do { rowDigits[rowDigitLen++] = (byte) ('0' + v % 10); v /= 10; } while (v > 0);
+        // 역순으로 기록된 자릿수 뒤집기
+        for (int i = 0, j = rowDigitLen - 1; i < j; i++, j--) { byte t = rowDigits[i]; rowDigits[i] = rowDigits[j]; rowDigits[j] = t; }
+        column = 0;
+        write(ROW_OPEN); write(rowDigits, 0, rowDigitLen); put((byte) '"'); put((byte) '>');
+    }
+
+    public void endRow() throws IOException { write(ROW_CLOSE); }
+
+    /** 숫자 셀 : 셀 객체/문자열 생성 없이 자릿수를 버퍼에 직접 기록 */
+    public void number(long value, CellStyle style) throws IOException {
+        cellOpen(style);
+        write(NUM_OPEN);
+        writeLong(value);
+        write(NUM_CLOSE);
+    }
+
+    /** 문자열 셀 (inlineStr : 공유 문자열 테이블을 만들지 않음) */
+    public void text(String value, CellStyle style) throws IOException {
+        cellOpen(style);
+        write(STR_OPEN);
+        writeEscaped(value == null ? "" : value);
+        write(STR_CLOSE);
+    }
+
+    /** 값 없이 열만 건너뜀 */
+    public void skip(int columns) { column += columns; }
+
+    public void endSheet() throws IOException {
+        if (!inSheet) return;
+        write(SHEET_TAIL);
+        flushBuffer();
+        zip.closeEntry();
+        inSheet = false;
+    }
+
+    public int sheetCount() { return sheetCount; }
+
+    /** 골격 통합문서의 시트 외 파트(workbook.xml, styles.xml, 관계/콘텐츠 타입 등)를 복사하고 파일을 닫습니다. */
+    @Override
+    public void close() throws IOException {
+        try {
+            endSheet();
+            if (sheetCount == 0) beginSheet("Sheet1", 0, 0, null);
+            endSheet();
+            ByteArrayOutputStream parts = new ByteArrayOutputStream(1 << 14);
+            skeleton.write(parts);
+            try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(parts.toByteArray()))) {
+                ZipEntry e;
+                byte[] copy = new byte[8192];
+                while ((e = in.getNextEntry()) != null) {
+                    if (e.getName().startsWith("xl/worksheets/sheet")) continue; // 직접 기록한 시트로 대체
+                    zip.putNextEntry(new ZipEntry(e.getName()));
+                    int n;
+                    while ((n = in.read(copy)) != -1) zip.write(copy, 0, n);
+                    zip.closeEntry();
+                }
+            }
+        } finally {
+            zip.close();
+            skeleton.close();
+        }
+    }
+
+    public File file() { return file; }
+
+    // ==========================================================================================
+    // [ 바이트 버퍼 기록 ]
+    // ==========================================================================================
+
+    private void cellOpen(CellStyle style) throws IOException {
+        if (column >= MAX_COLUMNS) throw new IllegalStateException("열 한도 초과: " + (column + 1));
+        write(CELL_OPEN);
+        write(columnBytes(column++));
+        write(rowDigits, 0, rowDigitLen);
+        put((byte) '"');
+        if (style != null && style.getIndex() != 0) write(styleAttrs.computeIfAbsent((int) style.getIndex(),
+                i -> (" s=\"" + i + "\"").getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private byte[] columnBytes(int col) {
+        while (columnNames.size() <= col) columnNames.add(columnName(columnNames.size()).getBytes(StandardCharsets.US_ASCII));
+        return columnNames.get(col);
+    }
+
+    /**
+     * 분할 시트명 : 시트명 한도(31자)를 넘지 않도록 기본 이름을 줄인 뒤 접미사(예: "_2025", " (2)")를 붙입니다.
+     * @param used 같은 통합문서에서 이미 사용한 시트명 (중복 시 " (n)" 추가)
+     */
+    public static String partSheetName(String base, String suffix, Set<String> used) {
+        String name = null;
+        for (int n = 1; name == null || used.contains(name.toLowerCase()); n++) {
+            String tail = n == 1 ? suffix : suffix + " (" + n + ")";
+            String safe = WorkbookUtil.createSafeSheetName(base);
+            name = safe.substring(0, Math.min(safe.length(), Math.max(0, 31 - tail.length()))) + tail;
+        }
+        used.add(name.toLowerCase());
+        return name;
+    }
+
+    /** 0 → A, 25 → Z, 26 → AA */
+    static String columnName(int col) {
+        StringBuilder sb = new StringBuilder(3);
+        for (int n = col + 1; n > 0; n = (n - 1) / 26) sb.append((char) ('A' + (n - 1) % 26));
+        return sb.reverse().toString();
+    }
+
+    private void writeLong(long v) throws IOException {
+        if (pos + 20 > buf.length) flushBuffer();
+        if (v == Long.MIN_VALUE) { write(Long.toString(v).getBytes(StandardCharsets.US_ASCII)); return; }
+        if (v < 0) { buf[pos++] = '-'; v = -v; }
+        int start = pos;
+        do { buf[pos++] = (byte) ('0' + v % 10); v /= 10; } while (v > 0);
+        for (int i = start, j = pos - 1; i < j; i++, j--) { byte t = buf[i]; buf[i] = buf[j]; buf[j] = t; }
+    }
+
+    private void writeEscaped(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '&': write(AMP); break;
+                case '<': write(LT); break;
+                case '>': write(GT); break;
+                case '"': write(QUOT); break;
+                default:
+                    if (ch < 0x80) {
+                        // XML 1.0에서 허용되지 않는 제어 문자는 제외
+                        if (ch >= 0x20 || ch == '\t' || ch == '\n' || ch == '\r') put((byte) ch);
+                    } else if (Character.isHighSurrogate(ch) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        int cp = Character.toCodePoint(ch, s.charAt(++i));
+                        put((byte) (0xF0 | (cp >> 18))); put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                        put((byte) (0x80 | ((cp >> 6) & 0x3F))); put((byte) (0x80 | (cp & 0x3F)));
+                    } else if (ch < 0x800) {
+                        put((byte) (0xC0 | (ch >> 6))); put((byte) (0x80 | (ch & 0x3F)));
+                    } else if (!Character.isSurrogate(ch)) {
+                        put((byte) (0xE0 | (ch >> 12))); put((byte) (0x80 | ((ch >> 6) & 0x3F))); put((byte) (0x80 | (ch & 0x3F)));
+                    }
+            }
+        }
+    }
+
+    private static final byte[] AMP = "&amp;".getBytes(StandardCharsets.US_ASCII), LT = "&lt;".getBytes(StandardCharsets.US_ASCII),
+            GT = "&gt;".getBytes(StandardCharsets.US_ASCII), QUOT = "&quot;".getBytes(StandardCharsets.US_ASCII);
+
+    private void put(byte b) throws IOException {
+        if (pos == buf.length) flushBuffer();
+        buf[pos++] = b;
+    }
+
+    private void write(byte[] bytes) throws IOException { write(bytes, 0, bytes.length); }
+
+    private void write(byte[] bytes, int off, int len) throws IOException {
+        if (pos + len > buf.length) {
+            flushBuffer();
+            if (len > buf.length) { zip.write(bytes, off, len); return; }
+        }
+        System.arraycopy(bytes, off, buf, pos, len);
+        pos += len;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (pos > 0) { zip.write(buf, 0, pos); pos = 0; }
+    }
+}
@@ -0,0 +1,346 @@
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 프로젝트명: StepWatchdog (파일 단위 처리 단계 제한 시간 감시)
+ * Version: 1.3
+ * 반영사항:
+ * 1. [안정성] git / 파일 읽기 / JavaParser / Regex 폴백 단계별 제한 시간 : 초과 시 git 프로세스는 강제 종료, 읽기·파싱은 결과를 버리고(중단 요청 후) 다음 단계로 진행 [cite: 2026-10-18]
+ * 2. [안정성] 제한 시간을 넘긴 컨트롤러는 병렬 분석이 끝난 뒤 전용 스레드에서 1회 재시도 (제한 시간 2배) [cite: 2026-10-18]
+ * 3. [로그] 단계별 초과 건수 / 대상 파일 / 재시도 결과를 [TIMEOUTS] 항목으로 출력 [cite: 2026-10-18]
+ * 4. [재진입] 초과 기록을 전역 목록 대신 분석 단위 Session에 기록 : 한 JVM에서 여러 분석(ApiExtractor)이 동시에 실행되어도 기록/재시도/보고가 섞이지 않음 [cite: 2026-10-18]
+ * 5. [안정성] 실행 스레드 수 상한(WORKER_LIMIT) : 중단에 응답하지 않아 버려진 작업이 쌓여도 스레드가 무한히 늘지 않으며, 상한에 도달하면 호출 스레드에서 제한 시간 없이 실행하고 [TIMEOUTS]에 건수 표시 [cite: 2026-10-19]
+ * 6. [안정성] 1차 시도 작업이 아직 실행 중인 대상은 재시도 생략 (retryable) : 같은 입력으로 멈춘 작업을 중복 실행하지 않음 [cite: 2026-10-19]
+ * 7. [안정성] interruptible() : 문자 접근마다 중단 요청을 확인하는 CharSequence 래퍼 (Regex 폴백의 역추적이 제한 시간 초과 후 바로 종료) [cite: 2026-10-19]
+ * 8. [재진입] 단계별 제한 시간을 전역 설정(configure) 대신 불변 Limits로 분리하여 Session이 보관 : 추출 엔진마다 다른 제한 시간으로 동시에 실행 가능 [cite: 2026-10-19]
+ *
+ * 설정 (config.properties) : WATCHDOG_GIT_SEC, WATCHDOG_READ_SEC, WATCHDOG_PARSE_SEC, WATCHDOG_REGEX_SEC (0이면 감시 안 함, Limits.from으로 로드)
+ */
+public class StepWatchdog {
+
+    public enum Step {
+        GIT("git", "WATCHDOG_GIT_SEC", 60), READ("read", "WATCHDOG_READ_SEC", 15),
+        PARSE("parse", "WATCHDOG_PARSE_SEC", 30), REGEX("regex", "WATCHDOG_REGEX_SEC", 15);
+
+        final String label, configKey;
+        final int defaultSec;
+
+        Step(String label, String configKey, int defaultSec) { this.label = label; this.configKey = configKey; this.defaultSec = defaultSec; }
+    }
+
+    /** 제한 시간 초과 시 발생 (읽기 실패와 같이 처리되도록 IOException 계열) */
+    public static class StepTimeoutException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public final Step step;
+
+        StepTimeoutException(Step step, String target, long deadlineMs) {
+            super(step.label + " 제한 시간(" + deadlineMs / 1000 + "초) 초과: " + target);
+            this.step = step;
+        }
+    }
+
+    /** 초과 기록 1건 */
+    private static class Timeout {
+        final Step step;
+        final String target;
+        final long deadlineMs;
+        final boolean retry;
+        /** [v1.2] 버려진 실행 작업의 종료 여부 (프로세스 감시처럼 남는 작업이 없으면 null) */
+        final AtomicBoolean finished;
+
+        Timeout(Step step, String target, long deadlineMs, boolean retry, AtomicBoolean finished) {
+            this.step = step; this.target = target; this.deadlineMs = deadlineMs; this.retry = retry; this.finished = finished;
+        }
+
+        boolean running() { return finished != null && !finished.get(); }
+    }
+
+    /** 재시도 시 제한 시간 배수 */
+    private static final int RETRY_FACTOR = 2;
+
+    /** [v1.3] 단계별 제한 시간 (불변, 추출 설정 ApiExtractor.Config가 보관) */
+    public static final class Limits {
+        /** 미설정 기본값 : git 60초 / 읽기 15초 / 파싱 30초 / Regex 15초 */
+        public static final Limits DEFAULT = from(null);
+
+        private final long[] deadlineMs = new long[Step.values().length];
+
+        private Limits() { }
+
+        /** config.properties 형식의 설정에서 로드 (WATCHDOG_*_SEC, 0이면 감시 안 함) */
+        public static Limits from(Properties prop) {
+            Limits limits = new Limits();
+            for (Step step : Step.values()) {
+                String value = prop == null ? "" : prop.getProperty(step.configKey, "").trim();
+                long sec = step.defaultSec;
+                if (!value.isEmpty()) { try { sec = Long.parseLong(value); } catch (NumberFormatException ignored) { } }
+                limits.deadlineMs[step.ordinal()] = Math.max(0, sec) * 1000;
+            }
+            return limits;
+        }
+
+        public long millis(Step step) { return deadlineMs[step.ordinal()]; }
+    }
+
+    private static final ThreadLocal<Boolean> RETRYING = ThreadLocal.withInitial(() -> false);
+    /** [v1.1] 현재 스레드가 기록할 분석 단위 (미지정 시 기록하지 않음) */
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+
+    /** [v1.2] 실행 스레드 상한 : 버려진 작업(중단에 응답하지 않는 파싱 등)이 차지하는 스레드 포함 */
+    static final int WORKER_LIMIT = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+
+    /** 제한 시간 타이머 (1개) / 읽기·파싱 실행 스레드 (초과 시 버려지므로 데몬, 유휴 시 회수) / 재시도 전용 스레드 */
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, daemon("watchdog-timer"));
+    private static final ThreadPoolExecutor STEPS = new ThreadPoolExecutor(0, WORKER_LIMIT, 30, TimeUnit.SECONDS, new SynchronousQueue<>(), daemon("watchdog-step"));
+
+    static {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** 현재 스레드의 기록 대상(Session) 제한 시간 (기록 대상이 없으면 기본값) */
+    private static long deadline(Step step) {
+        Session session = CURRENT.get();
+        long ms = (session != null ? session.limits : Limits.DEFAULT).millis(step);
+        return RETRYING.get() ? ms * RETRY_FACTOR : ms;
+    }
+
+    // ==========================================================================================
+    // [ 감시 ]
+    // ==========================================================================================
+
+    /**
+     * 작업을 감시 스레드에서 실행하고 제한 시간까지 기다립니다. 초과하면 중단을 요청(interrupt)하고 결과를 버린 뒤 StepTimeoutException을 던집니다.
+     * 중단에 응답하지 않는 작업(JavaParser 등)은 백그라운드에서 끝날 때까지 실행되지만 호출 스레드는 즉시 다음 단계로 진행합니다.
+     * 버려진 작업으로 실행 스레드가 상한({@link #WORKER_LIMIT})에 도달하면 호출 스레드에서 제한 시간 없이 실행합니다.
+     */
+    public static <T> T call(Step step, String target, Callable<T> task) throws Exception {
+        return call(step, target, deadline(step), task);
+    }
+
+    static <T> T call(Step step, String target, long deadlineMs, Callable<T> task) throws Exception {
+        if (deadlineMs <= 0) return task.call();
+        // 재시도 여부 / 기록 대상은 실행 스레드로 전달 (중첩 단계의 제한 시간 / 기록 구분 유지)
+        boolean retrying = RETRYING.get();
+        Session session = CURRENT.get();
+        AtomicBoolean finished = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = STEPS.submit(() -> {
+                RETRYING.set(retrying);
+                CURRENT.set(session);
+                try { return task.call(); } finally { RETRYING.remove(); CURRENT.remove(); finished.set(true); }
+            });
+        } catch (RejectedExecutionException saturated) {
+            if (session != null) session.unwatched.incrementAndGet();
+            return task.call();
+        }
+        try {
+            return future.get(deadlineMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            if (session != null) session.timeouts.add(new Timeout(step, target, deadlineMs, retrying, finished));
+            throw new StepTimeoutException(step, target, deadlineMs);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    /** 외부 프로세스 감시 : 제한 시간이 지나면 onTimeout(프로세스 강제 종료)을 실행하여 대기 중인 읽기/waitFor를 해제 */
+    public static Guard watch(Step step, String target, Runnable onTimeout) {
+        return new Guard(step, target, deadline(step), onTimeout);
+    }
+
+    /** git 프로세스 감시 : 입력 스트림을 닫아 자격 증명 / LFS 프롬프트 대기를 막고, 제한 시간 초과 시 강제 종료 */
+    public static Guard watchProcess(String target, Process process) {
+        try { process.getOutputStream().close(); } catch (IOException ignored) { }
+        return watch(Step.GIT, target, process::destroyForcibly);
+    }
+
+    public static class Guard implements AutoCloseable {
+        private final ScheduledFuture<?> timer;
+        private volatile boolean timedOut;
+        /** 적용된 제한 시간 (0이면 감시 안 함) */
+        final long deadlineMs;
+
+        Guard(Step step, String target, long deadlineMs, Runnable onTimeout) {
+            this.deadlineMs = deadlineMs;
+            Session session = CURRENT.get();
+            boolean retrying = RETRYING.get();
+            this.timer = deadlineMs <= 0 ? null : TIMER.schedule(() -> {
+                timedOut = true;
+                if (session != null) session.timeouts.add(new Timeout(step, target, deadlineMs, retrying, null));
+                onTimeout.run();
+            }, deadlineMs, TimeUnit.MILLISECONDS);
+        }
+
+        public boolean timedOut() { return timedOut; }
+
+        @Override
+        public void close() { if (timer != null) timer.cancel(false); }
+    }
+
+    // ==========================================================================================
+    // [ 중단 가능한 문자열 ]
+    // ==========================================================================================
+
+    /**
+     * [v1.2] 문자 접근마다 현재 스레드의 중단 요청을 확인하는 CharSequence : Matcher에 넘기면 제한 시간 초과로 취소된 정규식 탐색(역추적)이
+     * 끝까지 실행되지 않고 CancellationException으로 종료됩니다.
+     */
+    public static CharSequence interruptible(CharSequence text) {
+        return text instanceof InterruptibleText ? text : new InterruptibleText(text);
+    }
+
+    private static final class InterruptibleText implements CharSequence {
+        private final CharSequence text;
+
+        InterruptibleText(CharSequence text) { this.text = text; }
+
+        @Override
+        public char charAt(int index) {
+            if (Thread.interrupted()) throw new CancellationException("정규식 탐색 중단");
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() { return text.length(); }
+
+        @Override
+        public CharSequence subSequence(int start, int end) { return new InterruptibleText(text.subSequence(start, end)); }
+
+        @Override
+        public String toString() { return text.toString(); }
+    }
+
+    // ==========================================================================================
+    // [ 분석 단위 기록 / 재시도 / 보고 ]
+    // ==========================================================================================
+
+    /** [v1.1] 분석 1회의 초과 기록 : 분석 스레드에서 within으로 감싼 구간의 초과만 기록 ([v1.3] 제한 시간도 Session 기준) */
+    public static class Session {
+        private final Limits limits;
+        private final List<Timeout> timeouts = Collections.synchronizedList(new ArrayList<>());
+        /** [v1.2] 실행 스레드 상한으로 제한 시간 없이 실행된 건수 / 1차 작업이 실행 중이라 재시도를 생략한 대상 */
+        private final AtomicInteger unwatched = new AtomicInteger();
+        private final Set<String> skipped = Collections.synchronizedSet(new LinkedHashSet<>());
+
+        /** 기본 제한 시간 */
+        public Session() { this(Limits.DEFAULT); }
+
+        public Session(Limits limits) { this.limits = limits; }
+
+        /** 현재 스레드의 기록 대상 (없으면 기본 제한 시간의 보고되지 않는 임시 기록) : 병렬 작업 스레드로 전달할 때 사용 */
+        public static Session current() {
+            Session session = CURRENT.get();
+            return session != null ? session : new Session();
+        }
+
+        /** within의 반환값 없는 형태 */
+        public void run(Runnable task) {
+            within(() -> { task.run(); return null; });
+        }
+
+        /** 현재 스레드를 이 기록 대상으로 지정하고 작업 실행 (병렬 스트림 작업 스레드마다 호출) */
+        public <T> T within(Supplier<T> task) {
+            Session previous = CURRENT.get();
+            CURRENT.set(this);
+            try { return task.get(); }
+            finally { if (previous == null) CURRENT.remove(); else CURRENT.set(previous); }
+        }
+
+        /** 같은 스레드에서 제한 시간 {@value #RETRY_FACTOR}배로 즉시 재시도 (지연 평가 스트림처럼 분석 후 일괄 재시도할 수 없는 경우) */
+        public <T> T retrying(Supplier<T> task) {
+            RETRYING.set(true);
+            try { return within(task); } finally { RETRYING.remove(); }
+        }
+
+        /**
+         * [v1.2] 재시도 대상 여부 : 1차 시도에서 제한 시간을 넘겼고, 버려진 1차 작업이 모두 끝난 경우만 재시도합니다.
+         * 아직 실행 중이면 같은 입력으로 다시 멈출 가능성이 높으므로 재시도를 생략하고 [TIMEOUTS]에 표시합니다.
+         */
+        public boolean retryable(String target) {
+            boolean timedOut = false;
+            synchronized (timeouts) {
+                for (Timeout t : timeouts) {
+                    if (t.retry || !t.target.equals(target)) continue;
+                    if (t.running()) { skipped.add(target); return false; }
+                    timedOut = true;
+                }
+            }
+            return timedOut;
+        }
+
+        /** 1차 시도에서 제한 시간을 넘긴 대상 (파일 상대 경로) */
+        public Set<String> timedOutTargets() {
+            Set<String> targets = new LinkedHashSet<>();
+            synchronized (timeouts) { for (Timeout t : timeouts) if (!t.retry) targets.add(t.target); }
+            return targets;
+        }
+
+        /**
+         * 대상들을 전용 스레드 1개에서 순서대로 1회 재시도합니다. (제한 시간 {@value #RETRY_FACTOR}배, 병렬 단계와 경쟁 없이 실행, 대상은 retryable()로 선별)
+         * @return 대상 키 → 재시도 결과
+         */
+        public <K, T> Map<K, T> retryOnce(List<K> targets, Function<K, T> task) throws InterruptedException {
+            Map<K, T> results = new LinkedHashMap<>();
+            if (targets.isEmpty()) return results;
+            ExecutorService retry = Executors.newSingleThreadExecutor(daemon("watchdog-retry"));
+            try {
+                retry.submit(() -> {
+                    RETRYING.set(true);
+                    CURRENT.set(this);
+                    for (K target : targets) results.put(target, task.apply(target));
+                    return null;
+                }).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("재시도 중 오류", e.getCause());
+            } finally {
+                retry.shutdown();
+            }
+            return results;
+        }
+
+        /** [TIMEOUTS] 로그 : 단계별 건수 + 대상별 1차 / 재시도 결과 (초과가 없으면 빈 목록) */
+        public List<String> report() {
+            List<Timeout> all;
+            synchronized (timeouts) { all = new ArrayList<>(timeouts); }
+            List<String> lines = new ArrayList<>();
+            if (unwatched.get() > 0) lines.add(String.format("\n[TIMEOUTS] 실행 스레드 상한(%d개) 도달로 제한 시간 없이 실행 %d건", WORKER_LIMIT, unwatched.get()));
+            if (all.isEmpty()) return lines;
+
+            Map<Step, Integer> byStep = new EnumMap<>(Step.class);
+            Set<String> failedRetry = new HashSet<>();
+            for (Timeout t : all) {
+                byStep.merge(t.step, 1, Integer::sum);
+                if (t.retry) failedRetry.add(t.target);
+            }
+            Set<String> first = timedOutTargets();
+            StringBuilder counts = new StringBuilder();
+            for (Map.Entry<Step, Integer> e : byStep.entrySet()) counts.append(counts.length() == 0 ? "" : " / ").append(e.getKey().label).append(' ').append(e.getValue()).append("건");
+            lines.add(String.format("\n[TIMEOUTS] 제한 시간 초과 %d건 (%s), 대상 파일 %d개 중 재시도 실패 %d개", all.size(), counts, first.size(), failedRetry.size()));
+            for (Timeout t : all) {
+                lines.add(String.format("\n  > [%s] %s (%d초 초과, %s)", t.step.label, t.target, t.deadlineMs / 1000, t.retry ? "재시도 실패" : "1차"));
+            }
+            synchronized (skipped) { for (String target : skipped) lines.add("\n  > [재시도 생략] " + target + " (1차 작업 실행 중)"); }
+            return lines;
+        }
+    }
+}
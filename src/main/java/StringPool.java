@@ -0,0 +1,37 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 프로젝트명: StringPool (실행 단위 문자열 풀)
+ * Version: 1.2
+ * 반영사항:
+ * 1. [메모리] 컨트롤러 주석, 어노테이션 값, 커밋터/커밋 메시지 등 API 행마다 반복되는 문자열을 1개 인스턴스로 공유 [cite: 2026-10-18]
+ * 2. [메모리] JVM 문자열 테이블(String.intern)이 아닌 실행 단위 풀을 사용하여 분석 종료 후 clear()로 일괄 해제 가능 [cite: 2026-10-18]
+ * 3. [메모리] clear() 시 CommitInfo 풀도 함께 해제 (커밋터 / 메시지 문자열을 참조하는 실행 단위 풀) [cite: 2026-10-18]
+ * 4. [재진입] 정적 풀 → 인스턴스 : 추출 엔진(ApiExtractor.Context) / blame / 분할 결과 로드 단위로 소유하여 한 JVM의 다른 분석 풀을 해제하지 않음 : clear() 대신 소유자가 풀을 교체하고, 참조가 끊긴 풀은 GC가 회수 [cite: 2026-10-19]
+ */
+public final class StringPool {
+
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+    private final Map<CommitInfo, CommitInfo> commits = new ConcurrentHashMap<>();
+
+    /** 동일 내용의 문자열이 이미 풀에 있으면 기존 인스턴스를, 없으면 인자를 등록하여 반환합니다. (null은 그대로 반환) */
+    public String intern(String s) {
+        if (s == null) return null;
+        String prev = strings.putIfAbsent(s, s);
+        return prev != null ? prev : s;
+    }
+
+    /**
+     * 풀에 등록된 동일 커밋을 반환합니다. (커밋터 / 메시지 문자열도 이 풀에서 공유)
+     * @param isoDate yyyy-MM-dd (git log %as 형식, "-" 또는 해석 불가 시 날짜 없음)
+     */
+    public CommitInfo commit(String isoDate, String author, String message) {
+        CommitInfo c = CommitInfo.of(isoDate, intern(author), intern(message));
+        if (c == CommitInfo.NONE) return c;
+        CommitInfo prev = commits.putIfAbsent(c, c);
+        return prev != null ? prev : c;
+    }
+
+    public int size() { return strings.size(); }
+}
@@ -0,0 +1,330 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 프로젝트명: TidyExporter (BI 연계용 gzip CSV / JSON Lines 스트리밍 출력)
+ * Version: 1.1
+ * 반영사항:
+ * 1. [신규] APM 통계를 (api, segment, month, count) 세로형 행으로, 인벤토리를 엑셀과 같은 컬럼의 평면 행으로 기록하여 BI에서 xlsx를 POI로 다시 열지 않도록 함 [cite: 2026-10-18]
+ * 2. [성능] 문자열을 재사용 바이트 버퍼에 직접 UTF-8 인코딩 → Deflater(gzip) → FileChannel로 기록하여 행 수와 무관하게 메모리 일정 [cite: 2026-10-18]
+ * 3. [안정성] ".part" 임시 파일에 기록 후 이름 변경으로 교체, gzip 헤더 시각 0 고정으로 같은 입력이면 같은 파일 [cite: 2026-10-18]
+ * 4. [정리] gzip 헤더 / 트레일러(CRC·길이) 직접 기록을 GZIPOutputStream(헤더 시각 0)으로 대체 : 인코딩 버퍼 단위로 압축 스트림에 기록 [cite: 2026-10-18]
+ *
+ * 설정 (config.properties) : EXPORT_FORMAT (csv / jsonl, 비워두면 사용 안 함), EXPORT_EXCEL (N이면 APM 통계 엑셀 생략)
+ */
+public class TidyExporter implements Closeable {
+
+    public enum Format {
+        CSV(".csv.gz"), JSONL(".jsonl.gz");
+
+        public final String extension;
+
+        Format(String extension) { this.extension = extension; }
+    }
+
+    /** 통계 세로형 컬럼 */
+    public static final String[] STATS_COLUMNS = {"api", "segment", "month", "count"};
+
+    private static final int BUFFER_SIZE = 1 << 18;
+
+    private final Format format;
+    private final File file, part;
+    private final FileChannel channel;
+    private final GZIPOutputStream gzip;
+
+    /** 인코딩 버퍼(비압축) : 실행 내내 재사용, 가득 차면 압축 스트림에 한 번에 기록 */
+    private final byte[] in = new byte[BUFFER_SIZE];
+    private int inPos = 0;
+
+    /** JSONL 컬럼 키 ("key":) 사전 인코딩 */
+    private final byte[][] jsonKeys;
+    private final int columns;
+    private int column = 0;
+    private long rows = 0, rawBytes = 0, writtenBytes = 0;
+
+    public TidyExporter(File file, Format format, String... columnNames) throws IOException {
+        this.file = file;
+        this.format = format;
+        this.columns = columnNames.length;
+        this.part = new File(file.getPath() + ".part");
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        this.channel = FileChannel.open(part.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.gzip = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE) {
+            { def.setLevel(Deflater.BEST_SPEED); }
+        };
+
+        if (format == Format.JSONL) {
+            jsonKeys = new byte[columnNames.length][];
+            for (int i = 0; i < columnNames.length; i++) {
+                StringBuilder sb = new StringBuilder(i == 0 ? "{" : ",");
+                jsonString(sb, columnNames[i]);
+                jsonKeys[i] = sb.append(':').toString().getBytes(StandardCharsets.UTF_8);
+            }
+        } else {
+            jsonKeys = null;
+            for (String name : columnNames) text(name);
+            endRow();
+            rows = 0;
+        }
+    }
+
+    // ==========================================================================================
+    // [ 설정 ]
+    // ==========================================================================================
+
+    /** EXPORT_FORMAT (csv / jsonl) : 미설정 또는 인식 불가 값이면 null (출력 안 함) */
+    public static Format format() {
+        Properties prop = AppConfig.load();
+        String value = prop == null ? "" : prop.getProperty("EXPORT_FORMAT", "").trim();
+        for (Format f : Format.values()) if (f.name().equalsIgnoreCase(value)) return f;
+        return null;
+    }
+
+    /** EXPORT_EXCEL=N 이고 EXPORT_FORMAT이 지정된 경우에만 APM 통계 엑셀 생략 */
+    public static boolean excelEnabled() {
+        Properties prop = AppConfig.load();
+        return format() == null || prop == null || !"N".equalsIgnoreCase(prop.getProperty("EXPORT_EXCEL", "Y").trim());
+    }
+
+    // ==========================================================================================
+    // [ 행 기록 ]
+    // ==========================================================================================
+
+    /** 문자열 값 1개 (null은 CSV 빈 칸 / JSON null) */
+    public TidyExporter text(String value) {
+        startValue();
+        if (value == null) { if (format == Format.JSONL) ascii("null"); }
+        else if (format == Format.JSONL) { put('"'); utf8(value, true); put('"'); }
+        else if (needsQuote(value)) { put('"'); utf8(value, false); put('"'); }
+        else utf8(value, false);
+        return this;
+    }
+
+    /**
+     * 반복되는 값(경로 / 구간 라벨)을 형식에 맞게 1회만 인코딩합니다. (CSV 따옴표 / JSON 이스케이프 포함, {@link #encoded}로 기록)
+     */
+    public byte[] encode(String value) {
+        if (value == null) return format == Format.JSONL ? "null".getBytes(StandardCharsets.US_ASCII) : new byte[0];
+        if (format == Format.JSONL) { StringBuilder sb = new StringBuilder(value.length() + 2); jsonString(sb, value); return sb.toString().getBytes(StandardCharsets.UTF_8); }
+        return (needsQuote(value) ? "\"" + value.replace("\"", "\"\"") + "\"" : value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** {@link #encode}로 미리 인코딩한 값 1개 (바이트 복사만 수행) */
+    public TidyExporter encoded(byte[] value) {
+        startValue();
+        if (inPos + value.length > BUFFER_SIZE) drain();
+        if (value.length > BUFFER_SIZE) {
+            for (int off = 0; off < value.length; off += BUFFER_SIZE) {
+                int len = Math.min(BUFFER_SIZE, value.length - off);
+                System.arraycopy(value, off, in, 0, len);
+                inPos = len;
+                drain();
+            }
+            return this;
+        }
+        System.arraycopy(value, 0, in, inPos, value.length);
+        inPos += value.length;
+        return this;
+    }
+
+    /** 숫자 값 1개 (문자열 객체 생성 없이 자릿수 직접 기록) */
+    public TidyExporter number(long value) {
+        startValue();
+        if (value == Long.MIN_VALUE) { ascii(Long.toString(value)); return this; }
+        if (inPos > BUFFER_SIZE - 24) drain();
+        if (value < 0) { in[inPos++] = '-'; value = -value; }
+        int end = inPos + digits(value);
+        for (int i = end - 1; i >= inPos; i--) { in[i] = (byte) ('0' + value % 10); value /= 10; }
+        inPos = end;
+        return this;
+    }
+
+    public void endRow() {
+        while (column < columns) text(null);
+        if (format == Format.JSONL) put('}');
+        put('\n');
+        column = 0;
+        rows++;
+    }
+
+    public long rows() { return rows; }
+
+    /** 비압축 바이트 / 압축 후 기록 바이트 */
+    public long rawBytes() { return rawBytes + inPos; }
+
+    public long writtenBytes() { return writtenBytes; }
+
+    public File file() { return file; }
+
+    /** gzip 마무리 후 임시 파일을 결과 파일로 교체 */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            gzip.finish();
+            writtenBytes = channel.size();
+        } finally {
+            gzip.close();
+        }
+        try {
+            Files.move(part.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** 오류 시 임시 파일 정리 */
+    public void abort() {
+        try { gzip.close(); } catch (IOException ignored) { }
+        part.delete();
+    }
+
+    // ==========================================================================================
+    // [ 통계 세로형 출력 ]
+    // ==========================================================================================
+
+    /**
+     * 경로별 구간 배열을 (api, segment, month, count) 행으로 기록합니다. 0건 구간은 생략합니다. (정렬 없이 Map 순서로 1회 순회)
+     * @param labels 구간 라벨 (segment), monthKeys 구간별 월 (month)
+     */
+    public static TidyExporter writeStats(File file, Format format, List<String> labels, List<String> monthKeys, Map<String, long[]> stats) throws IOException {
+        TidyExporter writer = new TidyExporter(file, format, STATS_COLUMNS);
+        try {
+            // 구간 라벨/월은 전체에서, 경로는 경로별로 1회만 인코딩 (행마다 같은 문자열을 다시 인코딩하지 않음)
+            byte[][] segmentBytes = new byte[labels.size()][], monthBytes = new byte[labels.size()][];
+            for (int seg = 0; seg < labels.size(); seg++) { segmentBytes[seg] = writer.encode(labels.get(seg)); monthBytes[seg] = writer.encode(monthKeys.get(seg)); }
+            for (Map.Entry<String, long[]> entry : stats.entrySet()) {
+                long[] values = entry.getValue();
+                byte[] api = null;
+                for (int seg = 0; seg < labels.size(); seg++) {
+                    if (values[seg] == 0) continue;
+                    if (api == null) api = writer.encode(entry.getKey());
+                    writer.encoded(api).encoded(segmentBytes[seg]).encoded(monthBytes[seg]).number(values[seg]).endRow();
+                }
+            }
+            writer.close();
+            return writer;
+        } catch (IOException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    /** 로그용 요약 : 행 수 / 비압축 → 압축 크기 */
+    public String summary() {
+        return String.format("%,d행, %,dKB → %,dKB", rows, rawBytes() / 1024, writtenBytes / 1024);
+    }
+
+    // ==========================================================================================
+    // [ 내부 : 인코딩 / 압축 ]
+    // ==========================================================================================
+
+    private void startValue() {
+        if (format == Format.JSONL) {
+            byte[] key = jsonKeys[column];
+            if (inPos + key.length > BUFFER_SIZE) drain();
+            System.arraycopy(key, 0, in, inPos, key.length);
+            inPos += key.length;
+        } else if (column > 0) put(',');
+        column++;
+    }
+
+    private static boolean needsQuote(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    /** UTF-8 직접 인코딩 : CSV는 따옴표 2개로, JSON은 역슬래시 이스케이프 */
+    private void utf8(String s, boolean json) {
+        for (int i = 0; i < s.length(); i++) {
+            if (inPos > BUFFER_SIZE - 8) drain();
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (c == '"') { in[inPos++] = (byte) (json ? '\\' : '"'); in[inPos++] = '"'; }
+                else if (json && c == '\\') { in[inPos++] = '\\'; in[inPos++] = '\\'; }
+                else if (json && c < 0x20) jsonControl(c);
+                else in[inPos++] = (byte) c;
+            } else if (c < 0x800) {
+                in[inPos++] = (byte) (0xc0 | (c >> 6));
+                in[inPos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                in[inPos++] = (byte) (0xf0 | (cp >> 18));
+                in[inPos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                in[inPos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                in[inPos++] = (byte) (0x80 | (cp & 0x3f));
+            } else {
+                if (Character.isSurrogate(c)) c = '?';
+                in[inPos++] = (byte) (0xe0 | (c >> 12));
+                in[inPos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                in[inPos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+    }
+
+    private void jsonControl(char c) {
+        in[inPos++] = '\\';
+        switch (c) {
+            case '\n': in[inPos++] = 'n'; break;
+            case '\r': in[inPos++] = 'r'; break;
+            case '\t': in[inPos++] = 't'; break;
+            default:
+                in[inPos++] = 'u'; in[inPos++] = '0'; in[inPos++] = '0';
+                in[inPos++] = (byte) Character.forDigit(c >> 4, 16);
+                in[inPos++] = (byte) Character.forDigit(c & 0xf, 16);
+        }
+    }
+
+    private static void jsonString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    private void ascii(String s) {
+        if (inPos + s.length() > BUFFER_SIZE) drain();
+        for (int i = 0; i < s.length(); i++) in[inPos++] = (byte) s.charAt(i);
+    }
+
+    private void put(char c) {
+        if (inPos >= BUFFER_SIZE) drain();
+        in[inPos++] = (byte) c;
+    }
+
+    private static int digits(long v) {
+        int n = 1;
+        while (v >= 10) { v /= 10; n++; }
+        return n;
+    }
+
+    /** 인코딩 버퍼를 압축 스트림에 기록 */
+    private void drain() {
+        if (inPos == 0) return;
+        try {
+            gzip.write(in, 0, inPos);
+        } catch (IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+        rawBytes += inPos;
+        inPos = 0;
+    }
+}
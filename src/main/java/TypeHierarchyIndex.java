@@ -0,0 +1,338 @@
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.type.ArrayType;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.ast.type.TypeParameter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 프로젝트명: TypeHierarchyIndex (상속 매핑 인덱스)
+ * Version: 1.6
+ * 반영사항:
+ * 1. [신규] ROOT_PATH 전체를 1회 병렬 파싱하여 타입 → 상위 타입(extends/implements), 타입 → 매핑 어노테이션 메소드 인덱스 구성 [cite: 2026-10-18]
+ * 2. [상속] OpenAPI 생성 *Api 인터페이스 / AbstractCrudController 등 상위 타입에 선언된 클래스 레벨 경로와 메소드 매핑을 컨트롤러가 상속 [cite: 2026-10-18]
+ * 3. [성능] 타입별 상속 매핑 해석 결과를 메모이즈하여 하위 컨트롤러가 많아도 계층을 반복 탐색하지 않음 [cite: 2026-10-18]
+ * 4. [메모리] 매핑 메소드는 본문을 제거한 시그니처/어노테이션/주석 사본만 보관하여 CompilationUnit 전체가 유지되지 않도록 처리 [cite: 2026-10-18]
+ * 5. [리비전] git 리비전 분석 시 blob SHA 기준으로 타입 정보를 공유하여 여러 리비전에서 동일 blob은 1회만 파싱 [cite: 2026-10-18]
+ * 6. [감시] 작업 트리 파일도 경로 + 스탬프 기준으로 타입 정보를 메모리에 보관하여 감시 모드 재구성 시 변경된 파일만 재파싱 [cite: 2026-10-18]
+ * 7. [안정성] 파일별 JavaParser 파싱에 StepWatchdog 제한 시간 적용 : 초과 파일은 상속 탐색에서 제외하고 [TIMEOUTS]에 기록 [cite: 2026-10-18]
+ * 8. [재진입] 병렬 파싱 작업 스레드에 호출한 분석의 제한 시간 기록(StepWatchdog.Session)을 전달하여 동시 분석 간 [TIMEOUTS] 기록 분리 [cite: 2026-10-18]
+ * 9. [보완] 오버라이드 판단 시그니처에 파라미터 타입명 포함 : 같은 개수의 오버로드가 하나로 합쳐지지 않으며, 제네릭 타입 변수(T, ID 등)는 어느 타입과도 일치 [cite: 2026-10-18]
+ * 10. [감시] update() : 변경 파일만 다시 파싱하고 삭제 파일의 타입은 제외한 새 인덱스 구성 (감시 모드에서 전체 파일 목록 재구성 생략) [cite: 2026-10-18]
+ * 11. [재진입] 실행 중 타입 정보 보관소를 전역 맵 대신 Memory 인스턴스로 분리 : 추출 엔진 컨텍스트(ApiExtractor.Context)가 소유 [cite: 2026-10-19]
+ */
+public class TypeHierarchyIndex {
+
+    /** 상위 타입에서 상속된 매핑 메소드 1건 : 본문이 제거된 선언 사본과 상수 해석용 선언 클래스명 */
+    public static class MappedMethod {
+        public final MethodDeclaration declaration;
+        public final String ownerClass;
+
+        MappedMethod(MethodDeclaration declaration, String ownerClass) { this.declaration = declaration; this.ownerClass = ownerClass; }
+    }
+
+    /** 상위 타입에서 상속된 클래스 레벨 @RequestMapping */
+    public static class ClassMapping {
+        public final AnnotationExpr annotation;
+        public final String ownerClass;
+
+        ClassMapping(AnnotationExpr annotation, String ownerClass) { this.annotation = annotation; this.ownerClass = ownerClass; }
+    }
+
+    /** 인덱스 단위 타입 정보 */
+    private static class TypeInfo {
+        final String qualifiedName, simpleName, pkg;
+        final List<String> imports;
+        final List<String> superTypes = new ArrayList<>(); // 상위 클래스 → 인터페이스 순서 (Spring 탐색 순서와 동일)
+        ClassMapping classMapping;
+        final Map<String, MappedMethod> ownMappings = new LinkedHashMap<>();
+
+        TypeInfo(String qualifiedName, String simpleName, String pkg, List<String> imports) {
+            this.qualifiedName = qualifiedName; this.simpleName = simpleName; this.pkg = pkg; this.imports = imports;
+        }
+    }
+
+    /** [v1.6] 실행 중 공유 : 캐시 키(blob SHA / 작업 트리 경로) → 스탬프와 파일 내 타입 정보 (같은 보관소로 구성한 인덱스 간에 읽기 전용으로만 공유) */
+    public static final class Memory {
+        private final Map<String, Map.Entry<String, List<TypeInfo>>> types = new ConcurrentHashMap<>();
+
+        public int size() { return types.size(); }
+    }
+
+    private final Memory memory;
+
+    /** 캐시 키 → 파일 내 타입 정보 (키 순서로 등록하여 같은 정규화명이 여러 파일에 있어도 결과가 실행마다 같도록 함, update() 시 재사용) */
+    private final Map<String, List<TypeInfo>> files = new TreeMap<>();
+
+    private final Map<String, TypeInfo> byQualified = new HashMap<>();
+    private final Map<String, List<TypeInfo>> bySimple = new HashMap<>();
+
+    /** 메모이즈 : 타입 → 자신 포함 상속 매핑 / 클래스 레벨 매핑 (없으면 NO_CLASS_MAPPING) */
+    private final Map<String, Map<String, MappedMethod>> resolvedMappings = new ConcurrentHashMap<>();
+    private final Map<String, ClassMapping> resolvedClassMappings = new ConcurrentHashMap<>();
+    private static final ClassMapping NO_CLASS_MAPPING = new ClassMapping(null, null);
+
+    private final List<String> mappingAnns;
+
+    private TypeHierarchyIndex(List<String> mappingAnns, Memory memory) { this.mappingAnns = mappingAnns; this.memory = memory; }
+
+    /** 빈 인덱스 : 인덱스 구성 실패/미사용 시 기존처럼 컨트롤러 자체 선언만 분석 */
+    public static TypeHierarchyIndex empty() { return new TypeHierarchyIndex(Collections.emptyList(), new Memory()); }
+
+    /**
+     * 상속 매핑 인덱스를 구성합니다.
+     * @param javaFiles   ROOT_PATH 하위 전체 .java 파일
+     * @param mappingAnns 매핑 어노테이션 단순명 목록 (RequestMapping, GetMapping ...)
+     */
+    public static TypeHierarchyIndex build(List<SourceFile> javaFiles, List<String> mappingAnns) { return build(javaFiles, mappingAnns, new Memory()); }
+
+    /** @param memory 실행 중 타입 정보 보관소 (리비전 / 감시 갱신 간 공유) */
+    public static TypeHierarchyIndex build(List<SourceFile> javaFiles, List<String> mappingAnns, Memory memory) {
+        TypeHierarchyIndex index = new TypeHierarchyIndex(mappingAnns, memory);
+        Map<String, List<TypeInfo>> current = new ConcurrentHashMap<>();
+        StepWatchdog.Session session = StepWatchdog.Session.current();
+        javaFiles.parallelStream().forEach(file -> session.run(() -> {
+            try {
+                Map.Entry<String, List<TypeInfo>> cached = memory.types.get(file.cacheKey);
+                List<TypeInfo> types = cached != null && cached.getKey().equals(file.stamp) ? cached.getValue() : null;
+                if (types == null) {
+                    types = index.parseFile(file);
+                    memory.types.put(file.cacheKey, new AbstractMap.SimpleImmutableEntry<>(file.stamp, types));
+                }
+                current.put(file.cacheKey, types);
+            } catch (Exception ignored) {
+                // 파싱 불가 파일은 상속 탐색에서 제외
+            }
+        }));
+        index.files.putAll(current);
+        index.indexTypes();
+        return index;
+    }
+
+    /**
+     * 변경 / 삭제 파일만 반영한 새 인덱스를 구성합니다. (기존 인덱스는 그대로 유지되므로 분석 중인 다른 스레드에 영향 없음)
+     * 변경되지 않은 파일의 타입 정보는 다시 파싱하지 않고, 상속 매핑 메모이즈 결과는 계층이 바뀔 수 있으므로 새로 시작합니다.
+     * @param changed     추가 / 수정된 파일
+     * @param removedKeys 삭제된 파일의 캐시 키
+     */
+    public TypeHierarchyIndex update(List<SourceFile> changed, Collection<String> removedKeys) {
+        TypeHierarchyIndex index = new TypeHierarchyIndex(mappingAnns, memory);
+        index.files.putAll(files);
+        for (String key : removedKeys) { index.files.remove(key); memory.types.remove(key); }
+        for (SourceFile file : changed) {
+            try {
+                List<TypeInfo> types = index.parseFile(file);
+                index.files.put(file.cacheKey, types);
+                memory.types.put(file.cacheKey, new AbstractMap.SimpleImmutableEntry<>(file.stamp, types));
+            } catch (Exception e) {
+                // 파싱 불가 파일은 상속 탐색에서 제외 (이전 타입 정보도 더 이상 유효하지 않음)
+                index.files.remove(file.cacheKey);
+                memory.types.remove(file.cacheKey);
+            }
+        }
+        index.indexTypes();
+        return index;
+    }
+
+    private List<TypeInfo> parseFile(SourceFile file) throws Exception {
+        List<TypeInfo> types = new ArrayList<>();
+        String src = file.readString();
+        // 상속 관계도 매핑도 없는 파일은 파싱 생략
+        if (src.contains("extends") || src.contains("implements") || src.contains("Mapping")) collect(StepWatchdog.call(StepWatchdog.Step.PARSE, file.relPath, () -> StaticJavaParser.parse(src)), types);
+        return types;
+    }
+
+    /** 파일별 타입 정보로 정규화명 / 단순명 조회 맵 구성 */
+    private void indexTypes() {
+        for (List<TypeInfo> types : files.values()) for (TypeInfo t : types) byQualified.put(t.qualifiedName, t);
+        for (TypeInfo t : byQualified.values()) bySimple.computeIfAbsent(t.simpleName, k -> new ArrayList<>()).add(t);
+    }
+
+    public int size() { return byQualified.size(); }
+
+    /**
+     * 컨트롤러에 클래스 레벨 @RequestMapping이 없을 때 상위 타입에서 상속되는 매핑을 찾습니다.
+     * @return 상속 매핑, 없으면 null
+     */
+    public ClassMapping inheritedClassMapping(String qualifiedName) {
+        TypeInfo t = byQualified.get(qualifiedName);
+        if (t == null) return null;
+        for (String superName : t.superTypes) {
+            TypeInfo s = resolveType(superName, t);
+            if (s == null) continue;
+            ClassMapping cm = classMapping(s, new HashSet<>());
+            if (cm != NO_CLASS_MAPPING) return cm;
+        }
+        return null;
+    }
+
+    /**
+     * 상위 타입(자신 제외)에 선언된 매핑 메소드를 시그니처(메소드명(파라미터 타입)) 기준으로 반환합니다.
+     * 가까운 상위 타입의 선언이 우선합니다.
+     */
+    public Map<String, MappedMethod> inheritedMappings(String qualifiedName) {
+        TypeInfo t = byQualified.get(qualifiedName);
+        if (t == null || t.superTypes.isEmpty()) return Collections.emptyMap();
+        Map<String, MappedMethod> merged = new LinkedHashMap<>();
+        for (String superName : t.superTypes) {
+            TypeInfo s = resolveType(superName, t);
+            if (s != null) mappings(s, new HashSet<>()).forEach(merged::putIfAbsent);
+        }
+        return merged;
+    }
+
+    /**
+     * 오버라이드 판단용 시그니처 : 메소드명(파라미터 타입 단순명,...) 형식 (예: save(Owner,long), find(*))
+     * 메소드 / 선언 타입의 타입 변수(T, ID 등)는 하위 타입에서 구체 타입으로 치환되므로 "*"로 기록합니다.
+     */
+    public static String signature(MethodDeclaration m) {
+        Set<String> typeVars = new HashSet<>();
+        for (Node n = m; n != null; n = n.getParentNode().orElse(null)) {
+            if (n instanceof MethodDeclaration) for (TypeParameter tp : ((MethodDeclaration) n).getTypeParameters()) typeVars.add(tp.getNameAsString());
+            if (n instanceof ClassOrInterfaceDeclaration) for (TypeParameter tp : ((ClassOrInterfaceDeclaration) n).getTypeParameters()) typeVars.add(tp.getNameAsString());
+        }
+        StringJoiner sj = new StringJoiner(",", m.getNameAsString() + "(", ")");
+        for (Parameter p : m.getParameters()) sj.add(erasure(p.getType(), typeVars) + (p.isVarArgs() ? "[]" : ""));
+        return sj.toString();
+    }
+
+    /** 제네릭 인자 / 패키지를 제외한 타입 단순명 (타입 변수는 "*") */
+    private static String erasure(Type type, Set<String> typeVars) {
+        if (type instanceof ArrayType) return erasure(((ArrayType) type).getComponentType(), typeVars) + "[]";
+        if (type instanceof ClassOrInterfaceType) {
+            String name = ((ClassOrInterfaceType) type).getNameAsString();
+            return typeVars.contains(name) && !((ClassOrInterfaceType) type).getScope().isPresent() ? "*" : name;
+        }
+        return type.asString();
+    }
+
+    /** 하위 타입 메소드 시그니처가 상위 타입 메소드 시그니처를 오버라이드하는지 (메소드명 / 파라미터 수 일치, 타입은 같거나 한쪽이 타입 변수) */
+    public static boolean overrides(String own, String inherited) {
+        if (own.equals(inherited)) return true;
+        int ownOpen = own.indexOf('('), inheritedOpen = inherited.indexOf('(');
+        if (ownOpen != inheritedOpen || !own.regionMatches(0, inherited, 0, ownOpen)) return false;
+        String[] a = own.substring(ownOpen + 1, own.length() - 1).split(",", -1);
+        String[] b = inherited.substring(inheritedOpen + 1, inherited.length() - 1).split(",", -1);
+        if (a.length != b.length) return false;
+        for (int i = 0; i < a.length; i++) {
+            if (!a[i].equals(b[i]) && !isTypeVar(a[i]) && !isTypeVar(b[i])) return false;
+        }
+        return true;
+    }
+
+    private static boolean isTypeVar(String param) { return param.equals("*") || param.equals("*[]"); }
+
+    /** 오버라이드 대상 상위 매핑 : 시그니처 완전 일치 우선, 없으면 타입 변수 일치 (없으면 null) */
+    public static MappedMethod overridden(Map<String, MappedMethod> inherited, String own) {
+        MappedMethod exact = inherited.get(own);
+        if (exact != null) return exact;
+        for (Map.Entry<String, MappedMethod> e : inherited.entrySet()) if (overrides(own, e.getKey())) return e.getValue();
+        return null;
+    }
+
+    // ==========================================================================================
+    // [ 수집 ]
+    // ==========================================================================================
+
+    private void collect(CompilationUnit cu, List<TypeInfo> out) {
+        String pkg = cu.getPackageDeclaration().map(p -> p.getNameAsString()).orElse("");
+        List<String> imports = new ArrayList<>();
+        for (ImportDeclaration imp : cu.getImports()) if (!imp.isStatic()) imports.add(imp.getNameAsString() + (imp.isAsterisk() ? ".*" : ""));
+        for (TypeDeclaration<?> type : cu.getTypes()) collect(type, pkg, pkg.isEmpty() ? "" : pkg + ".", imports, out);
+    }
+
+    private void collect(TypeDeclaration<?> type, String pkg, String prefix, List<String> imports, List<TypeInfo> out) {
+        String qualified = prefix + type.getNameAsString();
+        if (type instanceof ClassOrInterfaceDeclaration) {
+            ClassOrInterfaceDeclaration decl = (ClassOrInterfaceDeclaration) type;
+            TypeInfo info = new TypeInfo(qualified, decl.getNameAsString(), pkg, imports);
+            for (ClassOrInterfaceType s : decl.getExtendedTypes()) info.superTypes.add(rawName(s));
+            for (ClassOrInterfaceType s : decl.getImplementedTypes()) info.superTypes.add(rawName(s));
+
+            decl.getAnnotationByName("RequestMapping").ifPresent(a -> info.classMapping = new ClassMapping(a.clone(), decl.getNameAsString()));
+            for (MethodDeclaration m : decl.getMethods()) {
+                if (m.isStatic() || m.isPrivate()) continue;
+                if (mappingAnns.stream().noneMatch(m::isAnnotationPresent)) continue;
+                MethodDeclaration copy = m.clone();
+                copy.removeBody();
+                info.ownMappings.putIfAbsent(signature(m), new MappedMethod(copy, decl.getNameAsString()));
+            }
+            // 상위 타입도 매핑도 없는 타입은 계층 탐색에 필요 없으므로 보관하지 않음
+            if (!info.superTypes.isEmpty() || info.classMapping != null || !info.ownMappings.isEmpty()) out.add(info);
+        }
+        for (BodyDeclaration<?> member : type.getMembers()) {
+            if (member instanceof TypeDeclaration) collect((TypeDeclaration<?>) member, pkg, qualified + ".", imports, out);
+        }
+    }
+
+    /** 제네릭 인자를 제외한 타입명 (예: AbstractCrudController<Owner, Long> → AbstractCrudController) */
+    private static String rawName(ClassOrInterfaceType t) {
+        return t.getScope().map(s -> rawName(s) + ".").orElse("") + t.getNameAsString();
+    }
+
+    // ==========================================================================================
+    // [ 해석 ]
+    // ==========================================================================================
+
+    /** 상위 타입명을 정규화명 → 명시적 import → 동일 패키지 → 와일드카드 import → 유일한 단순명 순으로 해석 */
+    private TypeInfo resolveType(String name, TypeInfo from) {
+        TypeInfo hit = byQualified.get(name);
+        if (hit != null) return hit;
+        String simple = name.substring(name.lastIndexOf('.') + 1);
+        for (String imp : from.imports) if (imp.endsWith("." + name) && (hit = byQualified.get(imp)) != null) return hit;
+        if ((hit = byQualified.get(from.pkg.isEmpty() ? name : from.pkg + "." + name)) != null) return hit;
+        // 중첩 타입 (Outer.Inner 내부에서 Inner만 기재한 경우)
+        if ((hit = byQualified.get(from.qualifiedName + "." + name)) != null) return hit;
+        for (String imp : from.imports) {
+            if (imp.endsWith(".*") && (hit = byQualified.get(imp.substring(0, imp.length() - 1) + name)) != null) return hit;
+        }
+        List<TypeInfo> candidates = bySimple.get(simple);
+        return candidates != null && candidates.size() == 1 ? candidates.get(0) : null;
+    }
+
+    /** 자신 포함 상속 매핑 (메모이즈). visiting은 잘못된 순환 상속 선언에 대한 방어용 */
+    private Map<String, MappedMethod> mappings(TypeInfo t, Set<String> visiting) {
+        Map<String, MappedMethod> cached = resolvedMappings.get(t.qualifiedName);
+        if (cached != null) return cached;
+        if (!visiting.add(t.qualifiedName)) return Collections.emptyMap();
+
+        Map<String, MappedMethod> merged = new LinkedHashMap<>(t.ownMappings);
+        for (String superName : t.superTypes) {
+            TypeInfo s = resolveType(superName, t);
+            if (s != null) mappings(s, visiting).forEach(merged::putIfAbsent);
+        }
+        visiting.remove(t.qualifiedName);
+        Map<String, MappedMethod> result = Collections.unmodifiableMap(merged);
+        resolvedMappings.put(t.qualifiedName, result);
+        return result;
+    }
+
+    private ClassMapping classMapping(TypeInfo t, Set<String> visiting) {
+        ClassMapping cached = resolvedClassMappings.get(t.qualifiedName);
+        if (cached != null) return cached;
+        if (!visiting.add(t.qualifiedName)) return NO_CLASS_MAPPING;
+
+        ClassMapping result = t.classMapping;
+        for (int i = 0; result == null && i < t.superTypes.size(); i++) {
+            TypeInfo s = resolveType(t.superTypes.get(i), t);
+            if (s == null) continue;
+            ClassMapping cm = classMapping(s, visiting);
+            if (cm != NO_CLASS_MAPPING) result = cm;
+        }
+        visiting.remove(t.qualifiedName);
+        if (result == null) result = NO_CLASS_MAPPING;
+        resolvedClassMappings.put(t.qualifiedName, result);
+        return result;
+    }
+}
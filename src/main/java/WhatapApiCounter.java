@@ -1,8 +1,5 @@
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.*;
 import java.net.URI;
@@ -16,13 +13,22 @@ import java.util.stream.Collectors;
 
 /**
  * 프로젝트명: WhatapApiCounter (연간 통계 전수 추출 도구)
- * Version: 5.7 (파일명 간소화 및 날짜 형식 변경)
+ * Version: 6.6 (일 단위 수집 / 로컬 집계)
  * [수정 사항]
  * 1. [파라미터화] pcode 값을 config.properties에서 로드할 수 있도록 수정 (기본값: 8)
  * 2. [보안 강화] WHATAP_URL, OUTPUT_DIR 기본값을 빈 값("")으로 수정하여 정보 노출 방지
  * 3. [로직 보존] v5.3의 모든 상세 주석, .log 파일 실시간 생성 및 parallelStream 수집 로직 유지
  * 4. [연동] generateExcelReport를 public으로 유지하여 ApiExcelExporter v11.2와 연동 보장
  * 5. [파일명] 생성 시 날짜 형식 변경 (yyyy-MM-dd_추출) 및 "추출결과" 텍스트 제거 [cite: 2026-03-06]
+ * 6. [성능] 통계 엑셀을 ApmStatsReport(StatsSheetWriter)로 작성하여 셀 객체 없이 시트 XML 직접 스트리밍, 성공 로그 경로 출력 오류 수정 [cite: 2026-10-18]
+ * 7. [안정성] 필터 없는 대량 추출도 마지막 저장 단계에서 실패하지 않도록 행/열 한도 초과분을 시트(연도별)/파일로 분할 기록 [cite: 2026-10-18]
+ * 8. [성능] 전체 총합계를 수집 시 누적하여 정렬 비교마다 재합산하지 않도록 개선, STATS_TOP_N 지정 시 상위/하위 N건 순위 보고서만 생성 [cite: 2026-10-18]
+ * 9. [안정성] 응답 파싱 중 서비스 경로를 정규화(ApmPathNormalizer)하여 ID/세션 토큰별로 흩어진 키를 합치고 접두 경로별 고유 경로 수를 제한 [cite: 2026-10-18]
+ * 10. [메모리] STATS_MODE=approx 지정 시 ApmApproxStats(Count-Min/Space-Saving/Bloom)로 고정 메모리 집계, 상위 경로만 보고서 작성 및 정확도 로그 출력 [cite: 2026-10-18]
+ * 11. [연계] EXPORT_FORMAT(csv/jsonl) 지정 시 통계를 (api, segment, month, count) 세로형 gzip 파일로 함께 출력, EXPORT_EXCEL=N이면 엑셀 생략 (TidyExporter) [cite: 2026-10-18]
+ * 12. [성능] 응답을 gzip/deflate 압축 전송으로 받아 스트림 해제 후 records 배열을 1건씩 파싱(본문 버퍼링 없음), 구간별 전송/해제 바이트 및 전체 합계 로그 (ApmHttp) [cite: 2026-10-18]
+ * 13. [재진입] 설정·수집 상태(STATS_MAP / SEGMENTS / 경로 정규화 / 근사 집계 / 전송량)를 정적 필드에서 인스턴스로 이동 : 불변 Config로 생성하고 collect()가 ApmStats 결과 객체를 반환하여 한 JVM에서 여러 수집을 동시에 실행 가능 [cite: 2026-10-18]
+ * 14. [성능] 10일 고정 구간 대신 1일 단위로 1회 수집하여 ApmTimeSeries(경로별 일별 차이 인코딩)에 보관하고 STATS_GRANULARITY(DAY/WEEK/TENDAY/MONTH/QUARTER, 기본 TENDAY) 열은 누적합으로 계산, 받은 날은 CACHE_DIR에 저장하여 단위만 바꾼 재실행 시 APM 재요청 없음 [cite: 2026-10-18]
  */
 public class WhatapApiCounter {
 
@@ -30,41 +36,103 @@ public class WhatapApiCounter {
     // [ 1. 시스템 설정 및 API 통신 변수 ]
     // ==========================================================================================
 
-    /** 와탭 API 엔드포인트: 보안을 위해 기본값을 비웠습니다. config.properties에서 [WHATAP_URL]로 설정하세요. */
-    private static String WHATAP_URL = "";
-
-    /** [신규] 와탭 프로젝트 코드: 여러 프로젝트 대응을 위해 프로퍼티로 관리합니다. (기본값: 8) */
-    private static int WHATAP_PCODE = 8;
-
     /** Jackson Object Mapper: JSON 페이로드 생성 및 응답 데이터 파싱을 담당합니다. */
     private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
 
-    /** 추출 활성화 플래그: config.properties의 'WHATAP_ENABLED' 값에 따릅니다. */
-    private static boolean WHATAP_ENABLED = false;
-
-    /** 통계 조회 시작일: 'YYYYMMDD' 형식의 문자열입니다. */
-    private static String START_DATE = "";
-
-    /** 통계 조회 종료일: 'YYYYMMDD' 형식의 문자열입니다. */
-    private static String END_DATE = "";
-
-    /** 와탭 세션 쿠키: 서버 보안 인증을 위한 키 값입니다. */
-    private static String WHATAP_COOKIE = "";
-
-    /** 결과물 저장 경로: 보안을 위해 기본값을 비웠습니다. config.properties에서 [OUTPUT_DIR]로 설정하세요. */
-    private static String OUTPUT_DIR = "";
-
-    /** 서비스 경로 필터 리스트: 특정 패턴(예: /app)을 가진 트랜잭션만 필터링합니다. */
-    private static List<String> WHATAP_FILTERS = new ArrayList<>();
+    /** [v6.5] 수집 설정 (불변) : config.properties 형식의 설정에서 생성하며 수집기마다 따로 보관합니다. */
+    public static final class Config {
+        /** 와탭 API 엔드포인트: 보안을 위해 기본값을 비웠습니다. config.properties에서 [WHATAP_URL]로 설정하세요. */
+        public final String url;
+
+        /** 와탭 프로젝트 코드: 여러 프로젝트 대응을 위해 프로퍼티로 관리합니다. (기본값: 8) */
+        public final int pcode;
+
+        /** 추출 활성화 플래그: config.properties의 'WHATAP_ENABLED' 값에 따릅니다. */
+        public final boolean enabled;
+
+        /** 통계 조회 시작일 / 종료일: 'YYYYMMDD' 형식의 문자열입니다. */
+        public final String startDate, endDate;
+
+        /** 와탭 세션 쿠키: 서버 보안 인증을 위한 키 값입니다. */
+        public final String cookie;
+
+        /** 결과물 저장 경로: 보안을 위해 기본값을 비웠습니다. config.properties에서 [OUTPUT_DIR]로 설정하세요. */
+        public final String outputDir;
+
+        /** 서비스 경로 필터 리스트: 특정 패턴(예: /app)을 가진 트랜잭션만 필터링합니다. (수정 불가) */
+        public final List<String> filters;
+
+        /** 에이전트 그룹 ID들: 와탭에서 그룹핑된 대상 서버들의 식별 번호 목록입니다. */
+        public final String okinds;
+
+        /** 에이전트 그룹 명칭: 엑셀 파일명 및 로그 출력 시 식별 이름입니다. */
+        public final String okindsName;
+
+        /** [v6.6] 보고서 열 단위 (STATS_GRANULARITY, 기본값: 10일) */
+        public final ApmTimeSeries.Granularity granularity;
+
+        /** [v6.6] 일별 수집 결과 캐시 경로 (CACHE_DIR, 기본값: OUTPUT_DIR/.cache) */
+        public final String cacheDir;
+
+        /** 경로 정규화 / 근사 집계 설정 원본 (사본) */
+        private final Properties source;
+
+        private Config(Properties p) {
+            this.source = new Properties();
+            this.source.putAll(p);
+            this.granularity = ApmTimeSeries.Granularity.parse(p.getProperty("STATS_GRANULARITY"), ApmTimeSeries.Granularity.TENDAY);
+            this.enabled = "Y".equalsIgnoreCase(p.getProperty("WHATAP_ENABLED", "N"));
+            this.startDate = p.getProperty("START_DATE", "").trim();
+            this.endDate = p.getProperty("END_DATE", "").trim();
+            String cookie = p.getProperty("WHATAP_COOKIE", "").trim();
+            if (cookie.startsWith("\"")) cookie = cookie.substring(1, cookie.length()-1);
+            this.cookie = cookie;
+            this.okinds = p.getProperty("WHATAP_OKINDS", "").trim();
+            this.okindsName = p.getProperty("WHATAP_OKINDS_NAME", "Unknown").trim();
+
+            // [보안 지적 반영] URL과 저장경로를 프로퍼티에서 로드
+            this.url = p.getProperty("WHATAP_URL", "").trim();
+            this.outputDir = p.getProperty("OUTPUT_DIR", "").trim();
+            String cacheDir = p.getProperty("CACHE_DIR", "").trim();
+            this.cacheDir = cacheDir.isEmpty() && !outputDir.isEmpty() ? outputDir + File.separator + ".cache" : cacheDir;
+
+            // [v5.5 신규] pcode 로드 (기본값 8)
+            int pcode;
+            try {
+                pcode = Integer.parseInt(p.getProperty("WHATAP_PCODE", "8").trim());
+            } catch (NumberFormatException e) { pcode = 8; }
+            this.pcode = pcode;
+
+            String fProp = p.getProperty("WHATAP_FILTER", "").trim();
+            List<String> filters = Arrays.stream(fProp.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toList());
+            if (filters.isEmpty()) filters.add("");
+            this.filters = Collections.unmodifiableList(filters);
+        }
 
-    /** 에이전트 그룹 ID들: 와탭에서 그룹핑된 대상 서버들의 식별 번호 목록입니다. */
-    private static String WHATAP_OKINDS = "";
+        /** config.properties 형식의 설정에서 생성 (null이면 기본값 = 수집 안 함) */
+        public static Config from(Properties prop) {
+            return new Config(prop != null ? prop : new Properties());
+        }
 
-    /** 에이전트 그룹 명칭: 엑셀 파일명 및 로그 출력 시 식별 이름입니다. */
-    private static String WHATAP_OKINDS_NAME = "";
+        /** 설정값 로드 상세 내역 로그 */
+        void log() {
+            addLog("[LOG] 설정값 로드 상세 내역:");
+            addLog("  > WHATAP_URL     : " + (url.isEmpty() ? "MISSING!" : url));
+            addLog("  > WHATAP_PCODE   : " + pcode);
+            addLog("  > OKINDS_NAME    : " + okindsName);
+            addLog("  > OKINDS_ID      : " + okinds);
+            addLog("  > START_DATE     : " + startDate);
+            addLog("  > END_DATE       : " + endDate);
+            addLog("  > WHATAP_FILTER  : " + filters);
+            addLog("  > OUTPUT_DIR     : " + (outputDir.isEmpty() ? "MISSING!" : outputDir));
+            addLog("  > GRANULARITY    : " + granularity);
+            addLog("  > WHATAP_ENABLED : " + enabled);
+            addLog("---------------------------------------------------------------");
+        }
+    }
 
     // ==========================================================================================
-    // [ 2. 로그 파일 관리 및 기록 변수 ]
+    // [ 2. 로그 파일 관리 및 기록 변수 ] (프로세스 단위 출력 : 수집기 인스턴스가 공유)
     // ==========================================================================================
 
     /** 로그 출력 스트림: 콘솔 내용을 실시간으로 .log 파일에 기록하는 객체입니다. */
@@ -74,64 +142,115 @@ public class WhatapApiCounter {
     private static String currentLogPath;
 
     // ==========================================================================================
-    // [ 3. 데이터 관리 및 병렬 처리 변수 ]
+    // [ 3. 데이터 관리 및 병렬 처리 변수 ] (수집기 인스턴스별)
     // ==========================================================================================
 
-    /** API 통계 데이터 저장소: Key(경로) - Value(구간별 건수 배열) 구조의 Thread-safe Map입니다. */
-    private static final Map<String, long[]> STATS_MAP = new ConcurrentHashMap<>();
+    private final Config config;
 
-    /** 수집 구간 리스트: 수집 기간을 10일 단위로 쪼갠 세부 정보들의 모음입니다. */
-    private static final List<FetchSegment> SEGMENTS = new ArrayList<>();
+    /** [v6.6] 일별 호출건수 저장소: Key(경로) - Value(일별 건수, 수집 후 차이 인코딩) 구조입니다. 보고서 열은 여기서 계산합니다. */
+    private ApmTimeSeries series;
+
+    /** [v6.6] 보고서 열 구성 / 일 → 열 인덱스 (근사 모드 누적용) */
+    private List<ApmTimeSeries.Bucket> buckets;
+    private int[] bucketOf;
+
+    /** 수집 구간 리스트: 아직 받지 않은 날(캐시에 없는 날)을 1일 단위로 쪼갠 세부 정보들의 모음입니다. */
+    private final List<FetchSegment> segments = new ArrayList<>();
+
+    /** [v6.1] 서비스 경로 정규화 : 숫자/UUID/토큰 세그먼트 치환 및 접두 경로별 고유 경로 수 상한 */
+    private final ApmPathNormalizer paths;
+
+    /** [v6.2] STATS_MODE=approx : 경로별 배열 대신 고정 크기 스케치로 집계 (미사용 시 null) */
+    private ApmApproxStats approx;
+
+    /** [v6.4] 응답 전송량(압축) / 해제량 합계 */
+    private final ApmHttp.Traffic traffic = new ApmHttp.Traffic();
 
     public static class FetchSegment {
         public String label;
         public long stime;
         public long etime;
         public String monthKey;
+        /** [v6.6] 조회 기간 내 일 인덱스 */
+        public int day;
     }
 
-    // ==========================================================================================
+    public WhatapApiCounter(Config config) {
+        this.config = config;
+        this.paths = ApmPathNormalizer.fromConfig(config.source);
+    }
 
-    /** [연동 인터페이스] 외부 클래스에서 호출 시 수집된 통계 Map 데이터를 반환합니다. */
-    public static Map<String, long[]> getApiStats() {
-        STATS_MAP.clear();
-        SEGMENTS.clear();
+    public Config config() { return config; }
 
-        if (START_DATE.isEmpty()) loadConfig();
+    // ==========================================================================================
 
-        if (!WHATAP_ENABLED) return STATS_MAP;
+    /**
+     * [연동 인터페이스] 구간별 통계를 수집하여 결과 객체로 반환합니다. (수집기 1개당 1회)
+     * [v6.5] 정적 Map을 비우고 다시 채우던 getApiStats()를 대체 : 결과는 호출한 쪽이 보관하므로 동시 수집 간 간섭 없음
+     */
+    public synchronized ApmStats collect() {
+        if (series != null) throw new IllegalStateException("이미 수집한 WhatapApiCounter입니다. 새 인스턴스를 생성하세요.");
+        config.log();
+        if (!config.enabled) return ApmStats.empty();
+
+        // [v6.6] 조회 기간 전체를 1일 단위 저장소로 만들고, 보고서 열(STATS_GRANULARITY)은 수집 후 누적합으로 계산
+        series = new ApmTimeSeries(LocalDate.parse(config.startDate, DateTimeFormatter.ofPattern("yyyyMMdd")), LocalDate.parse(config.endDate, DateTimeFormatter.ofPattern("yyyyMMdd")));
+        buckets = series.buckets(config.granularity);
+        bucketOf = ApmTimeSeries.bucketIndex(buckets, series.days());
+        approx = ApmApproxStats.enabled(config.source) ? ApmApproxStats.fromConfig(config.source, buckets.size()) : null;
+        // 근사 모드는 일별 저장 없이 열 단위 스케치로 바로 누적하므로 캐시 미사용
+        File cache = approx == null ? ApmTimeSeries.cacheFile(config.cacheDir, "whatap", config.url, String.valueOf(config.pcode), config.okinds, String.valueOf(config.filters), paths.identity()) : null;
+        series.loadCache(cache);
 
         generateSegments();
+        addLog("[SERIES] 조회 " + series.days() + "일 중 캐시 " + series.cachedDays() + "일, APM 요청 " + segments.size() + "일 × 필터 " + config.filters.size() + "개");
         fetchBatchData();
+        addLog("[TRAFFIC] " + traffic.summary());
+        Map<String, long[]> stats;
+        if (approx != null) {
+            // [v6.2] 근사 모드 : 상위 경로(Space-Saving)만 구간 추정 건수로 보고서 Map 구성
+            // 수집 중에는 경로별 상태 없이 스케치에만 누적 (메모리 고정), 접두 경로별 상한은 상위 경로 표에만 적용
+            stats = paths.fold(approx.heavyHitterStats(buckets.size() + 10));
+            addLog("[APPROX] 근사 집계 정확도");
+            approx.accuracyReport().forEach(WhatapApiCounter::addLog);
+        } else {
+            series.saveCache(cache);
+            // 접두 경로별 상한은 캐시 저장 후 전체(캐시 + 신규) 총합 기준으로 적용 (응답 도착 순서와 무관)
+            series.fold(paths);
+            stats = series.rollup(buckets);
+            addLog("[SERIES] " + series.summary() + " → " + config.granularity + " " + buckets.size() + "열");
+        }
+        addLog("[NORMALIZE] " + paths.summary() + " / 수집 키 " + stats.size() + "건");
 
-        return STATS_MAP;
+        return ApmStats.of(buckets, stats, approx, approx == null ? series : null);
     }
 
     public static void main(String[] args) {
-        loadConfig();
+        Config config = Config.from(AppConfig.load());
 
         LocalDateTime execStartTime = LocalDateTime.now();
         // [v5.6] 날짜 형식 변경 (yyyy-MM-dd_추출) [cite: 2026-03-06]
         String timestamp = execStartTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'_추출'"));
         DateTimeFormatter logFmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-        initLogFile(timestamp);
+        initLogFile(config.outputDir, timestamp);
 
         addLog("===============================================================");
-        addLog("[START] WhatapApiCounter v5.6 실행 시작: " + execStartTime.format(logFmt));
+        addLog("[START] WhatapApiCounter v6.5 실행 시작: " + execStartTime.format(logFmt));
         addLog("===============================================================");
 
-        getApiStats();
+        WhatapApiCounter counter = new WhatapApiCounter(config);
+        ApmStats result = counter.collect();
 
-        if (WHATAP_ENABLED && !STATS_MAP.isEmpty()) {
-            generateExcelReport(timestamp);
+        if (!result.isEmpty()) {
+            counter.generateExcelReport(result, timestamp);
         }
 
         LocalDateTime execEndTime = LocalDateTime.now();
         addLog("\n===============================================================");
         addLog("[FINISH] WhatapApiCounter 실행 종료: " + execEndTime.format(logFmt));
         addLog("[RESULT] 총 소요 시간: " + Duration.between(execStartTime, execEndTime).getSeconds() + "초");
-        addLog("[RESULT] 총 수집 고유 API: " + STATS_MAP.size() + "건");
+        addLog("[RESULT] 총 수집 고유 API: " + result.size() + "건");
         addLog("[LOG_FILE] 로그 확인 경로: " + currentLogPath);
         addLog("===============================================================");
 
@@ -146,10 +265,10 @@ public class WhatapApiCounter {
         }
     }
 
-    private static void initLogFile(String ts) {
+    private static void initLogFile(String outputDir, String ts) {
         try {
-            if (OUTPUT_DIR.isEmpty()) return;
-            File dir = new File(OUTPUT_DIR);
+            if (outputDir.isEmpty()) return;
+            File dir = new File(outputDir);
             if (!dir.exists()) dir.mkdirs();
 
             String fileName = "Whatap_통계_추출로그_" + ts + ".log";
@@ -161,93 +280,44 @@ public class WhatapApiCounter {
         }
     }
 
-    /** [지적 반영] 보안 변수들을 프로퍼티에서 로드하는 로직으로 강화 */
-    private static void loadConfig() {
-        Properties prop = new Properties();
-        File configFile = new File("config.properties");
-        if (configFile.exists()) {
-            try (InputStream is = new FileInputStream(configFile)) {
-                prop.load(is);
-                WHATAP_ENABLED = "Y".equalsIgnoreCase(prop.getProperty("WHATAP_ENABLED", "N"));
-                START_DATE = prop.getProperty("START_DATE", "").trim();
-                END_DATE = prop.getProperty("END_DATE", "").trim();
-                WHATAP_COOKIE = prop.getProperty("WHATAP_COOKIE", "").trim();
-                if (WHATAP_COOKIE.startsWith("\"")) WHATAP_COOKIE = WHATAP_COOKIE.substring(1, WHATAP_COOKIE.length()-1);
-                WHATAP_OKINDS = prop.getProperty("WHATAP_OKINDS", "").trim();
-                WHATAP_OKINDS_NAME = prop.getProperty("WHATAP_OKINDS_NAME", "Unknown").trim();
-
-                // [보안 지적 반영] URL과 저장경로를 프로퍼티에서 로드
-                WHATAP_URL = prop.getProperty("WHATAP_URL", "").trim();
-                OUTPUT_DIR = prop.getProperty("OUTPUT_DIR", "").trim();
-
-                // [v5.5 신규] pcode 로드 (기본값 8)
-                try {
-                    WHATAP_PCODE = Integer.parseInt(prop.getProperty("WHATAP_PCODE", "8").trim());
-                } catch (NumberFormatException e) { WHATAP_PCODE = 8; }
-
-                String fProp = prop.getProperty("WHATAP_FILTER", "").trim();
-                WHATAP_FILTERS = Arrays.stream(fProp.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toList());
-                if (WHATAP_FILTERS.isEmpty()) WHATAP_FILTERS.add("");
-
-                addLog("[LOG] 설정값 로드 상세 내역:");
-                addLog("  > WHATAP_URL     : " + (WHATAP_URL.isEmpty() ? "MISSING!" : WHATAP_URL));
-                addLog("  > WHATAP_PCODE   : " + WHATAP_PCODE); // 로그 추가
-                addLog("  > OKINDS_NAME    : " + WHATAP_OKINDS_NAME);
-                addLog("  > OKINDS_ID      : " + WHATAP_OKINDS);
-                addLog("  > START_DATE     : " + START_DATE);
-                addLog("  > END_DATE       : " + END_DATE);
-                addLog("  > WHATAP_FILTER  : " + WHATAP_FILTERS);
-                addLog("  > OUTPUT_DIR     : " + (OUTPUT_DIR.isEmpty() ? "MISSING!" : OUTPUT_DIR));
-                addLog("  > WHATAP_ENABLED : " + WHATAP_ENABLED);
-                addLog("---------------------------------------------------------------");
-            } catch (IOException e) { e.printStackTrace(); }
-        }
-    }
-
-    private static void generateSegments() {
-        LocalDate startLimit = LocalDate.parse(START_DATE, DateTimeFormatter.ofPattern("yyyyMMdd"));
-        LocalDate endLimit = LocalDate.parse(END_DATE, DateTimeFormatter.ofPattern("yyyyMMdd"));
-        LocalDate cur = startLimit.withDayOfMonth(1);
-        while (!cur.isAfter(endLimit)) {
-            String mKey = cur.format(DateTimeFormatter.ofPattern("yy.MM"));
-            addValidSegment(cur.withDayOfMonth(1), cur.withDayOfMonth(10), startLimit, endLimit, mKey);
-            addValidSegment(cur.withDayOfMonth(11), cur.withDayOfMonth(20), startLimit, endLimit, mKey);
-            addValidSegment(cur.withDayOfMonth(21), cur.withDayOfMonth(cur.lengthOfMonth()), startLimit, endLimit, mKey);
-            cur = cur.plusMonths(1);
-        }
-    }
-
-    private static void addValidSegment(LocalDate s, LocalDate e, LocalDate limitS, LocalDate limitE, String monthKey) {
-        LocalDate actualS = s.isBefore(limitS) ? limitS : s;
-        LocalDate actualE = e.isAfter(limitE) ? limitE : e;
-        if (!actualS.isAfter(actualE)) {
+    /** [v6.6] 캐시에 없는 날만 1일 단위 요청 구간으로 생성 */
+    private void generateSegments() {
+        for (int day : series.missingDays()) {
+            LocalDate date = series.day(day);
             FetchSegment seg = new FetchSegment();
-            seg.label = actualS.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + "~" + actualE.getDayOfMonth();
-            seg.stime = actualS.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-            seg.etime = actualE.plusDays(1).atStartOfDay(ZoneId.systemDefault()).minusNanos(1).toInstant().toEpochMilli();
-            seg.monthKey = monthKey;
-            SEGMENTS.add(seg);
+            seg.label = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+            seg.stime = date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            seg.etime = date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).minusNanos(1).toInstant().toEpochMilli();
+            seg.monthKey = date.format(DateTimeFormatter.ofPattern("yy.MM"));
+            seg.day = day;
+            segments.add(seg);
         }
     }
 
-    private static void fetchBatchData() {
+    /** 하루치는 필터 전체를 받은 뒤 한 번에 반영 (일부 필터 실패 시 그날은 미수신으로 남겨 다음 실행에서 재요청) */
+    private void fetchBatchData() {
         ExecutorService executor = Executors.newFixedThreadPool(3);
         List<CompletableFuture<Void>> futures = new ArrayList<>();
-        for (int i = 0; i < SEGMENTS.size(); i++) {
-            final int segIdx = i;
-            final FetchSegment seg = SEGMENTS.get(i);
-            for (String filter : WHATAP_FILTERS) {
-                futures.add(CompletableFuture.runAsync(() -> requestWithDetailedFetch(seg.stime, seg.etime, segIdx, filter), executor));
-            }
+        for (FetchSegment seg : segments) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                Map<String, Long> dayCounts = new HashMap<>();
+                for (String filter : config.filters) {
+                    if (!requestWithDetailedFetch(seg, filter, dayCounts)) return;
+                }
+                if (approx != null) { for (Map.Entry<String, Long> e : dayCounts.entrySet()) approx.add(e.getKey(), bucketOf[seg.day], e.getValue()); }
+                else series.putDay(seg.day, dayCounts);
+            }, executor));
         }
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
         executor.shutdown();
     }
 
-    private static void requestWithDetailedFetch(long stime, long etime, int segIdx, String filter) {
-        String label = SEGMENTS.get(segIdx).label;
+    /** @return 정상 수신 여부 (dayCounts에 경로별 건수 합산) */
+    private boolean requestWithDetailedFetch(FetchSegment seg, String filter, Map<String, Long> dayCounts) {
+        String label = seg.label;
+        long stime = seg.stime, etime = seg.etime;
         try {
-            if (WHATAP_URL.isEmpty()) { addLog("  - [SKIP] URL이 설정되지 않았습니다."); return; }
+            if (config.url.isEmpty()) { addLog("  - [SKIP] URL이 설정되지 않았습니다."); return false; }
 
             // [v5.5] pcode 값을 동적으로 적용하도록 수정
             String jsonPayload = String.format(
@@ -268,123 +338,84 @@ public class WhatapApiCounter {
                             "  },\n" +
                             "  \"stime\": %d,\n" +
                             "  \"etime\": %d\n" +
-                            "}", WHATAP_PCODE, stime, etime, filter, WHATAP_OKINDS, stime, etime // WHATAP_PCODE 추가
+                            "}", config.pcode, stime, etime, filter, config.okinds, stime, etime // pcode 추가
             );
 
             addLog("\n>>> [HTTP REQUEST] 구간: " + label + " (필터: " + filter + ")");
             addLog("  Payload: " + jsonPayload);
 
             HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(20)).build();
-            HttpRequest request = HttpRequest.newBuilder().uri(URI.create(WHATAP_URL)).header("Content-Type", "application/json").header("Cookie", WHATAP_COOKIE).POST(HttpRequest.BodyPublishers.ofString(jsonPayload, StandardCharsets.UTF_8)).build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            String body = response.body();
-
-            if (response.statusCode() == 200) {
-                JsonNode root = MAPPER.readTree(body).path("records");
-                int count = 0;
-                if (root.isArray()) {
-                    for (JsonNode n : root) {
-                        String svc = n.path("service").asText();
+            // [v6.4] gzip/deflate 압축 전송 요청, 응답은 String으로 모으지 않고 해제 스트림을 JSON 파서에 바로 연결
+            HttpRequest request = ApmHttp.acceptCompressed(HttpRequest.newBuilder().uri(URI.create(config.url)).header("Content-Type", "application/json").header("Cookie", config.cookie)).POST(HttpRequest.BodyPublishers.ofString(jsonPayload, StandardCharsets.UTF_8)).build();
+
+            ApmHttp.Transfer transfer = ApmHttp.send(client, request, traffic);
+            try (transfer) {
+                if (transfer.statusCode == 200) {
+                    int count = ApmHttp.forEachRecord(MAPPER, transfer.body(), "records", n -> {
+                        String svc = paths.normalize(n.path("service").asText());
                         long cnt = n.path("count").asLong();
-                        long[] stats = STATS_MAP.computeIfAbsent(svc, k -> new long[SEGMENTS.size() + 10]);
-                        synchronized (stats) { stats[segIdx] += cnt; }
-                        count++;
-                    }
+                        // [v6.6] 일별 합산 (보고서 열 / 총합계는 수집 후 누적합으로 계산)
+                        dayCounts.merge(svc, cnt, Long::sum);
+                    });
+                    transfer.close();
+                    addLog("  - [INFO] " + label + " 수집 완료 (" + count + "건, " + transfer.summary() + ")");
+                    return true;
+                } else {
+                    addLog("  - [WARN] " + label + " HTTP " + transfer.statusCode + ": " + transfer.snippet());
                 }
-                addLog("  - [INFO] " + label + " 수집 완료 (" + count + "건)");
             }
         } catch (Exception e) {
             addLog("  - [ERROR] " + label + " 통계 수집 중 예외: " + e.getMessage());
         }
+        return false;
     }
 
-    public static void generateExcelReport(String ts) {
-        if (OUTPUT_DIR.isEmpty()) { System.err.println("[ERROR] OUTPUT_DIR이 비어있어 엑셀을 생성할 수 없습니다."); return; }
+    /** [v6.5] 수집 결과(collect)로 통계 엑셀 / 세로형 파일을 생성합니다. */
+    public void generateExcelReport(ApmStats result, String ts) {
+        if (config.outputDir.isEmpty()) { System.err.println("[ERROR] OUTPUT_DIR이 비어있어 엑셀을 생성할 수 없습니다."); return; }
 
         // [v5.6] 명칭 간소화 ("추출결과" 제거) [cite: 2026-03-06]
-        String fileName = String.format("Whatap통계_(%s)_(%s~%s)_(%s).xlsx", WHATAP_OKINDS_NAME, START_DATE, END_DATE, ts);
-        File file = new File(OUTPUT_DIR, fileName);
+        // [v6.0] STATS_TOP_N 지정 시 상위/하위 N건 순위 보고서
+        int topN = ApmStatsReport.topN();
+        String fileName = String.format("Whatap통계%s_(%s)_(%s~%s)_(%s).xlsx", topN > 0 ? "_TOP" + topN : "", config.okindsName, config.startDate, config.endDate, ts);
+        File file = new File(config.outputDir, fileName);
         if (!file.getParentFile().exists()) file.getParentFile().mkdirs();
 
-        try (SXSSFWorkbook wb = new SXSSFWorkbook(100); FileOutputStream fos = new FileOutputStream(file)) {
-            Sheet s = wb.createSheet("Whatap_" + WHATAP_OKINDS_NAME);
-            s.createFreezePane(2, 1);
-
-            DataFormat df = wb.createDataFormat();
-            short numFmt = df.getFormat("#,##0");
-            Font hFont = wb.createFont(); hFont.setBold(true);
-
-            CellStyle grayT = createHeaderStyle(wb, hFont, IndexedColors.GREY_25_PERCENT.getIndex());
-            grayT.setBorderRight(BorderStyle.THICK);
-            CellStyle harmonyLightStyle = createHeaderStyle(wb, hFont, IndexedColors.LIGHT_CORNFLOWER_BLUE.getIndex());
-            CellStyle harmonyDarkStyle = createHeaderStyle(wb, hFont, IndexedColors.CORNFLOWER_BLUE.getIndex());
-            harmonyDarkStyle.setBorderRight(BorderStyle.THICK);
-
-            CellStyle apiS = wb.createCellStyle(); apiS.setBorderRight(BorderStyle.THICK);
-            CellStyle numS = wb.createCellStyle(); numS.setDataFormat(numFmt);
-            CellStyle numThickS = wb.createCellStyle(); numThickS.setDataFormat(numFmt); numThickS.setBorderRight(BorderStyle.THICK);
-
-            Row hr = s.createRow(0);
-            hr.createCell(0).setCellValue("API(트랜잭션)"); hr.getCell(0).setCellStyle(grayT);
-            hr.createCell(1).setCellValue("전체 총합계"); hr.getCell(1).setCellStyle(grayT);
-
-            int colIdx = 2; String lastMonth = "";
-            Map<String, List<Integer>> monthCols = new LinkedHashMap<>();
-            for (int i = 0; i < SEGMENTS.size(); i++) {
-                FetchSegment seg = SEGMENTS.get(i);
-                if (!seg.monthKey.equals(lastMonth) && !lastMonth.isEmpty()) {
-                    Cell c = hr.createCell(colIdx++); c.setCellValue(lastMonth + " 월 합계"); c.setCellStyle(harmonyDarkStyle);
-                }
-                Cell c = hr.createCell(colIdx); c.setCellValue(seg.label); c.setCellStyle(harmonyLightStyle);
-                monthCols.computeIfAbsent(seg.monthKey, k -> new ArrayList<>()).add(colIdx++);
-                lastMonth = seg.monthKey;
-            }
-            Cell cLast = hr.createCell(colIdx++); cLast.setCellValue(lastMonth + " 월 합계"); cLast.setCellStyle(harmonyDarkStyle);
-
-            List<Map.Entry<String, long[]>> sorted = STATS_MAP.entrySet().stream()
-                    .sorted((e1, e2) -> Long.compare(calculateGrandTotal(e2.getValue()), calculateGrandTotal(e1.getValue())))
-                    .collect(Collectors.toList());
-
-            int rIdx = 1;
-            for (Map.Entry<String, long[]> entry : sorted) {
-                Row r = s.createRow(rIdx++);
-                r.createCell(0).setCellValue(entry.getKey()); r.getCell(0).setCellStyle(apiS);
-                r.createCell(1).setCellValue(calculateGrandTotal(entry.getValue())); r.getCell(1).setCellStyle(numThickS);
-
-                int dCol = 2; int ptr = 0;
-                for (String m : monthCols.keySet()) {
-                    long mSum = 0;
-                    for (int ignored : monthCols.get(m)) {
-                        long v = entry.getValue()[ptr++];
-                        Cell c = r.createCell(dCol++); c.setCellValue(v); c.setCellStyle(numS);
-                        mSum += v;
-                    }
-                    Cell cS = r.createCell(dCol++); cS.setCellValue(mSum); cS.setCellStyle(numThickS);
-                }
+        List<String> labels = result.labels, monthKeys = result.monthKeys;
+
+        // [v6.3] EXPORT_FORMAT 지정 시 (api, segment, month, count) 세로형 gzip CSV/JSONL 출력 (순위 보고서 여부와 무관하게 전체 경로)
+        TidyExporter.Format format = TidyExporter.format();
+        if (format != null) {
+            try {
+                long started = System.currentTimeMillis();
+                String tidyName = String.format("Whatap통계_(%s)_(%s~%s)_(%s)", config.okindsName, config.startDate, config.endDate, ts) + format.extension;
+                TidyExporter tidy = TidyExporter.writeStats(new File(config.outputDir, tidyName), format, labels, monthKeys, result.stats);
+                addLog("\n[SUCCESS] 통계 " + format + " 생성 완료 (" + tidy.summary() + ", " + (System.currentTimeMillis() - started) + "ms)");
+                addLog("  > 전체 경로 : " + tidy.file().getAbsolutePath());
+            } catch (Exception e) {
+                addLog("  - [ERROR] 통계 " + format + " 생성 실패: " + e.getMessage());
             }
-            s.setColumnWidth(0, 18000); s.setColumnWidth(1, 6500);
-            for (int i = 2; i < colIdx; i++) s.setColumnWidth(i, 5500);
-
-            wb.write(fos);
-            wb.dispose();
-
-            addLog("\n[SUCCESS] 통계 엑셀 생성 완료");
-            addLog("  > 저장 위치 : \" + file.getParent()");
-            addLog("  > 파 일 명  : \" + file.getName()");
-            addLog("  > 전체 경로 : \" + file.getAbsolutePath()");
-
-        } catch (Exception e) { e.printStackTrace(); }
-    }
+        }
+        // EXPORT_EXCEL=N : 세로형 파일만 생성하고 엑셀 생략
+        if (!TidyExporter.excelEnabled()) return;
 
-    private static CellStyle createHeaderStyle(Workbook wb, Font f, short color) {
-        CellStyle st = wb.createCellStyle();
-        st.setFillForegroundColor(color); st.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        st.setAlignment(HorizontalAlignment.CENTER); st.setBorderBottom(BorderStyle.THIN); st.setFont(f);
-        return st;
-    }
+        // [v5.8] 셀 객체 없이 시트 XML을 직접 스트리밍 (ApmStatsReport / StatsSheetWriter) [cite: 2026-10-18]
+        try {
+            long started = System.currentTimeMillis();
+            List<File> files = topN > 0
+                    ? Collections.singletonList(ApmStatsReport.writeRanking(file, "Whatap_" + config.okindsName, labels, monthKeys, result.stats, topN))
+                    : ApmStatsReport.write(file, "Whatap_" + config.okindsName, labels, monthKeys, result.stats);
+
+            addLog("\n[SUCCESS] 통계 엑셀 생성 완료 (" + (topN > 0 ? "상위/하위 " + topN + "건 / 전체 " : "") + result.stats.size() + "행, " + (System.currentTimeMillis() - started) + "ms)");
+            addLog("  > 저장 위치 : " + file.getParent());
+            // [v5.9] 엑셀 한도 초과 시 분할 파일 전체 출력 [cite: 2026-10-18]
+            for (File part : files) {
+                addLog("  > 파 일 명  : " + part.getName());
+                addLog("  > 전체 경로 : " + part.getAbsolutePath());
+            }
 
-    private static long calculateGrandTotal(long[] stats) {
-        long sum = 0; if(stats != null) for (long v : stats) sum += v; return sum;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ApiExcelExporter 단계 간 결합 로직 테스트
+ */
+public class ApiExcelExporterTest {
+
+    private static Map<String, long[]> stats(Object... pathAndTotal) {
+        Map<String, long[]> stats = new LinkedHashMap<>();
+        for (int i = 0; i < pathAndTotal.length; i += 2) stats.put((String) pathAndTotal[i], new long[]{0, (Long) pathAndTotal[i + 1]});
+        return stats;
+    }
+
+    @Test
+    public void apmTotalsAreNotDoubleCounted() {
+        Map<String, long[]> whatap = stats("/a", 10L, "/b", 3L), jennifer = stats("/a", 7L, "/c", 5L);
+
+        Map<String, Long> max = ApiExcelExporter.mergeApmTotals(whatap, jennifer, "MAX");
+        assertEquals(10L, max.get("/a"));
+        assertEquals(3L, max.get("/b"));
+        assertEquals(5L, max.get("/c"));
+
+        Map<String, Long> jenniferFirst = ApiExcelExporter.mergeApmTotals(whatap, jennifer, "JENNIFER");
+        assertEquals(7L, jenniferFirst.get("/a"));
+        assertEquals(3L, jenniferFirst.get("/b"), "우선 APM에 없는 경로는 다른 APM 값으로 채움");
+
+        Map<String, Long> whatapFirst = ApiExcelExporter.mergeApmTotals(whatap, jennifer, "WHATAP");
+        assertEquals(10L, whatapFirst.get("/a"));
+        assertEquals(5L, whatapFirst.get("/c"));
+    }
+
+    @Test
+    public void singleApmTotalsPassThrough() {
+        Map<String, Long> totals = ApiExcelExporter.mergeApmTotals(stats("/a", 4L), Collections.emptyMap(), "MAX");
+        assertEquals(Collections.singletonMap("/a", 4L), totals);
+    }
+}
@@ -0,0 +1,97 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ApmApproxStats Count-Min 과대 추정 / 오차 상한, Space-Saving 상위 경로 보장, Bloom 필터 미수집 판정 테스트
+ */
+public class ApmApproxStatsTest {
+
+    /** Zipf 형태 호출 분포 : 경로 i의 건수 = 10000 / (i + 1) */
+    private static Map<String, Long> skewed(int paths) {
+        Map<String, Long> exact = new LinkedHashMap<>();
+        for (int i = 0; i < paths; i++) exact.put("/api/p" + i, 10000L / (i + 1));
+        return exact;
+    }
+
+    @Test
+    public void countMinNeverUnderestimatesAndStaysWithinTheBound() {
+        int width = 256;
+        ApmApproxStats approx = new ApmApproxStats(2, width, 4, 50, 1 << 16);
+        Map<String, Long> exact = skewed(2000);
+        long n = 0;
+        for (Map.Entry<String, Long> e : exact.entrySet()) {
+            approx.add(e.getKey(), 0, e.getValue() / 2);
+            approx.add(e.getKey(), 1, e.getValue() - e.getValue() / 2);
+            n += e.getValue();
+        }
+        long bound = (long) Math.ceil(Math.E / width * n);
+        int overBound = 0;
+        for (Map.Entry<String, Long> e : exact.entrySet()) {
+            long estimate = approx.estimateTotal(e.getKey());
+            assertTrue(estimate >= e.getValue(), e.getKey());
+            if (estimate > e.getValue() + bound) overBound++;
+        }
+        // 신뢰도 1 - e^-4 (약 98%) : 오차 상한을 넘는 경로는 소수
+        assertTrue(overBound < exact.size() * 0.05, "상한 초과 " + overBound + "건");
+    }
+
+    @Test
+    public void heavyHittersAboveNOverKAreAlwaysKept() {
+        int topK = 20;
+        ApmApproxStats approx = new ApmApproxStats(1, 1024, 4, topK, 1 << 16);
+        Map<String, Long> exact = skewed(3000);
+        List<String> order = new ArrayList<>(exact.keySet());
+        Collections.shuffle(order, new Random(7));
+        long n = 0;
+        // 같은 경로가 여러 응답에 나뉘어 도착하는 경우
+        for (int round = 0; round < 2; round++) {
+            for (String path : order) {
+                long count = round == 0 ? exact.get(path) / 2 : exact.get(path) - exact.get(path) / 2;
+                if (count > 0) approx.add(path, 0, count);
+                n += count;
+            }
+        }
+        Map<String, long[]> top = approx.heavyHitterStats(2);
+        assertTrue(top.size() <= topK);
+        for (Map.Entry<String, Long> e : exact.entrySet()) {
+            if (e.getValue() > n / topK) assertTrue(top.containsKey(e.getKey()), e.getKey() + " (N/K = " + n / topK + ")");
+        }
+        long[] first = top.get("/api/p0");
+        assertTrue(first[0] >= 10000 && ApmStatsReport.total(first) == first[0], "구간 추정치와 총합계 칸");
+    }
+
+    @Test
+    public void bloomFilterHasNoFalseNegatives() {
+        ApmApproxStats approx = new ApmApproxStats(1, 64, 2, 10, 1 << 20);
+        for (int i = 0; i < 1000; i++) approx.add("/seen/" + i, 0, 1);
+        for (int i = 0; i < 1000; i++) assertTrue(approx.mightContain("/seen/" + i));
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (approx.mightContain("/unseen/" + i)) falsePositives++;
+            else assertEquals(0, approx.estimateTotal("/unseen/" + i), "미수집 경로는 스케치 충돌과 무관하게 0건");
+        }
+        assertTrue(falsePositives < 10, "오탐 " + falsePositives + "건");
+    }
+
+    @Test
+    public void memoryIsFixedByConfigurationNotByDistinctPaths() {
+        Properties prop = new Properties();
+        prop.setProperty("STATS_MODE", "approx");
+        prop.setProperty("STATS_APPROX_WIDTH", "128");
+        prop.setProperty("STATS_APPROX_DEPTH", "3");
+        prop.setProperty("STATS_APPROX_TOP_K", "10");
+        prop.setProperty("STATS_APPROX_BLOOM_MB", "1");
+        assertTrue(ApmApproxStats.enabled(prop));
+        assertFalse(ApmApproxStats.enabled(new Properties()));
+
+        ApmApproxStats approx = ApmApproxStats.fromConfig(prop, 4);
+        long before = approx.memoryBytes();
+        for (int i = 0; i < 50_000; i++) approx.add("/api/" + i, i % 4, 1);
+        assertEquals(before, approx.memoryBytes());
+        assertEquals(10, approx.heavyHitterStats(5).size());
+        assertEquals(5, approx.accuracyReport().size());
+    }
+}
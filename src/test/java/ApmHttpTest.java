@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ApmHttp Content-Encoding별 해제(gzip / zlib deflate / raw deflate / 비압축), 전송량 계측, records 스트리밍 판독 테스트
+ */
+public class ApmHttpTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String BODY;
+    static {
+        StringBuilder sb = new StringBuilder("{\"meta\":{\"records\":[0]},\"records\":[");
+        for (int i = 0; i < 2000; i++) sb.append(i == 0 ? "" : ",").append("{\"service\":\"/app/owners/").append(i).append("\",\"count\":").append(i).append('}');
+        BODY = sb.append("],\"total\":2000}").toString();
+    }
+
+    private HttpServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", ex -> {
+            String encoding = ex.getRequestURI().getPath().substring(1);
+            byte[] body = encode(encoding, BODY.getBytes(StandardCharsets.UTF_8));
+            if (!encoding.equals("plain")) ex.getResponseHeaders().set("Content-Encoding", encoding.replace("raw-", ""));
+            ex.sendResponseHeaders(200, body.length);
+            try (OutputStream out = ex.getResponseBody()) { out.write(body); }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop(0);
+    }
+
+    private static byte[] encode(String encoding, byte[] raw) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStream out;
+        if (encoding.equals("gzip")) out = new GZIPOutputStream(bytes);
+        else if (encoding.equals("deflate")) out = new DeflaterOutputStream(bytes, new Deflater(Deflater.DEFAULT_COMPRESSION, false));
+        else if (encoding.equals("raw-deflate")) out = new DeflaterOutputStream(bytes, new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+        else out = bytes;
+        out.write(raw);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private ApmHttp.Transfer send(String encoding, ApmHttp.Traffic traffic) throws Exception {
+        HttpRequest request = ApmHttp.acceptCompressed(HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort() + "/" + encoding))).build();
+        return ApmHttp.send(client, request, traffic);
+    }
+
+    @Test
+    public void decodesEveryEncodingAndCountsWireBytes() throws Exception {
+        ApmHttp.Traffic traffic = new ApmHttp.Traffic();
+        for (String encoding : new String[]{"gzip", "deflate", "raw-deflate", "plain"}) {
+            long expectedWire = encode(encoding, BODY.getBytes(StandardCharsets.UTF_8)).length;
+            try (ApmHttp.Transfer t = send(encoding, traffic)) {
+                assertEquals(200, t.statusCode);
+                List<Long> counts = new ArrayList<>();
+                assertEquals(2000, ApmHttp.forEachRecord(MAPPER, t.body(), "records", n -> counts.add(n.get("count").asLong())), encoding);
+                assertEquals(1999L, counts.get(1999));
+                t.close();
+                assertEquals(expectedWire, t.wireBytes(), encoding);
+                assertEquals(BODY.length(), t.decodedBytes(), encoding + " : 판독 후 남은 본문까지 계측");
+                assertEquals(encoding.equals("plain") ? "" : encoding.replace("raw-", ""), t.encoding);
+            }
+        }
+        assertTrue(traffic.summary().startsWith("응답 4건 (압축 3건)"), traffic.summary());
+    }
+
+    @Test
+    public void rejectsUnsupportedEncodings() {
+        IOException e = assertThrows(IOException.class, () -> send("br", null));
+        assertTrue(e.getMessage().contains("br"));
+    }
+
+    @Test
+    public void forEachRecordSkipsOtherFieldsAndNonObjectBodies() throws IOException {
+        String json = "{\"records\":{\"nested\":1},\"x\":[1,[2]],\"records\":[{\"a\":1},{\"a\":2}]}";
+        List<Integer> seen = new ArrayList<>();
+        assertEquals(2, ApmHttp.forEachRecord(MAPPER, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "records", n -> seen.add(n.get("a").asInt())));
+        assertEquals(List.of(1, 2), seen);
+        assertEquals(0, ApmHttp.forEachRecord(MAPPER, new ByteArrayInputStream("[1,2]".getBytes(StandardCharsets.UTF_8)), "records", n -> fail()));
+    }
+}
@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ApmPathNormalizer 경로 정규화(normalize)와 수집 후 접두 경로별 상한(foldTargets) 테스트
+ */
+public class ApmPathNormalizerTest {
+
+    private static ApmPathNormalizer normalizer(String... keyValues) {
+        Properties prop = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) prop.setProperty(keyValues[i], keyValues[i + 1]);
+        return ApmPathNormalizer.fromConfig(prop);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/app/owners/123/detail.do,                          /app/owners/{id}/detail.do",
+            "/app/owners/123.do,                                 /app/owners/{id}.do",
+            "/app/users/550e8400-e29b-41d4-a716-446655440000,    /app/users/{id}",
+            "/app/files/0123456789abcdef0123,                    /app/files/{id}",
+            "/app/token/eyJhbGciOiJIUzI1NiJ9abc123def456,        /app/token/{id}",
+            "/app/list.do;jsessionid=ABC?page=2,                 /app/list.do",
+            "/app/v2/members,                                    /app/v2/members",
+            "/app/deadbeef,                                      /app/deadbeef",
+            "/app/abcdefabcdefabcdef,                            /app/abcdefabcdefabcdef",
+            "/,                                                  /",
+    })
+    public void normalizesIdentifierSegments(String raw, String expected) {
+        assertEquals(expected, normalizer().normalize(raw));
+    }
+
+    @Test
+    public void userRulesRunBeforeBuiltInRules() {
+        ApmPathNormalizer n = normalizer("APM_PATH_RULE_2", "/v[0-9]+/ => /", "APM_PATH_RULE_1", "/legacy/ => /app/");
+        assertEquals("/app/orders/{id}", n.normalize("/legacy/v3/orders/77"));
+    }
+
+    @Test
+    public void placeholderAndDisableAreConfigurable() {
+        assertEquals("/a/:id", normalizer("APM_PATH_PLACEHOLDER", ":id").normalize("/a/42"));
+        assertEquals("/a/42?x=1", normalizer("APM_PATH_NORMALIZE", "N").normalize("/a/42?x=1"));
+        assertNull(normalizer().normalize(null));
+    }
+
+    @Test
+    public void foldKeepsTopPathsPerPrefixDeterministically() {
+        ApmPathNormalizer n = normalizer("APM_PATH_MAX_PER_PREFIX", "2", "APM_PATH_PREFIX_DEPTH", "2");
+        Map<String, Long> totals = new LinkedHashMap<>();
+        totals.put("/app/a/x", 5L);
+        totals.put("/app/a/y", 9L);
+        totals.put("/app/a/z", 5L);
+        totals.put("/app/a/w", 1L);
+        totals.put("/app/b/x", 1L);
+        Map<String, String> targets = n.foldTargets(totals);
+
+        // /app/a : y(9) / x(5, 동률은 경로명 순) 유지, z / w는 합산
+        assertEquals(new HashSet<>(Arrays.asList("/app/a/z", "/app/a/w")), targets.keySet());
+        assertEquals("/app/a/" + ApmPathNormalizer.OTHER_SEGMENT, targets.get("/app/a/z"));
+
+        Map<String, long[]> stats = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> e : totals.entrySet()) stats.put(e.getKey(), new long[]{e.getValue(), e.getValue()});
+        Map<String, long[]> folded = n.fold(stats);
+        assertArrayEquals(new long[]{6, 6}, folded.get("/app/a/" + ApmPathNormalizer.OTHER_SEGMENT));
+        assertEquals(4, folded.size());
+    }
+
+    @Test
+    public void foldIsNoOpUnderTheCap() {
+        Map<String, Long> totals = new HashMap<>();
+        totals.put("/app/a/x", 1L);
+        totals.put("/app/a/y", 2L);
+        assertTrue(normalizer().foldTargets(totals).isEmpty());
+    }
+}
@@ -0,0 +1,147 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ApmStatsReport 총합계 정렬, 엑셀 행 / 열 한도 분할(시트 · 파일 · 연도별 시트), 상위 / 하위 N건 순위 보고서 테스트
+ */
+public class ApmStatsReportTest {
+
+    @TempDir
+    Path dir;
+
+    /** 경로별 구간 건수 (마지막 칸은 총합계) */
+    private static Map<String, long[]> stats(int segments, long... totals) {
+        Map<String, long[]> stats = new LinkedHashMap<>();
+        for (int i = 0; i < totals.length; i++) {
+            long[] values = new long[segments + 1];
+            ApmStatsReport.add(values, 0, totals[i]);
+            stats.put("/api/p" + i, values);
+        }
+        return stats;
+    }
+
+    private static List<String> column(Sheet sheet, int col) {
+        List<String> values = new ArrayList<>();
+        for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+            Row row = sheet.getRow(r);
+            values.add(col == 0 ? row.getCell(0).getStringCellValue() : String.valueOf((long) row.getCell(col).getNumericCellValue()));
+        }
+        return values;
+    }
+
+    private static List<String> sheetNames(Workbook wb) {
+        List<String> names = new ArrayList<>();
+        for (Sheet s : wb) names.add(s.getSheetName());
+        return names;
+    }
+
+    @Test
+    public void sortsByTotalDescendingThenPath() throws Exception {
+        File file = dir.resolve("stats.xlsx").toFile();
+        List<File> files = ApmStatsReport.write(file, "stats", Arrays.asList("01일", "02일"), Arrays.asList("2025-01", "2025-01"),
+                stats(2, 5, 30, 5, 0), StatsSheetWriter.MAX_ROWS, Integer.MAX_VALUE);
+        assertEquals(Collections.singletonList(file), files);
+        try (Workbook wb = new XSSFWorkbook(file)) {
+            Sheet sheet = wb.getSheetAt(0);
+            assertEquals("2025-01 월 합계", sheet.getRow(0).getCell(4).getStringCellValue());
+            assertEquals(Arrays.asList("/api/p1", "/api/p0", "/api/p2", "/api/p3"), column(sheet, 0), "같은 총합계는 경로 오름차순");
+            assertEquals(Arrays.asList("30", "5", "5", "0"), column(sheet, 1));
+            assertEquals(Arrays.asList("30", "5", "5", "0"), column(sheet, 4), "월 합계 열");
+        }
+    }
+
+    @Test
+    public void splitsRowsIntoNumberedSheets() throws Exception {
+        File file = dir.resolve("stats.xlsx").toFile();
+        ApmStatsReport.write(file, "stats", Collections.singletonList("01일"), Collections.singletonList("2025-01"),
+                stats(1, 50, 40, 30, 20, 10), 3, Integer.MAX_VALUE);
+        try (Workbook wb = new XSSFWorkbook(file)) {
+            assertEquals(Arrays.asList("stats (1)", "stats (2)", "stats (3)"), sheetNames(wb));
+            assertEquals(Arrays.asList("/api/p0", "/api/p1"), column(wb.getSheetAt(0), 0));
+            assertEquals(Arrays.asList("/api/p4"), column(wb.getSheetAt(2), 0));
+            for (Sheet s : wb) assertEquals("API(트랜잭션)", s.getRow(0).getCell(0).getStringCellValue(), "시트마다 머리글 반복");
+        }
+    }
+
+    @Test
+    public void splitsFilesOnSheetBoundaries() throws Exception {
+        File file = dir.resolve("stats.xlsx").toFile();
+        // 파일당 3행 지정 → 시트 경계(2행)에 맞춰 파일당 2행
+        List<File> files = ApmStatsReport.write(file, "stats", Collections.singletonList("01일"), Collections.singletonList("2025-01"),
+                stats(1, 50, 40, 30, 20, 10), 3, 3);
+        assertEquals(Arrays.asList("stats_part1.xlsx", "stats_part2.xlsx", "stats_part3.xlsx"),
+                Arrays.asList(files.get(0).getName(), files.get(1).getName(), files.get(2).getName()));
+        assertFalse(file.exists());
+        try (Workbook wb = new XSSFWorkbook(files.get(1))) {
+            assertEquals(Collections.singletonList("stats (2)"), sheetNames(wb), "시트 번호는 전체 기준으로 이어짐");
+            assertEquals(Arrays.asList("/api/p2", "/api/p3"), column(wb.getSheetAt(0), 0));
+        }
+    }
+
+    @Test
+    public void splitsColumnsByYearAboveTheColumnLimit() throws Exception {
+        int perYear = 9000;
+        List<String> labels = new ArrayList<>(), months = new ArrayList<>();
+        for (int i = 0; i < 2 * perYear; i++) { labels.add("s" + i); months.add(i < perYear ? "2024-12" : "2025-01"); }
+        Map<String, long[]> stats = new LinkedHashMap<>();
+        long[] values = new long[2 * perYear + 1];
+        ApmStatsReport.add(values, 0, 7);
+        ApmStatsReport.add(values, perYear, 3);
+        stats.put("/api/a", values);
+
+        File file = dir.resolve("wide.xlsx").toFile();
+        ApmStatsReport.write(file, "stats", labels, months, stats, StatsSheetWriter.MAX_ROWS, Integer.MAX_VALUE);
+        try (Workbook wb = new XSSFWorkbook(file)) {
+            assertEquals(Arrays.asList("stats_2024", "stats_2025"), sheetNames(wb));
+            Row header2025 = wb.getSheetAt(1).getRow(0), row2025 = wb.getSheetAt(1).getRow(1);
+            assertEquals("s" + perYear, header2025.getCell(2).getStringCellValue());
+            assertEquals(10d, row2025.getCell(1).getNumericCellValue(), "전체 총합계는 모든 시트에 동일");
+            assertEquals(3d, row2025.getCell(2 + perYear).getNumericCellValue(), "월 합계는 해당 연도 구간만");
+        }
+    }
+
+    @Test
+    public void rankingSelectsTopAndBottomNMatchingAFullSort() throws Exception {
+        Random random = new Random(42);
+        long[] totals = new long[500];
+        for (int i = 0; i < totals.length; i++) totals[i] = random.nextInt(50); // 동점 다수
+        Map<String, long[]> stats = stats(1, totals);
+        List<String> sorted = new ArrayList<>(stats.keySet());
+        sorted.sort(Comparator.comparingLong((String k) -> -ApmStatsReport.total(stats.get(k))).thenComparing(k -> k));
+        List<String> ascending = new ArrayList<>(stats.keySet());
+        ascending.sort(Comparator.comparingLong((String k) -> ApmStatsReport.total(stats.get(k))).thenComparing(k -> k));
+
+        File file = dir.resolve("rank.xlsx").toFile();
+        ApmStatsReport.writeRanking(file, "stats", Collections.singletonList("01일"), Collections.singletonList("2025-01"), stats, 20);
+        try (Workbook wb = new XSSFWorkbook(file)) {
+            assertEquals(Arrays.asList("상위20_stats", "하위20_stats"), sheetNames(wb));
+            assertEquals(sorted.subList(0, 20), column(wb.getSheetAt(0), 0));
+            assertEquals(ascending.subList(0, 20), column(wb.getSheetAt(1), 0));
+        }
+    }
+
+    @Test
+    public void rankingWithMoreSlotsThanPathsListsEveryPath() throws Exception {
+        File file = dir.resolve("rank.xlsx").toFile();
+        ApmStatsReport.writeRanking(file, "stats", Collections.singletonList("01일"), Collections.singletonList("2025-01"), stats(1, 3, 9, 1), 10);
+        try (Workbook wb = new XSSFWorkbook(file)) {
+            assertEquals(Arrays.asList("/api/p1", "/api/p0", "/api/p2"), column(wb.getSheetAt(0), 0));
+            assertEquals(Arrays.asList("/api/p2", "/api/p0", "/api/p1"), column(wb.getSheetAt(1), 0));
+        }
+        ApmStatsReport.writeRanking(file, "stats", Collections.singletonList("01일"), Collections.singletonList("2025-01"), new LinkedHashMap<>(), 10);
+        try (Workbook wb = new XSSFWorkbook(file)) {
+            assertEquals(0, wb.getSheetAt(0).getLastRowNum(), "머리글만 기록");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ApmTimeSeries 차이 인코딩(encode / decodePrefix)과 보고서 열 구성(buckets / rollup) 테스트
+ */
+public class ApmTimeSeriesTest {
+
+    private static long[] prefixOf(long[] daily) {
+        long[] prefix = new long[daily.length + 1];
+        ApmTimeSeries.decodePrefix(ApmTimeSeries.encode(daily), prefix);
+        return prefix;
+    }
+
+    @Test
+    public void encodeDecodeRoundTripsAsPrefixSums() {
+        long[] daily = {0, 5, 5, 3, 0, 0, 1_000_000_000_000L, 2, 0, 7};
+        long[] prefix = prefixOf(daily);
+        long sum = 0;
+        assertEquals(0, prefix[0]);
+        for (int d = 0; d < daily.length; d++) {
+            sum += daily[d];
+            assertEquals(sum, prefix[d + 1], "day " + d);
+        }
+    }
+
+    @Test
+    public void repeatedValuesEncodeToOneBytePerDay() {
+        long[] daily = new long[90];
+        Arrays.fill(daily, 12345);
+        // 첫 날만 여러 바이트, 이후는 차이 0 → 1바이트
+        assertEquals(3 + 89, ApmTimeSeries.encode(daily).length);
+        assertEquals(12345L * 90, prefixOf(daily)[90]);
+    }
+
+    @Test
+    public void randomSeriesRoundTrip() {
+        Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            long[] daily = new long[1 + random.nextInt(400)];
+            for (int d = 0; d < daily.length; d++) daily[d] = random.nextInt(4) == 0 ? 0 : Math.abs(random.nextLong() >> random.nextInt(63));
+            long[] prefix = prefixOf(daily);
+            long sum = 0;
+            for (int d = 0; d < daily.length; d++) { sum += daily[d]; assertEquals(sum, prefix[d + 1]); }
+        }
+    }
+
+    @Test
+    public void weekBucketsCutAtPeriodBoundaries() {
+        // 2025-02-05(수) ~ 2025-02-20(목)
+        ApmTimeSeries series = new ApmTimeSeries(LocalDate.of(2025, 2, 5), LocalDate.of(2025, 2, 20));
+        List<ApmTimeSeries.Bucket> buckets = series.buckets(ApmTimeSeries.Granularity.WEEK);
+        assertEquals(Arrays.asList("2025-02-05~9", "2025-02-10~16", "2025-02-17~20"), labels(buckets));
+        assertContiguous(buckets, series.days());
+    }
+
+    @Test
+    public void tenDayMonthAndQuarterBuckets() {
+        ApmTimeSeries series = new ApmTimeSeries(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 4, 3));
+        List<ApmTimeSeries.Bucket> tenDays = series.buckets(ApmTimeSeries.Granularity.TENDAY);
+        assertEquals("2025-01-15~20", tenDays.get(0).label);
+        assertEquals("2025-01-21~31", tenDays.get(1).label);
+        assertEquals("2025-04-01~3", tenDays.get(tenDays.size() - 1).label);
+        assertContiguous(tenDays, series.days());
+
+        List<ApmTimeSeries.Bucket> months = series.buckets(ApmTimeSeries.Granularity.MONTH);
+        assertEquals(Arrays.asList("2025-01-15~31", "2025-02-01~28", "2025-03-01~31", "2025-04-01~3"), labels(months));
+        assertEquals("25.02", months.get(1).monthKey);
+        assertContiguous(months, series.days());
+
+        List<ApmTimeSeries.Bucket> quarters = series.buckets(ApmTimeSeries.Granularity.QUARTER);
+        assertEquals(Arrays.asList("2025-01-15~03-31", "2025-04-01~04-03"), labels(quarters));
+        assertEquals("25.Q2", quarters.get(1).monthKey);
+        assertContiguous(quarters, series.days());
+
+        assertEquals(series.days(), series.buckets(ApmTimeSeries.Granularity.DAY).size());
+    }
+
+    @Test
+    public void rollupSumsEachBucketAndTotal() {
+        ApmTimeSeries series = new ApmTimeSeries(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 10));
+        for (int d = 0; d < series.days(); d++) series.putDay(d, Collections.singletonMap("/a", (long) d + 1));
+        series.putDay(3, Collections.singletonMap("/b", 7L));
+        List<ApmTimeSeries.Bucket> buckets = series.buckets(ApmTimeSeries.Granularity.WEEK);
+        Map<String, long[]> rolled = series.rollup(buckets);
+
+        long[] a = rolled.get("/a");
+        assertEquals(buckets.size() + 10, a.length);
+        // 2/1(토)~2/2(일) : 1+2, 2/3~2/9 : 3..9, 2/10 : 10
+        assertEquals(3, a[0]);
+        assertEquals(42, a[1]);
+        assertEquals(10, a[2]);
+        assertEquals(55, a[a.length - 1]);
+        assertEquals(7, rolled.get("/b")[1]);
+        assertEquals(7, rolled.get("/b")[rolled.get("/b").length - 1]);
+    }
+
+    @Test
+    public void bucketIndexMapsEveryDay() {
+        ApmTimeSeries series = new ApmTimeSeries(LocalDate.of(2025, 2, 5), LocalDate.of(2025, 2, 20));
+        List<ApmTimeSeries.Bucket> buckets = series.buckets(ApmTimeSeries.Granularity.WEEK);
+        int[] index = ApmTimeSeries.bucketIndex(buckets, series.days());
+        assertEquals(0, index[0]);
+        assertEquals(0, index[4]);
+        assertEquals(1, index[5]);
+        assertEquals(2, index[series.days() - 1]);
+    }
+
+    private static List<String> labels(List<ApmTimeSeries.Bucket> buckets) {
+        List<String> labels = new ArrayList<>();
+        for (ApmTimeSeries.Bucket b : buckets) labels.add(b.label);
+        return labels;
+    }
+
+    private static void assertContiguous(List<ApmTimeSeries.Bucket> buckets, int days) {
+        int expected = 0;
+        for (ApmTimeSeries.Bucket b : buckets) {
+            assertEquals(expected, b.from);
+            assertTrue(b.to > b.from);
+            expected = b.to;
+        }
+        assertEquals(days, expected);
+    }
+}
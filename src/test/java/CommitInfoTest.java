@@ -0,0 +1,56 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CommitInfo 날짜 압축 / 복원, 풀 공유, 커밋 컬럼 배치 테스트
+ */
+public class CommitInfoTest {
+
+    @Test
+    public void packsAndFormatsIsoDates() {
+        assertEquals(20250302, CommitInfo.packDate("2025-03-02"));
+        assertEquals(0, CommitInfo.packDate("-"));
+        assertEquals(0, CommitInfo.packDate(null));
+        assertEquals(0, CommitInfo.packDate("2025/03/02"));
+        assertEquals(0, CommitInfo.packDate("2025-0x-02"));
+
+        CommitInfo c = CommitInfo.of("2025-03-02", "홍길동", "추가");
+        assertEquals("2025-03-02", c.dateText());
+        assertEquals(LocalDate.of(2025, 3, 2), c.localDate());
+        assertEquals("-", CommitInfo.of("-", "홍길동", "추가").dateText());
+        assertNull(CommitInfo.of("-", "홍길동", "추가").localDate());
+    }
+
+    @Test
+    public void sameCommitIsSharedWithinAPoolAndNoHistoryIsNone() {
+        StringPool pool = new StringPool();
+        CommitInfo a = pool.commit("2025-03-02", new String("홍길동"), new String("회원 조회 추가"));
+        CommitInfo b = pool.commit("2025-03-02", new String("홍길동"), new String("회원 조회 추가"));
+        assertSame(a, b);
+        assertSame(a.author, pool.intern(new String("홍길동")), "커밋터 문자열도 풀에서 공유");
+        assertNotSame(a, pool.commit("2025-03-03", "홍길동", "회원 조회 추가"));
+        assertSame(CommitInfo.NONE, pool.commit("-", "-", "No History"));
+        assertSame(CommitInfo.NONE, CommitInfo.of("-", "-", "No History"));
+        assertNull(pool.intern(null));
+
+        // 다른 분석의 풀과는 공유하지 않음 (내용은 같음)
+        CommitInfo other = new StringPool().commit("2025-03-02", "홍길동", "회원 조회 추가");
+        assertNotSame(a, other);
+        assertEquals(a, other);
+    }
+
+    @Test
+    public void columnsPlaceNewestLastAndPadWithNone() {
+        CommitInfo c1 = CommitInfo.of("2025-01-01", "a", "1"), c2 = CommitInfo.of("2025-02-01", "b", "2"),
+                c3 = CommitInfo.of("2025-03-01", "c", "3");
+        assertArrayEquals(new CommitInfo[]{c2, c3}, CommitInfo.columns(Arrays.asList(c3, c2, c1), 2), "최근 2건을 과거 → 최신 순으로");
+        assertArrayEquals(new CommitInfo[]{c1, CommitInfo.NONE, CommitInfo.NONE}, CommitInfo.columns(Collections.singletonList(c1), 3));
+        assertSame(c3, CommitInfo.latest(new CommitInfo[]{c2, c3, c1, null}));
+        assertSame(CommitInfo.NONE, CommitInfo.latest(new CommitInfo[]{CommitInfo.NONE}));
+    }
+}
@@ -0,0 +1,125 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.NameExpr;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ConstantIndex 단순명 중의성 처리와 단독 상수명(static import / 상수 인터페이스) 조회 테스트
+ */
+public class ConstantIndexTest {
+
+    @TempDir
+    Path root;
+
+    private void write(String relPath, String source) throws IOException {
+        Path file = root.resolve(relPath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ConstantIndex build() throws IOException {
+        return ConstantIndex.build(ApiExtractor.scan(root), null);
+    }
+
+    @Test
+    public void resolvesConcatenationAndCrossClassReferences() throws IOException {
+        write("a/Base.java", "package a; public class Base { public static final String ROOT = \"/api\"; }");
+        write("a/Paths.java", "package a; public class Paths { public static final String USERS = Base.ROOT + \"/users\"; static final String OWN = USERS + \"/me\"; }");
+        ConstantIndex index = build();
+        assertEquals("/api/users", index.lookup("Paths.USERS", null));
+        assertEquals("/api/users", index.lookup("a.Paths.USERS", null));
+        assertEquals("/api/users/me", index.lookup("OWN", "Paths"));
+    }
+
+    @Test
+    public void sameSimpleNameWithSameValueIsNotAmbiguous() throws IOException {
+        write("a/Paths.java", "package a; public class Paths { public static final String BASE = \"/x\"; }");
+        write("b/Paths.java", "package b; public class Paths { public static final String BASE = \"/x\"; }");
+        assertEquals("/x", build().lookup("Paths.BASE", null));
+    }
+
+    @Test
+    public void ambiguityIsStickyWhenALaterValueRepeatsTheFirst() throws IOException {
+        write("a/Paths.java", "package a; public class Paths { public static final String BASE = \"/x\"; }");
+        write("b/Paths.java", "package b; public class Paths { public static final String BASE = \"/y\"; }");
+        write("c/Paths.java", "package c; public class Paths { public static final String BASE = \"/x\"; }");
+        ConstantIndex index = build();
+        assertNull(index.lookup("Paths.BASE", null));
+        // 정규화명은 계속 조회 가능
+        assertEquals("/x", index.lookup("a.Paths.BASE", null));
+        assertEquals("/y", index.lookup("b.Paths.BASE", null));
+        assertEquals("/x", index.lookup("c.Paths.BASE", null));
+    }
+
+    @Test
+    public void unresolvedDefinitionMakesSimpleNameAmbiguous() throws IOException {
+        write("a/Paths.java", "package a; public class Paths { public static final String BASE = \"/x\"; }");
+        write("b/Paths.java", "package b; public class Paths { public static final String BASE = Unknown.VALUE; }");
+        assertNull(build().lookup("Paths.BASE", null));
+    }
+
+    @Test
+    public void bareNameResolvesThroughStaticImportAndConstantsInterface() throws IOException {
+        write("a/Api.java", "package a; public interface Api { String BASE = \"/api/base\"; }");
+        write("b/Api.java", "package b; public interface Api { String BASE = \"/other\"; }");
+        String staticImport = "package c; import static a.Api.BASE; @RequestMapping(BASE) class StaticController {}";
+        String implementing = "package a; @RequestMapping(BASE) class ImplController implements Api {}";
+        String wildcard = "package c; import static b.Api.*; @RequestMapping(BASE) class WildcardController {}";
+        ConstantIndex index = build();
+
+        assertNull(index.lookup("BASE", null), "어디서 가져온 상수인지 모르면 조회하지 않음");
+        assertEquals("/api/base", index.lookup("BASE", "StaticController", scopeOf(staticImport)));
+        assertEquals("/api/base", index.lookup("BASE", "ImplController", scopeOf(implementing)));
+        assertEquals("/other", index.lookup("BASE", "WildcardController", scopeOf(wildcard)));
+    }
+
+    private static ConstantIndex.Scope scopeOf(String source) {
+        CompilationUnit cu = StaticJavaParser.parse(source);
+        NameExpr name = cu.findFirst(NameExpr.class).orElseThrow(IllegalStateException::new);
+        return ConstantIndex.Scope.of(name);
+    }
+
+    @Test
+    public void updateReparsesChangedFilesAndDropsDeletedOnes() throws IOException {
+        write("a/Base.java", "package a; public class Base { public static final String ROOT = \"/api\"; }");
+        write("a/Paths.java", "package a; public class Paths { public static final String USERS = Base.ROOT + \"/users\"; }");
+        write("b/Old.java", "package b; public class Old { public static final String GONE = \"/old\"; }");
+        ConstantIndex before = build();
+
+        write("a/Base.java", "package a; public class Base { public static final String ROOT = \"/v2\"; }");
+        write("c/Added.java", "package c; public class Added { public static final String NEW = Paths.USERS + \"/new\"; }");
+        ConstantIndex after = before.update(
+                Arrays.asList(SourceFile.ofPath(root, root.resolve("a/Base.java")), SourceFile.ofPath(root, root.resolve("c/Added.java"))),
+                Collections.singletonList(SourceFile.ofPath(root, root.resolve("b/Old.java")).cacheKey));
+
+        assertEquals("/v2/users", after.lookup("Paths.USERS", null), "변경되지 않은 파일의 상수도 새 값 기준으로 재해석");
+        assertEquals("/v2/users/new", after.lookup("Added.NEW", null));
+        assertNull(after.lookup("Old.GONE", null));
+        assertTrue(after.summary().startsWith("대상 파일 3개(신규 파싱 2개)"), after.summary());
+        // 기존 인덱스는 그대로 유지
+        assertEquals("/api/users", before.lookup("Paths.USERS", null));
+        assertEquals("/old", before.lookup("Old.GONE", null));
+    }
+
+    @Test
+    public void parsedDefinitionsStayInTheEngineContext() throws IOException {
+        write("a/Base.java", "package a; public class Base { public static final String ROOT = \"/api\"; }");
+        ApiExtractor.Context first = new ApiExtractor.Context(), second = new ApiExtractor.Context();
+        ConstantIndex index = ConstantIndex.build(ApiExtractor.scan(root), null, first.constants);
+        assertEquals("/api", index.lookup("Base.ROOT", null));
+        assertEquals(1, first.constants.size());
+        assertEquals(0, second.constants.size(), "다른 엔진의 컨텍스트와 공유하지 않음");
+
+        // 같은 컨텍스트 안에서는 재사용 (신규 파싱 0개)
+        ConstantIndex again = ConstantIndex.build(ApiExtractor.scan(root), null, first.constants);
+        assertTrue(again.summary().startsWith("대상 파일 1개(신규 파싱 0개)"), again.summary());
+    }
+}
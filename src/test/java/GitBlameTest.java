@@ -0,0 +1,108 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * GitBlame --incremental 출력 판독, 메소드 라인 범위 이력, 미커밋 라인 제외, 캐시 저장/로드 테스트
+ */
+public class GitBlameTest {
+
+    private static final String A = "1111111111111111111111111111111111111111", B = "2222222222222222222222222222222222222222";
+    private static final String ZERO = "0000000000000000000000000000000000000000";
+
+    @TempDir
+    Path dir;
+
+    private static GitBlame.FileBlame parse(String output, boolean[] uncommitted) throws IOException {
+        return GitBlame.parseIncremental(new BufferedReader(new StringReader(output)), new StringPool(), uncommitted);
+    }
+
+    private static String header(String sha, int fin, int lines, String author, long time, String tz, String summary) {
+        return sha + " " + fin + " " + fin + " " + lines + "\n"
+                + (author == null ? "" : "author " + author + "\nauthor-mail <x>\nauthor-time " + time + "\nauthor-tz " + tz + "\nsummary " + summary + "\n")
+                + "filename Ctrl.java\n";
+    }
+
+    @Test
+    public void parsesIncrementalOutputAndRepeatsHeadersOnlyOnce() throws IOException {
+        String out = header(B, 4, 2, "lee", 1_735_700_000L, "+0900", "두번째")
+                + header(A, 1, 3, "kim", 1_700_000_000L, "+0900", "최초")
+                + header(A, 6, 1, null, 0, null, null);
+        boolean[] uncommitted = {false};
+        GitBlame.FileBlame blame = parse(out, uncommitted);
+        assertFalse(uncommitted[0]);
+
+        CommitInfo[] both = blame.history(2, 5, 3);
+        assertEquals("kim", both[0].author, "과거 → 최신 순");
+        assertEquals("lee", both[1].author);
+        assertEquals("2025-01-01", both[1].dateText(), "작성자 시간대 기준 날짜");
+        assertSame(CommitInfo.NONE, both[2], "부족분은 NONE");
+
+        CommitInfo[] onlyA = blame.history(6, 6, 3);
+        assertEquals("최초", onlyA[0].message);
+        assertSame(CommitInfo.NONE, onlyA[1]);
+        assertSame(CommitInfo.NONE, blame.history(50, 60, 3)[0]);
+    }
+
+    @Test
+    public void uncommittedLinesAreNotReportedAsACommit() throws IOException {
+        String out = header(A, 1, 3, "kim", 1_700_000_000L, "+0900", "최초")
+                + header(ZERO, 4, 1, "Not Committed Yet", 1_800_000_000L, "+0900", "Version of Ctrl.java from Ctrl.java");
+        boolean[] uncommitted = {false};
+        GitBlame.FileBlame blame = parse(out, uncommitted);
+        assertTrue(uncommitted[0]);
+
+        CommitInfo[] history = blame.history(1, 4, 3);
+        assertEquals("kim", history[0].author);
+        assertSame(CommitInfo.NONE, history[1]);
+        for (CommitInfo c : blame.history(4, 4, 3)) assertSame(CommitInfo.NONE, c);
+    }
+
+    @Test
+    public void blamesWorkingTreeMethodsAndCachesCommittedFiles() throws IOException {
+        GitTestRepo repo = new GitTestRepo(Files.createDirectories(dir.resolve("repo")));
+        repo.write("Ctrl.java", "class Ctrl {\n  void a() {}\n  void b() {}\n}\n");
+        repo.commit("kim", "2025-01-02", "init");
+        repo.write("Ctrl.java", "class Ctrl {\n  void a() {}\n  void b() { int x; }\n}\n");
+        repo.commit("lee", "2025-02-03", "b 수정");
+
+        File cache = dir.resolve("blame.cache").toFile();
+        GitBlame blame = new GitBlame("git", repo.root.toFile(), 2, cache);
+        SourceFile file = SourceFile.ofPath(repo.root, repo.root.resolve("Ctrl.java"));
+        GitBlame.FileBlame result = blame.blame(file, null);
+        assertNotNull(result);
+        assertEquals("kim", result.history(2, 2, 3)[0].author);
+        assertEquals("lee", result.history(3, 3, 3)[0].author);
+        assertEquals("2025-02-03", result.history(3, 3, 3)[0].dateText());
+        assertEquals("lee", result.history(1, 4, 3)[1].author);
+        assertEquals(1, blame.cachedFiles());
+        blame.save();
+
+        GitBlame reloaded = new GitBlame("git-not-installed", repo.root.toFile(), 1, cache);
+        assertEquals(1, reloaded.cachedFiles());
+        assertEquals("lee", reloaded.blame(file, null).history(3, 3, 3)[0].author, "캐시 적중 시 git 실행 안 함");
+    }
+
+    @Test
+    public void uncommittedEditsAreExcludedAndNotCached() throws IOException {
+        GitTestRepo repo = new GitTestRepo(Files.createDirectories(dir.resolve("repo")));
+        repo.write("Ctrl.java", "class Ctrl {\n  void a() {}\n}\n");
+        repo.commit("kim", "2025-01-02", "init");
+        repo.write("Ctrl.java", "class Ctrl {\n  void a() { edit(); }\n}\n");
+
+        GitBlame blame = new GitBlame("git", repo.root.toFile(), 1, null);
+        GitBlame.FileBlame result = blame.blame(SourceFile.ofPath(repo.root, repo.root.resolve("Ctrl.java")), null);
+        assertNotNull(result);
+        for (CommitInfo c : result.history(2, 2, 3)) assertNotEquals("Not Committed Yet", c.author);
+        assertEquals("kim", result.history(1, 3, 3)[0].author);
+        assertEquals(0, blame.cachedFiles());
+    }
+}
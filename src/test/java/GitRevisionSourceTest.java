@@ -0,0 +1,94 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * GitRevisionSource 체크아웃 없는 리비전 파일 목록 / blob 조회 / 읽기 제한 시간 테스트
+ */
+public class GitRevisionSourceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void readsTheCommittedRevisionNotTheWorkingTree() throws IOException {
+        GitTestRepo repo = new GitTestRepo(dir);
+        repo.write("app/src/web/AController.java", "class AController { /* v1 */ }\n");
+        repo.write("app/src/web/readme.txt", "not java");
+        repo.write("other/BController.java", "class BController {}\n");
+        repo.commit("kim", "2025-01-02", "v1");
+        repo.git("tag", "v1");
+        repo.write("app/src/web/AController.java", "class AController { /* v2 */ }\n");
+        repo.commit("kim", "2025-01-03", "v2");
+        repo.write("app/src/web/AController.java", "class AController { /* 작업 중 */ }\n");
+
+        // ROOT_PATH가 저장소 하위 디렉토리인 경우 그 하위만, ROOT_PATH 기준 상대 경로로 조회
+        try (GitRevisionSource source = new GitRevisionSource("git", dir.resolve("app").toFile())) {
+            List<SourceFile> files = source.listJavaFiles("v1");
+            assertEquals(1, files.size());
+            SourceFile a = files.get(0);
+            assertEquals("src" + File.separator + "web" + File.separator + "AController.java", a.relPath);
+            assertEquals("AController.java", a.fileName);
+            assertEquals("blob:" + a.blobSha, a.cacheKey);
+            assertEquals("class AController { /* v1 */ }\n", a.readString());
+            assertEquals(a.blobSha, a.readText().sha, "읽은 내용의 해시가 blob SHA와 같음");
+
+            SourceFile head = source.listJavaFiles("HEAD").get(0);
+            assertEquals("class AController { /* v2 */ }\n", new String(source.readBlob(head.blobSha), StandardCharsets.UTF_8));
+            // 같은 cat-file 프로세스로 여러 번 조회
+            assertEquals("class AController { /* v1 */ }\n", new String(source.readBlob(a.blobSha), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void failsOnUnknownRevisionOrObject() throws IOException {
+        GitTestRepo repo = new GitTestRepo(dir);
+        repo.write("A.java", "class A {}\n");
+        repo.commit("kim", "2025-01-02", "init");
+        try (GitRevisionSource source = new GitRevisionSource("git", dir.toFile())) {
+            assertThrows(IOException.class, () -> source.listJavaFiles("no-such-tag"));
+            assertThrows(IOException.class, () -> source.readBlob("0123456789012345678901234567890123456789"));
+        }
+    }
+
+    @Test
+    public void readDeadlineStartsAfterWaitingForTheSharedProcess() throws Exception {
+        GitTestRepo repo = new GitTestRepo(dir);
+        repo.write("A.java", "class A {}\n");
+        repo.commit("kim", "2025-01-02", "init");
+        Properties props = new Properties();
+        props.setProperty("WATCHDOG_READ_SEC", "1");
+        StepWatchdog.Session session = new StepWatchdog.Session(StepWatchdog.Limits.from(props));
+
+        try (GitRevisionSource source = new GitRevisionSource("git", dir.toFile())) {
+            SourceFile a = source.listJavaFiles("HEAD").get(0);
+            CountDownLatch locked = new CountDownLatch(1);
+            // 다른 분석 스레드가 cat-file 프로세스를 제한 시간보다 오래 사용 중인 상황
+            Thread holder = new Thread(() -> {
+                synchronized (source) {
+                    locked.countDown();
+                    try { Thread.sleep(1500); } catch (InterruptedException ignored) { }
+                }
+            });
+            holder.start();
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            String content = session.within(() -> {
+                try { return a.readString(); } catch (IOException e) { throw new UncheckedIOException(e); }
+            });
+            assertEquals("class A {}\n", content, "대기 시간은 읽기 제한 시간에 포함되지 않음");
+            assertFalse(String.join("", session.report()).contains("[read]"), String.join("", session.report()));
+            holder.join();
+        }
+    }
+}
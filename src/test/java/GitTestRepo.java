@@ -0,0 +1,56 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 테스트용 임시 git 저장소 : 커밋 작성자 / 날짜를 고정하여 이력 기반 결과를 검증
+ */
+final class GitTestRepo {
+
+    final Path root;
+
+    GitTestRepo(Path root) throws IOException {
+        this.root = root;
+        git("init", "-q");
+    }
+
+    void write(String relPath, String content) throws IOException {
+        Path file = root.resolve(relPath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** 전체 변경을 지정한 작성자 / 날짜(yyyy-MM-dd)로 커밋 */
+    void commit(String author, String date, String message) throws IOException {
+        git("add", "-A");
+        String when = date + "T12:00:00+09:00";
+        git(Arrays.asList("GIT_AUTHOR_DATE=" + when, "GIT_COMMITTER_DATE=" + when),
+                "-c", "user.name=" + author, "-c", "user.email=" + author + "@example.com", "commit", "-q", "-m", message);
+    }
+
+    String git(String... args) throws IOException { return git(new ArrayList<>(), args); }
+
+    private String git(List<String> env, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        ProcessBuilder builder = new ProcessBuilder(command).directory(root.toFile()).redirectErrorStream(true);
+        for (String kv : env) builder.environment().put(kv.substring(0, kv.indexOf('=')), kv.substring(kv.indexOf('=') + 1));
+        Process p = builder.start();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = p.getInputStream()) { in.transferTo(out); }
+        try {
+            if (p.waitFor() != 0) throw new IOException("git " + String.join(" ", args) + " 실패: " + out.toString(StandardCharsets.UTF_8));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8).trim();
+    }
+}
@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * InventoryQueryServer 경로 트라이 매칭 / 조건 필터 / 오류 응답 테스트 (임의 포트의 localhost 서버)
+ */
+public class InventoryQueryServerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private InventoryQueryServer server;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = new InventoryQueryServer(0);
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop();
+    }
+
+    private static InventoryQueryServer.Entry entry(String path, String controller, String programId, long calls, String suspicion) {
+        return new InventoryQueryServer.Entry(path, "/APP" + path, controller, "m", "web/" + controller, programId, "N", calls, suspicion, "2025-01-01", "kim");
+    }
+
+    private JsonNode get(String query, int expectedStatus) throws IOException {
+        HttpURLConnection c = (HttpURLConnection) new URL("http://localhost:" + server.port() + query).openConnection();
+        assertEquals(expectedStatus, c.getResponseCode());
+        try (InputStream in = expectedStatus == 200 ? c.getInputStream() : c.getErrorStream()) {
+            return MAPPER.readTree(in);
+        }
+    }
+
+    private static List<String> paths(JsonNode result) {
+        List<String> paths = new ArrayList<>();
+        for (JsonNode item : result.get("items")) paths.add(item.get("apiPath").asText());
+        return paths;
+    }
+
+    @Test
+    public void answersOnlyAfterPublish() throws IOException {
+        assertTrue(get("/api/apis", 404).get("error").asText().contains("분석 진행 중"));
+        server.publish("TEST", Arrays.asList(entry("/owners/{id}", "OwnerController.java", "ownerView", 0, "★★")));
+        assertEquals(1, get("/api/summary", 200).get("repos").get(0).get("apis").asInt());
+    }
+
+    @Test
+    public void matchesPathVariablesPrefixesAndFilters() throws IOException {
+        server.publish("TEST", Arrays.asList(
+                entry("/owners/{id}", "OwnerController.java", "ownerView", 0, "★★"),
+                entry("/owners/list", "OwnerController.java", "ownerList", 120, ""),
+                entry("/pets/{id}/visits", "PetController.java", "petVisits", -1, "★")));
+
+        assertEquals(Arrays.asList("/owners/{id}"), paths(get("/api/apis?path=/owners/7", 200)));
+        assertEquals(Arrays.asList("/owners/list", "/owners/{id}"), paths(get("/api/apis?path=/owners/list", 200)), "리터럴 세그먼트 우선, {변수}도 매칭");
+        assertEquals(Arrays.asList("/owners/{id}"), paths(get("/api/apis?path=/owners/list&maxCalls=0", 200)));
+        assertEquals(Arrays.asList("/pets/{id}/visits"), paths(get("/api/apis?path=/pets/3/visits", 200)));
+        assertEquals(2, get("/api/apis?prefix=/owners", 200).get("count").asInt());
+        assertEquals(2, get("/api/apis?controller=ownercontroller", 200).get("count").asInt(), ".java 생략 / 대소문자 무시");
+        assertEquals(Arrays.asList("/owners/{id}"), paths(get("/api/apis?suspicion=2", 200)));
+        assertEquals(Arrays.asList("/owners/{id}"), paths(get("/api/apis?maxCalls=0", 200)), "APM 미연동(-1)은 제외");
+
+        JsonNode limited = get("/api/apis?limit=1", 200);
+        assertEquals(3, limited.get("count").asInt());
+        assertTrue(limited.get("truncated").asBoolean());
+        assertEquals(1, limited.get("items").size());
+    }
+
+    @Test
+    public void rejectsBadParametersAndUnknownRepos() throws IOException {
+        server.publish("TEST", Arrays.asList(entry("/owners/{id}", "OwnerController.java", "ownerView", 0, "")));
+        assertTrue(get("/api/apis?limit=abc", 400).get("error").asText().contains("limit"));
+        get("/api/apis?repo=OTHER", 404);
+    }
+}
@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * InventorySnapshot 바이너리 저장/로드, 변경내역 비교, 최신 스냅샷 탐색 테스트
+ */
+public class InventorySnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private static InventorySnapshot.Entry entry(String path, String handler, String owner, long calls) {
+        String[] h = handler.split("#");
+        return new InventorySnapshot.Entry(path, h[0], h[1], owner, false, calls);
+    }
+
+    private static InventorySnapshot snapshot(String repo, InventorySnapshot.Entry... entries) {
+        return new InventorySnapshot(repo, 1_700_000_000_000L, Arrays.asList(entries));
+    }
+
+    @Test
+    public void writeReadRoundTrip() throws IOException {
+        InventorySnapshot written = snapshot("api",
+                entry("/a", "AController#list", "홍길동", 0),
+                new InventorySnapshot.Entry("/b", "BController", "get", null, true, InventorySnapshot.CALLS_UNKNOWN),
+                entry("/c", "AController#list", "홍길동", 1L << 40));
+        File file = dir.resolve("s.snap.gz").toFile();
+        written.write(file);
+
+        InventorySnapshot read = InventorySnapshot.read(file);
+        assertEquals("api", read.repoName);
+        assertEquals(written.createdAt, read.createdAt);
+        assertEquals(3, read.entries.size());
+        InventorySnapshot.Entry b = read.entries.get(1);
+        assertEquals("/b", b.apiPath);
+        assertEquals("", b.owner, "null 담당자는 빈 문자열로 저장");
+        assertTrue(b.deprecated);
+        assertEquals(InventorySnapshot.CALLS_UNKNOWN, b.calls);
+        assertEquals(1L << 40, read.entries.get(2).calls);
+    }
+
+    @Test
+    public void rejectsForeignFiles() throws IOException {
+        File file = dir.resolve("other.gz").toFile();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(file)))) { out.writeInt(0x12345678); }
+        assertThrows(IOException.class, () -> InventorySnapshot.read(file));
+    }
+
+    @Test
+    public void varLongRoundTrip() throws IOException {
+        long[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE, -1};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (long v : values) InventorySnapshot.writeVarLong(out, v);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (long v : values) assertEquals(v, InventorySnapshot.readVarLong(in));
+        assertEquals(1 + 1 + 1 + 2 + 2 + 5 + 9 + 10, bytes.size());
+    }
+
+    @Test
+    public void diffReportsEachChangeType() {
+        InventorySnapshot before = snapshot("api",
+                entry("/kept", "AController#list", "kim", 100),
+                entry("/removed", "AController#old", "kim", 5),
+                entry("/moved", "AController#get", "kim", 10),
+                entry("/owner", "BController#get", "kim", 10),
+                entry("/multi", "CController#a", "lee", 1),
+                entry("/multi", "CController#b", "lee", 1));
+        InventorySnapshot after = snapshot("api",
+                entry("/kept", "AController#list", "kim", 100),
+                entry("/added", "DController#new", "park", 0),
+                entry("/moved", "MController#get", "kim", 3),
+                entry("/owner", "BController#get", "lee", 10),
+                entry("/multi", "CController#b", "lee", 1),
+                entry("/multi", "CController#a", "lee", 1));
+
+        List<InventorySnapshot.Change> changes = InventorySnapshot.diff(before, after, 5);
+        List<String> summary = new ArrayList<>();
+        for (InventorySnapshot.Change c : changes) summary.add(c.type + " " + c.apiPath);
+        assertEquals(Arrays.asList(
+                InventorySnapshot.ADDED + " /added",
+                InventorySnapshot.REMOVED + " /removed",
+                InventorySnapshot.MOVED + " /moved",
+                InventorySnapshot.OWNER_CHANGED + " /owner",
+                InventorySnapshot.CALL_DELTA + " /moved"), summary, "핸들러 순서만 다른 경로는 변경 아님, 증감 5 미만은 제외");
+        assertEquals(-7, changes.get(4).delta());
+    }
+
+    @Test
+    public void unknownCallsAreNotCompared() {
+        InventorySnapshot before = snapshot("api", entry("/a", "A#a", "kim", InventorySnapshot.CALLS_UNKNOWN));
+        InventorySnapshot after = snapshot("api", entry("/a", "A#a", "kim", 1000));
+        assertTrue(InventorySnapshot.diff(before, after, 1).isEmpty());
+    }
+
+    @Test
+    public void findLatestIgnoresReposSharingThePrefix() throws IOException {
+        File snapDir = dir.toFile();
+        for (String name : new String[]{"snapshot_api_20250101_090000.snap.gz", "snapshot_api_20250102_090000.snap.gz",
+                "snapshot_api_admin_20250103_090000.snap.gz", "snapshot_api_20250104_090000.snap.gz.tmp"}) {
+            assertTrue(new File(snapDir, name).createNewFile());
+        }
+        assertEquals("snapshot_api_20250102_090000.snap.gz", InventorySnapshot.findLatest(snapDir, "api").getName());
+        assertEquals("snapshot_api_admin_20250103_090000.snap.gz", InventorySnapshot.findLatest(snapDir, "api_admin").getName());
+        assertNull(InventorySnapshot.findLatest(snapDir, "ap"));
+    }
+}
@@ -0,0 +1,46 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Launcher 하위 명령 → 도구 main 연결과 AppCDS 학습 실행(부작용 없이 클래스 적재) 테스트
+ */
+public class LauncherTest {
+
+    @Test
+    public void everySubcommandResolvesToAToolMain() throws Exception {
+        String[][] expected = {{"api", "ApiExcelExporter"}, {"menu", "MenuExcelExporter"}, {"whatap", "WhatapApiCounter"}, {"jennifer", "JenniferApiCounter"}};
+        for (String[] e : expected) {
+            assertEquals(e[1], Launcher.mainClass(e[0]));
+            // 정적 초기화(설정 로드) 없이 main 시그니처만 확인
+            Method main = Class.forName(e[1], false, getClass().getClassLoader()).getMethod("main", String[].class);
+            assertTrue(Modifier.isStatic(main.getModifiers()), e[1]);
+        }
+        assertEquals("MenuExcelExporter", Launcher.mainClass("MENU"), "대소문자 무시");
+        assertNull(Launcher.mainClass("cds-train"), "학습 실행은 도구 명령이 아님");
+        assertNull(Launcher.mainClass("unknown"));
+        assertNull(Launcher.mainClass(null));
+    }
+
+    @Test
+    public void cdsTrainingRunLoadsToolClassesWithoutSideEffects() throws Exception {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(captured, true, "UTF-8"));
+        try {
+            Launcher.main(new String[]{"CDS-TRAIN"});
+        } finally {
+            System.setOut(original);
+        }
+        String out = captured.toString(StandardCharsets.UTF_8);
+        assertTrue(out.startsWith("[CDS] 학습 실행 완료: 도구 클래스 "), out);
+        int loaded = Integer.parseInt(out.replaceAll("(?s).*도구 클래스 (\\d+)개.*", "$1"));
+        assertTrue(loaded >= 4, "target/classes의 도구 클래스 적재: " + loaded);
+    }
+}
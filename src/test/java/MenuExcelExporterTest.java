@@ -0,0 +1,108 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * MenuExcelExporter 스트리밍 메뉴 파서(streamMenus) 행 순서 / 키 순서 / URL 없는 메뉴 처리 테스트
+ */
+public class MenuExcelExporterTest {
+
+    @TempDir
+    Path dir;
+
+    private List<MenuExcelExporter.MenuInfo> parse(String json) throws IOException {
+        File file = dir.resolve("menu.json").toFile();
+        Files.write(file.toPath(), json.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+        List<MenuExcelExporter.MenuInfo> rows = new ArrayList<>();
+        long emitted = MenuExcelExporter.streamMenus(file, rows::add);
+        assertEquals(rows.size(), emitted);
+        return rows;
+    }
+
+    private static List<String> urls(List<MenuExcelExporter.MenuInfo> rows) {
+        List<String> urls = new ArrayList<>();
+        for (MenuExcelExporter.MenuInfo m : rows) urls.add(m.locaMenUrl);
+        return urls;
+    }
+
+    private static List<String> paths(List<MenuExcelExporter.MenuInfo> rows) {
+        List<String> paths = new ArrayList<>();
+        for (MenuExcelExporter.MenuInfo m : rows) paths.add(m.menuPath);
+        return paths;
+    }
+
+    @Test
+    public void nestedMenusComeOutInPreOrder() throws IOException {
+        List<MenuExcelExporter.MenuInfo> rows = parse("["
+                + "{'locaMenIdNm':'A','locaMenUrl':'/a','sub':[{'locaMenIdNm':'B','locaMenUrl':'/b','sub':[{'locaMenIdNm':'C','locaMenUrl':'/c'}]}]},"
+                + "{'locaMenIdNm':'D','locaMenUrl':'/d'}]");
+        assertEquals(Arrays.asList("/a", "/b", "/c", "/d"), urls(rows));
+        assertEquals(Arrays.asList("A", "A > B", "A > B > C", "D"), paths(rows));
+    }
+
+    @Test
+    public void orderDoesNotDependOnKeyOrder() throws IOException {
+        List<MenuExcelExporter.MenuInfo> before = parse("[{'locaMenUrl':'/a','locaMenIdNm':'A','sub':[{'locaMenUrl':'/b','locaMenIdNm':'B'}]},{'locaMenUrl':'/d'}]");
+        List<MenuExcelExporter.MenuInfo> after = parse("[{'locaMenUrl':'/a','sub':[{'locaMenIdNm':'B','locaMenUrl':'/b'}],'locaMenIdNm':'A'},{'locaMenUrl':'/d'}]");
+        assertEquals(Arrays.asList("/a", "/b", "/d"), urls(before));
+        assertEquals(urls(before), urls(after));
+        assertEquals("A > B", before.get(1).menuPath);
+    }
+
+    @Test
+    public void fieldsBeforeSubAreKeptOnTheParentRow() throws IOException {
+        List<MenuExcelExporter.MenuInfo> rows = parse("[{'locaMenId':'M1','locaMenIdNm':'목록','locaMenUrl':'/app/owner_list.do','sub':[]}]");
+        assertEquals(1, rows.size());
+        assertEquals("M1", rows.get(0).locaMenId);
+        assertEquals("owner", rows.get(0).progId);
+        assertEquals("-", rows.get(0).locaMenCNm);
+    }
+
+    @Test
+    public void menusWithoutUrlAreSkippedButNameTheirChildren() throws IOException {
+        List<MenuExcelExporter.MenuInfo> rows = parse("[{'locaMenIdNm':'그룹','locaMenUrl':'  ','sub':[{'locaMenIdNm':'X','locaMenUrl':'/x'}]},{'locaMenIdNm':'빈값'}]");
+        assertEquals(Collections.singletonList("/x"), urls(rows));
+        assertEquals("그룹 > X", rows.get(0).menuPath);
+    }
+
+    @Test
+    public void urlAfterSubIsStillEmitted() throws IOException {
+        List<MenuExcelExporter.MenuInfo> rows = parse("[{'locaMenIdNm':'A','sub':[{'locaMenIdNm':'B','locaMenUrl':'/b'}],'locaMenUrl':'/a'}]");
+        assertEquals(Arrays.asList("/b", "/a"), urls(rows));
+        assertEquals("A > B", rows.get(0).menuPath);
+    }
+
+    @Test
+    public void supportsWrapperSingleObjectAndComments() throws IOException {
+        assertEquals(Arrays.asList("/a", "/b"), urls(parse("/* 메뉴 */ {'menu':[{'locaMenUrl':'/a'},{'locaMenUrl':'/b','extra':{'sub':[{'locaMenUrl':'/skip'}]}}]}")));
+        assertEquals(Arrays.asList("/a", "/c"), urls(parse("{'menu':{'locaMenUrl':'/a','sub':[{'locaMenUrl':'/c'}]}}")));
+        assertEquals(Collections.singletonList("/only"), urls(parse("{'locaMenIdNm':'단일','locaMenUrl':'/only'}")));
+    }
+
+    @Test
+    public void deepNestingDoesNotOverflowTheStack() throws IOException {
+        int depth = 5000;
+        StringBuilder json = new StringBuilder();
+        for (int i = 0; i < depth; i++) json.append("[{'locaMenUrl':'/m").append(i).append("','sub':");
+        json.append("[]");
+        for (int i = 0; i < depth; i++) json.append("}]");
+        List<MenuExcelExporter.MenuInfo> rows = parse(json.toString());
+        assertEquals(depth, rows.size());
+        assertEquals("/m0", rows.get(0).locaMenUrl);
+        assertEquals("/m" + (depth - 1), rows.get(depth - 1).locaMenUrl);
+    }
+
+    @Test
+    public void extractsProgramIds() {
+        assertEquals("owner", MenuExcelExporter.autoExtractProgramId("/app/owner_list.do"));
+        assertEquals("owners", MenuExcelExporter.autoExtractProgramId("/owners/{id}/edit"));
+        assertEquals("-", MenuExcelExporter.autoExtractProgramId("/"));
+    }
+}
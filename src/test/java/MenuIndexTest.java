@@ -0,0 +1,60 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * MenuIndex URL 정규화와 메뉴 ↔ API 조인 우선순위 테스트
+ */
+public class MenuIndexTest {
+
+    private static MenuExcelExporter.MenuInfo menu(String path, String url, String progId) {
+        MenuExcelExporter.MenuInfo m = new MenuExcelExporter.MenuInfo();
+        m.menuPath = path; m.locaMenUrl = url; m.progId = progId;
+        return m;
+    }
+
+    @Test
+    public void normalizesHostQueryCaseAndVariables() {
+        assertEquals("/app/owners/{*}/detail.do", MenuIndex.normalizeUrl("https://host/APP/owners/{ownerId}/detail.do;jsessionid=XX?a=1"));
+        assertEquals("/app/list", MenuIndex.normalizeUrl("app//list/"));
+        assertEquals("/", MenuIndex.normalizeUrl("http://host"));
+        assertEquals("", MenuIndex.normalizeUrl("-"));
+        assertEquals("", MenuIndex.normalizeUrl(null));
+    }
+
+    @Test
+    public void joinsByUrlThenPrefixThenProgramId() {
+        MenuIndex index = new MenuIndex(Arrays.asList(
+                menu("회원 > 목록", "/owners/list.do", "ownerList"),
+                menu("회원 > 상세", "/owners/{id}", "-"),
+                menu("주문", "/orders", "orderMain")), "/api");
+
+        assertEquals("회원 > 목록", index.find("/OWNERS/list.do", null).menuPath);
+        assertEquals("회원 > 상세", index.find("/owners/{ownerId}", null).menuPath, "변수명 차이 무시");
+        assertEquals("주문", index.find("/api/orders", null).menuPath, "API Prefix 생략 URL");
+        assertEquals("회원 > 목록", index.find("/other/path", "OWNERLIST").menuPath, "프로그램ID는 대소문자 무시");
+        assertNull(index.find("/other/path", "-"));
+    }
+
+    @Test
+    public void firstMenuWinsForSharedUrl() {
+        MenuIndex index = new MenuIndex(Arrays.asList(menu("A", "/x", "-"), menu("B", "/x/", "-")), "");
+        assertEquals("A", index.find("/x", null).menuPath);
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void programIdSharedByDifferentMenusIsNotJoined() {
+        MenuIndex index = new MenuIndex(Arrays.asList(
+                menu("A", "/a", "list"), menu("B", "/b", "list"), menu("C", "/c", "LIST"), menu("D", "/d", "detail")), "");
+        assertNull(index.find("/none", "list"), "범용 프로그램ID는 임의 메뉴로 조인하지 않음");
+        assertEquals("D", index.find("/none", "detail").menuPath);
+    }
+
+    @Test
+    public void emptyIndexFindsNothing() {
+        assertNull(new MenuIndex(Collections.emptyList(), "/api").find("/api/x", "x"));
+    }
+}
@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ReviewCarryOver 이전 결과 SAX 판독 / 매칭 우선순위 / 날짜 검토 컬럼 이월 테스트
+ */
+public class ReviewCarryOverTest {
+
+    @TempDir
+    Path dir;
+
+    private static final int COLS = ReviewCarryOver.FIRST_REVIEW_COL + ReviewCarryOver.REVIEW_HEADERS.length;
+
+    /** {API 경로, 컨트롤러명, 호출메소드, 미사용 검토결과, 관련메뉴, 조치예정일자(날짜), 비고} */
+    private File workbook(Object[]... rows) throws Exception {
+        File file = dir.resolve("previous.xlsx").toFile();
+        try (Workbook wb = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(file)) {
+            CellStyle dotted = wb.createCellStyle();
+            dotted.setDataFormat(wb.createDataFormat().getFormat("yyyy. m. d."));
+            Sheet sheet = wb.createSheet("API분석_T");
+            Row header = sheet.createRow(0);
+            header.createCell(3).setCellValue("API 경로");
+            header.createCell(6).setCellValue("컨트롤러명");
+            header.createCell(7).setCellValue("호출메소드");
+            for (int k = 0; k < ReviewCarryOver.REVIEW_HEADERS.length; k++) header.createCell(ReviewCarryOver.FIRST_REVIEW_COL + k).setCellValue(ReviewCarryOver.REVIEW_HEADERS[k]);
+            for (int r = 0; r < rows.length; r++) {
+                Row row = sheet.createRow(r + 1);
+                Object[] v = rows[r];
+                row.createCell(3).setCellValue((String) v[0]);
+                row.createCell(6).setCellValue((String) v[1]);
+                row.createCell(7).setCellValue((String) v[2]);
+                if (v[3] != null) row.createCell(29).setCellValue((String) v[3]);
+                if (v[4] != null) row.createCell(30).setCellValue((String) v[4]);
+                if (v[5] != null) { Cell c = row.createCell(31); c.setCellValue((LocalDate) v[5]); c.setCellStyle(dotted); }
+                if (v[6] != null) row.createCell(35).setCellValue((String) v[6]);
+            }
+            // 변경내역 등 다른 시트는 판독하지 않음
+            wb.createSheet("변경내역").createRow(0).createCell(3).setCellValue("/ignored");
+            wb.write(out);
+        }
+        return file;
+    }
+
+    private static String[] newRow() { return new String[COLS]; }
+
+    @Test
+    public void carriesManualValuesByPathAndMethod() throws Exception {
+        ReviewCarryOver carry = ReviewCarryOver.load(workbook(
+                new Object[]{"/a", "AController", "list", "미사용", null, null, "확인 필요"},
+                new Object[]{"/b", "BController", "get", null, null, null, null}), null);
+        assertEquals(1, carry.size(), "수기 입력이 없는 행은 보관하지 않음");
+
+        String[] data = newRow();
+        assertTrue(carry.merge(data, "/a", "AController", "list"));
+        assertEquals("미사용", data[29]);
+        assertEquals("확인 필요", data[35]);
+        assertFalse(carry.merge(newRow(), "/b", "BController", "get"));
+    }
+
+    @Test
+    public void fallsBackToPathThenMethodUnlessAmbiguous() throws Exception {
+        ReviewCarryOver carry = ReviewCarryOver.load(workbook(
+                new Object[]{"/a", "AController", "list", "경로 일치", null, null, null},
+                new Object[]{"/m1", "MController", "multi", "다중 경로", null, null, null},
+                new Object[]{"/m2", "MController", "multi", null, null, null, null}), null);
+        assertEquals("경로 일치", carry.find("/a", "Renamed", "renamed")[0]);
+        assertEquals("경로 일치", carry.find("/a-moved", "AController", "list")[0]);
+        assertEquals("다중 경로", carry.find("/m1", "MController", "multi")[0]);
+        assertNull(carry.find("/m3", "MController", "multi"), "여러 경로를 매핑한 메소드는 메소드 기준으로 매칭하지 않음");
+    }
+
+    @Test
+    public void dateColumnsAreReadAsIsoDates() throws Exception {
+        ReviewCarryOver carry = ReviewCarryOver.load(workbook(
+                new Object[]{"/a", "AController", "list", null, null, LocalDate.of(2025, 3, 1), null}), null);
+        String[] data = newRow();
+        assertTrue(carry.merge(data, "/a", "AController", "list"));
+        assertEquals("2025-03-01", data[31], "셀 서식(yyyy. m. d.)과 무관하게 ISO 날짜로 판독");
+        assertEquals(LocalDate.of(2025, 3, 1), ReviewCarryOver.parseDate(data[31]));
+    }
+
+    @Test
+    public void dateColumnHelpers() {
+        assertTrue(ReviewCarryOver.isDateColumn(ReviewCarryOver.FIRST_REVIEW_COL + 2));
+        assertTrue(ReviewCarryOver.isDateColumn(ReviewCarryOver.FIRST_REVIEW_COL + 3));
+        assertFalse(ReviewCarryOver.isDateColumn(ReviewCarryOver.FIRST_REVIEW_COL));
+        assertNull(ReviewCarryOver.parseDate("3월 중"));
+        assertNull(ReviewCarryOver.parseDate("2025-13-01"));
+        assertNull(ReviewCarryOver.parseDate(null));
+    }
+
+    @Test
+    public void autoGeneratedRelatedMenuIsNotCarried() throws Exception {
+        ReviewCarryOver carry = ReviewCarryOver.load(workbook(
+                new Object[]{"/a", "AController", "list", null, "회원 > 목록", null, null},
+                new Object[]{"/b", "BController", "get", null, "수기 메뉴", null, null}),
+                row -> "/a".equals(row.get("API 경로")) ? "회원 > 목록" : "자동값");
+        assertNull(carry.find("/a", "AController", "list"));
+        assertEquals("수기 메뉴", carry.find("/b", "BController", "get")[1]);
+    }
+}
@@ -0,0 +1,193 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ShardPartial 저장/로드 왕복, k-way 병합 순서, 분할 검증 및 단일 실행 대비 병합 결과 동일성 테스트
+ */
+public class ShardPartialTest {
+
+    @TempDir
+    Path dir;
+
+    private static ApiExcelExporter.ApiInfo api(String path, String repoPath, int ordinal, CommitInfo... commits) {
+        ApiExcelExporter.ApiInfo info = new ApiExcelExporter.ApiInfo();
+        info.apiPath = path; info.methodName = "m" + ordinal; info.isDeprecated = "N";
+        info.controllerName = repoPath.substring(repoPath.lastIndexOf('/') + 1).replace(".java", "");
+        info.repoPath = repoPath; info.controllerComment = "컨트롤러 주석"; info.fullComment = null; info.descriptionTag = "";
+        info.ordinal = ordinal;
+        info.commits = commits;
+        return info;
+    }
+
+    private static ShardPartial partial(int index, int count, int totalFiles, ApiExcelExporter.ApiInfo... rows) {
+        ApiExcelExporter.SourceAnalysis a = new ApiExcelExporter.SourceAnalysis();
+        a.totalFiles = totalFiles;
+        List<ApiExcelExporter.ApiInfo> sorted = new ArrayList<>(Arrays.asList(rows));
+        sorted.sort(ShardPartial.ORDER);
+        a.apis.addAll(sorted);
+        Map<String, ApiExcelExporter.SourceAnalysis> analyses = new LinkedHashMap<>();
+        analyses.put("REPO", a);
+        return new ShardPartial("REPO", index, count, 1L, rows.length, 10L, analyses);
+    }
+
+    private static List<String> keys(List<ApiExcelExporter.ApiInfo> rows) {
+        return rows.stream().map(i -> i.apiPath + "|" + i.repoPath + "|" + i.ordinal).collect(Collectors.toList());
+    }
+
+    @Test
+    public void writeReadRoundTripsEveryField() throws IOException {
+        CommitInfo c1 = CommitInfo.of("2025-03-02", "홍길동", "회원 조회 추가");
+        CommitInfo[] history = {CommitInfo.NONE, CommitInfo.NONE, c1};
+        ShardPartial written = partial(2, 3, 7,
+                api("/app/b", "web/BController.java", 0, history),
+                api("/app/a", "web/AController.java", 1, history));
+        File file = dir.resolve(ShardPartial.fileName("REPO", 2, 3)).toFile();
+        written.write(file);
+
+        ShardPartial read = ShardPartial.read(file);
+        assertEquals("REPO", read.repoName);
+        assertEquals(2, read.shardIndex);
+        assertEquals(3, read.shardCount);
+        assertEquals(2, read.controllerCount);
+        assertEquals(10L, read.elapsedMs);
+        ApiExcelExporter.SourceAnalysis a = read.analyses.get("REPO");
+        assertEquals(7, a.totalFiles);
+        assertEquals(keys(written.analyses.get("REPO").apis), keys(a.apis));
+
+        ApiExcelExporter.ApiInfo first = a.apis.get(0);
+        assertEquals("AController", first.controllerName);
+        assertEquals("컨트롤러 주석", first.controllerComment);
+        assertNull(first.fullComment, "null과 빈 문자열 구분 보존");
+        assertEquals("", first.descriptionTag);
+        assertSame(CommitInfo.NONE, first.commits[0]);
+        assertEquals("2025-03-02", first.commits[2].dateText());
+        assertEquals("홍길동", first.commits[2].author);
+        assertSame(first.commits, a.apis.get(1).commits, "같은 커밋 배열은 행끼리 공유");
+    }
+
+    @Test
+    public void shardFilesMatchTheRepoNameExactly() {
+        assertTrue(ShardPartial.isShardOf(ShardPartial.fileName("api", 2, 12), "api"));
+        assertFalse(ShardPartial.isShardOf(ShardPartial.fileName("api_admin", 1, 2), "api"), "접두어만 같은 다른 레파지토리");
+        assertFalse(ShardPartial.isShardOf("shard_api_1of2.part.gz.tmp", "api"));
+        assertFalse(ShardPartial.isShardOf("shard_api_1of2.log", "api"));
+        assertFalse(ShardPartial.isShardOf("shard_api_0of2.part.gz", "api"));
+        assertTrue(ShardPartial.isShardOf(ShardPartial.fileName("api_admin", 1, 2), "api_admin"));
+    }
+
+    @Test
+    public void mergeRestoresSingleRunOrder() throws IOException {
+        List<ApiExcelExporter.ApiInfo> all = Arrays.asList(
+                api("/app/a", "web/XController.java", 0), api("/app/a", "web/AController.java", 3),
+                api("/app/a", "web/AController.java", 1), api("/app/c", "web/CController.java", 0),
+                api("/app/b", "web/BController.java", 0), api("/app/d", "web/XController.java", 1));
+        ShardPartial p1 = partial(1, 2, 4, all.get(0), all.get(3), all.get(5));
+        ShardPartial p2 = partial(2, 2, 5, all.get(1), all.get(2), all.get(4));
+
+        List<ApiExcelExporter.ApiInfo> expected = new ArrayList<>(all);
+        expected.sort(ShardPartial.ORDER);
+        // 입력 순서와 무관하게 분할 번호 기준으로 병합
+        Map<String, ApiExcelExporter.SourceAnalysis> merged = ShardPartial.merge(Arrays.asList(p2, p1));
+        assertEquals(keys(expected), keys(merged.get("REPO").apis));
+        assertEquals(9, merged.get("REPO").totalFiles);
+    }
+
+    @Test
+    public void mergeRejectsMissingDuplicateOrMismatchedShards() {
+        ShardPartial p1 = partial(1, 3, 1), p2 = partial(2, 3, 1), other = partial(3, 4, 1);
+        assertThrows(IOException.class, () -> ShardPartial.merge(Collections.emptyList()));
+        assertThrows(IOException.class, () -> ShardPartial.merge(Arrays.asList(p1, p2)), "3/3 누락");
+        assertThrows(IOException.class, () -> ShardPartial.merge(Arrays.asList(p1, p2, p2)), "2/3 중복");
+        assertThrows(IOException.class, () -> ShardPartial.merge(Arrays.asList(p1, p2, other)), "분할 수 불일치");
+    }
+
+    @Test
+    public void shardAssignmentIsStableAndExclusive() {
+        for (String rel : Arrays.asList("web/AController.java", "web\\BController.java", "a/b/c/OrderController.java")) {
+            int owners = 0;
+            for (int i = 1; i <= 4; i++) if (ShardPartial.owns(rel, i, 4)) owners++;
+            assertEquals(1, owners, rel);
+        }
+        assertEquals(ShardPartial.owns("web/AController.java", 1, 3), ShardPartial.owns("web\\AController.java", 1, 3));
+        assertArrayEquals(new int[]{3, 8}, ShardPartial.parseSpec(" 3/8 "));
+        assertThrows(IllegalArgumentException.class, () -> ShardPartial.parseSpec("0/2"));
+        assertThrows(IllegalArgumentException.class, () -> ShardPartial.parseSpec("3/2"));
+    }
+
+    /**
+     * 동일 소스를 단일 실행과 2분할(--shard 1/2, 2/2) + --merge로 각각 추출하여 엑셀 파일이 바이트 단위로 같은지 확인합니다.
+     * config.properties를 작업 디렉터리에서 읽고 설정이 정적 필드에 남으므로 실행마다 JVM을 따로 띄웁니다.
+     */
+    @Test
+    public void mergedWorkbookIsByteIdenticalToSingleRun() throws Exception {
+        Path src = dir.resolve("src/com/ex/web");
+        Files.createDirectories(src);
+        for (String name : Arrays.asList("Owner", "Pet", "Store", "Admin", "Order")) {
+            String base = name.toLowerCase();
+            Files.write(src.resolve(name + "Controller.java"), (
+                    "package com.ex.web;\n"
+                    + "/** " + name + " 관리 */\n"
+                    + "@RestController\n@RequestMapping(\"/" + base + "\")\n"
+                    + "public class " + name + "Controller {\n"
+                    + "    /** 목록 조회 */\n    @GetMapping(\"/list\") public Object list() { return null; }\n"
+                    + "    /** 상세 조회 */\n    @GetMapping(\"/{id}\") public Object get() { return null; }\n"
+                    + "    @Deprecated @PostMapping({\"/save\", \"/save.do\"}) public Object save() { return null; }\n"
+                    + "}\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        Path single = run("single");
+        Path sharded = dir.resolve("sharded");
+        run("sharded", "--shard", "1/2");
+        run("sharded", "--shard", "2/2");
+        run("sharded", "--merge");
+
+        byte[] expected = Files.readAllBytes(onlyWorkbook(single));
+        byte[] actual = Files.readAllBytes(onlyWorkbook(sharded.resolve("out")));
+        assertArrayEquals(expected, actual);
+    }
+
+    private Path run(String name, String... args) throws Exception {
+        Path work = dir.resolve(name);
+        Path config = work.resolve("config.properties");
+        if (!Files.exists(config)) {
+            Files.createDirectories(work);
+            String props = "REPO_NAME=E2E\n"
+                    + "ROOT_PATH=" + dir.resolve("src").toAbsolutePath().toString().replace('\\', '/') + "\n"
+                    + "OUTPUT_DIR=" + work.resolve("out").toAbsolutePath().toString().replace('\\', '/') + "\n"
+                    + "GIT_BIN_PATH=git\nWHATAP_ENABLED=N\nJENNIFER_ENABLED=N\nPREVIOUS_RESULT_PATH=\nMENU_JSON_PATH=\n";
+            Files.write(config, props.getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> command = new ArrayList<>(Arrays.asList(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), "ApiExcelExporter"));
+        command.addAll(Arrays.asList(args));
+        ProcessBuilder builder = new ProcessBuilder(command).directory(work.toFile()).redirectErrorStream(true)
+                .redirectOutput(work.resolve("run.out").toFile());
+        // 출력 파일명이 한글이므로 C 로캘 환경에서도 파일 경로를 UTF-8로 인코딩하도록 지정
+        builder.environment().put("LC_ALL", "C.UTF-8");
+        Process process = builder.start();
+        assertEquals(0, process.waitFor(), () -> {
+            try { return new String(Files.readAllBytes(work.resolve("run.out")), StandardCharsets.UTF_8); }
+            catch (IOException e) { return e.toString(); }
+        });
+        return work.resolve("out");
+    }
+
+    private static Path onlyWorkbook(Path outDir) throws IOException {
+        try (Stream<Path> files = Files.list(outDir)) {
+            List<Path> workbooks = files.filter(p -> p.getFileName().toString().endsWith(".xlsx")).collect(Collectors.toList());
+            assertEquals(1, workbooks.size(), workbooks::toString);
+            return workbooks.get(0);
+        }
+    }
+}
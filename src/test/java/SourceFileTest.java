@@ -0,0 +1,130 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SourceFile 문자셋 판별(isUtf8) / 디코딩(decode) / 분석별 대체 문자셋 설정(Options) 테스트
+ */
+public class SourceFileTest {
+
+    private static final String KOREAN = "/** 회원 목록 조회 */ class A {}";
+
+    private static boolean isUtf8(byte... bytes) {
+        return SourceFile.isUtf8(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private static SourceFile.Text decode(ByteBuffer buf) {
+        return SourceFile.decode(buf, SourceFile.Options.DEFAULT);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] b = new byte[values.length];
+        for (int i = 0; i < values.length; i++) b[i] = (byte) values[i];
+        return b;
+    }
+
+    @Test
+    public void acceptsAsciiAndWellFormedUtf8() {
+        assertTrue(isUtf8("class A {}".getBytes(StandardCharsets.US_ASCII)));
+        assertTrue(isUtf8(KOREAN.getBytes(StandardCharsets.UTF_8)));
+        assertTrue(isUtf8(bytes(0xF0, 0x9F, 0x98, 0x80))); // U+1F600
+        assertTrue(isUtf8());
+    }
+
+    @Test
+    public void rejectsMalformedUtf8() {
+        assertFalse(isUtf8(bytes(0xC0, 0xAF)), "과잉 길이 2바이트");
+        assertFalse(isUtf8(bytes(0xE0, 0x80, 0xAF)), "과잉 길이 3바이트");
+        assertFalse(isUtf8(bytes(0xED, 0xA0, 0x80)), "서러게이트");
+        assertFalse(isUtf8(bytes(0xF4, 0x90, 0x80, 0x80)), "U+10FFFF 초과");
+        assertFalse(isUtf8(bytes(0xEC, 0x95)), "잘린 시퀀스");
+        assertFalse(isUtf8(bytes(0x80)), "단독 연속 바이트");
+    }
+
+    @Test
+    public void rejectsMs949Korean() {
+        assertFalse(isUtf8(KOREAN.getBytes(Charset.forName("MS949"))));
+    }
+
+    @Test
+    public void checksOnlyTheGivenRange() {
+        byte[] b = bytes('a', 0xC0, 'b');
+        assertTrue(SourceFile.isUtf8(ByteBuffer.wrap(b), 2, 3));
+        assertFalse(SourceFile.isUtf8(ByteBuffer.wrap(b), 0, 3));
+    }
+
+    @Test
+    public void decodesUtf8WithAndWithoutBom() {
+        SourceFile.Text plain = decode(ByteBuffer.wrap(KOREAN.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(KOREAN, plain.content);
+        assertEquals("UTF-8", plain.charset);
+
+        byte[] body = KOREAN.getBytes(StandardCharsets.UTF_8);
+        byte[] withBom = new byte[body.length + 3];
+        withBom[0] = (byte) 0xEF; withBom[1] = (byte) 0xBB; withBom[2] = (byte) 0xBF;
+        System.arraycopy(body, 0, withBom, 3, body.length);
+        SourceFile.Text bom = decode(ByteBuffer.wrap(withBom));
+        assertEquals(KOREAN, bom.content);
+        assertEquals("UTF-8(BOM)", bom.charset);
+    }
+
+    @Test
+    public void decodesUtf16ByBom() {
+        byte[] le = ("\uFEFF" + KOREAN).getBytes(StandardCharsets.UTF_16LE);
+        SourceFile.Text text = decode(ByteBuffer.wrap(le));
+        assertEquals(KOREAN, text.content);
+        assertEquals("UTF-16LE(BOM)", text.charset);
+
+        byte[] be = ("\uFEFF" + KOREAN).getBytes(StandardCharsets.UTF_16BE);
+        text = decode(ByteBuffer.wrap(be));
+        assertEquals(KOREAN, text.content);
+        assertEquals("UTF-16BE(BOM)", text.charset);
+    }
+
+    @Test
+    public void fallsBackToMs949() {
+        SourceFile.Text text = decode(ByteBuffer.wrap(KOREAN.getBytes(Charset.forName("MS949"))));
+        assertEquals(KOREAN, text.content);
+        assertEquals("MS949", text.charset);
+    }
+
+    @Test
+    public void fallbackCharsetIsPerOptionsInstance() {
+        Properties latin = new Properties();
+        latin.setProperty("SOURCE_FALLBACK_CHARSET", "ISO-8859-1");
+        latin.setProperty("SOURCE_MMAP_KB", "8");
+        SourceFile.Options options = SourceFile.Options.from(latin);
+        assertEquals(8 * 1024L, options.mmapThreshold);
+
+        byte[] raw = KOREAN.getBytes(Charset.forName("MS949"));
+        assertEquals("ISO-8859-1", SourceFile.decode(ByteBuffer.wrap(raw), options).charset);
+        // 다른 설정의 분석이 같은 JVM에 있어도 기본 설정은 그대로
+        SourceFile.Text text = decode(ByteBuffer.wrap(raw));
+        assertEquals("MS949", text.charset);
+        assertEquals(KOREAN, text.content);
+        assertSame(SourceFile.Options.DEFAULT.fallbackCharset, SourceFile.Options.from(null).fallbackCharset);
+    }
+
+    @Test
+    public void decodesDirectBuffersLikeHeapBuffers() {
+        byte[] raw = KOREAN.getBytes(Charset.forName("MS949"));
+        ByteBuffer direct = ByteBuffer.allocateDirect(raw.length);
+        direct.put(raw).flip();
+        SourceFile.Text text = decode(direct);
+        assertEquals(KOREAN, text.content);
+        assertEquals(decode(ByteBuffer.wrap(raw)).sha, text.sha);
+        assertEquals(0, direct.position(), "판별 / 디코딩 후에도 버퍼 위치 유지");
+    }
+
+    @Test
+    public void shaMatchesGitHashObject() {
+        // printf 'hello\n' | git hash-object --stdin
+        SourceFile.Text text = decode(ByteBuffer.wrap("hello\n".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals("ce013625030ba8dba906f756967f9e9ca394464a", text.sha);
+    }
+}
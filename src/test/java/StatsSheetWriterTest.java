@@ -0,0 +1,97 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.PaneInformation;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * StatsSheetWriter가 직접 기록한 시트 XML이 POI로 정상적으로 열리는지 테스트
+ */
+public class StatsSheetWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void writtenWorkbookOpensInPoi() throws IOException {
+        File file = dir.resolve("stats.xlsx").toFile();
+        try (StatsSheetWriter writer = new StatsSheetWriter(file)) {
+            CellStyle bold = writer.workbook().createCellStyle();
+            Font font = writer.workbook().createFont();
+            font.setBold(true);
+            bold.setFont(font);
+
+            writer.beginSheet("통계", 1, 1, new int[]{40 * 256, 12 * 256});
+            writer.startRow(1);
+            writer.text("API 경로", bold);
+            writer.text("호출건수 <합계> & \"비율\"", bold);
+            writer.endRow();
+            writer.startRow(2);
+            writer.text("/app/owners/{id}", null);
+            writer.number(1_234_567_890_123L, null);
+            writer.endRow();
+            writer.startRow(3);
+            writer.skip(1);
+            writer.number(-5, null);
+            writer.endRow();
+
+            writer.beginSheet("두번째", 0, 0, null);
+            writer.startRow(1);
+            writer.number(0, null);
+            writer.endRow();
+        }
+
+        try (Workbook wb = new XSSFWorkbook(file)) {
+            assertEquals(2, wb.getNumberOfSheets());
+            Sheet sheet = wb.getSheetAt(0);
+            assertEquals("통계", sheet.getSheetName());
+            assertEquals("API 경로", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("호출건수 <합계> & \"비율\"", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertTrue(wb.getFontAt(sheet.getRow(0).getCell(0).getCellStyle().getFontIndex()).getBold());
+            assertEquals("/app/owners/{id}", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals(1_234_567_890_123d, sheet.getRow(1).getCell(1).getNumericCellValue());
+            assertNull(sheet.getRow(2).getCell(0));
+            assertEquals(-5d, sheet.getRow(2).getCell(1).getNumericCellValue());
+            assertEquals(40 * 256, sheet.getColumnWidth(0));
+
+            PaneInformation pane = sheet.getPaneInformation();
+            assertNotNull(pane);
+            assertTrue(pane.isFreezePane());
+            assertEquals(1, pane.getVerticalSplitPosition());
+            assertEquals(1, pane.getHorizontalSplitPosition());
+
+            assertEquals("두번째", wb.getSheetAt(1).getSheetName());
+            assertEquals(0d, wb.getSheetAt(1).getRow(0).getCell(0).getNumericCellValue());
+        } catch (org.apache.poi.openxml4j.exceptions.InvalidFormatException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void emptyWriterStillProducesAValidWorkbook() throws Exception {
+        File file = dir.resolve("empty.xlsx").toFile();
+        new StatsSheetWriter(file).close();
+        try (Workbook wb = new XSSFWorkbook(file)) {
+            assertEquals(1, wb.getNumberOfSheets());
+        }
+    }
+
+    @Test
+    public void partSheetNamesStayWithinExcelLimits() {
+        Set<String> used = new HashSet<>();
+        String base = "아주 긴 시트 이름이 엑셀 시트명 한도를 넘는 경우 테스트";
+        String first = StatsSheetWriter.partSheetName(base, "_2025", used);
+        String second = StatsSheetWriter.partSheetName(base, "_2025", used);
+        assertTrue(first.length() <= 31);
+        assertTrue(second.length() <= 31);
+        assertTrue(first.endsWith("_2025"));
+        assertNotEquals(first, second);
+    }
+}
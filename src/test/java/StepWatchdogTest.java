@@ -0,0 +1,136 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * StepWatchdog 제한 시간 초과 기록, Session별 제한 시간, 실행 중인 1차 작업의 재시도 생략, 실행 스레드 상한, 중단 가능한 정규식 탐색 테스트
+ */
+public class StepWatchdogTest {
+
+    /** session을 기록 대상으로 지정하여 감시 실행 : 제한 시간 초과면 null */
+    private static <T> T watched(StepWatchdog.Session session, StepWatchdog.Step step, String target, long deadlineMs, Callable<T> task) {
+        return session.within(() -> {
+            try { return StepWatchdog.call(step, target, deadlineMs, task); }
+            catch (StepWatchdog.StepTimeoutException e) { return null; }
+            catch (Exception e) { throw new IllegalStateException(e); }
+        });
+    }
+
+    /** 중단 요청을 무시하고 latch가 열릴 때까지 실행되는 작업 (JavaParser처럼 중단에 응답하지 않는 단계) */
+    private static String stubborn(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try { latch.await(); break; } catch (InterruptedException e) { interrupted = true; }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return "done";
+    }
+
+    private static boolean awaitRetryable(StepWatchdog.Session session, String target) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!session.retryable(target) && System.nanoTime() < until) Thread.sleep(10);
+        return session.retryable(target);
+    }
+
+    @Test
+    public void retryWaitsUntilTheAbandonedFirstAttemptEnds() throws Exception {
+        StepWatchdog.Session session = new StepWatchdog.Session();
+        CountDownLatch latch = new CountDownLatch(1);
+        assertNull(watched(session, StepWatchdog.Step.PARSE, "web/AController.java", 50, () -> stubborn(latch)));
+        assertFalse(session.retryable("web/AController.java"), "1차 작업이 아직 실행 중이면 재시도 생략");
+        String report = String.join("", session.report());
+        assertTrue(report.contains("[parse] web/AController.java"), report);
+        assertTrue(report.contains("[재시도 생략] web/AController.java"), report);
+
+        latch.countDown();
+        assertTrue(awaitRetryable(session, "web/AController.java"), "1차 작업이 끝나면 재시도 대상");
+        assertFalse(session.retryable("web/BController.java"), "초과하지 않은 대상");
+    }
+
+    @Test
+    public void cancelledRegexSearchStopsInsteadOfRunningToTheEnd() throws Exception {
+        StepWatchdog.Session session = new StepWatchdog.Session();
+        // 역추적이 입력 길이의 20제곱으로 늘어나는 정규식 : 중단 가능한 문자열이 아니면 사실상 끝나지 않음
+        String input = String.join("", Collections.nCopies(60, "a")) + "!";
+        Pattern catastrophic = Pattern.compile("(.*a){20}b");
+        assertNull(watched(session, StepWatchdog.Step.REGEX, "web/RegexController.java", 50,
+                () -> catastrophic.matcher(StepWatchdog.interruptible(input)).find()));
+        assertTrue(awaitRetryable(session, "web/RegexController.java"), "버려진 탐색이 중단 요청 직후 종료됨");
+    }
+
+    @Test
+    public void interruptibleTextChecksTheInterruptFlagOnAccess() {
+        CharSequence text = StepWatchdog.interruptible("@GetMapping(\"/list\")");
+        assertSame(text, StepWatchdog.interruptible(text));
+        assertEquals("/list", text.subSequence(13, 18).toString());
+        assertTrue(Pattern.compile("\"([^\"]+)\"").matcher(text).find());
+
+        Thread.currentThread().interrupt();
+        assertThrows(CancellationException.class, () -> Pattern.compile("list").matcher(text).find());
+        assertFalse(Thread.currentThread().isInterrupted(), "확인 후 중단 상태 해제");
+    }
+
+    @Test
+    public void saturatedPoolRunsOnTheCallerWithoutADeadline() {
+        StepWatchdog.Session session = new StepWatchdog.Session();
+        Thread caller = Thread.currentThread();
+        CountDownLatch latch = new CountDownLatch(1);
+        String result = null;
+        try {
+            // 버려진 작업으로 실행 스레드를 모두 점유 (앞선 테스트가 남긴 작업이 있으면 더 일찍 상한 도달)
+            for (int i = 0; i <= StepWatchdog.WORKER_LIMIT && result == null; i++) {
+                result = watched(session, StepWatchdog.Step.PARSE, "web/F" + i + "Controller.java", 20,
+                        () -> Thread.currentThread() == caller ? "caller" : stubborn(latch));
+            }
+        } finally {
+            latch.countDown();
+        }
+        assertEquals("caller", result, "상한 도달 후에는 호출 스레드에서 실행");
+        String report = String.join("", session.report());
+        assertTrue(report.contains("제한 시간 없이 실행 1건"), report);
+    }
+
+    @Test
+    public void deadlinesComeFromTheCurrentSessionAndReachNestedSteps() throws Exception {
+        java.util.Properties strict = new java.util.Properties();
+        strict.setProperty("WATCHDOG_PARSE_SEC", "1");
+        strict.setProperty("WATCHDOG_READ_SEC", "0");
+        StepWatchdog.Limits limits = StepWatchdog.Limits.from(strict);
+        assertEquals(1000, limits.millis(StepWatchdog.Step.PARSE));
+        assertEquals(0, limits.millis(StepWatchdog.Step.READ), "0이면 감시 안 함");
+        assertEquals(30_000, StepWatchdog.Limits.DEFAULT.millis(StepWatchdog.Step.PARSE));
+
+        StepWatchdog.Session session = new StepWatchdog.Session(limits);
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            // 감시 스레드 안의 중첩 단계도 같은 Session 제한 시간 적용
+            String nested = session.within(() -> {
+                try {
+                    return StepWatchdog.call(StepWatchdog.Step.GIT, "web/AController.java",
+                            () -> StepWatchdog.call(StepWatchdog.Step.PARSE, "web/AController.java", () -> stubborn(latch)));
+                } catch (StepWatchdog.StepTimeoutException e) {
+                    return e.getMessage();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertNotNull(nested);
+            String report = String.join("", session.report());
+            assertTrue(report.contains("[parse] web/AController.java"), report);
+            // 다른 Session(기본 제한 시간)에는 영향 없음
+            assertEquals("ok", new StepWatchdog.Session().within(() -> {
+                try { return StepWatchdog.call(StepWatchdog.Step.PARSE, "x", () -> "ok"); }
+                catch (Exception e) { throw new IllegalStateException(e); }
+            }));
+        } finally {
+            latch.countDown();
+        }
+    }
+}
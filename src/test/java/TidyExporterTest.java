@@ -0,0 +1,104 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * TidyExporter gzip CSV / JSON Lines 인코딩, 임시 파일 교체, 재현 가능한 출력 테스트
+ */
+public class TidyExporterTest {
+
+    @TempDir
+    Path dir;
+
+    private static String gunzip(File file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, long[]> stats() {
+        Map<String, long[]> stats = new LinkedHashMap<>();
+        stats.put("/app/owners/{id}", new long[]{3, 0, 3});
+        stats.put("/app/a,b \"q\"", new long[]{0, 7, 7});
+        stats.put("/app/none", new long[]{0, 0, 0});
+        return stats;
+    }
+
+    @Test
+    public void writesStatsAsQuotedCsvSkippingZeroSegments() throws IOException {
+        File file = dir.resolve("stats.csv.gz").toFile();
+        TidyExporter writer = TidyExporter.writeStats(file, TidyExporter.Format.CSV, Arrays.asList("01일", "02일"), Arrays.asList("2025-01", "2025-01"), stats());
+        assertEquals("api,segment,month,count\n"
+                + "/app/owners/{id},01일,2025-01,3\n"
+                + "\"/app/a,b \"\"q\"\"\",02일,2025-01,7\n", gunzip(file));
+        assertEquals(2, writer.rows());
+        assertEquals(writer.writtenBytes(), file.length());
+        assertFalse(new File(file.getPath() + ".part").exists());
+    }
+
+    @Test
+    public void writesJsonLinesWithEscapesAndNulls() throws IOException {
+        File file = dir.resolve("rows.jsonl.gz").toFile();
+        try (TidyExporter writer = new TidyExporter(file, TidyExporter.Format.JSONL, "name", "n", "memo")) {
+            writer.text("한글 \"따옴표\" \\ 줄\n바꿈\t😀").number(-42).text(null).endRow();
+            writer.text("short").number(Long.MIN_VALUE).endRow();
+        }
+        String[] lines = gunzip(file).split("\n");
+        assertEquals(2, lines.length);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode first = mapper.readTree(lines[0]), second = mapper.readTree(lines[1]);
+        assertEquals("한글 \"따옴표\" \\ 줄\n바꿈\t😀", first.get("name").asText());
+        assertEquals(-42, first.get("n").asLong());
+        assertTrue(first.get("memo").isNull());
+        assertEquals(Long.MIN_VALUE, second.get("n").asLong());
+        assertTrue(second.get("memo").isNull(), "빠진 열은 null로 채움");
+    }
+
+    @Test
+    public void valuesLargerThanTheBufferAreWrittenWhole() throws IOException {
+        char[] big = new char[700_000];
+        Arrays.fill(big, 'x');
+        String value = new String(big);
+        File file = dir.resolve("big.csv.gz").toFile();
+        try (TidyExporter writer = new TidyExporter(file, TidyExporter.Format.CSV, "a", "b")) {
+            writer.encoded(writer.encode(value)).text(value).endRow();
+        }
+        assertEquals("a,b\n" + value + "," + value + "\n", gunzip(file));
+    }
+
+    @Test
+    public void sameInputGivesIdenticalBytesWithZeroHeaderTime() throws Exception {
+        File a = dir.resolve("a.csv.gz").toFile(), b = dir.resolve("b.csv.gz").toFile();
+        TidyExporter.writeStats(a, TidyExporter.Format.CSV, Arrays.asList("01일", "02일"), Arrays.asList("2025-01", "2025-01"), stats());
+        Thread.sleep(1100);
+        TidyExporter.writeStats(b, TidyExporter.Format.CSV, Arrays.asList("01일", "02일"), Arrays.asList("2025-01", "2025-01"), stats());
+        byte[] bytes = Files.readAllBytes(a.toPath());
+        assertArrayEquals(bytes, Files.readAllBytes(b.toPath()));
+        assertArrayEquals(new byte[4], Arrays.copyOfRange(bytes, 4, 8), "gzip MTIME 0");
+    }
+
+    @Test
+    public void abortRemovesThePartFile() throws IOException {
+        File file = dir.resolve("aborted.csv.gz").toFile();
+        TidyExporter writer = new TidyExporter(file, TidyExporter.Format.CSV, "a");
+        writer.text("v").endRow();
+        writer.abort();
+        assertFalse(file.exists());
+        assertFalse(new File(file.getPath() + ".part").exists());
+    }
+}
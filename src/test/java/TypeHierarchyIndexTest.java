@@ -0,0 +1,122 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * TypeHierarchyIndex 상속 매핑 탐색과 오버라이드 시그니처 비교 테스트
+ */
+public class TypeHierarchyIndexTest {
+
+    private static final List<String> MAPPINGS = Arrays.asList("RequestMapping", "GetMapping", "PostMapping");
+
+    @TempDir
+    Path root;
+
+    private void write(String relPath, String source) throws IOException {
+        Path file = root.resolve(relPath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private TypeHierarchyIndex build() throws IOException {
+        return TypeHierarchyIndex.build(ApiExtractor.scan(root), MAPPINGS);
+    }
+
+    private static String signatureOf(String classSource) {
+        return TypeHierarchyIndex.signature(StaticJavaParser.parse(classSource).findFirst(MethodDeclaration.class).orElseThrow(IllegalStateException::new));
+    }
+
+    @Test
+    public void inheritsClassMappingAndMethodsFromInterfaceAndBaseClass() throws IOException {
+        write("api/OwnerApi.java", "package api; @RequestMapping(\"/owners\") public interface OwnerApi { @GetMapping(\"/{id}\") Object get(long id); }");
+        write("base/AbstractCrud.java", "package base; public abstract class AbstractCrud<T, ID> { @PostMapping(\"/save\") public Object save(T body) { return null; } @GetMapping(\"/list\") public Object list() { return null; } }");
+        write("web/OwnerController.java", "package web; import api.OwnerApi; import base.AbstractCrud; public class OwnerController extends AbstractCrud<Owner, Long> implements OwnerApi { public Object get(long id) { return null; } }");
+        TypeHierarchyIndex index = build();
+
+        TypeHierarchyIndex.ClassMapping cm = index.inheritedClassMapping("web.OwnerController");
+        assertNotNull(cm);
+        assertEquals("OwnerApi", cm.ownerClass);
+
+        Map<String, TypeHierarchyIndex.MappedMethod> inherited = index.inheritedMappings("web.OwnerController");
+        assertEquals(new LinkedHashSet<>(Arrays.asList("save(*)", "list()", "get(long)")), inherited.keySet(), "상위 클래스 → 인터페이스 순");
+        assertFalse(inherited.get("get(long)").declaration.getBody().isPresent(), "본문 제거 사본만 보관");
+        assertEquals("AbstractCrud", inherited.get("save(*)").ownerClass);
+    }
+
+    @Test
+    public void nearerSuperTypeWinsAndCyclesTerminate() throws IOException {
+        write("a/Base.java", "package a; public class Base { @GetMapping(\"/base\") public Object find() { return null; } }");
+        write("a/Middle.java", "package a; public class Middle extends Base { @GetMapping(\"/middle\") public Object find() { return null; } }");
+        write("a/Leaf.java", "package a; public class Leaf extends Middle {}");
+        write("a/Loop1.java", "package a; public class Loop1 extends Loop2 {}");
+        write("a/Loop2.java", "package a; public class Loop2 extends Loop1 {}");
+        TypeHierarchyIndex index = build();
+        assertEquals("Middle", index.inheritedMappings("a.Leaf").get("find()").ownerClass);
+        assertTrue(index.inheritedMappings("a.Loop1").isEmpty());
+        assertNull(index.inheritedClassMapping("a.Loop1"));
+        assertNull(index.inheritedClassMapping("a.Unknown"));
+    }
+
+    @Test
+    public void signaturesEraseGenericsAndKeepOverloadsApart() {
+        assertEquals("save(Owner,long)", signatureOf("class A { void save(com.x.Owner o, long id) {} }"));
+        assertEquals("save(List,String[])", signatureOf("class A { void save(List<String> l, String... more) {} }"));
+        assertEquals("save(*)", signatureOf("class A<T> { void save(T body) {} }"));
+        assertEquals("find(*,int[])", signatureOf("class A { <ID> void find(ID id, int[] ids) {} }"));
+    }
+
+    @Test
+    public void overrideMatchingTreatsTypeVariablesAsWildcards() {
+        assertTrue(TypeHierarchyIndex.overrides("save(Owner)", "save(*)"));
+        assertTrue(TypeHierarchyIndex.overrides("find(long)", "find(long)"));
+        assertFalse(TypeHierarchyIndex.overrides("find(String)", "find(long)"), "같은 개수의 다른 오버로드");
+        assertFalse(TypeHierarchyIndex.overrides("find(long,int)", "find(*)"));
+        assertFalse(TypeHierarchyIndex.overrides("finder(long)", "find(long)"));
+
+        Map<String, TypeHierarchyIndex.MappedMethod> inherited = new LinkedHashMap<>();
+        inherited.put("find(*)", null);
+        inherited.put("find(long)", new TypeHierarchyIndex.MappedMethod(null, "Exact"));
+        assertEquals("Exact", TypeHierarchyIndex.overridden(inherited, "find(long)").ownerClass, "완전 일치 우선");
+        assertNull(TypeHierarchyIndex.overridden(inherited, "other()"));
+    }
+
+    @Test
+    public void updateReplacesChangedTypesAndDropsDeletedOnes() throws IOException {
+        write("api/OwnerApi.java", "package api; @RequestMapping(\"/owners\") public interface OwnerApi { @GetMapping(\"/{id}\") Object get(long id); }");
+        write("api/PetApi.java", "package api; @RequestMapping(\"/pets\") public interface PetApi {}");
+        write("web/OwnerController.java", "package web; import api.OwnerApi; public class OwnerController implements OwnerApi {}");
+        TypeHierarchyIndex before = build();
+        assertEquals(3, before.size());
+
+        write("web/OwnerController.java", "package web; import api.PetApi; public class OwnerController implements PetApi {}");
+        Path owner = root.resolve("api/OwnerApi.java");
+        String ownerKey = SourceFile.ofPath(root, owner).cacheKey;
+        Files.delete(owner);
+        TypeHierarchyIndex after = before.update(Collections.singletonList(SourceFile.ofPath(root, root.resolve("web/OwnerController.java"))),
+                Collections.singletonList(ownerKey));
+
+        assertEquals(2, after.size());
+        assertEquals("PetApi", after.inheritedClassMapping("web.OwnerController").ownerClass);
+        assertTrue(after.inheritedMappings("web.OwnerController").isEmpty());
+        // 기존 인덱스는 그대로 유지
+        assertEquals("OwnerApi", before.inheritedClassMapping("web.OwnerController").ownerClass);
+    }
+
+    @Test
+    public void parsedTypesStayInTheEngineContext() throws IOException {
+        write("a/Base.java", "package a; public class Base { @GetMapping(\"/base\") public Object find() { return null; } }");
+        ApiExtractor.Context first = new ApiExtractor.Context(), second = new ApiExtractor.Context();
+        TypeHierarchyIndex index = TypeHierarchyIndex.build(ApiExtractor.scan(root), MAPPINGS, first.types);
+        assertEquals(1, index.size());
+        assertEquals(1, first.types.size());
+        assertEquals(0, second.types.size(), "다른 엔진의 컨텍스트와 공유하지 않음");
+    }
+}